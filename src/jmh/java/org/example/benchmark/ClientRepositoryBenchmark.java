@@ -0,0 +1,97 @@
+package org.example.benchmark;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции ClientRepository на базе из 1k, 100k и 1M клиентов. Режим SampleTime
+ * выводит процентили времени выполнения, Throughput — число операций в миллисекунду.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ClientRepositoryBenchmark {
+
+    @Benchmark
+    public Client findById(HospitalDatabase database) {
+        return database.clientRepository().findById(database.clientId(database.randomClientIndex()));
+    }
+
+    @Benchmark
+    public List<Client> findAll(HospitalDatabase database) {
+        return database.clientRepository().findAll();
+    }
+
+    @Benchmark
+    public Client save(HospitalDatabase database) {
+        return database.clientRepository().save(newClient(database));
+    }
+
+    /**
+     * Обновляет имя клиента, сохраняя его болезни и врача, — как PUT /clients.
+     */
+    @Benchmark
+    public Client update(HospitalDatabase database) {
+        int index = database.randomClientIndex();
+        Set<Sick> sicks = new HashSet<>();
+        for (int sickId : database.clientSickIds(index)) {
+            Sick sick = new Sick();
+            sick.setId(sickId);
+            sicks.add(sick);
+        }
+        Client client = new Client(database.clientId(index), "Updated", HospitalDatabase.SEEDED, 40, null, sicks, 0);
+        return database.clientRepository().update(client);
+    }
+
+    @Benchmark
+    public boolean delete(HospitalDatabase database, CreatedClient created) {
+        return database.clientRepository().delete(created.id);
+    }
+
+    /**
+     * Клиент, созданный перед каждым вызовом бенчмарка удаления.
+     */
+    @State(Scope.Thread)
+    public static class CreatedClient {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void create(HospitalDatabase database) {
+            id = database.clientRepository().save(newClient(database)).getId();
+        }
+    }
+
+    private static Client newClient(HospitalDatabase database) {
+        Client client = new Client("Created", HospitalDatabase.CREATED, 30);
+        Doctor doctor = new Doctor();
+        doctor.setId(database.randomDoctorId());
+        client.setDoctor(doctor);
+        Set<Sick> sicks = new HashSet<>();
+        for (int i = 0; i < HospitalDatabase.SICKS_PER_CLIENT; i++) {
+            Sick sick = new Sick();
+            sick.setId(database.randomSickId());
+            sicks.add(sick);
+        }
+        client.setSicks(sicks);
+        return client;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.benchmark;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Граф сущностей для бенчмарков: врач с заданным числом клиентов,
+ * у каждого из которых несколько болезней из общего справочника.
+ * Соответствует тому, что возвращает DoctorRepository после загрузки клиентов и их болезней.
+ */
+final class DoctorGraph {
+
+    static final int SICKS = 50;
+    static final int SICKS_PER_CLIENT = 3;
+
+    private DoctorGraph() {
+    }
+
+    /**
+     * Построить врача с клиентами и болезнями.
+     *
+     * @param clients количество клиентов врача.
+     * @return врач с заполненным списком клиентов.
+     */
+    static Doctor doctor(int clients) {
+        List<Sick> sicks = new ArrayList<>(SICKS);
+        for (int i = 0; i < SICKS; i++) {
+            Sick sick = new Sick("Sick" + i, "Stage" + (i % 4));
+            sick.setId(i + 1);
+            sick.setVersion(1);
+            sicks.add(sick);
+        }
+        Doctor doctor = new Doctor("Gregory", "House", 52, "Diagnostician");
+        doctor.setId(1);
+        doctor.setVersion(1);
+        List<Client> doctorClients = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Set<Sick> clientSicks = new HashSet<>();
+            for (int s = 0; s < SICKS_PER_CLIENT; s++) {
+                clientSicks.add(sicks.get((i + s) % SICKS));
+            }
+            doctorClients.add(new Client(i + 1, "Client" + i, "LastName" + i, 20 + i % 60, doctor, clientSicks, 1));
+        }
+        doctor.setClients(doctorClients);
+        return doctor;
+    }
+}
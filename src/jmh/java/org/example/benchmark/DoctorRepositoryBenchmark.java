@@ -0,0 +1,77 @@
+package org.example.benchmark;
+
+import org.example.entity.Doctor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции DoctorRepository на базе из 1k, 100k и 1M клиентов (по 100 клиентов на врача).
+ * Поиск загружает врачей вместе с клиентами и их болезнями, поэтому время растет вместе с client_sick.
+ * Режим SampleTime выводит процентили времени выполнения, Throughput — число операций в миллисекунду.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DoctorRepositoryBenchmark {
+
+    @Benchmark
+    public Doctor findById(HospitalDatabase database) {
+        return database.doctorRepository().findById(database.randomDoctorId());
+    }
+
+    @Benchmark
+    public List<Doctor> findAll(HospitalDatabase database) {
+        return database.doctorRepository().findAll();
+    }
+
+    @Benchmark
+    public Doctor save(HospitalDatabase database) {
+        return database.doctorRepository().save(newDoctor());
+    }
+
+    /**
+     * Обновляет данные врача — как PUT /doctors; клиенты врача не меняются.
+     */
+    @Benchmark
+    public Doctor update(HospitalDatabase database) {
+        Doctor doctor = new Doctor("Updated", HospitalDatabase.SEEDED, 45, "Therapist");
+        doctor.setId(database.randomDoctorId());
+        return database.doctorRepository().update(doctor);
+    }
+
+    @Benchmark
+    public boolean delete(HospitalDatabase database, CreatedDoctor created) {
+        return database.doctorRepository().delete(created.id);
+    }
+
+    /**
+     * Врач без клиентов, созданный перед каждым вызовом бенчмарка удаления.
+     */
+    @State(Scope.Thread)
+    public static class CreatedDoctor {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void create(HospitalDatabase database) {
+            id = database.doctorRepository().save(newDoctor()).getId();
+        }
+    }
+
+    private static Doctor newDoctor() {
+        return new Doctor("Created", HospitalDatabase.CREATED, 40, "Surgeon");
+    }
+}
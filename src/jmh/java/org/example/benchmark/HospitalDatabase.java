@@ -0,0 +1,204 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.repository.ClientRepository;
+import org.example.repository.DoctorRepository;
+import org.example.repository.SickRepository;
+import org.example.repository.TestContainers;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * База данных для бенчмарков репозиториев.
+ *
+ * <p>PostgreSQL запускается так же, как в тестах репозиториев ({@link TestContainers}),
+ * схему по сущностям создает persistence unit "test-persistence-unit". Затем база
+ * заполняется запросами {@code generate_series}: {@link #clients} клиентов, по одному врачу
+ * на {@link #CLIENTS_PER_DOCTOR} клиентов, {@link #SICKS} болезней и по
+ * {@link #SICKS_PER_CLIENT} болезни у каждого клиента.</p>
+ *
+ * <p>Строки, созданные бенчмарками сохранения, удаляются после каждой итерации,
+ * поэтому объем данных в течение всего прогона не меняется.</p>
+ */
+@State(Scope.Benchmark)
+public class HospitalDatabase {
+
+    static final String SEEDED = "Bench";
+    static final String CREATED = "BenchCreated";
+    static final int CLIENTS_PER_DOCTOR = 100;
+    static final int SICKS = 1000;
+    static final int SICKS_PER_CLIENT = 3;
+    private static final int SAMPLE = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int clients;
+
+    private EntityManagerFactory entityManagerFactory;
+    private ClientRepository clientRepository;
+    private DoctorRepository doctorRepository;
+    private SickRepository sickRepository;
+    private int[] clientIds;
+    private int[][] clientSickIds;
+    private int[] doctorIds;
+    private int[] sickIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        TestContainers.getContainer();
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        seed();
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        doctorRepository = new DoctorRepository(entityManagerFactory);
+        sickRepository = new SickRepository(entityManagerFactory);
+    }
+
+    /**
+     * Удаляет строки, созданные бенчмарками за итерацию, и очищает кэш второго уровня,
+     * чтобы он не ссылался на удаленные строки.
+     */
+    @TearDown(Level.Iteration)
+    public void deleteCreatedRows() throws SQLException {
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM client_sick WHERE client_id IN "
+                    + "(SELECT client_id FROM client WHERE last_name = '" + CREATED + "')");
+            statement.executeUpdate("DELETE FROM client WHERE last_name = '" + CREATED + "'");
+            statement.executeUpdate("DELETE FROM doctor WHERE last_name = '" + CREATED + "'");
+            statement.executeUpdate("DELETE FROM sick WHERE stage_sick = '" + CREATED + "'");
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    public ClientRepository clientRepository() {
+        return clientRepository;
+    }
+
+    public DoctorRepository doctorRepository() {
+        return doctorRepository;
+    }
+
+    public SickRepository sickRepository() {
+        return sickRepository;
+    }
+
+    /**
+     * @return индекс случайного клиента в выборке заполненных строк.
+     */
+    public int randomClientIndex() {
+        return ThreadLocalRandom.current().nextInt(clientIds.length);
+    }
+
+    public int clientId(int index) {
+        return clientIds[index];
+    }
+
+    public int[] clientSickIds(int index) {
+        return clientSickIds[index];
+    }
+
+    public int randomDoctorId() {
+        return doctorIds[ThreadLocalRandom.current().nextInt(doctorIds.length)];
+    }
+
+    public int randomSickId() {
+        return sickIds[ThreadLocalRandom.current().nextInt(sickIds.length)];
+    }
+
+    private void seed() throws SQLException {
+        int doctors = Math.max(1, clients / CLIENTS_PER_DOCTOR);
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO doctor (doctor_id, first_name, last_name, age, specification, version) "
+                    + "SELECT nextval('doctor_doctor_id_seq'), 'Doctor' || g, '" + SEEDED + "', 30 + g % 35, 'Therapist', 0 "
+                    + "FROM generate_series(1, " + doctors + ") g");
+            statement.executeUpdate("INSERT INTO sick (sick_id, sick_name, stage_sick, version) "
+                    + "SELECT nextval('sick_sick_id_seq'), 'Sick' || g, '" + SEEDED + "', 0 "
+                    + "FROM generate_series(1, " + SICKS + ") g");
+            statement.executeUpdate("INSERT INTO client (client_id, first_name, last_name, age, doctor_id, version) "
+                    + "SELECT nextval('client_client_id_seq'), 'Client' || g, '" + SEEDED + "', 18 + g % 70, "
+                    + "d.ids[1 + g % d.n], 0 "
+                    + "FROM generate_series(1, " + clients + ") g, "
+                    + "(SELECT array_agg(doctor_id ORDER BY doctor_id) ids, count(*)::int n FROM doctor "
+                    + "WHERE last_name = '" + SEEDED + "') d");
+            statement.executeUpdate("INSERT INTO client_sick (client_id, sick_id) "
+                    + "SELECT c.client_id, s.ids[1 + (c.rn + k) % s.n] "
+                    + "FROM (SELECT client_id, row_number() OVER (ORDER BY client_id)::int rn FROM client "
+                    + "WHERE last_name = '" + SEEDED + "') c, "
+                    + "(SELECT array_agg(sick_id ORDER BY sick_id) ids, count(*)::int n FROM sick "
+                    + "WHERE stage_sick = '" + SEEDED + "') s, "
+                    + "generate_series(0, " + (SICKS_PER_CLIENT - 1) + ") k");
+            statement.execute("ANALYZE");
+
+            doctorIds = ids(statement, "SELECT doctor_id FROM doctor WHERE last_name = '" + SEEDED + "'");
+            sickIds = ids(statement, "SELECT sick_id FROM sick WHERE stage_sick = '" + SEEDED + "'");
+            sampleClients(connection);
+        }
+    }
+
+    /**
+     * Выбирает случайных клиентов вместе с идентификаторами их болезней: по ним бенчмарки
+     * ищут и обновляют клиентов, не меняя связей с болезнями.
+     */
+    private void sampleClients(Connection connection) throws SQLException {
+        List<int[]> sicks = new ArrayList<>(SAMPLE);
+        List<Integer> ids = new ArrayList<>(SAMPLE);
+        double percent = Math.min(100.0, 200.0 * SAMPLE / clients);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT c.client_id, "
+                + "array_agg(cs.sick_id ORDER BY cs.sick_id) "
+                + "FROM (SELECT client_id FROM client TABLESAMPLE BERNOULLI (" + percent + ") "
+                + "WHERE last_name = ? LIMIT ?) c JOIN client_sick cs ON cs.client_id = c.client_id "
+                + "GROUP BY c.client_id")) {
+            statement.setString(1, SEEDED);
+            statement.setInt(2, SAMPLE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt(1));
+                    Array array = resultSet.getArray(2);
+                    Integer[] values = (Integer[]) array.getArray();
+                    int[] sickIdsOfClient = new int[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        sickIdsOfClient[i] = values[i];
+                    }
+                    sicks.add(sickIdsOfClient);
+                }
+            }
+        }
+        clientIds = ids.stream().mapToInt(Integer::intValue).toArray();
+        clientSickIds = sicks.toArray(new int[0][]);
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"), System.getProperty("jakarta.persistence.jdbc.password"));
+    }
+
+    private static int[] ids(Statement statement, String query) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
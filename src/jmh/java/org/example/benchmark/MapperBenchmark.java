@@ -0,0 +1,105 @@
+package org.example.benchmark;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.service.dto.ClientDTO;
+import org.example.service.dto.DoctorDTO;
+import org.example.service.dto.SickDTO;
+import org.example.service.mapper.ClientMapper;
+import org.example.service.mapper.DoctorMapper;
+import org.example.service.mapper.SickMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность преобразования сущностей в DTO так, как это делают сервисы:
+ * врач вместе со списком клиентов, список клиентов с болезнями и болезни.
+ * Объем выделяемой памяти на операцию выводит профилировщик {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int clients;
+
+    private Doctor doctor;
+    private List<Client> doctorClients;
+    private List<ClientDTO> clientDTOS;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        doctor = DoctorGraph.doctor(clients);
+        doctorClients = doctor.getClients();
+        clientDTOS = clientsToDto();
+    }
+
+    /**
+     * Врач с клиентами — как в DoctorService.findById.
+     */
+    @Benchmark
+    public DoctorDTO doctorToDto() {
+        DoctorDTO doctorDTO = DoctorMapper.INSTANCE.toDoctorDTO(doctor);
+        doctorDTO.setClients(doctor.getClients());
+        return doctorDTO;
+    }
+
+    /**
+     * Все клиенты врача с болезнями — как в ClientService.findPage.
+     */
+    @Benchmark
+    public List<ClientDTO> clientsToDto() {
+        List<ClientDTO> clientDTOS = new ArrayList<>(doctorClients.size());
+        for (Client client : doctorClients) {
+            ClientDTO clientDTO = ClientMapper.INSTANCE.clientToClientDTO(client);
+            clientDTO.setSicks(client.getSicks());
+            clientDTOS.add(clientDTO);
+        }
+        return clientDTOS;
+    }
+
+    /**
+     * Обратное преобразование клиентов — как при пакетном создании.
+     */
+    @Benchmark
+    public List<Client> clientDtosToEntities() {
+        List<Client> result = new ArrayList<>(clientDTOS.size());
+        for (ClientDTO clientDTO : clientDTOS) {
+            result.add(ClientMapper.INSTANCE.clientDTOToClient(clientDTO));
+        }
+        return result;
+    }
+
+    /**
+     * Болезни всех клиентов врача.
+     */
+    @Benchmark
+    public List<SickDTO> sicksToDto() {
+        List<SickDTO> sickDTOS = new ArrayList<>(doctorClients.size() * DoctorGraph.SICKS_PER_CLIENT);
+        for (Client client : doctorClients) {
+            for (Sick sick : client.getSicks()) {
+                sickDTOS.add(SickMapper.INSTANCE.sickToSickDTO(sick));
+            }
+        }
+        return sickDTOS;
+    }
+}
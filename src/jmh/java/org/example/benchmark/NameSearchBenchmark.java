@@ -0,0 +1,143 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import liquibase.integration.spring.SpringLiquibase;
+import org.example.repository.NameSearchRepository;
+import org.example.repository.TestContainers;
+import org.example.service.dto.NameMatchDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск клиентов по имени и фамилии (GET /clients/search) на базе из 100k и 1M клиентов.
+ *
+ * <p>Имена и фамилии составляются из 20 слогов, поэтому в словаре около 40 тысяч фамилий,
+ * а у пяти первых букв — сотни совпадающих фамилий. Слогов мало, и триграммы у фамилий общие
+ * гораздо чаще, чем у настоящих, так что нечеткий поиск здесь тяжелее, чем на реальных данных.
+ * Словарь имен и индексы создаются changeSet'ами v.1.2, как при запуске приложения.
+ * Запросы берутся из выборки существующих фамилий: целиком, первые пять букв и с пропущенной буквой.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NameSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Benchmark
+    public List<NameMatchDTO> searchByLastName(NameDatabase database) {
+        return database.repository.searchClients(database.randomLastName(), null, LIMIT);
+    }
+
+    @Benchmark
+    public List<NameMatchDTO> searchByPrefix(NameDatabase database) {
+        return database.repository.searchClients(database.randomLastName().substring(0, 5), null, LIMIT);
+    }
+
+    @Benchmark
+    public List<NameMatchDTO> searchMisspelled(NameDatabase database) {
+        String lastName = database.randomLastName();
+        int skipped = 1 + ThreadLocalRandom.current().nextInt(lastName.length() - 2);
+        return database.repository.searchClients(
+                lastName.substring(0, skipped) + lastName.substring(skipped + 1), null, LIMIT);
+    }
+
+    /**
+     * База клиентов со слоговыми именами, словарем имен и индексами поиска.
+     */
+    @State(Scope.Benchmark)
+    public static class NameDatabase {
+
+        private static final String SYLLABLES = "ARRAY['ka','ra','mi','lo','se','na','vo','tu','pe','zi',"
+                + "'dra','sha','ko','le','bo','gri','stan','mar','vel','dor']";
+        private static final String SUFFIXES = "ARRAY['ov','ova','enko','in','sky']";
+        private static final String ENDINGS = "ARRAY['','a','ii','ei']";
+        private static final int SAMPLE = 1024;
+
+        @Param({"100000", "1000000"})
+        public int clients;
+
+        private EntityManagerFactory entityManagerFactory;
+        private NameSearchRepository repository;
+        private String[] lastNames;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            TestContainers.getContainer();
+            entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    System.getProperty("jakarta.persistence.jdbc.url"),
+                    System.getProperty("jakarta.persistence.jdbc.user"),
+                    System.getProperty("jakarta.persistence.jdbc.password"));
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setseed(0.19)");
+                statement.executeUpdate("INSERT INTO client (client_id, first_name, last_name, age, version) "
+                        + "SELECT nextval('client_client_id_seq'), "
+                        + "initcap(s[1 + floor(random() * 20)::int] || s[1 + floor(random() * 20)::int] "
+                        + "|| e[1 + floor(random() * 4)::int]), "
+                        + "initcap(s[1 + floor(random() * 20)::int] || s[1 + floor(random() * 20)::int] "
+                        + "|| s[1 + floor(random() * 20)::int] || x[1 + floor(random() * 5)::int]), "
+                        + "18 + g % 70, 0 "
+                        + "FROM generate_series(1, " + clients + ") g, "
+                        + "(SELECT " + SYLLABLES + " s, " + SUFFIXES + " x, " + ENDINGS + " e) a");
+                migrate(dataSource);
+                statement.execute("ANALYZE");
+                List<String> sample = new ArrayList<>(SAMPLE);
+                try (ResultSet resultSet = statement.executeQuery("SELECT last_name FROM client "
+                        + "TABLESAMPLE BERNOULLI (" + Math.min(100.0, 200.0 * SAMPLE / clients) + ") LIMIT " + SAMPLE)) {
+                    while (resultSet.next()) {
+                        sample.add(resultSet.getString(1));
+                    }
+                }
+                lastNames = sample.toArray(new String[0]);
+            }
+            repository = new NameSearchRepository(entityManagerFactory);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            entityManagerFactory.close();
+        }
+
+        String randomLastName() {
+            return lastNames[ThreadLocalRandom.current().nextInt(lastNames.length)];
+        }
+
+        private static void migrate(DriverManagerDataSource dataSource) {
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(dataSource);
+            liquibase.setResourceLoader(new DefaultResourceLoader());
+            liquibase.setChangeLog("classpath:db/changelog/v.1.2.hospital/v.1.2.accumulate-changelog.xml");
+            try {
+                liquibase.afterPropertiesSet();
+            } catch (Exception e) {
+                throw new IllegalStateException("Не удалось создать словарь имен и индексы", e);
+            }
+        }
+    }
+}
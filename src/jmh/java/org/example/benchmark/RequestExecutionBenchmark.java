@@ -0,0 +1,145 @@
+package org.example.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.config.AsyncConfig;
+import org.example.repository.ClientRepository;
+import org.example.service.mapper.ClientMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный тест режимов выполнения обработчиков запросов ({@code web.async.mode}).
+ *
+ * <p>Пул из {@link #workerThreads} потоков заменяет потоки Tomcat: поток пула принимает запрос
+ * и передает обработчик исполнителю из {@link AsyncConfig}, как Spring MVC поступает
+ * с {@link java.util.concurrent.Callable}. В режиме sync обработчик выполняется в потоке пула,
+ * в режиме virtual поток пула освобождается сразу. Обработчик загружает клиента через
+ * ClientRepository на пуле HikariCP из {@link #poolSize} соединений и преобразует его в DTO;
+ * {@link #remoteMillis} добавляет ожидание вне базы данных, например вызов внешнего сервиса.</p>
+ *
+ * <p>Одна операция — ответ на один из {@link #REQUESTS} одновременно поступивших запросов.
+ * Режим virtual требует JDK 21 или новее.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RequestExecutionBenchmark {
+
+    private static final int REQUESTS = 1000;
+
+    @Param({"sync", "virtual"})
+    public String mode;
+
+    @Param("32")
+    public int workerThreads;
+
+    @Param("10")
+    public int poolSize;
+
+    @Param({"0", "5"})
+    public int remoteMillis;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private ClientRepository clientRepository;
+    private ExecutorService workers;
+    private AsyncTaskExecutor requestExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp(HospitalDatabase database) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(System.getProperty("jakarta.persistence.jdbc.url"));
+        config.setUsername(System.getProperty("jakarta.persistence.jdbc.user"));
+        config.setPassword(System.getProperty("jakarta.persistence.jdbc.password"));
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(60_000);
+        dataSource = new HikariDataSource(config);
+        // Тестовый persistence unit передает учетные данные в каждый вызов getConnection,
+        // а HikariCP их не принимает: пул уже открывает соединения с ними.
+        DataSource pooled = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit",
+                Map.of(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, pooled));
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        workers = Executors.newFixedThreadPool(workerThreads);
+        Properties properties = new Properties();
+        properties.setProperty("web.async.mode", mode);
+        requestExecutor = new AsyncConfig(properties).requestExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workers.shutdownNow();
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public Object[] concurrentRequests(HospitalDatabase database) throws InterruptedException {
+        Object[] responses = new Object[REQUESTS];
+        CountDownLatch completed = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            int id = database.clientId(database.randomClientIndex());
+            workers.execute(() -> requestExecutor.execute(() -> {
+                try {
+                    responses[request] = handle(id);
+                } finally {
+                    completed.countDown();
+                }
+            }));
+        }
+        completed.await();
+        return responses;
+    }
+
+    private Object handle(int id) {
+        Object dto = ClientMapper.INSTANCE.clientToClientDTO(clientRepository.findById(id));
+        if (remoteMillis > 0) {
+            try {
+                Thread.sleep(remoteMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return dto;
+    }
+}
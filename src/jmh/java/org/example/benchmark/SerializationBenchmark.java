@@ -0,0 +1,78 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.service.dto.ClientDTO;
+import org.example.service.dto.DoctorDTO;
+import org.example.service.mapper.ClientMapper;
+import org.example.service.mapper.DoctorMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность сериализации ответов в JSON. ObjectMapper настраивается так же,
+ * как конвертер MappingJackson2HttpMessageConverter, который Spring MVC регистрирует по умолчанию.
+ * Объем выделяемой памяти на операцию выводит профилировщик {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int clients;
+
+    private ObjectWriter writer;
+    private DoctorDTO doctorDTO;
+    private List<ClientDTO> clientDTOS;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        Doctor doctor = DoctorGraph.doctor(clients);
+        doctorDTO = DoctorMapper.INSTANCE.toDoctorDTO(doctor);
+        doctorDTO.setClients(doctor.getClients());
+        clientDTOS = new ArrayList<>(clients);
+        for (Client client : doctor.getClients()) {
+            ClientDTO clientDTO = ClientMapper.INSTANCE.clientToClientDTO(client);
+            clientDTO.setSicks(client.getSicks());
+            clientDTOS.add(clientDTO);
+        }
+    }
+
+    /**
+     * Врач со всеми клиентами и их болезнями — ответ GET /doctors/{id}.
+     */
+    @Benchmark
+    public byte[] doctor() throws JsonProcessingException {
+        return writer.writeValueAsBytes(doctorDTO);
+    }
+
+    /**
+     * Список клиентов с болезнями — ответ GET /clients.
+     */
+    @Benchmark
+    public byte[] clients() throws JsonProcessingException {
+        return writer.writeValueAsBytes(clientDTOS);
+    }
+}
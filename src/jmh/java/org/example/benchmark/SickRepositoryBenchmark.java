@@ -0,0 +1,77 @@
+package org.example.benchmark;
+
+import org.example.entity.Sick;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции SickRepository на базе из 1k, 100k и 1M клиентов (1000 болезней, по 3 болезни у клиента).
+ * Поиск загружает болезни вместе с клиентами, поэтому время растет вместе с client_sick.
+ * Режим SampleTime выводит процентили времени выполнения, Throughput — число операций в миллисекунду.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SickRepositoryBenchmark {
+
+    @Benchmark
+    public Sick findById(HospitalDatabase database) {
+        return database.sickRepository().findById(database.randomSickId());
+    }
+
+    @Benchmark
+    public List<Sick> findAll(HospitalDatabase database) {
+        return database.sickRepository().findAll();
+    }
+
+    @Benchmark
+    public Sick save(HospitalDatabase database) {
+        return database.sickRepository().save(newSick());
+    }
+
+    /**
+     * Обновляет болезнь — как PUT /sicks; клиенты болезни не меняются.
+     */
+    @Benchmark
+    public Sick update(HospitalDatabase database) {
+        Sick sick = new Sick("Updated", HospitalDatabase.SEEDED);
+        sick.setId(database.randomSickId());
+        return database.sickRepository().update(sick);
+    }
+
+    @Benchmark
+    public boolean delete(HospitalDatabase database, CreatedSick created) {
+        return database.sickRepository().delete(created.id);
+    }
+
+    /**
+     * Болезнь без клиентов, созданная перед каждым вызовом бенчмарка удаления.
+     */
+    @State(Scope.Thread)
+    public static class CreatedSick {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void create(HospitalDatabase database) {
+            id = database.sickRepository().save(newSick()).getId();
+        }
+    }
+
+    private static Sick newSick() {
+        return new Sick("Created", HospitalDatabase.CREATED);
+    }
+}
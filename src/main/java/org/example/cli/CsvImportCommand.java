@@ -0,0 +1,113 @@
+package org.example.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.CsvImportRepository;
+import org.example.repository.copy.CsvFormatException;
+import org.example.repository.copy.CsvLayout;
+import org.example.service.dto.ImportErrorDTO;
+import org.example.service.dto.ImportResultDTO;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Импорт CSV-файлов из командной строки без запуска веб-приложения.
+ *
+ * <p>Аргументы: {@code --doctors <файл> --sicks <файл> --clients <файл> --links <файл>}, любой
+ * из файлов может отсутствовать. Параметры подключения берутся из application.yaml и могут быть
+ * переопределены системными свойствами {@code database.url}, {@code database.username}
+ * и {@code database.password}. Результат импорта выводится в формате JSON.</p>
+ *
+ * <p>Код завершения: 0 — все строки импортированы, 2 — часть строк отклонена, 1 — ошибка,
+ * изменения не сохранены.</p>
+ *
+ * <p>Кэши запущенного приложения команда не очищает: импортированные данные появятся
+ * в ответах после истечения времени жизни записей кэша ({@code cache.entity.ttl-seconds}).</p>
+ */
+@Slf4j
+public final class CsvImportCommand {
+
+    private CsvImportCommand() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Map<CsvLayout, FileSystemResource> files = new EnumMap<>(CsvLayout.class);
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                return usage("Некорректный аргумент: " + args[i]);
+            }
+            CsvLayout layout;
+            try {
+                layout = CsvLayout.fromFileName(args[i].substring(2));
+            } catch (IllegalArgumentException e) {
+                return usage(e.getMessage());
+            }
+            Path path = Path.of(args[i + 1]);
+            if (!Files.isReadable(path)) {
+                return usage("Файл не найден: " + path);
+            }
+            files.put(layout, new FileSystemResource(path));
+        }
+        if (files.isEmpty()) {
+            return usage("Не указан ни один файл");
+        }
+
+        Properties properties = loadProperties();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(properties.getProperty("database.url"),
+                properties.getProperty("database.username"), properties.getProperty("database.password"));
+        dataSource.setDriverClassName(properties.getProperty("database.driver-class-name"));
+        ObjectMapper mapper = new ObjectMapper();
+        try {
+            ImportResultDTO result = new CsvImportRepository(dataSource).importCsv(files);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+            return result.getRejected() > 0 ? 2 : 0;
+        } catch (CsvFormatException e) {
+            printError(mapper, new ImportErrorDTO(e.getFileName(), e.getLine(), e.getMessage()));
+            return 1;
+        } catch (Exception e) {
+            log.error("Ошибка импорта: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    private static Properties loadProperties() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yaml"));
+        yaml.afterPropertiesSet();
+        Properties properties = Objects.requireNonNull(yaml.getObject());
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("database.")) {
+                properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return properties;
+    }
+
+    private static void printError(ObjectMapper mapper, ImportErrorDTO error) {
+        try {
+            System.err.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(error));
+        } catch (Exception e) {
+            System.err.println(error);
+        }
+    }
+
+    private static int usage(String message) {
+        System.err.println(message);
+        System.err.println("Использование: CsvImportCommand [--doctors <файл>] [--sicks <файл>] "
+                + "[--clients <файл>] [--links <файл>]");
+        return 1;
+    }
+}
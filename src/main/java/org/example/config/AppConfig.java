@@ -1,17 +1,26 @@
 package org.example.config;
 
-import jakarta.persistence.EntityManager;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import liquibase.integration.spring.SpringLiquibase;
+import org.example.metrics.PoolMetrics;
+import org.example.repository.DoctorFetchStrategy;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 
 /**
  * Класс конфигурации приложения AppConfig.
@@ -36,22 +45,68 @@ public class AppConfig {
     }
 
     /**
-     * Метод создает и настраивает источник данных (DataSource) на основе
+     * Метод создает сборщик статистики пула соединений.
+     *
+     * @return объект PoolMetrics, подключаемый к пулу в {@link #dataSource()}
+     */
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
+    }
+
+    /**
+     * Метод создает и настраивает пул соединений (DataSource) на основе
      * свойств, загруженных из файла application.yaml.
      *
-     * @return настроенный DriverManagerDataSource
+     * <p>Пул ограничен по размеру и используется как Liquibase, так и JPA,
+     * поэтому физические соединения с PostgreSQL открываются один раз и переиспользуются.
+     * Драйвер объединяет пакет вставок в многострочные INSERT ({@code reWriteBatchedInserts}).</p>
+     *
+     * @return настроенный HikariDataSource
      * @throws NullPointerException если свойства базы данных не заданы
      */
     @Bean
-    public DriverManagerDataSource dataSource() {
+    public HikariDataSource dataSource() {
         YamlPropertiesFactoryBean yaml = yamlProperties();
         yaml.afterPropertiesSet();
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(Objects.requireNonNull(yaml.getObject()).getProperty("database.driver-class-name"));
-        dataSource.setUrl(yaml.getObject().getProperty("database.url"));
-        dataSource.setUsername(yaml.getObject().getProperty("database.username"));
-        dataSource.setPassword(yaml.getObject().getProperty("database.password"));
-        return dataSource;
+        Properties properties = Objects.requireNonNull(yaml.getObject());
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("hospital-pool");
+        config.setDriverClassName(properties.getProperty("database.driver-class-name"));
+        config.setJdbcUrl(properties.getProperty("database.url"));
+        config.setUsername(properties.getProperty("database.username"));
+        config.setPassword(properties.getProperty("database.password"));
+        config.setMaximumPoolSize(Integer.parseInt(properties.getProperty("database.pool.maximum-pool-size", "10")));
+        config.setMinimumIdle(Integer.parseInt(properties.getProperty("database.pool.minimum-idle", "2")));
+        config.setConnectionTimeout(Long.parseLong(properties.getProperty("database.pool.connection-timeout-ms", "30000")));
+        config.setIdleTimeout(Long.parseLong(properties.getProperty("database.pool.idle-timeout-ms", "600000")));
+        config.setMaxLifetime(Long.parseLong(properties.getProperty("database.pool.max-lifetime-ms", "1800000")));
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        config.setMetricsTrackerFactory(poolMetrics());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Метод определяет стратегию загрузки графа врач → клиенты → болезни
+     * по параметру {@code database.fetch.doctor-graph} файла application.yaml.
+     *
+     * @param yamlProperties свойства из application.yaml
+     * @return стратегия загрузки, по умолчанию {@link DoctorFetchStrategy#MULTI_STEP}
+     */
+    @Bean
+    public DoctorFetchStrategy doctorFetchStrategy(Properties yamlProperties) {
+        return DoctorFetchStrategy.fromProperty(yamlProperties.getProperty("database.fetch.doctor-graph", "multi-step"));
+    }
+
+    /**
+     * Метод создает обработчик запросов multipart/form-data, используемый импортом CSV-файлов.
+     * Ограничения размера и порог записи частей на диск задаются в {@code multipart-config} web.xml.
+     *
+     * @return обработчик на основе Servlet API
+     */
+    @Bean
+    public MultipartResolver multipartResolver() {
+        return new StandardServletMultipartResolver();
     }
 
     /**
@@ -70,17 +125,28 @@ public class AppConfig {
     }
 
     /**
-     * Метод создает и настраивает объект EntityManager для управления сущностями
-     * и взаимодействия с базой данных через JPA.
+     * Метод создает фабрику EntityManager для persistence unit с именем "hospital-db".
+     *
+     * <p>Фабрика потокобезопасна и разделяется всеми репозиториями, тогда как каждый
+     * EntityManager создается репозиторием на время одной операции (одной транзакции)
+     * и закрывается сразу после нее. Благодаря этому контекст персистентности не
+     * разделяется между потоками Tomcat и не растет бесконечно.</p>
+     *
+     * <p>Соединения Hibernate берет из общего пула {@link #dataSource()}; фабрика создается
+     * после того, как Liquibase применит миграции.</p>
      *
-     * <p>EntityManager создается на основе фабрики сущностей (EntityManagerFactory),
-     * настроенной для persistence unit с именем "hospital-db".</p>
+     * <p>Запросы, выполнявшиеся дольше {@code database.slow-query-threshold-ms} миллисекунд,
+     * записываются в журнал {@code org.hibernate.SQL_SLOW}.</p>
      *
-     * @return настроенный объект EntityManager
+     * @param yamlProperties свойства из application.yaml
+     * @return настроенный объект EntityManagerFactory
      */
     @Bean
-    public EntityManager entityManager() {
-        return Persistence.createEntityManagerFactory("hospital-db").createEntityManager();
+    @DependsOn("liquibase")
+    public EntityManagerFactory entityManagerFactory(Properties yamlProperties) {
+        return Persistence.createEntityManagerFactory("hospital-db", Map.of(
+                AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource(),
+                AvailableSettings.LOG_SLOW_QUERY, yamlProperties.getProperty("database.slow-query-threshold-ms", "200")));
     }
 
 }
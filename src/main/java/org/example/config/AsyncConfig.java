@@ -0,0 +1,100 @@
+package org.example.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Класс конфигурации асинхронной обработки запросов.
+ *
+ * <p>Задает исполнителя, в котором Spring MVC выполняет {@link java.util.concurrent.Callable},
+ * возвращаемые контроллерами, и тела {@code StreamingResponseBody}. Исполнитель выбирается
+ * параметром {@code web.async.mode} ({@link RequestExecutionMode}), время ожидания
+ * асинхронного результата — параметром {@code web.async.timeout-ms} файла application.yaml.
+ * Потоковые ответы пишутся дольше обычных, поэтому для них время ожидания задается отдельно
+ * параметром {@code web.async.streaming-timeout-ms} ({@link StreamingTimeoutInterceptor}).</p>
+ *
+ * <p>В режиме sync {@link java.util.concurrent.Callable} контроллеров выполняются синхронно, без асинхронной
+ * обработки запроса ({@link SynchronousCallableReturnValueHandler}).</p>
+ */
+@Configuration
+@AllArgsConstructor
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private final Properties yamlProperties;
+
+    /**
+     * Метод создает исполнителя обработчиков запросов.
+     *
+     * <p>В режиме {@link RequestExecutionMode#SYNC} задача (тело потокового ответа или {@code WebAsyncTask})
+     * выполняется в вызывающем потоке Tomcat, в режиме {@link RequestExecutionMode#VIRTUAL} — в новом виртуальном потоке на каждую задачу.
+     * Виртуальные потоки создаются через отражение, так как проект компилируется для Java 16.</p>
+     *
+     * @return исполнитель для асинхронной обработки запросов
+     * @throws IllegalStateException если выбран режим {@code virtual}, а JDK не поддерживает виртуальные потоки
+     */
+    @Bean
+    public AsyncTaskExecutor requestExecutor() {
+        if (mode() == RequestExecutionMode.VIRTUAL) {
+            return new TaskExecutorAdapter(virtualThreadPerTaskExecutor());
+        }
+        return new TaskExecutorAdapter(new SyncTaskExecutor());
+    }
+
+    /**
+     * Метод подключает синхронное выполнение {@link java.util.concurrent.Callable} в режиме
+     * {@link RequestExecutionMode#SYNC}.
+     *
+     * <p>{@link SynchronousCallableReturnValueHandler} ставится перед обработчиками Spring MVC,
+     * чтобы {@link java.util.concurrent.Callable} не доходили до асинхронной обработки.</p>
+     *
+     * @param handlerAdapter адаптер методов контроллеров
+     * @return действие, выполняемое после создания всех бинов
+     */
+    @Bean
+    public SmartInitializingSingleton synchronousCallables(RequestMappingHandlerAdapter handlerAdapter) {
+        return () -> {
+            if (mode() != RequestExecutionMode.SYNC) {
+                return;
+            }
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+            handlers.add(0, new SynchronousCallableReturnValueHandler(List.copyOf(handlers)));
+            handlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(requestExecutor());
+        configurer.setDefaultTimeout(Long.parseLong(yamlProperties.getProperty("web.async.timeout-ms", "60000")));
+        configurer.registerCallableInterceptors(new StreamingTimeoutInterceptor(
+                Long.parseLong(yamlProperties.getProperty("web.async.streaming-timeout-ms", "0"))));
+    }
+
+    private RequestExecutionMode mode() {
+        return RequestExecutionMode.fromProperty(yamlProperties.getProperty("web.async.mode", "sync"));
+    }
+
+    private static Executor virtualThreadPerTaskExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            throw new IllegalStateException("Режим web.async.mode=virtual требует JDK 21 или новее, текущая версия: "
+                    + Runtime.version(), e);
+        }
+    }
+}
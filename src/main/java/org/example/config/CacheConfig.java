@@ -0,0 +1,124 @@
+package org.example.config;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.metrics.MetricsRegistry;
+import org.example.repository.CRUDRepository;
+import org.example.repository.ClientRepository;
+import org.example.repository.DoctorRepository;
+import org.example.repository.SickRepository;
+import org.example.repository.cache.CachingCRUDRepository;
+import org.example.repository.cache.EntityCache;
+import org.example.repository.cache.EntityGraphs;
+import org.example.repository.cache.EntityReference;
+import org.example.repository.metrics.InstrumentedCRUDRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Класс конфигурации кэша сущностей по идентификатору.
+ *
+ * <p>Для каждой сущности создается {@link EntityCache} и основной ({@link Primary}) бин
+ * {@link CRUDRepository}, который оборачивает репозиторий в {@link CachingCRUDRepository}.
+ * Сервисы получают кэширующий репозиторий, не меняя своих зависимостей. Размер кэша и время
+ * жизни записей задаются в секции {@code cache.entity} файла application.yaml.</p>
+ *
+ * <p>Под кэшем репозиторий оборачивается в {@link InstrumentedCRUDRepository}, поэтому метрики
+ * операций репозиториев отражают обращения к базе данных, а не попадания в кэш.</p>
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Метод создает кэш клиентов.
+     *
+     * @param yamlProperties свойства из application.yaml
+     * @return кэш клиентов по идентификатору
+     */
+    @Bean
+    public EntityCache<Client> clientCache(Properties yamlProperties) {
+        return createCache("clients", Client.class, EntityGraphs::references, yamlProperties);
+    }
+
+    /**
+     * Метод создает кэш врачей.
+     *
+     * @param yamlProperties свойства из application.yaml
+     * @return кэш врачей по идентификатору
+     */
+    @Bean
+    public EntityCache<Doctor> doctorCache(Properties yamlProperties) {
+        return createCache("doctors", Doctor.class, EntityGraphs::references, yamlProperties);
+    }
+
+    /**
+     * Метод создает кэш болезней.
+     *
+     * @param yamlProperties свойства из application.yaml
+     * @return кэш болезней по идентификатору
+     */
+    @Bean
+    public EntityCache<Sick> sickCache(Properties yamlProperties) {
+        return createCache("sicks", Sick.class, EntityGraphs::references, yamlProperties);
+    }
+
+    /**
+     * Метод создает кэширующий репозиторий клиентов. Врачи и болезни содержат списки
+     * клиентов, поэтому изменение клиента удаляет из их кэшей записи, содержащие клиента.
+     *
+     * @return репозиторий клиентов с кэшем findById
+     */
+    @Bean
+    @Primary
+    public CRUDRepository<Client> cachingClientRepository(ClientRepository repository, EntityCache<Client> clientCache,
+                                                          EntityCache<Doctor> doctorCache, EntityCache<Sick> sickCache,
+                                                          MetricsRegistry metricsRegistry) {
+        return new CachingCRUDRepository<>(new InstrumentedCRUDRepository<>(repository, "clients", metricsRegistry),
+                clientCache, Client::getId, EntityGraphs::copy, List.of(doctorCache, sickCache));
+    }
+
+    /**
+     * Метод создает кэширующий репозиторий врачей. Клиенты ссылаются на своего врача,
+     * поэтому изменение врача удаляет из кэша клиентов его клиентов.
+     *
+     * @return репозиторий врачей с кэшем findById
+     */
+    @Bean
+    @Primary
+    public CRUDRepository<Doctor> cachingDoctorRepository(DoctorRepository repository, EntityCache<Doctor> doctorCache,
+                                                          EntityCache<Client> clientCache, MetricsRegistry metricsRegistry) {
+        return new CachingCRUDRepository<>(new InstrumentedCRUDRepository<>(repository, "doctors", metricsRegistry),
+                doctorCache, Doctor::getId, EntityGraphs::copy, List.of(clientCache));
+    }
+
+    /**
+     * Метод создает кэширующий репозиторий болезней. Клиенты (и врачи через своих клиентов)
+     * содержат списки болезней, поэтому изменение болезни удаляет из их кэшей записи, содержащие болезнь.
+     *
+     * @return репозиторий болезней с кэшем findById
+     */
+    @Bean
+    @Primary
+    public CRUDRepository<Sick> cachingSickRepository(SickRepository repository, EntityCache<Sick> sickCache,
+                                                      EntityCache<Client> clientCache, EntityCache<Doctor> doctorCache,
+                                                      MetricsRegistry metricsRegistry) {
+        return new CachingCRUDRepository<>(new InstrumentedCRUDRepository<>(repository, "sicks", metricsRegistry),
+                sickCache, Sick::getId, EntityGraphs::copy, List.of(clientCache, doctorCache));
+    }
+
+    private static <T> EntityCache<T> createCache(String name, Class<T> type,
+                                                  Function<T, Set<EntityReference>> referencesOf,
+                                                  Properties properties) {
+        int maxSize = Integer.parseInt(properties.getProperty("cache.entity.max-size", "10000"));
+        long ttlSeconds = Long.parseLong(properties.getProperty("cache.entity.ttl-seconds", "60"));
+        return new EntityCache<>(name, type, maxSize, Duration.ofSeconds(ttlSeconds), referencesOf);
+    }
+}
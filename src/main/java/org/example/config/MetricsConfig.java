@@ -0,0 +1,26 @@
+package org.example.config;
+
+import lombok.AllArgsConstructor;
+import org.example.metrics.RequestMetricsInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Класс конфигурации метрик запросов.
+ *
+ * <p>Подключает {@link RequestMetricsInterceptor} к контроллерам клиентов, врачей и болезней.
+ * Метрики доступны в формате Prometheus по адресу /metrics.</p>
+ */
+@Configuration
+@AllArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetricsInterceptor)
+                .addPathPatterns("/clients/**", "/doctors/**", "/sicks/**");
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.config;
+
+/**
+ * Режим выполнения обработчиков ClientController, DoctorController и SickController.
+ *
+ * <p>Обработчики возвращают {@link java.util.concurrent.Callable}, а режим определяет, в каком
+ * потоке он выполняется. Задается параметром {@code web.async.mode} файла application.yaml.</p>
+ */
+public enum RequestExecutionMode {
+
+    /**
+     * Обработчик выполняется в потоке Tomcat, принявшем запрос, синхронно: без асинхронной обработки
+     * запроса и повторной диспетчеризации.
+     * Количество одновременно обрабатываемых запросов ограничено числом потоков Tomcat.
+     */
+    SYNC,
+
+    /**
+     * Обработчик выполняется в отдельном виртуальном потоке, поток Tomcat освобождается сразу.
+     * Количество одновременных обращений к базе данных ограничивает пул соединений.
+     * Требуется JDK 21 или новее.
+     */
+    VIRTUAL;
+
+    /**
+     * Получить режим по значению параметра конфигурации.
+     *
+     * @param value имя режима без учета регистра.
+     * @return режим выполнения.
+     * @throws IllegalArgumentException если режим с таким именем не существует.
+     */
+    public static RequestExecutionMode fromProperty(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.config;
+
+import lombok.AllArgsConstructor;
+import org.example.repository.StatisticsRepository;
+import org.example.service.counter.CaseloadCounters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.util.Properties;
+
+/**
+ * Класс конфигурации обновления статистики.
+ *
+ * <p>Материализованные представления статистики ({@link StatisticsRepository}) обновляются
+ * в отдельном потоке с фиксированной паузой между обновлениями, заданной параметром
+ * {@code stats.refresh-interval-ms} файла application.yaml. Пауза отсчитывается от конца
+ * предыдущего обновления, поэтому обновления не накладываются друг на друга. Представления
+ * заполняются при создании миграцией, поэтому первое обновление выполняется через один интервал.</p>
+ *
+ * <p>Счетчики клиентов {@link CaseloadCounters} заполняются из базы данных при создании
+ * и сверяются с ней с паузой {@code stats.counters.reconcile-interval-ms}. Сверка выполняется
+ * во втором потоке планировщика и не ждет обновления представлений.</p>
+ */
+@Configuration
+@EnableScheduling
+@AllArgsConstructor
+public class StatisticsConfig implements SchedulingConfigurer {
+
+    private final Properties yamlProperties;
+    private final StatisticsRepository statisticsRepository;
+
+    /**
+     * Метод создает планировщик фоновых задач: поток для обновления представлений и поток для сверки счетчиков.
+     *
+     * @return планировщик, останавливаемый при закрытии контекста
+     */
+    @Bean
+    public ThreadPoolTaskScheduler statisticsScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("stats-refresh-");
+        scheduler.setPoolSize(2);
+        return scheduler;
+    }
+
+    /**
+     * Метод создает счетчики клиентов по болезням и врачам, заполненные из базы данных.
+     *
+     * @return счетчики клиентов
+     */
+    @Bean
+    public CaseloadCounters caseloadCounters() {
+        CaseloadCounters counters = new CaseloadCounters();
+        reconcile(counters);
+        return counters;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        long interval = Long.parseLong(yamlProperties.getProperty("stats.refresh-interval-ms", "300000"));
+        long reconcileInterval = Long.parseLong(
+                yamlProperties.getProperty("stats.counters.reconcile-interval-ms", "60000"));
+        CaseloadCounters counters = caseloadCounters();
+        registrar.setScheduler(statisticsScheduler());
+        registrar.addFixedDelayTask(new IntervalTask(statisticsRepository::refresh, interval, interval));
+        registrar.addFixedDelayTask(new IntervalTask(() -> reconcile(counters), reconcileInterval, reconcileInterval));
+    }
+
+    private void reconcile(CaseloadCounters counters) {
+        counters.reconcile(statisticsRepository.countClientsBySick(), statisticsRepository.countClientsByDoctor());
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Перехватчик, задающий отдельное время ожидания для потоковых ответов.
+ *
+ * <p>Spring MVC записывает тело {@link StreamingResponseBody} асинхронно, с общим временем ожидания
+ * {@code web.async.timeout-ms}. Выгрузка, которая пишет дольше, обрывалась бы по истечении этого времени,
+ * хотя статус 200 уже отправлен. Для обработчиков, возвращающих {@link StreamingResponseBody}
+ * (в том числе в {@code ResponseEntity}), перехватчик заменяет время ожидания значением
+ * {@code web.async.streaming-timeout-ms}; 0 или отрицательное значение — без ограничения.</p>
+ */
+public class StreamingTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private final long timeoutMillis;
+
+    /**
+     * @param timeoutMillis время ожидания потокового ответа в миллисекундах; 0 — без ограничения.
+     */
+    public StreamingTimeoutInterceptor(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (request instanceof AsyncWebRequest && handler instanceof HandlerMethod
+                && isStreaming(((HandlerMethod) handler).getReturnType())) {
+            ((AsyncWebRequest) request).setTimeout(timeoutMillis);
+        }
+    }
+
+    private static boolean isStreaming(MethodParameter returnType) {
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+        if (ResponseEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return StreamingResponseBody.class.isAssignableFrom(type.toClass());
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Обработчик {@link Callable}, возвращаемых контроллерами, для режима {@link RequestExecutionMode#SYNC}.
+ *
+ * <p>Spring MVC выполняет {@link Callable} асинхронно: запускает асинхронную обработку запроса
+ * и после выполнения задачи повторно диспетчеризует запрос. В режиме sync задача все равно выполняется
+ * в потоке Tomcat, поэтому этот обработчик вызывает ее сразу и передает результат остальным обработчикам,
+ * как результат обычного синхронного метода контроллера. {@code WebAsyncTask} и потоковые ответы
+ * по-прежнему обрабатываются асинхронно.</p>
+ */
+public class SynchronousCallableReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandlerComposite delegates = new HandlerMethodReturnValueHandlerComposite();
+
+    /**
+     * @param delegates обработчики результата задачи; не должны содержать этот обработчик.
+     */
+    public SynchronousCallableReturnValueHandler(List<HandlerMethodReturnValueHandler> delegates) {
+        this.delegates.addHandlers(delegates);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return Callable.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        if (returnValue == null) {
+            mavContainer.setRequestHandled(true);
+            return;
+        }
+        Object result = ((Callable<?>) returnValue).call();
+        delegates.handleReturnValue(result, new CallableResultParameter(returnType, result), mavContainer, webRequest);
+    }
+
+    /**
+     * Возвращаемое значение метода контроллера, тип которого — тип результата {@link Callable}.
+     */
+    private static final class CallableResultParameter extends MethodParameter {
+
+        private final ResolvableType resultType;
+
+        CallableResultParameter(MethodParameter returnType, Object result) {
+            super(returnType);
+            ResolvableType type = ResolvableType.forMethodParameter(returnType).getGeneric(0);
+            this.resultType = type.resolve() == null && result != null ? ResolvableType.forClass(result.getClass()) : type;
+        }
+
+        private CallableResultParameter(CallableResultParameter original) {
+            super(original);
+            this.resultType = original.resultType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return resultType.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return resultType.getType();
+        }
+
+        @Override
+        public CallableResultParameter clone() {
+            return new CallableResultParameter(this);
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package org.example.controller;
 
 import lombok.AllArgsConstructor;
+import org.example.service.BulkService;
 import org.example.service.ClientService;
+import org.example.service.SearchService;
+import org.example.service.dto.BulkResultDTO;
 import org.example.service.dto.ClientDTO;
+import org.example.service.dto.ClientPatchDTO;
+import org.example.service.dto.NameMatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
+import org.example.service.dto.SearchPageDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Контроллер для управления клиентами.
  * Обрабатывает HTTP-запросы для операций с клиентами.
  * Использует {@link ClientService} для выполнения бизнес-логики.
+ * Обработчики возвращают {@link Callable}: поток, в котором они выполняются, задается
+ * параметром {@code web.async.mode} (см. {@link org.example.config.AsyncConfig}).
  */
 @RestController
 @RequestMapping("/clients")
@@ -20,6 +33,8 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService service;
+    private final SearchService searchService;
+    private final BulkService bulkService;
 
     /**
      * Получение списка всех клиентов.
@@ -27,19 +42,71 @@ public class ClientController {
      * @return список всех клиентов в виде {@link ResponseEntity} с объектами {@link ClientDTO}.
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ClientDTO>> findAll() {
-        return service.findAll();
+    public Callable<ResponseEntity<List<ClientDTO>>> findAll() {
+        return () -> service.findAll();
+    }
+
+    /**
+     * Получение страницы клиентов по курсору.
+     *
+     * @param after идентификатор последнего клиента предыдущей страницы (0 — первая страница).
+     * @param limit размер страницы.
+     * @return страница клиентов в виде {@link ResponseEntity} с объектом {@link PageDTO}.
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<PageDTO<ClientDTO>>> findPage(@RequestParam(defaultValue = "0") int after,
+                                                                 @RequestParam int limit) {
+        return () -> service.findPage(after, limit);
+    }
+
+    /**
+     * Поиск клиентов по имени или фамилии: сначала совпадения по началу имени или фамилии,
+     * затем похожие написания (триграммное сходство).
+     *
+     * @param q     строка поиска, не короче трех символов.
+     * @param after курсор из {@code nextCursor} предыдущей страницы (необязательный).
+     * @param limit размер страницы.
+     * @return страница результатов в виде {@link ResponseEntity} с объектом {@link SearchPageDTO}.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<SearchPageDTO<NameMatchDTO>>> search(@RequestParam String q,
+                                                                        @RequestParam(required = false) String after,
+                                                                        @RequestParam(defaultValue = "20") int limit) {
+        return () -> searchService.searchClients(q, after, limit);
+    }
+
+    /**
+     * Потоковая выгрузка всех клиентов одним JSON-массивом.
+     *
+     * @return тело ответа, записывающее клиентов по мере чтения из базы данных.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJson() {
+        return service.streamAll(false);
+    }
+
+    /**
+     * Потоковая выгрузка всех клиентов в формате NDJSON (один клиент на строку).
+     *
+     * @return тело ответа, записывающее клиентов по мере чтения из базы данных.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamNdjson() {
+        return service.streamAll(true);
     }
 
     /**
      * Получение клиента по идентификатору.
      *
      * @param id идентификатор клиента.
+     * @param ifNoneMatch ETag, полученный ранее (необязательный заголовок If-None-Match).
      * @return клиент в виде {@link ResponseEntity} с объектом {@link ClientDTO}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ClientDTO> findById(@PathVariable int id) {
-        return service.findById(id);
+    public Callable<ResponseEntity<ClientDTO>> findById(@PathVariable int id,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                        String ifNoneMatch) {
+        return () -> service.findById(id, ifNoneMatch);
     }
 
     /**
@@ -49,19 +116,33 @@ public class ClientController {
      * @return сохраненный клиент в виде {@link ResponseEntity} с объектом {@link ClientDTO}.
      */
     @PostMapping
-    public ResponseEntity<ClientDTO> save(@RequestBody ClientDTO clientDTO) {
-        return service.save(clientDTO);
+    public Callable<ResponseEntity<ClientDTO>> save(@RequestBody ClientDTO clientDTO) {
+        return () -> service.save(clientDTO);
+    }
+
+    /**
+     * Пакетное сохранение новых клиентов в одной транзакции.
+     *
+     * @param clientDTOS данные новых клиентов.
+     * @return сохраненные клиенты в виде {@link ResponseEntity} со списком объектов {@link ClientDTO}.
+     */
+    @PostMapping("/batch")
+    public Callable<ResponseEntity<List<ClientDTO>>> saveAll(@RequestBody List<ClientDTO> clientDTOS) {
+        return () -> service.saveAll(clientDTOS);
     }
 
     /**
      * Обновление информации о клиенте.
      *
      * @param clientDTO данные клиента для обновления.
+     * @param ifMatch ETag, при совпадении с которым выполняется обновление (необязательный заголовок If-Match).
      * @return обновленный клиент в виде {@link ResponseEntity} с объектом {@link ClientDTO}.
      */
     @PutMapping
-    public ResponseEntity<ClientDTO> update(@RequestBody ClientDTO clientDTO) {
-        return service.update(clientDTO);
+    public Callable<ResponseEntity<ClientDTO>> update(@RequestBody ClientDTO clientDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                      String ifMatch) {
+        return () -> service.update(clientDTO, ifMatch);
     }
 
     /**
@@ -71,7 +152,80 @@ public class ClientController {
      * @return пустой ответ в виде {@link ResponseEntity<Void>}.
      */
     @DeleteMapping("{/id}")
-    public ResponseEntity<Void> delete(@PathVariable int id) {
-        return service.deleteById(id);
+    public Callable<ResponseEntity<Void>> delete(@PathVariable int id) {
+        return () -> service.deleteById(id);
+    }
+
+    /**
+     * Групповое удаление клиентов по списку идентификаторов одной командой SQL.
+     *
+     * @param ids идентификаторы клиентов через запятую.
+     * @return количество удаленных клиентов в виде {@link ResponseEntity} с объектом {@link BulkResultDTO}.
+     */
+    @DeleteMapping(params = "ids")
+    public Callable<ResponseEntity<BulkResultDTO>> deleteAll(@RequestParam List<Integer> ids) {
+        return () -> bulkService.deleteClients(ids);
+    }
+
+    /**
+     * Добавление болезни клиенту: вставляется одна строка client_sick.
+     *
+     * @param id     идентификатор клиента.
+     * @param sickId идентификатор болезни.
+     * @return количество добавленных связей (0, если болезнь уже есть у клиента)
+     * в виде {@link ResponseEntity} с объектом {@link BulkResultDTO}.
+     */
+    @PostMapping("/{id}/sicks/{sickId}")
+    public Callable<ResponseEntity<BulkResultDTO>> addSick(@PathVariable int id, @PathVariable int sickId) {
+        return () -> bulkService.addSicks(id, List.of(sickId));
+    }
+
+    /**
+     * Добавление клиенту нескольких болезней одной командой SQL.
+     *
+     * @param id      идентификатор клиента.
+     * @param sickIds идентификаторы болезней.
+     * @return количество добавленных связей в виде {@link ResponseEntity} с объектом {@link BulkResultDTO}.
+     */
+    @PostMapping("/{id}/sicks")
+    public Callable<ResponseEntity<BulkResultDTO>> addSicks(@PathVariable int id, @RequestBody List<Integer> sickIds) {
+        return () -> bulkService.addSicks(id, sickIds);
+    }
+
+    /**
+     * Удаление болезни у клиента: удаляется одна строка client_sick.
+     *
+     * @param id     идентификатор клиента.
+     * @param sickId идентификатор болезни.
+     * @return количество удаленных связей (0, если болезни не было у клиента)
+     * в виде {@link ResponseEntity} с объектом {@link BulkResultDTO}.
+     */
+    @DeleteMapping("/{id}/sicks/{sickId}")
+    public Callable<ResponseEntity<BulkResultDTO>> removeSick(@PathVariable int id, @PathVariable int sickId) {
+        return () -> bulkService.removeSicks(id, List.of(sickId));
+    }
+
+    /**
+     * Удаление у клиента нескольких болезней одной командой SQL.
+     *
+     * @param id  идентификатор клиента.
+     * @param ids идентификаторы болезней через запятую.
+     * @return количество удаленных связей в виде {@link ResponseEntity} с объектом {@link BulkResultDTO}.
+     */
+    @DeleteMapping(value = "/{id}/sicks", params = "ids")
+    public Callable<ResponseEntity<BulkResultDTO>> removeSicks(@PathVariable int id, @RequestParam List<Integer> ids) {
+        return () -> bulkService.removeSicks(id, ids);
+    }
+
+    /**
+     * Частичное обновление клиента: изменяются только переданные поля, без предварительного чтения.
+     *
+     * @param id    идентификатор клиента.
+     * @param patch изменяемые поля и необязательная ожидаемая версия {@code version}.
+     * @return новая версия в виде {@link ResponseEntity} с объектом {@link PatchResultDTO}.
+     */
+    @PatchMapping("/{id}")
+    public Callable<ResponseEntity<PatchResultDTO>> patch(@PathVariable int id, @RequestBody ClientPatchDTO patch) {
+        return () -> service.patch(id, patch);
     }
 }
@@ -1,23 +1,37 @@
 package org.example.controller;
 
 import lombok.AllArgsConstructor;
+import org.example.service.BulkService;
 import org.example.service.DoctorService;
+import org.example.service.SearchService;
+import org.example.service.dto.BulkResultDTO;
 import org.example.service.dto.DoctorDTO;
+import org.example.service.dto.DoctorPatchDTO;
+import org.example.service.dto.NameMatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
+import org.example.service.dto.SearchPageDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Контроллер для управления данными врачей.
  * Обрабатывает HTTP-запросы для операций с врачами.
  * Использует {@link DoctorService} для выполнения бизнес-логики.
+ * Обработчики возвращают {@link Callable}: поток, в котором они выполняются, задается
+ * параметром {@code web.async.mode} (см. {@link org.example.config.AsyncConfig}).
  */
 @RestController
 @RequestMapping("/doctors")
 @AllArgsConstructor
 public class DoctorController {
     private final DoctorService doctorService;
+    private final SearchService searchService;
+    private final BulkService bulkService;
 
     /**
      * Получение списка всех врачей.
@@ -25,19 +39,51 @@ public class DoctorController {
      * @return список всех врачей в виде {@link ResponseEntity} с объектами {@link DoctorDTO}.
      */
     @GetMapping
-    public ResponseEntity<List<DoctorDTO>> findAll() {
-        return doctorService.findAll();
+    public Callable<ResponseEntity<List<DoctorDTO>>> findAll() {
+        return () -> doctorService.findAll();
+    }
+
+    /**
+     * Получение страницы врачей по курсору.
+     *
+     * @param after идентификатор последнего врача предыдущей страницы (0 — первая страница).
+     * @param limit размер страницы.
+     * @return страница врачей в виде {@link ResponseEntity} с объектом {@link PageDTO}.
+     */
+    @GetMapping(params = "limit")
+    public Callable<ResponseEntity<PageDTO<DoctorDTO>>> findPage(@RequestParam(defaultValue = "0") int after,
+                                                                 @RequestParam int limit) {
+        return () -> doctorService.findPage(after, limit);
+    }
+
+    /**
+     * Поиск врачей по имени или фамилии: сначала совпадения по началу имени или фамилии,
+     * затем похожие написания (триграммное сходство).
+     *
+     * @param q     строка поиска, не короче трех символов.
+     * @param after курсор из {@code nextCursor} предыдущей страницы (необязательный).
+     * @param limit размер страницы.
+     * @return страница результатов в виде {@link ResponseEntity} с объектом {@link SearchPageDTO}.
+     */
+    @GetMapping("/search")
+    public Callable<ResponseEntity<SearchPageDTO<NameMatchDTO>>> search(@RequestParam String q,
+                                                                        @RequestParam(required = false) String after,
+                                                                        @RequestParam(defaultValue = "20") int limit) {
+        return () -> searchService.searchDoctors(q, after, limit);
     }
 
     /**
      * Получение информации о враче по идентификатору.
      *
      * @param id идентификатор врача.
+     * @param ifNoneMatch ETag, полученный ранее (необязательный заголовок If-None-Match).
      * @return информация о враче в виде {@link ResponseEntity} с объектом {@link DoctorDTO}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<DoctorDTO> findById(@PathVariable int id) {
-        return doctorService.findById(id);
+    public Callable<ResponseEntity<DoctorDTO>> findById(@PathVariable int id,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                        String ifNoneMatch) {
+        return () -> doctorService.findById(id, ifNoneMatch);
     }
 
     /**
@@ -47,19 +93,33 @@ public class DoctorController {
      * @return сохраненный врач в виде {@link ResponseEntity} с объектом {@link DoctorDTO}.
      */
     @PostMapping
-    public ResponseEntity<DoctorDTO> save(@RequestBody DoctorDTO doctorDTO) {
-        return doctorService.save(doctorDTO);
+    public Callable<ResponseEntity<DoctorDTO>> save(@RequestBody DoctorDTO doctorDTO) {
+        return () -> doctorService.save(doctorDTO);
+    }
+
+    /**
+     * Пакетное сохранение новых врачей в одной транзакции.
+     *
+     * @param doctorDTOS данные новых врачей.
+     * @return сохраненные врачи в виде {@link ResponseEntity} со списком объектов {@link DoctorDTO}.
+     */
+    @PostMapping("/batch")
+    public Callable<ResponseEntity<List<DoctorDTO>>> saveAll(@RequestBody List<DoctorDTO> doctorDTOS) {
+        return () -> doctorService.saveAll(doctorDTOS);
     }
 
     /**
      * Обновление информации о враче.
      *
      * @param doctorDTO обновленные данные врача.
+     * @param ifMatch ETag, при совпадении с которым выполняется обновление (необязательный заголовок If-Match).
      * @return обновленный врач в виде {@link ResponseEntity} с объектом {@link DoctorDTO}.
      */
     @PutMapping
-    public ResponseEntity<DoctorDTO> update(@RequestBody DoctorDTO doctorDTO) {
-        return doctorService.update(doctorDTO);
+    public Callable<ResponseEntity<DoctorDTO>> update(@RequestBody DoctorDTO doctorDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                      String ifMatch) {
+        return () -> doctorService.update(doctorDTO, ifMatch);
     }
 
     /**
@@ -69,7 +129,31 @@ public class DoctorController {
      * @return пустой ответ в виде {@link ResponseEntity<Void>}.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable int id) {
-        return doctorService.delete(id);
+    public Callable<ResponseEntity<Void>> delete(@PathVariable int id) {
+        return () -> doctorService.delete(id);
+    }
+
+    /**
+     * Передача всех клиентов врача другому врачу одной командой SQL.
+     *
+     * @param id идентификатор врача, клиенты которого передаются.
+     * @param to идентификатор врача, который получает клиентов.
+     * @return количество переданных клиентов в виде {@link ResponseEntity} с объектом {@link BulkResultDTO}.
+     */
+    @PostMapping("/{id}/reassign")
+    public Callable<ResponseEntity<BulkResultDTO>> reassignClients(@PathVariable int id, @RequestParam int to) {
+        return () -> bulkService.reassignClients(id, to);
+    }
+
+    /**
+     * Частичное обновление врача: изменяются только переданные поля, без предварительного чтения.
+     *
+     * @param id    идентификатор врача.
+     * @param patch изменяемые поля и необязательная ожидаемая версия {@code version}.
+     * @return новая версия в виде {@link ResponseEntity} с объектом {@link PatchResultDTO}.
+     */
+    @PatchMapping("/{id}")
+    public Callable<ResponseEntity<PatchResultDTO>> patch(@PathVariable int id, @RequestBody DoctorPatchDTO patch) {
+        return () -> doctorService.patch(id, patch);
     }
 }
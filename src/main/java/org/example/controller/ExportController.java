@@ -0,0 +1,43 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.repository.copy.CsvLayout;
+import org.example.service.ExportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Контроллер для потоковой выгрузки данных в CSV-файлы.
+ * Форматы файлов совпадают с форматами импорта, см. {@link CsvLayout}.
+ */
+@RestController
+@RequestMapping("/export")
+@AllArgsConstructor
+public class ExportController {
+
+    private final ExportService service;
+
+    /**
+     * Выгрузка файла.
+     *
+     * @param file       формат файла: doctors, sicks, clients или links.
+     * @param columns    столбцы выгрузки через запятую (по умолчанию — столбцы формата импорта).
+     * @param references представление ссылок: rows — номера строк выгрузки, ids — идентификаторы записей.
+     * @param gzip       сжать ответ gzip.
+     * @return тело ответа, записывающее строки по мере чтения из базы данных.
+     */
+    @GetMapping("/{file}")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable String file,
+                                                           @RequestParam(defaultValue = "") List<String> columns,
+                                                           @RequestParam(defaultValue = "rows") String references,
+                                                           @RequestParam(defaultValue = "false") boolean gzip) {
+        return service.exportCsv(file, columns, references, gzip);
+    }
+}
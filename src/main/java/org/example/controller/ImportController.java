@@ -0,0 +1,74 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.repository.copy.CsvLayout;
+import org.example.service.ImportService;
+import org.example.service.dto.ImportResultDTO;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Контроллер для массового импорта данных из CSV-файлов.
+ * Форматы файлов совпадают с файлами начальных данных, см. {@link CsvLayout}.
+ */
+@RestController
+@RequestMapping("/import")
+@AllArgsConstructor
+public class ImportController {
+
+    private final ImportService service;
+
+    /**
+     * Импорт набора файлов в одной транзакции. Любая из частей может отсутствовать;
+     * ссылки на строки файлов, которых нет в запросе, указывают на существующие записи.
+     *
+     * @param doctors файл врачей.
+     * @param sicks   файл болезней.
+     * @param clients файл клиентов.
+     * @param links   файл связей клиент — болезнь.
+     * @return результат импорта в виде {@link ResponseEntity} с объектом {@link ImportResultDTO}.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<?>> importFiles(@RequestPart(required = false) MultipartFile doctors,
+                                                   @RequestPart(required = false) MultipartFile sicks,
+                                                   @RequestPart(required = false) MultipartFile clients,
+                                                   @RequestPart(required = false) MultipartFile links) {
+        Map<CsvLayout, InputStreamSource> files = new EnumMap<>(CsvLayout.class);
+        putIfPresent(files, CsvLayout.DOCTORS, doctors);
+        putIfPresent(files, CsvLayout.SICKS, sicks);
+        putIfPresent(files, CsvLayout.CLIENTS, clients);
+        putIfPresent(files, CsvLayout.LINKS, links);
+        return () -> service.importCsv(files);
+    }
+
+    /**
+     * Импорт одного файла, переданного телом запроса. Тело читается потоком, без сохранения
+     * на диск, поэтому этот вариант подходит для больших файлов.
+     *
+     * @param file    формат файла: doctors, sicks, clients или links.
+     * @param request запрос с содержимым файла.
+     * @return результат импорта в виде {@link ResponseEntity} с объектом {@link ImportResultDTO}.
+     */
+    @PostMapping(value = "/{file}", consumes = "text/csv", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<?>> importFile(@PathVariable String file, HttpServletRequest request) {
+        return () -> service.importFile(file, request::getInputStream);
+    }
+
+    private static void putIfPresent(Map<CsvLayout, InputStreamSource> files, CsvLayout layout, MultipartFile file) {
+        if (file != null && !file.isEmpty()) {
+            files.put(layout, file);
+        }
+    }
+}
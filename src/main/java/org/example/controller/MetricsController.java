@@ -0,0 +1,28 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.metrics.MetricsRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер, предоставляющий метрики приложения в текстовом формате Prometheus.
+ */
+@RestController
+@AllArgsConstructor
+public class MetricsController {
+
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Получение метрик: гистограммы времени обработки, количество ответов, ошибок и выполняющихся
+     * запросов для каждого обработчика, а также время выполнения операций репозиториев.
+     *
+     * @return метрики в формате Prometheus в виде {@link ResponseEntity}.
+     */
+    @GetMapping(value = "/metrics", produces = MetricsRegistry.CONTENT_TYPE)
+    public ResponseEntity<String> metrics() {
+        return ResponseEntity.ok(metricsRegistry.scrape());
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.metrics.CacheMetrics;
+import org.example.metrics.HibernateMetrics;
+import org.example.metrics.PoolMetrics;
+import org.example.repository.cache.EntityCache;
+import org.example.service.dto.CacheStatsDTO;
+import org.example.service.dto.EntityCacheStatsDTO;
+import org.example.service.dto.HibernateStatsDTO;
+import org.example.service.dto.PoolStatsDTO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Контроллер для мониторинга состояния приложения.
+ * Предоставляет статистику пула соединений с базой данных, кэша второго уровня,
+ * кэша сущностей по идентификатору и статистику Hibernate.
+ */
+@RestController
+@RequestMapping("/monitoring")
+@AllArgsConstructor
+public class MonitoringController {
+
+    private final PoolMetrics poolMetrics;
+    private final CacheMetrics cacheMetrics;
+    private final HibernateMetrics hibernateMetrics;
+    private final List<EntityCache<?>> entityCaches;
+
+    /**
+     * Получение статистики пула соединений: активные, свободные и ожидающие соединения,
+     * а также процентили времени ожидания выдачи соединения.
+     *
+     * @return статистика пула в виде {@link ResponseEntity} с объектом {@link PoolStatsDTO}.
+     */
+    @GetMapping(value = "/pool", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PoolStatsDTO> pool() {
+        return ResponseEntity.ok(poolMetrics.snapshot());
+    }
+
+    /**
+     * Получение статистики кэша второго уровня и кэша запросов Hibernate:
+     * попадания, промахи и добавления по каждому региону.
+     *
+     * @return статистика кэша в виде {@link ResponseEntity} с объектом {@link CacheStatsDTO}.
+     */
+    @GetMapping(value = "/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CacheStatsDTO> cache() {
+        return ResponseEntity.ok(cacheMetrics.snapshot());
+    }
+
+    /**
+     * Получение статистики кэшей сущностей по идентификатору: размер, доля попаданий,
+     * количество вытеснений по размеру и по времени жизни.
+     *
+     * @return статистика кэшей в виде {@link ResponseEntity} со списком объектов {@link EntityCacheStatsDTO}.
+     */
+    @GetMapping(value = "/entity-cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<EntityCacheStatsDTO>> entityCache() {
+        List<EntityCacheStatsDTO> stats = new ArrayList<>(entityCaches.size());
+        for (EntityCache<?> entityCache : entityCaches) {
+            stats.add(entityCache.snapshot());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Получение статистики Hibernate: количество и время выполнения запросов, загрузки сущностей
+     * и коллекций, доли попаданий в кэш второго уровня и кэш запросов.
+     *
+     * @param limit максимальное количество запросов в ответе (запросы с наибольшим суммарным временем).
+     * @return статистика в виде {@link ResponseEntity} с объектом {@link HibernateStatsDTO}.
+     */
+    @GetMapping(value = "/hibernate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<HibernateStatsDTO> hibernate(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hibernateMetrics.snapshot(limit));
+    }
+}
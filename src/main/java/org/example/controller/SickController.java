@@ -2,12 +2,19 @@ package org.example.controller;
 
 import lombok.AllArgsConstructor;
 import org.example.entity.Sick;
+import org.example.service.BulkService;
 import org.example.service.SickService;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
+import org.example.service.dto.SickDeleteResultDTO;
+import org.example.service.dto.SickPatchDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/sicks")
@@ -15,6 +22,7 @@ import java.util.List;
 public class SickController {
 
     private final SickService service;
+    private final BulkService bulkService;
 
     /**
      * Получение списка всех болезней.
@@ -22,19 +30,35 @@ public class SickController {
      * @return список всех болезней в виде {@link ResponseEntity} с объектами {@link Sick}.
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Sick>> findAll() {
-        return service.findAll();
+    public Callable<ResponseEntity<List<Sick>>> findAll() {
+        return () -> service.findAll();
+    }
+
+    /**
+     * Получение страницы болезней по курсору.
+     *
+     * @param after идентификатор последней болезни предыдущей страницы (0 — первая страница).
+     * @param limit размер страницы.
+     * @return страница болезней в виде {@link ResponseEntity} с объектом {@link PageDTO}.
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<PageDTO<Sick>>> findPage(@RequestParam(defaultValue = "0") int after,
+                                                            @RequestParam int limit) {
+        return () -> service.findPage(after, limit);
     }
 
     /**
      * Получение болезни по идентификатору.
      *
      * @param id идентификатор болезни.
+     * @param ifNoneMatch ETag, полученный ранее (необязательный заголовок If-None-Match).
      * @return болезнь в виде {@link ResponseEntity} с объектом {@link Sick}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Sick> findById(@PathVariable int id) {
-        return service.findById(id);
+    public Callable<ResponseEntity<Sick>> findById(@PathVariable int id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
+        return () -> service.findById(id, ifNoneMatch);
     }
 
     /**
@@ -44,19 +68,33 @@ public class SickController {
      * @return сохраненная болезнь в виде {@link ResponseEntity} с объектом {@link Sick}.
      */
     @PostMapping
-    public ResponseEntity<Sick> save(@RequestBody Sick sick) {
-        return service.save(sick);
+    public Callable<ResponseEntity<Sick>> save(@RequestBody Sick sick) {
+        return () -> service.save(sick);
+    }
+
+    /**
+     * Пакетное сохранение новых болезней в одной транзакции.
+     *
+     * @param sicks данные новых болезней.
+     * @return сохраненные болезни в виде {@link ResponseEntity} со списком объектов {@link Sick}.
+     */
+    @PostMapping("/batch")
+    public Callable<ResponseEntity<List<Sick>>> saveAll(@RequestBody List<Sick> sicks) {
+        return () -> service.saveAll(sicks);
     }
 
     /**
      * Обновление информации о болезни.
      *
      * @param sick данные болезни для обновления.
+     * @param ifMatch ETag, при совпадении с которым выполняется обновление (необязательный заголовок If-Match).
      * @return обновленная болезнь в виде {@link ResponseEntity} с объектом {@link Sick}.
      */
     @PutMapping
-    public ResponseEntity<Sick> update(@RequestBody Sick sick) {
-        return service.update(sick);
+    public Callable<ResponseEntity<Sick>> update(@RequestBody Sick sick,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                 String ifMatch) {
+        return () -> service.update(sick, ifMatch);
     }
 
     /**
@@ -66,7 +104,31 @@ public class SickController {
      * @return пустой ответ в виде {@link ResponseEntity<Void>}.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable int id) {
-        return service.deleteById(id);
+    public Callable<ResponseEntity<Void>> delete(@PathVariable int id) {
+        return () -> service.deleteById(id);
+    }
+
+    /**
+     * Удаление болезни вместе с ее связями с клиентами одной командой SQL.
+     *
+     * @param id идентификатор болезни.
+     * @return количество удаленных болезней и связей в виде {@link ResponseEntity} с объектом
+     * {@link SickDeleteResultDTO}.
+     */
+    @DeleteMapping(value = "/{id}", params = "cascade=true")
+    public Callable<ResponseEntity<SickDeleteResultDTO>> deleteWithLinks(@PathVariable int id) {
+        return () -> bulkService.deleteSick(id);
+    }
+
+    /**
+     * Частичное обновление болезни: изменяются только переданные поля, без предварительного чтения.
+     *
+     * @param id    идентификатор болезни.
+     * @param patch изменяемые поля и необязательная ожидаемая версия {@code version}.
+     * @return новая версия в виде {@link ResponseEntity} с объектом {@link PatchResultDTO}.
+     */
+    @PatchMapping("/{id}")
+    public Callable<ResponseEntity<PatchResultDTO>> patch(@PathVariable int id, @RequestBody SickPatchDTO patch) {
+        return () -> service.patch(id, patch);
     }
 }
@@ -0,0 +1,99 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.service.StatisticsService;
+import org.example.service.dto.DoctorCaseloadDTO;
+import org.example.service.dto.LiveCountDTO;
+import org.example.service.dto.SickAgeBandsDTO;
+import org.example.service.dto.SickPrevalenceDTO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Контроллер для статистики по врачам и болезням.
+ * Статистика считается в базе данных и обновляется по расписанию
+ * (см. {@link org.example.config.StatisticsConfig}), поэтому может отставать от данных
+ * на интервал обновления. Методы {@code /stats/live} читают счетчики в памяти приложения
+ * без обращения к базе данных и выполняются синхронно.
+ */
+@RestController
+@RequestMapping("/stats")
+@AllArgsConstructor
+public class StatisticsController {
+    private final StatisticsService statisticsService;
+
+    /**
+     * Получение нагрузки врачей: количество клиентов и их средний возраст.
+     *
+     * @param limit количество врачей с наибольшим количеством клиентов.
+     * @return список врачей в виде {@link ResponseEntity} с объектами {@link DoctorCaseloadDTO}.
+     */
+    @GetMapping(value = "/doctors/caseload", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<List<DoctorCaseloadDTO>>> doctorCaseload(
+            @RequestParam(defaultValue = "20") int limit) {
+        return () -> statisticsService.doctorCaseload(limit);
+    }
+
+    /**
+     * Получение распространенности болезней: количество и доля клиентов с болезнью.
+     *
+     * @param limit количество самых распространенных болезней.
+     * @return список болезней в виде {@link ResponseEntity} с объектами {@link SickPrevalenceDTO}.
+     */
+    @GetMapping(value = "/sicks/prevalence", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<List<SickPrevalenceDTO>>> sickPrevalence(
+            @RequestParam(defaultValue = "20") int limit) {
+        return () -> statisticsService.sickPrevalence(limit);
+    }
+
+    /**
+     * Получение распределения клиентов с болезнью по возрастным группам по десять лет.
+     *
+     * @param id идентификатор болезни.
+     * @return распределение в виде {@link ResponseEntity} с объектом {@link SickAgeBandsDTO}.
+     */
+    @GetMapping(value = "/sicks/{id}/age-bands", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Callable<ResponseEntity<SickAgeBandsDTO>> sickAgeBands(@PathVariable int id) {
+        return () -> statisticsService.sickAgeBands(id);
+    }
+
+    /**
+     * Получение текущего количества клиентов каждой болезни по счетчикам.
+     *
+     * @return список в виде {@link ResponseEntity} с объектами {@link LiveCountDTO}.
+     */
+    @GetMapping(value = "/live/sicks", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<LiveCountDTO>> liveSicks() {
+        return statisticsService.liveSicks();
+    }
+
+    /**
+     * Получение текущего количества клиентов с болезнью по счетчикам.
+     *
+     * @param id идентификатор болезни.
+     * @return количество клиентов в виде {@link ResponseEntity} с объектом {@link LiveCountDTO}.
+     */
+    @GetMapping(value = "/live/sicks/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LiveCountDTO> liveSick(@PathVariable int id) {
+        return statisticsService.liveSick(id);
+    }
+
+    /**
+     * Получение текущего количества клиентов врача по счетчикам.
+     *
+     * @param id идентификатор врача.
+     * @return количество клиентов в виде {@link ResponseEntity} с объектом {@link LiveCountDTO}.
+     */
+    @GetMapping(value = "/live/doctors/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LiveCountDTO> liveDoctor(@PathVariable int id) {
+        return statisticsService.liveDoctor(id);
+    }
+}
@@ -8,9 +8,13 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
+import java.util.Set;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 /**
  * Класс, представляющий сущность клиента в системе.
@@ -25,6 +29,13 @@ import lombok.ToString;
  * </ul>
  * </p>
  *
+ * <p>Болезни клиента хранятся множеством: Hibernate сравнивает его с прежним состоянием и вставляет
+ * или удаляет только измененные строки client_sick, а не пересоздает все связи клиента, как для
+ * неупорядоченного списка.</p>
+ *
+ * <p>Поле {@code version} используется для оптимистической блокировки и увеличивается Hibernate
+ * при каждом изменении клиента, включая изменение списка его болезней.</p>
+ *
  * <p>Использует аннотации JPA для сопоставления с таблицей "clients" в базе данных, а также
  * аннотации Lombok для автоматической генерации методов геттеров, сеттеров, конструктора и equals/hashCode.</p>
  */
@@ -37,7 +48,8 @@ import lombok.ToString;
 public class Client {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_id_seq")
+  @SequenceGenerator(name = "client_id_seq", sequenceName = "client_client_id_seq", allocationSize = 50)
   @Column(name = "client_id")
   private int id;
 
@@ -56,6 +68,8 @@ public class Client {
   private Doctor doctor;
 
   @ManyToMany(cascade = CascadeType.DETACH)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+  @Fetch(FetchMode.SUBSELECT)
   @JsonIgnoreProperties("clients")
   @JoinTable(
       name = "client_sick",
@@ -63,7 +77,11 @@ public class Client {
       inverseJoinColumns = @JoinColumn(name = "sick_id")
   )
   @ToString.Exclude
-  private List<Sick> sicks;
+  private Set<Sick> sicks;
+
+  @Version
+  @Column(name = "version")
+  private long version;
 
   public Client(String firstName, String lastName, int age) {
     this.firstName = firstName;
@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 /**
  * Класс, представляющий сущность доктора в системе.
@@ -34,7 +36,8 @@ import lombok.ToString;
 @Table(name = "doctor")
 public class Doctor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_id_seq")
+    @SequenceGenerator(name = "doctor_id_seq", sequenceName = "doctor_doctor_id_seq", allocationSize = 50)
     @Column(name = "doctor_id")
     private int id;
     @Column(name = "first_name")
@@ -46,10 +49,15 @@ public class Doctor {
     @Column(name = "specification")
     private String specification;
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.DETACH)
+    @Fetch(FetchMode.SUBSELECT)
     @JsonManagedReference
     @ToString.Exclude
     private List<Client> clients;
 
+    @Version
+    @Column(name = "version")
+    private long version;
+
     public Doctor(String firstName, String lastName, int age, String specification) {
         this.firstName = firstName;
         this.lastName = lastName;
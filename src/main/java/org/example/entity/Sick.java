@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Класс, представляющий сущность болезни в системе.
@@ -31,10 +33,13 @@ import lombok.ToString;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "sick")
 public class Sick {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sick_id_seq")
+    @SequenceGenerator(name = "sick_id_seq", sequenceName = "sick_sick_id_seq", allocationSize = 50)
     @Column(name = "sick_id")
     private int id;
 
@@ -49,6 +54,10 @@ public class Sick {
     @ToString.Exclude
     private List<Client> clients;
 
+    @Version
+    @Column(name = "version")
+    private long version;
+
     public Sick(String sickName, String stageSick) {
         this.sickName = sickName;
         this.stageSick = stageSick;
@@ -0,0 +1,54 @@
+package org.example.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.regex.Pattern;
+
+/**
+ * Конвертер logback, заменяющий литералы в тексте SQL-запроса на {@code ?}.
+ *
+ * <p>Журнал медленных запросов Hibernate ({@code org.hibernate.SQL_SLOW}) выводит
+ * {@code Statement.toString()}, а драйвер PostgreSQL подставляет в этот текст значения
+ * параметров. Конвертер оставляет от сообщения только структуру запроса: строковые
+ * и числовые литералы заменяются на {@code ?}, обертка пула соединений
+ * ({@code HikariProxyPreparedStatement@... wrapping}) удаляется. Если текст запроса заключен
+ * в квадратные скобки, обрабатывается только он, так что время выполнения в сообщении сохраняется.</p>
+ *
+ * <p>Подключается в logback.xml через {@code <conversionRule>}.</p>
+ */
+public class RedactedSqlConverter extends ClassicConverter {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("(?:\\b[eE])?'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.$?])-?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?(?![\\w.])");
+    private static final Pattern PROXY_PREFIX = Pattern.compile("\\S+@\\p{XDigit}+ wrapping ");
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return redact(event.getFormattedMessage());
+    }
+
+    /**
+     * Заменить литералы SQL в сообщении на {@code ?}.
+     *
+     * @param message сообщение журнала.
+     * @return сообщение без значений параметров.
+     */
+    public static String redact(String message) {
+        if (message == null) {
+            return null;
+        }
+        int start = message.indexOf('[');
+        int end = message.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return redactSql(message);
+        }
+        return message.substring(0, start + 1) + redactSql(message.substring(start + 1, end)) + message.substring(end);
+    }
+
+    private static String redactSql(String sql) {
+        String withoutProxy = PROXY_PREFIX.matcher(sql).replaceAll("");
+        String withoutStrings = STRING_LITERAL.matcher(withoutProxy).replaceAll("?");
+        return NUMERIC_LITERAL.matcher(withoutStrings).replaceAll("?");
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Фильтр logback, пропускающий только часть событий успешного пути.
+ *
+ * <p>Для логгеров с префиксом {@code loggerPrefix} события уровня ниже {@code WARN}
+ * пропускаются с вероятностью {@code 1 / rate}, остальные отбрасываются до форматирования
+ * сообщения. Предупреждения и ошибки, а также события с исключением не выбираются
+ * и всегда записываются полностью. При {@code rate = 1} (по умолчанию) фильтр ничего не отбрасывает.</p>
+ *
+ * <p>Подключается в logback.xml через {@code <turboFilter>}.</p>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "org.example";
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || level == null || level.isGreaterOrEqual(Level.WARN) || t != null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (rate < 1) {
+            addError("Параметр rate должен быть не меньше 1: " + rate);
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
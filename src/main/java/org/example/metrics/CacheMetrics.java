@@ -0,0 +1,64 @@
+package org.example.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.example.service.dto.CacheRegionStatsDTO;
+import org.example.service.dto.CacheStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сборщик статистики кэша второго уровня Hibernate.
+ *
+ * <p>Читает {@link Statistics} фабрики EntityManager (включается свойством
+ * {@code hibernate.generate_statistics}) и формирует снимок попаданий и промахов
+ * по всем регионам кэша и по кэшу запросов.</p>
+ */
+@Component
+@AllArgsConstructor
+public class CacheMetrics {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Снимок текущей статистики кэша.
+     *
+     * @return объект CacheStatsDTO с общими счетчиками и счетчиками по регионам.
+     */
+    public CacheStatsDTO snapshot() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setSecondLevelHits(statistics.getSecondLevelCacheHitCount());
+        dto.setSecondLevelMisses(statistics.getSecondLevelCacheMissCount());
+        dto.setSecondLevelPuts(statistics.getSecondLevelCachePutCount());
+        dto.setSecondLevelHitRatio(ratio(dto.getSecondLevelHits(), dto.getSecondLevelMisses()));
+        dto.setQueryHits(statistics.getQueryCacheHitCount());
+        dto.setQueryMisses(statistics.getQueryCacheMissCount());
+        dto.setQueryPuts(statistics.getQueryCachePutCount());
+        dto.setQueryHitRatio(ratio(dto.getQueryHits(), dto.getQueryMisses()));
+        Map<String, CacheRegionStatsDTO> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            CacheRegionStatsDTO regionDTO = new CacheRegionStatsDTO();
+            regionDTO.setHits(region.getHitCount());
+            regionDTO.setMisses(region.getMissCount());
+            regionDTO.setPuts(region.getPutCount());
+            regions.put(regionName, regionDTO);
+        }
+        dto.setRegions(regions);
+        return dto;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
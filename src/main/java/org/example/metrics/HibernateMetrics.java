@@ -0,0 +1,95 @@
+package org.example.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.example.service.dto.EntityStatsDTO;
+import org.example.service.dto.HibernateStatsDTO;
+import org.example.service.dto.QueryStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сборщик статистики Hibernate.
+ *
+ * <p>Читает {@link Statistics} фабрики EntityManager (включается свойством
+ * {@code hibernate.generate_statistics}) и формирует снимок: количество и время выполнения
+ * запросов, загрузки сущностей и коллекций, доли попаданий в кэш второго уровня и кэш запросов.
+ * Тексты запросов в статистике — это HQL или SQL с параметрами, значения параметров в них не попадают.</p>
+ */
+@Component
+@AllArgsConstructor
+public class HibernateMetrics {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Снимок текущей статистики Hibernate.
+     *
+     * @param queryLimit максимальное количество запросов в ответе; запросы упорядочены
+     *                   по суммарному времени выполнения.
+     * @return объект HibernateStatsDTO с общими счетчиками, счетчиками по сущностям и по запросам.
+     */
+    public HibernateStatsDTO snapshot(int queryLimit) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        HibernateStatsDTO dto = new HibernateStatsDTO();
+        dto.setStartTimeMillis(statistics.getStart().toEpochMilli());
+        dto.setSessionsOpened(statistics.getSessionOpenCount());
+        dto.setTransactions(statistics.getTransactionCount());
+        dto.setPreparedStatements(statistics.getPrepareStatementCount());
+        dto.setQueryExecutions(statistics.getQueryExecutionCount());
+        dto.setQueryExecutionMaxMillis(statistics.getQueryExecutionMaxTime());
+        dto.setSlowestQuery(statistics.getQueryExecutionMaxTimeQueryString());
+        dto.setEntityLoads(statistics.getEntityLoadCount());
+        dto.setEntityFetches(statistics.getEntityFetchCount());
+        dto.setEntityInserts(statistics.getEntityInsertCount());
+        dto.setEntityUpdates(statistics.getEntityUpdateCount());
+        dto.setEntityDeletes(statistics.getEntityDeleteCount());
+        dto.setCollectionLoads(statistics.getCollectionLoadCount());
+        dto.setCollectionFetches(statistics.getCollectionFetchCount());
+        dto.setSecondLevelHitRatio(ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        dto.setQueryCacheHitRatio(ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+
+        Map<String, EntityStatsDTO> entities = new TreeMap<>();
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(entityName);
+            EntityStatsDTO entityDTO = new EntityStatsDTO();
+            entityDTO.setLoads(entity.getLoadCount());
+            entityDTO.setFetches(entity.getFetchCount());
+            entityDTO.setInserts(entity.getInsertCount());
+            entityDTO.setUpdates(entity.getUpdateCount());
+            entityDTO.setDeletes(entity.getDeleteCount());
+            entities.put(entityName, entityDTO);
+        }
+        dto.setEntities(entities);
+
+        List<QueryStatsDTO> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            QueryStatsDTO queryDTO = new QueryStatsDTO();
+            queryDTO.setQuery(query);
+            queryDTO.setExecutions(queryStatistics.getExecutionCount());
+            queryDTO.setRows(queryStatistics.getExecutionRowCount());
+            queryDTO.setMeanMillis(queryStatistics.getExecutionAvgTimeAsDouble());
+            queryDTO.setMaxMillis(queryStatistics.getExecutionMaxTime());
+            queryDTO.setTotalMillis(queryStatistics.getExecutionTotalTime());
+            queries.add(queryDTO);
+        }
+        queries.sort(Comparator.comparingLong(QueryStatsDTO::getTotalMillis).reversed());
+        dto.setQueries(queries.size() > queryLimit ? new ArrayList<>(queries.subList(0, queryLimit)) : queries);
+        return dto;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
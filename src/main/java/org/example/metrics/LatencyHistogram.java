@@ -0,0 +1,128 @@
+package org.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма задержек с заранее заданными корзинами.
+ *
+ * <p>Границы корзин растут как степени двойки в микросекундах: корзина {@code k} содержит
+ * значения от {@code 2^(k-1)} до {@code 2^k} мкс, последняя корзина — все, что больше.
+ * Запись значения не выделяет память и не берет блокировок: каждая корзина — это
+ * {@link LongAdder}, поэтому гистограмму можно обновлять из любого количества потоков.</p>
+ *
+ * <p>Процентили вычисляются приближенно — как верхняя граница корзины, в которую попадает
+ * искомый ранг.</p>
+ */
+public class LatencyHistogram {
+
+    /**
+     * Количество корзин с конечной границей: от 1 мкс до 2^26 мкс (~67 секунд).
+     */
+    private static final int BOUNDED_BUCKETS = 27;
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDED_BUCKETS + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Записать одно измерение.
+     *
+     * @param nanos длительность в наносекундах.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        long micros = TimeUnit.NANOSECONDS.toMicros(value);
+        int index = 64 - Long.numberOfLeadingZeros(micros);
+        buckets[Math.min(index, BOUNDED_BUCKETS)].increment();
+        count.increment();
+        sumNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * @return общее количество измерений.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return сумма всех измерений в наносекундах.
+     */
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * @return максимальное измерение в наносекундах.
+     */
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return количество корзин, включая последнюю неограниченную корзину.
+     */
+    public int bucketCount() {
+        return buckets.length;
+    }
+
+    /**
+     * Верхняя граница корзины.
+     *
+     * @param index номер корзины.
+     * @return граница в наносекундах или {@link Long#MAX_VALUE} для последней корзины.
+     */
+    public long bucketUpperBoundNanos(int index) {
+        if (index >= BOUNDED_BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.MICROSECONDS.toNanos(1L << index);
+    }
+
+    /**
+     * Количество измерений в корзине (не накопительное).
+     *
+     * @param index номер корзины.
+     * @return количество измерений.
+     */
+    public long bucketValue(int index) {
+        return buckets[index].sum();
+    }
+
+    /**
+     * Приближенный процентиль распределения.
+     *
+     * @param quantile квантиль от 0 до 1, например 0.99.
+     * @return значение в наносекундах или 0, если измерений не было.
+     */
+    public long percentileNanos(double quantile) {
+        long[] snapshot = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            snapshot[i] = buckets[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long cumulative = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return Math.min(bucketUpperBoundNanos(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+}
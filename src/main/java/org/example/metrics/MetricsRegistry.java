@@ -0,0 +1,157 @@
+package org.example.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Реестр метрик HTTP-обработчиков и операций репозиториев с выводом в текстовом формате Prometheus.
+ *
+ * <p>Метрики обработчика создаются при первом запросе к нему и затем находятся по объекту
+ * {@link Method} без выделения памяти. Метрики операций репозиториев создаются один раз
+ * при создании репозитория.</p>
+ */
+@Component
+public class MetricsRegistry {
+
+    /**
+     * Тип содержимого текстового формата Prometheus.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String[] BUCKET_BOUNDS = bucketBounds();
+
+    private final ConcurrentMap<Method, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Метрики обработчика запросов.
+     *
+     * @param handler    метод контроллера.
+     * @param httpMethod HTTP-метод запроса.
+     * @param route      шаблон пути, сопоставленный запросу, например {@code /clients/{id}}.
+     * @return метрики обработчика.
+     */
+    public RouteMetrics route(Method handler, String httpMethod, String route) {
+        RouteMetrics metrics = routes.get(handler);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(handler, method -> new RouteMetrics(
+                    "method=\"" + escape(httpMethod) + "\",route=\"" + escape(route) + "\",handler=\""
+                            + method.getDeclaringClass().getSimpleName() + "." + method.getName() + "\""));
+        }
+        return metrics;
+    }
+
+    /**
+     * Метрики операции репозитория.
+     *
+     * @param repository имя репозитория, например {@code clients}.
+     * @param operation  имя метода репозитория.
+     * @return метрики операции.
+     */
+    public OperationMetrics repositoryOperation(String repository, String operation) {
+        String labels = "repository=\"" + escape(repository) + "\",operation=\"" + escape(operation) + "\"";
+        return operations.computeIfAbsent(labels, OperationMetrics::new);
+    }
+
+    /**
+     * Все метрики в текстовом формате Prometheus.
+     *
+     * @return текст для ответа на запрос /metrics.
+     */
+    public String scrape() {
+        List<RouteMetrics> routeMetrics = sorted(routes.values());
+        List<OperationMetrics> operationMetrics = sorted(operations.values());
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "http_server_requests_seconds", "histogram", "Время обработки HTTP-запросов");
+        for (RouteMetrics route : routeMetrics) {
+            histogram(out, "http_server_requests_seconds", route.getLabels(), route.getLatency());
+        }
+        header(out, "http_server_requests_total", "counter", "Количество HTTP-ответов по классам статусов");
+        for (RouteMetrics route : routeMetrics) {
+            for (int i = 0; i < RouteMetrics.statusClassCount(); i++) {
+                sample(out, "http_server_requests_total", route.getLabels() + ",status=\"" + RouteMetrics.statusClass(i) + "\"",
+                        route.getResponses(i));
+            }
+        }
+        header(out, "http_server_errors_total", "counter", "Количество HTTP-запросов, завершившихся ошибкой 5xx или исключением");
+        for (RouteMetrics route : routeMetrics) {
+            sample(out, "http_server_errors_total", route.getLabels(), route.getErrors());
+        }
+        header(out, "http_server_requests_in_flight", "gauge", "Количество обрабатываемых HTTP-запросов");
+        for (RouteMetrics route : routeMetrics) {
+            sample(out, "http_server_requests_in_flight", route.getLabels(), route.getInFlight());
+        }
+
+        header(out, "repository_operation_seconds", "histogram", "Время выполнения операций репозиториев");
+        for (OperationMetrics operation : operationMetrics) {
+            histogram(out, "repository_operation_seconds", operation.getLabels(), operation.getLatency());
+        }
+        header(out, "repository_operation_errors_total", "counter", "Количество операций репозиториев, завершившихся исключением");
+        for (OperationMetrics operation : operationMetrics) {
+            sample(out, "repository_operation_errors_total", operation.getLabels(), operation.getErrors());
+        }
+        header(out, "repository_operation_in_flight", "gauge", "Количество выполняющихся операций репозиториев");
+        for (OperationMetrics operation : operationMetrics) {
+            sample(out, "repository_operation_in_flight", operation.getLabels(), operation.getInFlight());
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    /**
+     * Накопительные корзины, сумма и количество. Количество вычисляется по тем же значениям корзин,
+     * чтобы серия оставалась согласованной при одновременной записи.
+     */
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long cumulative = 0;
+        for (int i = 0; i < histogram.bucketCount(); i++) {
+            cumulative += histogram.bucketValue(i);
+            out.append(name).append("_bucket{").append(labels).append(",le=\"").append(BUCKET_BOUNDS[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(histogram.sumNanos() / 1e9).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(cumulative).append('\n');
+    }
+
+    private static <M extends OperationMetrics> List<M> sorted(Iterable<M> metrics) {
+        List<M> sorted = new ArrayList<>();
+        metrics.forEach(sorted::add);
+        sorted.sort(Comparator.comparing(OperationMetrics::getLabels));
+        return sorted;
+    }
+
+    private static String[] bucketBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        String[] bounds = new String[histogram.bucketCount()];
+        for (int i = 0; i < bounds.length; i++) {
+            long nanos = histogram.bucketUpperBoundNanos(i);
+            bounds[i] = nanos == Long.MAX_VALUE
+                    ? "+Inf"
+                    : BigDecimal.valueOf(nanos).movePointLeft(9).stripTrailingZeros().toPlainString();
+        }
+        return bounds;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одной операции: гистограмма времени выполнения, количество ошибок
+ * и количество выполняющихся в данный момент вызовов.
+ *
+ * <p>Все счетчики — {@link LongAdder}, поэтому запись не берет блокировок
+ * и не выделяет память.</p>
+ */
+public class OperationMetrics {
+
+    private final String labels;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    /**
+     * @param labels метки серии в формате Prometheus без фигурных скобок, например {@code repository="clients"}.
+     */
+    public OperationMetrics(String labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Отметить начало вызова.
+     *
+     * @return момент начала в наносекундах, передаваемый в {@link #stop(long)}.
+     */
+    public long start() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Отметить завершение вызова и записать его длительность.
+     *
+     * @param start значение, возвращенное {@link #start()}.
+     */
+    public void stop(long start) {
+        latency.record(System.nanoTime() - start);
+        inFlight.decrement();
+    }
+
+    /**
+     * Учесть вызов, завершившийся исключением.
+     */
+    public void failed() {
+        errors.increment();
+    }
+
+    public String getLabels() {
+        return labels;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.example.service.dto.PoolStatsDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сборщик статистики пула соединений HikariCP.
+ *
+ * <p>Регистрируется в пуле как {@link MetricsTrackerFactory}: пул сообщает о времени ожидания
+ * выдачи соединения, времени его использования и таймаутах, а также предоставляет
+ * {@link PoolStats} с количеством активных, свободных и ожидающих соединений.</p>
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram usageTime = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireTime.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageTime.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * @return гистограмма времени ожидания выдачи соединения из пула.
+     */
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    /**
+     * @return гистограмма времени удержания соединения приложением.
+     */
+    public LatencyHistogram getUsageTime() {
+        return usageTime;
+    }
+
+    /**
+     * @return количество запросов соединения, завершившихся таймаутом.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return статистика пула или {@code null}, если пул еще не запущен.
+     */
+    public PoolStats getPoolStats() {
+        return poolStats;
+    }
+
+    /**
+     * Снимок текущего состояния пула.
+     *
+     * @return объект PoolStatsDTO с размерами пула и процентилями времени ожидания соединения.
+     */
+    public PoolStatsDTO snapshot() {
+        PoolStats stats = poolStats;
+        PoolStatsDTO dto = new PoolStatsDTO();
+        if (stats != null) {
+            dto.setActive(stats.getActiveConnections());
+            dto.setIdle(stats.getIdleConnections());
+            dto.setTotal(stats.getTotalConnections());
+            dto.setPending(stats.getPendingThreads());
+            dto.setMax(stats.getMaxConnections());
+        }
+        dto.setAcquireCount(acquireTime.count());
+        dto.setAcquireP50Millis(toMillis(acquireTime.percentileNanos(0.50)));
+        dto.setAcquireP95Millis(toMillis(acquireTime.percentileNanos(0.95)));
+        dto.setAcquireP99Millis(toMillis(acquireTime.percentileNanos(0.99)));
+        dto.setAcquireMaxMillis(toMillis(acquireTime.maxNanos()));
+        dto.setTimeouts(getTimeouts());
+        return dto;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.metrics;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Перехватчик, записывающий метрики обработчиков запросов в {@link MetricsRegistry}:
+ * время обработки, статус ответа, ошибки и количество выполняющихся запросов.
+ *
+ * <p>Метрики и момент начала хранятся в атрибутах запроса. При повторной диспетчеризации
+ * асинхронного запроса (режим virtual, потоковые ответы) запрос уже учтен, поэтому метрики
+ * начинаются только один раз.</p>
+ */
+@Component
+@AllArgsConstructor
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String ROUTE_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".route";
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(ROUTE_ATTRIBUTE) != null) {
+            return true;
+        }
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RouteMetrics metrics = metricsRegistry.route(((HandlerMethod) handler).getMethod(), request.getMethod(), route);
+        request.setAttribute(ROUTE_ATTRIBUTE, metrics);
+        request.setAttribute(START_ATTRIBUTE, metrics.start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RouteMetrics metrics = (RouteMetrics) request.getAttribute(ROUTE_ATTRIBUTE);
+        if (metrics == null) {
+            return;
+        }
+        request.removeAttribute(ROUTE_ATTRIBUTE);
+        metrics.stop((Long) request.getAttribute(START_ATTRIBUTE), response.getStatus(), ex != null);
+    }
+}
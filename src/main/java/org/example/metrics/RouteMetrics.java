@@ -0,0 +1,65 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одного обработчика HTTP-запросов: время обработки, выполняющиеся запросы,
+ * количество ответов по классам статусов (1xx–5xx) и количество ошибок.
+ *
+ * <p>Ошибкой считается ответ со статусом 5xx или исключение, не обработанное контроллером.</p>
+ */
+public class RouteMetrics extends OperationMetrics {
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final LongAdder[] responses = new LongAdder[STATUS_CLASSES.length];
+
+    /**
+     * @param labels метки серии в формате Prometheus без фигурных скобок.
+     */
+    public RouteMetrics(String labels) {
+        super(labels);
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Отметить завершение запроса.
+     *
+     * @param start  значение, возвращенное {@link #start()}.
+     * @param status статус ответа.
+     * @param failed {@code true}, если обработчик завершился исключением.
+     */
+    public void stop(long start, int status, boolean failed) {
+        stop(start);
+        int statusClass = failed && status < 400 ? 5 : status / 100;
+        responses[Math.min(Math.max(statusClass, 1), STATUS_CLASSES.length) - 1].increment();
+        if (failed || statusClass == 5) {
+            failed();
+        }
+    }
+
+    /**
+     * @return количество классов статусов.
+     */
+    public static int statusClassCount() {
+        return STATUS_CLASSES.length;
+    }
+
+    /**
+     * @param index номер класса статуса от 0 до {@link #statusClassCount()} - 1.
+     * @return обозначение класса статуса, например {@code 2xx}.
+     */
+    public static String statusClass(int index) {
+        return STATUS_CLASSES[index];
+    }
+
+    /**
+     * @param index номер класса статуса.
+     * @return количество ответов этого класса.
+     */
+    public long getResponses(int index) {
+        return responses[index].sum();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Результат групповой операции {@link BulkRepository}.
+ *
+ * <p>Кроме количества затронутых строк содержит идентификаторы клиентов, строки или связи которых изменились,
+ * и изменение количества клиентов по болезням и по врачам, чтобы вызывающий код мог удалить из кэшей
+ * только затронутые записи и поправить счетчики без повторного подсчета.</p>
+ */
+@Getter
+@AllArgsConstructor
+public final class BulkChange {
+
+    /**
+     * Количество строк, затронутых операцией; что считается строкой, описывает метод репозитория.
+     */
+    private final int affected;
+
+    /**
+     * Идентификаторы удаленных клиентов и клиентов, у которых изменились врач или болезни.
+     */
+    private final Set<Integer> clients;
+
+    /**
+     * Изменение количества клиентов по идентификатору болезни.
+     */
+    private final Map<Integer, Long> sickClients;
+
+    /**
+     * Изменение количества клиентов по идентификатору врача.
+     */
+    private final Map<Integer, Long> doctorClients;
+}
@@ -0,0 +1,252 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Репозиторий для групповых изменений клиентов, врачей и болезней.
+ * <p>
+ * Каждая операция выполняется одной командой SQL в отдельной транзакции: связанные изменения
+ * объединены в модифицирующие CTE ({@code WITH ... DELETE/UPDATE ... RETURNING}), поэтому
+ * сущности и их связи не загружаются, а количество затронутых строк возвращает сама команда.
+ * Версия клиентов, у которых изменились врач или болезни, увеличивается, как при изменении
+ * через Hibernate. Изменяемые таблицы объявляются синхронизированными пространствами запроса
+ * ({@link QuerySpaces}), поэтому из кэша запросов Hibernate выпадают только запросы по ним.
+ * Кэши сущностей репозиторий не очищает — это делает вызывающий код по {@link BulkChange}.
+ */
+@Repository
+@AllArgsConstructor
+@Slf4j
+public class BulkRepository {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Удалить клиентов по списку идентификаторов вместе с их связями с болезнями.
+     *
+     * @param ids идентификаторы клиентов; несуществующие идентификаторы пропускаются.
+     * @return изменение с количеством и идентификаторами удаленных клиентов.
+     */
+    public BulkChange deleteClients(List<Integer> ids) {
+        log.debug("Вызов метода deleteClients для удаления {} клиентов", ids.size());
+        String sql = "WITH links AS (DELETE FROM client_sick WHERE client_id = ANY(:ids) RETURNING sick_id), "
+                + "clients AS (DELETE FROM client WHERE client_id = ANY(:ids) RETURNING client_id, doctor_id) "
+                + "SELECT 'c', client_id, 1 FROM clients "
+                + "UNION ALL SELECT 's', sick_id, count(*) FROM links GROUP BY sick_id "
+                + "UNION ALL SELECT 'd', doctor_id, count(*) FROM clients WHERE doctor_id IS NOT NULL GROUP BY doctor_id";
+        return execute("deleteClients", entityManager -> {
+            Set<Integer> deleted = new HashSet<>();
+            Map<Integer, Long> sicks = new HashMap<>();
+            Map<Integer, Long> doctors = new HashMap<>();
+            for (Object[] row : rows(QuerySpaces.modifying(entityManager, sql, "client_sick", "client")
+                    .setParameter("ids", ids.toArray(new Integer[0])).getResultList())) {
+                int id = ((Number) row[1]).intValue();
+                long count = ((Number) row[2]).longValue();
+                switch (row[0].toString()) {
+                    case "c" -> deleted.add(id);
+                    case "s" -> sicks.put(id, -count);
+                    default -> doctors.put(id, -count);
+                }
+            }
+            log.debug("Удалено {} клиентов", deleted.size());
+            return new BulkChange(deleted.size(), deleted, sicks, doctors);
+        });
+    }
+
+    /**
+     * Передать всех клиентов одного врача другому врачу.
+     *
+     * @param doctorId       идентификатор врача, клиенты которого передаются.
+     * @param targetDoctorId идентификатор врача, который получает клиентов.
+     * @return изменение с количеством переданных клиентов или {@code null}, если врача
+     * {@code targetDoctorId} нет.
+     */
+    public BulkChange reassignClients(int doctorId, int targetDoctorId) {
+        log.debug("Вызов метода reassignClients для передачи клиентов врача {} врачу {}", doctorId, targetDoctorId);
+        String sql = "WITH target AS (SELECT doctor_id FROM doctor WHERE doctor_id = :targetDoctorId FOR KEY SHARE), "
+                + "moved AS (UPDATE client SET doctor_id = :targetDoctorId, version = version + 1 "
+                + "WHERE doctor_id = :doctorId AND EXISTS (SELECT 1 FROM target) RETURNING client_id) "
+                + "SELECT 't', 0 FROM target UNION ALL SELECT 'm', client_id FROM moved";
+        return execute("reassignClients", entityManager -> {
+            boolean target = false;
+            Set<Integer> moved = new HashSet<>();
+            for (Object[] row : rows(QuerySpaces.modifying(entityManager, sql, "client")
+                    .setParameter("doctorId", doctorId)
+                    .setParameter("targetDoctorId", targetDoctorId)
+                    .getResultList())) {
+                if ("t".equals(row[0].toString())) {
+                    target = true;
+                } else {
+                    moved.add(((Number) row[1]).intValue());
+                }
+            }
+            if (!target) {
+                log.warn("Врач с id {} не найден для передачи клиентов", targetDoctorId);
+                return null;
+            }
+            long count = moved.size();
+            log.debug("Передано {} клиентов", count);
+            return new BulkChange(moved.size(), moved, Map.of(), moved.isEmpty() ? Map.of()
+                    : Map.of(doctorId, -count, targetDoctorId, count));
+        });
+    }
+
+    /**
+     * Удалить болезнь вместе с ее связями с клиентами.
+     *
+     * @param sickId идентификатор болезни.
+     * @return изменение с количеством удаленных болезней (1), клиентами, у которых удалены связи,
+     * или {@code null}, если болезни нет.
+     */
+    public BulkChange deleteSick(int sickId) {
+        log.debug("Вызов метода deleteSick для удаления болезни с id {} вместе со связями", sickId);
+        String sql = "WITH deleted AS (DELETE FROM sick WHERE sick_id = :sickId RETURNING sick_id), "
+                + "links AS (DELETE FROM client_sick WHERE sick_id = :sickId RETURNING client_id), "
+                + "touched AS (UPDATE client SET version = version + 1 "
+                + "WHERE client_id IN (SELECT client_id FROM links) RETURNING client_id) "
+                + "SELECT 'd', 0 FROM deleted UNION ALL SELECT 'l', client_id FROM links";
+        return execute("deleteSick", entityManager -> {
+            int deleted = 0;
+            Set<Integer> clients = new HashSet<>();
+            for (Object[] row : rows(QuerySpaces.modifying(entityManager, sql, "sick", "client_sick", "client")
+                    .setParameter("sickId", sickId)
+                    .getResultList())) {
+                if ("d".equals(row[0].toString())) {
+                    deleted++;
+                } else {
+                    clients.add(((Number) row[1]).intValue());
+                }
+            }
+            if (deleted == 0) {
+                log.warn("Болезнь с id {} не найдена для удаления", sickId);
+                return null;
+            }
+            long links = clients.size();
+            log.debug("Болезнь с id {} удалена вместе с {} связями", sickId, links);
+            return new BulkChange(deleted, clients, Map.of(sickId, -links), Map.of());
+        });
+    }
+
+    /**
+     * Добавить клиенту болезни по идентификаторам.
+     * <p>
+     * Вставляются только отсутствующие строки client_sick ({@code ON CONFLICT DO NOTHING}), остальные связи
+     * клиента не затрагиваются. Связи добавляются, только если существуют клиент и все болезни.
+     *
+     * @param clientId идентификатор клиента.
+     * @param sickIds  идентификаторы болезней.
+     * @return изменение с количеством добавленных связей или {@code null}, если клиента или одной из болезней нет.
+     */
+    public BulkChange addSicks(int clientId, List<Integer> sickIds) {
+        log.debug("Вызов метода addSicks для добавления клиенту с id {} болезней {}", clientId, sickIds);
+        String sql = "WITH target AS (SELECT client_id FROM client WHERE client_id = :clientId FOR KEY SHARE), "
+                + "sicks AS (SELECT sick_id FROM sick WHERE sick_id = ANY(:sickIds) FOR KEY SHARE), "
+                + "added AS (INSERT INTO client_sick (client_id, sick_id) "
+                + "SELECT t.client_id, s.sick_id FROM target t CROSS JOIN sicks s "
+                + "WHERE (SELECT count(*) FROM sicks) = :sickCount ON CONFLICT DO NOTHING RETURNING sick_id), "
+                + "touched AS (UPDATE client SET version = version + 1 "
+                + "WHERE client_id = :clientId AND EXISTS (SELECT 1 FROM added) RETURNING client_id) "
+                + "SELECT 't', 0, count(*) FROM target "
+                + "UNION ALL SELECT 's', 0, count(*) FROM sicks "
+                + "UNION ALL SELECT 'a', sick_id, 1 FROM added";
+        long sickCount = sickIds.stream().distinct().count();
+        return execute("addSicks", entityManager -> {
+            long clients = 0;
+            long sicks = 0;
+            Map<Integer, Long> added = new HashMap<>();
+            for (Object[] row : rows(QuerySpaces.modifying(entityManager, sql, "client_sick", "client")
+                    .setParameter("clientId", clientId)
+                    .setParameter("sickIds", sickIds.toArray(new Integer[0]))
+                    .setParameter("sickCount", sickCount)
+                    .getResultList())) {
+                switch (row[0].toString()) {
+                    case "t" -> clients = ((Number) row[2]).longValue();
+                    case "s" -> sicks = ((Number) row[2]).longValue();
+                    default -> added.put(((Number) row[1]).intValue(), 1L);
+                }
+            }
+            if (clients == 0 || sicks != sickCount) {
+                log.warn("Клиент с id {} или одна из болезней {} не найдены", clientId, sickIds);
+                return null;
+            }
+            log.debug("Клиенту с id {} добавлено {} болезней", clientId, added.size());
+            return new BulkChange(added.size(), added.isEmpty() ? Set.of() : Set.of(clientId), added, Map.of());
+        });
+    }
+
+    /**
+     * Удалить у клиента болезни по идентификаторам.
+     * <p>
+     * Удаляются только строки client_sick с переданными болезнями, остальные связи клиента
+     * не затрагиваются. Идентификаторы болезней, не связанных с клиентом, пропускаются.
+     *
+     * @param clientId идентификатор клиента.
+     * @param sickIds  идентификаторы болезней.
+     * @return изменение с количеством удаленных связей или {@code null}, если клиента нет.
+     */
+    public BulkChange removeSicks(int clientId, List<Integer> sickIds) {
+        log.debug("Вызов метода removeSicks для удаления у клиента с id {} болезней {}", clientId, sickIds);
+        String sql = "WITH target AS (SELECT client_id FROM client WHERE client_id = :clientId), "
+                + "removed AS (DELETE FROM client_sick "
+                + "WHERE client_id = :clientId AND sick_id = ANY(:sickIds) RETURNING sick_id), "
+                + "touched AS (UPDATE client SET version = version + 1 "
+                + "WHERE client_id = :clientId AND EXISTS (SELECT 1 FROM removed) RETURNING client_id) "
+                + "SELECT 't', 0, count(*) FROM target "
+                + "UNION ALL SELECT 'r', sick_id, 1 FROM removed";
+        return execute("removeSicks", entityManager -> {
+            long clients = 0;
+            Map<Integer, Long> removed = new HashMap<>();
+            for (Object[] row : rows(QuerySpaces.modifying(entityManager, sql, "client_sick", "client")
+                    .setParameter("clientId", clientId)
+                    .setParameter("sickIds", sickIds.toArray(new Integer[0]))
+                    .getResultList())) {
+                if ("t".equals(row[0].toString())) {
+                    clients = ((Number) row[2]).longValue();
+                } else {
+                    removed.put(((Number) row[1]).intValue(), -1L);
+                }
+            }
+            if (clients == 0) {
+                log.warn("Клиент с id {} не найден для удаления болезней", clientId);
+                return null;
+            }
+            log.debug("У клиента с id {} удалено {} болезней", clientId, removed.size());
+            return new BulkChange(removed.size(), removed.isEmpty() ? Set.of() : Set.of(clientId), removed,
+                    Map.of());
+        });
+    }
+
+    private <T> T execute(String operation, Function<EntityManager, T> statement) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                T result = statement.apply(entityManager);
+                transaction.commit();
+                return result;
+            } catch (RuntimeException e) {
+                log.error("Ошибка при выполнении {}: {}", operation, e.getMessage(), e);
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object[]> rows(List<?> resultList) {
+        return (List<Object[]>) resultList;
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.repository;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Интерфейс для выполнения стандартных операций CRUD (Создание, Чтение, Обновление, Удаление)
@@ -10,6 +11,12 @@ import java.util.List;
  */
 public interface CRUDRepository<T> {
 
+    /**
+     * Количество сущностей, после которого {@link #saveAll(List)} сбрасывает изменения в базу данных
+     * и очищает контекст персистентности. Совпадает с {@code hibernate.jdbc.batch_size}.
+     */
+    int BATCH_SIZE = 50;
+
     /**
      * Получить список всех сущностей.
      *
@@ -17,6 +24,15 @@ public interface CRUDRepository<T> {
      */
     List<T> findAll();
 
+    /**
+     * Получить страницу сущностей, упорядоченных по идентификатору (keyset-пагинация).
+     *
+     * @param afterId идентификатор, после которого начинается страница (0 — с начала).
+     * @param limit   максимальное количество сущностей на странице.
+     * @return Список объектов типа {@code T} с идентификатором больше {@code afterId}.
+     */
+    List<T> findPage(int afterId, int limit);
+
     /**
      * Найти сущность по её идентификатору.
      *
@@ -34,13 +50,55 @@ public interface CRUDRepository<T> {
     T save(T entity);
 
     /**
-     * Обновить существующую сущность в хранилище.
+     * Сохранить список новых сущностей в одной транзакции.
+     * <p>
+     * Вставки отправляются в базу данных JDBC-пакетами по {@link #BATCH_SIZE} строк.
+     *
+     * @param entities объекты типа {@code T}, которые необходимо сохранить.
+     * @return Сохраненные объекты типа {@code T} с присвоенными идентификаторами.
+     */
+    List<T> saveAll(List<T> entities);
+
+    /**
+     * Обновить существующую сущность в хранилище без проверки версии.
      *
      * @param entity объект типа {@code T} с обновленными данными.
-     * @return Обновленный объект типа {@code T}.
+     * @return Обновленный объект типа {@code T} или {@code null}, если сущность не найдена.
      */
     T update(T entity);
 
+    /**
+     * Обновить существующую сущность, если ее версия в хранилище равна {@code expectedVersion}.
+     *
+     * @param entity          объект типа {@code T} с обновленными данными.
+     * @param expectedVersion ожидаемая версия сущности.
+     * @return Обновленный объект типа {@code T} или {@code null}, если сущность не найдена.
+     * @throws jakarta.persistence.OptimisticLockException если версия сущности изменилась.
+     */
+    T update(T entity, long expectedVersion);
+
+    /**
+     * Частично обновить сущность одной командой UPDATE без предварительного чтения.
+     * <p>
+     * Изменяются только переданные поля; версия сущности увеличивается на единицу.
+     *
+     * @param id              идентификатор сущности.
+     * @param attributes      новые значения по именам полей сущности.
+     * @param expectedVersion ожидаемая версия сущности или {@code null}, если версия не проверяется.
+     * @return Новая версия сущности или {@code null}, если сущность не найдена.
+     * @throws IllegalArgumentException                    если значений нет или поле нельзя изменить.
+     * @throws jakarta.persistence.OptimisticLockException если версия сущности не равна {@code expectedVersion}.
+     */
+    Long patch(int id, Map<String, Object> attributes, Long expectedVersion);
+
+    /**
+     * Получить отметку версии сущности и связанных с ней сущностей без загрузки их данных.
+     *
+     * @param id идентификатор сущности.
+     * @return Отметка версии или {@code null}, если сущность не найдена.
+     */
+    VersionStamp findVersionStamp(int id);
+
     /**
      * Удалить сущность по её идентификатору.
      *
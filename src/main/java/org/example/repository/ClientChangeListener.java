@@ -0,0 +1,21 @@
+package org.example.repository;
+
+import org.example.entity.Client;
+
+/**
+ * Получатель изменений врача и болезней клиентов, зафиксированных {@link ClientRepository}.
+ *
+ * <p>Вызывается после фиксации транзакции. Состояние клиента до изменения читается в той же транзакции,
+ * что и изменение, поэтому не зависит от кэшей и от чтений вне транзакции.</p>
+ */
+@FunctionalInterface
+public interface ClientChangeListener {
+
+    /**
+     * Учесть изменение клиента.
+     *
+     * @param before клиент до изменения (врач и болезни) или {@code null} для нового клиента.
+     * @param after  клиент после изменения или {@code null} для удаленного клиента.
+     */
+    void clientChanged(Client before, Client after);
+}
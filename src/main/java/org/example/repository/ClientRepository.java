@@ -1,21 +1,37 @@
 package org.example.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Client;
+import org.example.entity.Sick;
+import org.example.service.dto.ClientDTO;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для выполнения операций CRUD с сущностью Client.
  * <p>
- * Этот класс использует {@link EntityManager} для выполнения операций с базой данных.
+ * Этот класс использует {@link EntityManagerFactory} для выполнения операций с базой данных:
+ * на каждую операцию создается собственный {@link EntityManager}, который закрывается
+ * по ее завершении, поэтому репозиторий не хранит состояния и безопасен для вызова из многих потоков.
  * Все методы реализуют стандартные операции CRUD, включая сохранение, обновление, удаление,
  * а также получение всех клиентов и поиск по идентификатору.
+ * Изменения врача и болезней клиентов после фиксации передаются в {@link ClientChangeListener}.
  *
  * <p>
  * Логирование выполняется с использованием аннотации {@code @Slf4j}, что позволяет
@@ -27,7 +43,11 @@ import java.util.List;
 @Slf4j
 public class ClientRepository implements CRUDRepository<Client> {
 
-    private final EntityManager entityManager;
+    private static final PartialUpdate PATCH = new PartialUpdate("client", "client_id",
+            Map.of("firstName", "first_name", "lastName", "last_name", "age", "age"));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ClientChangeListener changeListener;
 
     /**
      * Получить всех клиентов из базы данных.
@@ -36,31 +56,170 @@ public class ClientRepository implements CRUDRepository<Client> {
      */
     @Override
     public List<Client> findAll() {
-        log.info("Вызов метода findAll для получения всех клиентов");
+        log.debug("Вызов метода findAll для получения всех клиентов");
         String jpql = "SELECT c FROM Client c LEFT JOIN FETCH c.sicks";
-        List<Client> clients = entityManager.createQuery(jpql, Client.class).getResultList();
-        log.info("Найдено {} клиентов", clients.size());
-        return clients;
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Client> clients = entityManager.createQuery(jpql, Client.class).getResultList();
+            log.debug("Найдено {} клиентов", clients.size());
+            return clients;
+        }
+    }
+
+    /**
+     * Получить список всех клиентов с их болезнями в виде DTO.
+     * <p>
+     * В отличие от {@link #findAll()}, сущности не загружаются в контекст персистентности:
+     * запрос выбирает только нужные столбцы, а строки результата группируются по клиенту
+     * сразу в объекты ClientDTO. Болезни возвращаются неуправляемыми объектами без списка клиентов.
+     *
+     * @return Список объектов ClientDTO, упорядоченных по идентификатору.
+     */
+    public List<ClientDTO> findAllProjected() {
+        log.debug("Вызов метода findAllProjected для получения всех клиентов");
+        String jpql = "SELECT c.id, c.firstName, c.lastName, c.age, s.id, s.sickName, s.stageSick, s.version "
+                + "FROM Client c LEFT JOIN c.sicks s ORDER BY c.id, s.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Object[]> rows = entityManager.createQuery(jpql, Object[].class).getResultList();
+            List<ClientDTO> clientDTOS = new ArrayList<>();
+            ClientDTO current = null;
+            for (Object[] row : rows) {
+                int clientId = (Integer) row[0];
+                if (current == null || current.getClientId() != clientId) {
+                    current = new ClientDTO(clientId, (String) row[1], (String) row[2], (Integer) row[3],
+                            new LinkedHashSet<>());
+                    clientDTOS.add(current);
+                }
+                if (row[4] != null) {
+                    current.getSicks().add(new Sick((Integer) row[4], (String) row[5], (String) row[6], null,
+                            (Long) row[7]));
+                }
+            }
+            log.debug("Найдено {} клиентов", clientDTOS.size());
+            return clientDTOS;
+        }
+    }
+
+    /**
+     * Получить страницу клиентов, упорядоченных по идентификатору.
+     * <p>
+     * Сначала выбираются только идентификаторы страницы (с ограничением на стороне базы данных),
+     * затем клиенты загружаются вместе с коллекцией sicks по этим идентификаторам. Так ограничение
+     * страницы не конфликтует с JOIN FETCH коллекции.
+     *
+     * @param afterId идентификатор, после которого начинается страница.
+     * @param limit   максимальное количество клиентов на странице.
+     * @return Список объектов Client с загруженными связанными данными (Sicks).
+     */
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        log.debug("Вызов метода findPage для получения клиентов после id {} (limit {})", afterId, limit);
+        String idsJpql = "SELECT c.id FROM Client c WHERE c.id > :afterId ORDER BY c.id";
+        String jpql = "SELECT DISTINCT c FROM Client c LEFT JOIN FETCH c.sicks WHERE c.id IN :ids ORDER BY c.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Integer> ids = entityManager.createQuery(idsJpql, Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(limit)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Client> clients = entityManager.createQuery(jpql, Client.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            log.debug("Найдено {} клиентов на странице", clients.size());
+            return clients;
+        }
+    }
+
+    /**
+     * Последовательно передать всех клиентов вместе с их болезнями в {@code consumer},
+     * не загружая таблицу в память целиком.
+     * <p>
+     * Запрос выбирает только колонки клиента и болезни (без управляемых сущностей), поэтому
+     * контекст персистентности не растет. Внутри транзакции PostgreSQL отдает строки через
+     * серверный курсор порциями по {@code fetchSize}. Строки упорядочены по идентификатору
+     * клиента, и подряд идущие строки одного клиента собираются в один объект Client.
+     * Переданные объекты не связаны с базой данных и не должны сохраняться в ней.
+     *
+     * @param fetchSize количество строк, получаемых из базы данных за одно обращение.
+     * @param consumer  обработчик, вызываемый для каждого клиента по порядку.
+     * @return количество переданных клиентов.
+     */
+    public int streamAll(int fetchSize, Consumer<Client> consumer) {
+        log.debug("Вызов метода streamAll для потоковой выгрузки клиентов (fetchSize {})", fetchSize);
+        String jpql = "SELECT c.id, c.firstName, c.lastName, c.age, s.id, s.sickName, s.stageSick "
+                + "FROM Client c LEFT JOIN c.sicks s ORDER BY c.id";
+        int count = 0;
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                try (Stream<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+                    Client current = null;
+                    Iterator<Object[]> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        Object[] row = iterator.next();
+                        int clientId = (Integer) row[0];
+                        if (current == null || current.getId() != clientId) {
+                            if (current != null) {
+                                consumer.accept(current);
+                                count++;
+                            }
+                            current = new Client((String) row[1], (String) row[2], (Integer) row[3]);
+                            current.setId(clientId);
+                            current.setSicks(new LinkedHashSet<>());
+                        }
+                        if (row[4] != null) {
+                            Sick sick = new Sick((String) row[5], (String) row[6]);
+                            sick.setId((Integer) row[4]);
+                            current.getSicks().add(sick);
+                        }
+                    }
+                    if (current != null) {
+                        consumer.accept(current);
+                        count++;
+                    }
+                }
+                transaction.commit();
+                log.debug("Выгружено {} клиентов", count);
+            } catch (RuntimeException e) {
+                log.error("Ошибка при потоковой выгрузке клиентов: {}", e.getMessage(), e);
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                throw e;
+            }
+        }
+        return count;
     }
 
     /**
      * Найти клиента по идентификатору.
+     * <p>
+     * Список болезней клиента загружается отдельно от самого клиента, чтобы его можно было
+     * получить из кэша второго уровня (коллекция Client.sicks и сущности Sick) без обращения к базе данных.
      *
      * @param id идентификатор клиента.
      * @return Объект Client, если найден, или null, если клиента с таким id нет.
      */
     @Override
     public Client findById(int id) {
-        log.info("Вызов метода findById для поиска клиента с id: {}", id);
-        String jpql = "SELECT c FROM Client c LEFT JOIN FETCH c.sicks WHERE c.id = :id";
-        try {
-            Client client = entityManager.createQuery(jpql, Client.class)
-                    .setParameter("id", id)
-                    .getSingleResult();
-            log.info("Клиент с id {} найден", id);
+        log.debug("Вызов метода findById для поиска клиента с id: {}", id);
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            Client client = entityManager.find(Client.class, id);
+            if (client == null) {
+                log.warn("Клиент с id {} не найден", id);
+                return null;
+            }
+            Hibernate.initialize(client.getSicks());
+            log.debug("Клиент с id {} найден", id);
             return client;
         } catch (Exception e) {
-            log.error("Ошибка при выполнении findById для id {}: {}", id, e.getMessage());
+            log.error("Ошибка при выполнении findById для id {}: {}", id, e.getMessage(), e);
             return null;
         }
     }
@@ -73,19 +232,22 @@ public class ClientRepository implements CRUDRepository<Client> {
      */
     @Override
     public Client save(Client client) {
-        log.info("Вызов метода save для сохранения клиента: {}", client);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            entityManager.persist(client);
-            transaction.commit();
-            log.info("Клиент успешно сохранен с id: {}", client.getId());
-        } catch (Exception e) {
-            log.error("Ошибка при сохранении клиента: {}", e.getMessage());
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-                log.warn("Транзакция откатилась");
-                throw new EntityNotFoundException(e.getMessage());
+        log.debug("Вызов метода save для сохранения клиента");
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                entityManager.persist(client);
+                transaction.commit();
+                changeListener.clientChanged(null, client);
+                log.debug("Клиент успешно сохранен с id: {}", client.getId());
+            } catch (Exception e) {
+                log.error("Ошибка при сохранении клиента: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                    throw new EntityNotFoundException(e.getMessage());
+                }
             }
         }
         return client;
@@ -93,29 +255,151 @@ public class ClientRepository implements CRUDRepository<Client> {
 
 
     /**
-     * Обновить данные клиента в базе данных.
+     * Сохранить список новых клиентов в одной транзакции.
+     * <p>
+     * Идентификаторы выделяются блоками из последовательности, поэтому Hibernate отправляет вставки
+     * JDBC-пакетами. Каждые {@link #BATCH_SIZE} сущностей изменения сбрасываются в базу данных,
+     * а контекст персистентности очищается, чтобы он не рос вместе с размером списка.
+     *
+     * @param clients объекты Client для сохранения.
+     * @return Сохраненные объекты Client с присвоенными идентификаторами.
+     */
+    @Override
+    public List<Client> saveAll(List<Client> clients) {
+        log.debug("Вызов метода saveAll для сохранения {} клиентов", clients.size());
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                for (int i = 0; i < clients.size(); i++) {
+                    entityManager.persist(clients.get(i));
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                transaction.commit();
+                for (Client client : clients) {
+                    changeListener.clientChanged(null, client);
+                }
+                log.debug("Клиенты успешно сохранены: {}", clients.size());
+            } catch (Exception e) {
+                log.error("Ошибка при пакетном сохранении клиентов: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                throw new EntityNotFoundException(e.getMessage());
+            }
+        }
+        return clients;
+    }
+
+    /**
+     * Обновить данные клиента в базе данных без проверки версии:
+     * изменения применяются к текущей версии строки. Если доктор не указан, сохраняется текущий.
      *
      * @param client объект Client с обновленными данными.
-     * @return Обновленный объект Client.
+     * @return Обновленный объект Client или null, если клиента с таким id нет.
      */
     @Override
     public Client update(Client client) {
-        log.info("Вызов метода update для обновления клиента: {}", client);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            entityManager.merge(client);
-            transaction.commit();
-            log.info("Клиент успешно обновлен с id: {}", client.getId());
-        } catch (Exception e) {
-            log.error("Ошибка при обновлении клиента: {}", e.getMessage());
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-                log.warn("Транзакция откатилась");
+        log.debug("Вызов метода update для обновления клиента с id {}", client.getId());
+        return merge(client, null);
+    }
+
+    /**
+     * Обновить данные клиента в базе данных, если версия строки совпадает с ожидаемой.
+     * Если доктор не указан, сохраняется текущий.
+     *
+     * @param client             объект Client с обновленными данными.
+     * @param expectedVersion версия, которую видел вызывающий код.
+     * @return Обновленный объект Client или null, если клиента с таким id нет.
+     * @throws OptimisticLockException если строка была изменена после получения версии.
+     */
+    @Override
+    public Client update(Client client, long expectedVersion) {
+        log.debug("Вызов метода update для обновления клиента с id {} и версией {}", client.getId(), expectedVersion);
+        return merge(client, expectedVersion);
+    }
+
+    private Client merge(Client client, Long expectedVersion) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                Client current = entityManager.find(Client.class, client.getId());
+                if (current == null) {
+                    transaction.rollback();
+                    log.warn("Клиент с id {} не найден для обновления", client.getId());
+                    return null;
+                }
+                Client before = caseload(current);
+                client.setVersion(expectedVersion != null ? expectedVersion : current.getVersion());
+                if (client.getDoctor() == null) {
+                    client.setDoctor(current.getDoctor());
+                }
+                Client updatedClient = entityManager.merge(client);
+                Hibernate.initialize(updatedClient.getSicks());
+                transaction.commit();
+                changeListener.clientChanged(before, updatedClient);
+                log.debug("Клиент успешно обновлен с id: {}", client.getId());
+                return updatedClient;
+            } catch (Exception e) {
+                log.error("Ошибка при обновлении клиента: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                OptimisticLockException optimisticLockException = RepositoryExceptions.optimisticLock(e);
+                if (optimisticLockException != null) {
+                    log.warn("Клиент с id {} был изменен другой транзакцией", client.getId());
+                    throw optimisticLockException;
+                }
                 throw new EntityNotFoundException(e.getMessage());
             }
         }
-        return client;
+    }
+
+    /**
+     * Получить отметку версии клиента и связанных сущностей, выбирая из базы данных
+     * только идентификаторы и номера версий.
+     *
+     * @param id идентификатор клиента.
+     * @return Отметка версии или null, если клиента с таким id нет.
+     */
+    @Override
+    public VersionStamp findVersionStamp(int id) {
+        String jpql = "SELECT c.version, s.id, s.version FROM Client c LEFT JOIN c.sicks s WHERE c.id = :id ORDER BY s.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                    .setParameter("id", id)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return null;
+            }
+            VersionStamp.Builder builder = VersionStamp.builder(id, (Long) rows.get(0)[0]);
+            for (Object[] row : rows) {
+                if (row[1] != null) {
+                    builder.begin((Integer) row[1], (Long) row[2]).end();
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Частично обновить клиента одной командой UPDATE без загрузки клиента и его болезней.
+     *
+     * @param id              идентификатор клиента.
+     * @param attributes      новые значения полей firstName, lastName и age.
+     * @param expectedVersion ожидаемая версия клиента или {@code null}.
+     * @return новая версия клиента или {@code null}, если клиент не найден.
+     */
+    @Override
+    public Long patch(int id, Map<String, Object> attributes, Long expectedVersion) {
+        log.debug("Вызов метода patch для обновления полей {} клиента с id {}", attributes.keySet(), id);
+        return PATCH.execute(entityManagerFactory, id, attributes, expectedVersion);
     }
 
     /**
@@ -126,25 +410,41 @@ public class ClientRepository implements CRUDRepository<Client> {
      */
     @Override
     public boolean delete(int id) {
-        log.info("Вызов метода delete для удаления клиента с id: {}", id);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            Client client = entityManager.find(Client.class, id);
-            if (client != null) {
-                entityManager.remove(client);
-                transaction.commit();
-                log.info("Клиент с id {} успешно удален", id);
-                return true;
-            }
-        } catch (Exception e) {
-            log.error("Ошибка при удалении клиента с id {}: {}", id, e.getMessage());
-            if (transaction != null && transaction.isActive()) {
+        log.debug("Вызов метода delete для удаления клиента с id: {}", id);
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                Client client = entityManager.find(Client.class, id);
+                if (client != null) {
+                    Client before = caseload(client);
+                    entityManager.remove(client);
+                    transaction.commit();
+                    changeListener.clientChanged(before, null);
+                    log.debug("Клиент с id {} успешно удален", id);
+                    return true;
+                }
                 transaction.rollback();
-                log.warn("Транзакция откатилась");
-                throw new EntityNotFoundException(e.getMessage());
+            } catch (Exception e) {
+                log.error("Ошибка при удалении клиента с id {}: {}", id, e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                    throw new EntityNotFoundException(e.getMessage());
+                }
             }
         }
         return false;
     }
+
+    /**
+     * Врач и болезни управляемого клиента, скопированные до его изменения в транзакции.
+     */
+    private static Client caseload(Client client) {
+        Client before = new Client();
+        before.setId(client.getId());
+        before.setDoctor(client.getDoctor());
+        before.setSicks(new HashSet<>(client.getSicks()));
+        return before;
+    }
 }
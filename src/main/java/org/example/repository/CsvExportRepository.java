@@ -0,0 +1,146 @@
+package org.example.repository;
+
+import jakarta.persistence.PersistenceException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.copy.CsvLayout;
+import org.example.repository.copy.CsvReferences;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Репозиторий для выгрузки врачей, болезней, клиентов и связей клиент — болезнь в CSV.
+ * <p>
+ * Выгрузка выполняется командой {@code COPY (SELECT ...) TO STDOUT}: драйвер передает строки
+ * в выходной поток по мере получения от PostgreSQL, поэтому расход памяти не зависит от размера
+ * таблицы. Формат файлов совпадает с форматом импорта ({@link CsvLayout}), строки упорядочены
+ * по идентификатору. Если выходной поток закрывается с ошибкой (например, клиент разорвал
+ * соединение), драйвер отменяет команду COPY.
+ */
+@Repository
+@AllArgsConstructor
+@Slf4j
+public class CsvExportRepository {
+
+    private final DataSource dataSource;
+
+    /**
+     * Выгрузить файл в выходной поток.
+     *
+     * @param layout     формат файла.
+     * @param columns    столбцы выгрузки в нужном порядке; пустой список — все столбцы формата.
+     * @param references представление ссылок на другие файлы.
+     * @param out        выходной поток; не закрывается.
+     * @return количество выгруженных строк.
+     * @throws IllegalArgumentException если столбец не входит в {@link CsvLayout#getExportColumns()}.
+     * @throws IOException              если запись в выходной поток завершилась ошибкой.
+     * @throws PersistenceException     если команда COPY завершилась ошибкой.
+     */
+    public long exportCsv(CsvLayout layout, List<String> columns, CsvReferences references, OutputStream out)
+            throws IOException {
+        log.debug("Вызов метода exportCsv для выгрузки файла {} (столбцы: {}, ссылки: {})", layout.getFileName(),
+                columns, references);
+        String sql = copySql(layout, columns, references);
+        try (Connection connection = dataSource.getConnection()) {
+            long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            log.debug("Выгружено {} строк файла {}", rows, layout.getFileName());
+            return rows;
+        } catch (SQLException e) {
+            log.error("Ошибка при выгрузке файла {}: {}", layout.getFileName(), e.getMessage(), e);
+            throw new PersistenceException("Ошибка при выгрузке файла " + layout.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Построить команду COPY для выгрузки.
+     * <p>
+     * Имена столбцов проверяются по списку допустимых и в запрос не подставляются: каждому столбцу
+     * соответствует заранее заданное выражение.
+     */
+    static String copySql(CsvLayout layout, List<String> columns, CsvReferences references) {
+        Map<String, String> expressions = columnExpressions(layout, references);
+        List<String> selected = columns.isEmpty() ? layout.getColumns() : columns;
+        StringBuilder sql = new StringBuilder("COPY (SELECT ");
+        for (int i = 0; i < selected.size(); i++) {
+            String expression = expressions.get(selected.get(i));
+            if (expression == null) {
+                throw new IllegalArgumentException("Неизвестный столбец файла " + layout.getFileName() + ": "
+                        + selected.get(i) + ", допустимые столбцы: " + String.join(",", layout.getExportColumns()));
+            }
+            sql.append(i == 0 ? "" : ", ").append(expression).append(" AS ").append(selected.get(i));
+        }
+        return sql.append(' ').append(from(layout, references))
+                .append(") TO STDOUT WITH (FORMAT csv, HEADER)")
+                .toString();
+    }
+
+    private static Map<String, String> columnExpressions(CsvLayout layout, CsvReferences references) {
+        boolean rows = references == CsvReferences.ROWS;
+        Map<String, String> expressions = new LinkedHashMap<>();
+        switch (layout) {
+            case DOCTORS:
+                expressions.put("id", "t.doctor_id");
+                expressions.put("first_name", "t.first_name");
+                expressions.put("last_name", "t.last_name");
+                expressions.put("age", "t.age");
+                expressions.put("specification", "t.specification");
+                expressions.put("version", "t.version");
+                break;
+            case SICKS:
+                expressions.put("id", "t.sick_id");
+                expressions.put("sick_name", "t.sick_name");
+                expressions.put("stage_sick", "t.stage_sick");
+                expressions.put("version", "t.version");
+                break;
+            case CLIENTS:
+                expressions.put("id", "t.client_id");
+                expressions.put("first_name", "t.first_name");
+                expressions.put("last_name", "t.last_name");
+                expressions.put("age", "t.age");
+                expressions.put("doctor_id", rows ? "d.rn" : "t.doctor_id");
+                expressions.put("version", "t.version");
+                break;
+            case LINKS:
+                expressions.put("client_id", rows ? "c.rn" : "t.client_id");
+                expressions.put("sick_id", rows ? "s.rn" : "t.sick_id");
+                break;
+        }
+        return expressions;
+    }
+
+    /**
+     * Номер строки ссылки совпадает с номером строки в выгрузке того же файла: обе нумеруются
+     * в порядке идентификаторов.
+     */
+    private static String from(CsvLayout layout, CsvReferences references) {
+        boolean rows = references == CsvReferences.ROWS;
+        switch (layout) {
+            case DOCTORS:
+                return "FROM doctor t ORDER BY t.doctor_id";
+            case SICKS:
+                return "FROM sick t ORDER BY t.sick_id";
+            case CLIENTS:
+                return rows
+                        ? "FROM client t LEFT JOIN (SELECT doctor_id, row_number() OVER (ORDER BY doctor_id) AS rn "
+                        + "FROM doctor) d ON d.doctor_id = t.doctor_id ORDER BY t.client_id"
+                        : "FROM client t ORDER BY t.client_id";
+            default:
+                return rows
+                        ? "FROM client_sick t "
+                        + "JOIN (SELECT client_id, row_number() OVER (ORDER BY client_id) AS rn FROM client) c "
+                        + "ON c.client_id = t.client_id "
+                        + "JOIN (SELECT sick_id, row_number() OVER (ORDER BY sick_id) AS rn FROM sick) s "
+                        + "ON s.sick_id = t.sick_id ORDER BY t.client_id, t.sick_id"
+                        : "FROM client_sick t ORDER BY t.client_id, t.sick_id";
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package org.example.repository;
+
+import jakarta.persistence.PersistenceException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.copy.CsvFormatException;
+import org.example.repository.copy.CsvLayout;
+import org.example.repository.copy.CsvRecordReader;
+import org.example.repository.copy.SequenceIdAllocator;
+import org.example.service.dto.ImportResultDTO;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Репозиторий для импорта врачей, болезней, клиентов и связей клиент — болезнь из CSV-файлов.
+ * <p>
+ * Файлы читаются построчно и передаются в PostgreSQL командой {@code COPY ... FROM STDIN}
+ * через COPY API драйвера, без создания сущностей и контекста персистентности. Все файлы
+ * импортируются в одной транзакции в порядке врачи → болезни → клиенты → связи.
+ * <p>
+ * Строки проверяются при чтении: строка с пустым обязательным значением, некорректным числом
+ * или ссылкой на отсутствующую строку не вставляется и попадает в отчет ({@link ImportResultDTO}).
+ * Ссылка ({@code doctor_id} клиента, {@code client_id} и {@code sick_id} связи) указывает на номер
+ * строки данных соответствующего файла, если этот файл есть в импорте, и на идентификатор
+ * существующей записи, если файла нет. Идентификаторы новых строк берутся блоками
+ * из последовательностей сущностей ({@link SequenceIdAllocator}).
+ * <p>
+ * Клиенты со ссылками на существующих врачей (файла врачей нет в импорте) и связи сначала копируются
+ * во временную таблицу, где ссылки проверяются одним запросом. Связи затем очищаются от повторов
+ * и вставляются в {@code client_sick}; версия существующих клиентов, получивших новые связи,
+ * увеличивается, как при изменении связей через Hibernate. Кэши сущностей репозиторий
+ * не очищает — это делает вызывающий код после успешного импорта.
+ */
+@Repository
+@AllArgsConstructor
+@Slf4j
+public class CsvImportRepository {
+
+    /**
+     * Количество строк, которые проверяются и получают идентификаторы до передачи в одну команду COPY:
+     * пока соединение находится в режиме COPY, другие запросы на нем выполнять нельзя.
+     */
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final String CLIENT_COLUMNS = "client_id, first_name, last_name, age, doctor_id, version";
+
+    private final DataSource dataSource;
+
+    /**
+     * Импортировать CSV-файлы в одной транзакции.
+     *
+     * @param files файлы импорта по форматам; любой из файлов может отсутствовать.
+     * @return результат импорта с количеством вставленных и отклоненных строк.
+     * @throws CsvFormatException   если заголовок файла не совпадает с форматом; транзакция при этом откатывается.
+     * @throws PersistenceException если команда COPY или запрос завершились ошибкой.
+     */
+    public ImportResultDTO importCsv(Map<CsvLayout, ? extends InputStreamSource> files) {
+        log.debug("Вызов метода importCsv для импорта файлов {}", files.keySet());
+        long start = System.nanoTime();
+        ImportResultDTO result = new ImportResultDTO();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                new Import(connection, files, result).run();
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                if (!(e instanceof CsvFormatException)) {
+                    log.error("Ошибка при импорте CSV-файлов: {}", e.getMessage(), e);
+                }
+                connection.rollback();
+                log.warn("Транзакция откатилась");
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                if (e instanceof IOException) {
+                    throw new UncheckedIOException((IOException) e);
+                }
+                throw new PersistenceException("Ошибка при импорте CSV-файлов: " + e.getMessage(), e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Ошибка при импорте CSV-файлов: " + e.getMessage(), e);
+        }
+        result.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Импортировано врачей: {}, болезней: {}, клиентов: {}, связей: {}; отклонено строк: {} за {} мс",
+                result.getDoctors(), result.getSicks(), result.getClients(), result.getLinks(), result.getRejected(),
+                result.getDurationMillis());
+        return result;
+    }
+
+    /**
+     * Проверка строки файла.
+     */
+    @FunctionalInterface
+    private interface RowHandler {
+        /**
+         * @param line   номер строки файла.
+         * @param fields значения полей.
+         * @return строка CSV для команды COPY без столбца идентификатора.
+         * @throws IllegalArgumentException если строку нужно отклонить; сообщение попадает в отчет.
+         */
+        String handle(long line, String[] fields) throws SQLException;
+    }
+
+    /**
+     * Состояние одного импорта: соединение, отчет и соответствие номеров строк файлов
+     * присвоенным идентификаторам.
+     */
+    private static final class Import {
+
+        private final Connection connection;
+        private final Map<CsvLayout, ? extends InputStreamSource> files;
+        private final ImportResultDTO result;
+        private final RowIds doctorIds = new RowIds();
+        private final RowIds sickIds = new RowIds();
+        private final RowIds clientIds = new RowIds();
+
+        private Import(Connection connection, Map<CsvLayout, ? extends InputStreamSource> files, ImportResultDTO result) {
+            this.connection = connection;
+            this.files = files;
+            this.result = result;
+        }
+
+        private void run() throws IOException, SQLException {
+            if (files.containsKey(CsvLayout.DOCTORS)) {
+                result.setDoctors(copy(CsvLayout.DOCTORS,
+                        "COPY doctor (doctor_id, first_name, last_name, age, specification, version) FROM STDIN WITH (FORMAT csv)",
+                        new SequenceIdAllocator(connection, "doctor_doctor_id_seq"), doctorIds,
+                        (line, fields) -> quote(requireText(fields[0], "first_name")) + ","
+                                + quote(requireText(fields[1], "last_name")) + ","
+                                + parseInt(fields[2], "age", 0) + ","
+                                + quote(requireText(fields[3], "specification")) + ",0"));
+            }
+            if (files.containsKey(CsvLayout.SICKS)) {
+                result.setSicks(copy(CsvLayout.SICKS,
+                        "COPY sick (sick_id, sick_name, stage_sick, version) FROM STDIN WITH (FORMAT csv)",
+                        new SequenceIdAllocator(connection, "sick_sick_id_seq"), sickIds,
+                        (line, fields) -> quote(requireText(fields[0], "sick_name")) + ","
+                                + quote(requireText(fields[1], "stage_sick")) + ",0"));
+            }
+            if (files.containsKey(CsvLayout.CLIENTS)) {
+                result.setClients(files.containsKey(CsvLayout.DOCTORS)
+                        ? copy(CsvLayout.CLIENTS, "COPY client (" + CLIENT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                        new SequenceIdAllocator(connection, "client_client_id_seq"), clientIds,
+                        (line, fields) -> client(fields))
+                        : importClients());
+            }
+            if (files.containsKey(CsvLayout.LINKS)) {
+                importLinks();
+            }
+        }
+
+        /**
+         * Клиенты копируются во временную таблицу с номером строки файла, клиенты со ссылками
+         * на несуществующих врачей отклоняются, остальные вставляются в client.
+         */
+        private long importClients() throws IOException, SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMPORARY TABLE import_client (line BIGINT NOT NULL, LIKE client) "
+                        + "ON COMMIT DROP");
+            }
+            long staged = copy(CsvLayout.CLIENTS,
+                    "COPY import_client (" + CLIENT_COLUMNS + ", line) FROM STDIN WITH (FORMAT csv)",
+                    new SequenceIdAllocator(connection, "client_client_id_seq"), clientIds,
+                    (line, fields) -> client(fields) + "," + line);
+            staged -= rejectMissingDoctors();
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO client (" + CLIENT_COLUMNS + ") "
+                        + "SELECT " + CLIENT_COLUMNS + " FROM import_client");
+            }
+            return staged;
+        }
+
+        /**
+         * Отклоняет и удаляет из временной таблицы клиентов со ссылками на несуществующих врачей;
+         * строки отклоненных клиентов больше не разрешаются в идентификаторы.
+         *
+         * @return количество отклоненных клиентов.
+         */
+        private long rejectMissingDoctors() throws SQLException {
+            Set<Integer> rejected = new HashSet<>();
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet resultSet = statement.executeQuery("SELECT l.line, l.client_id, l.doctor_id "
+                        + "FROM import_client l LEFT JOIN doctor d ON d.doctor_id = l.doctor_id "
+                        + "WHERE l.doctor_id IS NOT NULL AND d.doctor_id IS NULL ORDER BY l.line")) {
+                    while (resultSet.next()) {
+                        result.reject(CsvLayout.CLIENTS.getFileName(), resultSet.getLong(1),
+                                "Врач с id " + resultSet.getInt(3) + " не найден");
+                        rejected.add(resultSet.getInt(2));
+                    }
+                }
+                if (!rejected.isEmpty()) {
+                    statement.executeUpdate("DELETE FROM import_client l WHERE l.doctor_id IS NOT NULL "
+                            + "AND NOT EXISTS (SELECT 1 FROM doctor d WHERE d.doctor_id = l.doctor_id)");
+                    clientIds.removeAll(rejected);
+                }
+            }
+            return rejected.size();
+        }
+
+        /**
+         * Связи копируются во временную таблицу с номером строки файла. Ссылки на строки импорта
+         * сразу заменяются идентификаторами, ссылки на существующие записи проверяются запросом,
+         * после чего уникальные связи вставляются в client_sick.
+         */
+        private void importLinks() throws IOException, SQLException {
+            boolean clientsInFile = files.containsKey(CsvLayout.CLIENTS);
+            boolean sicksInFile = files.containsKey(CsvLayout.SICKS);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMPORARY TABLE import_client_sick (line BIGINT NOT NULL, "
+                        + "client_id INTEGER NOT NULL, sick_id INTEGER NOT NULL) ON COMMIT DROP");
+            }
+            long staged = copy(CsvLayout.LINKS,
+                    "COPY import_client_sick (line, client_id, sick_id) FROM STDIN WITH (FORMAT csv)", null, null,
+                    (line, fields) -> {
+                        int client = parseInt(fields[0], "client_id", 1);
+                        int sick = parseInt(fields[1], "sick_id", 1);
+                        return line + ","
+                                + (clientsInFile ? resolve(clientIds, client, CsvLayout.CLIENTS) : client) + ","
+                                + (sicksInFile ? resolve(sickIds, sick, CsvLayout.SICKS) : sick);
+                    });
+            if (!clientsInFile || !sicksInFile) {
+                staged -= rejectMissingReferences();
+            }
+            // Клиенты из файла вставлены в этой же транзакции с версией 0, их версия не меняется.
+            String insert = "WITH inserted AS ("
+                    + "INSERT INTO client_sick (client_id, sick_id) "
+                    + "SELECT DISTINCT l.client_id, l.sick_id FROM import_client_sick l "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM client_sick cs "
+                    + "WHERE cs.client_id = l.client_id AND cs.sick_id = l.sick_id) "
+                    + "RETURNING client_id)";
+            if (!clientsInFile) {
+                insert += ", bumped AS (UPDATE client SET version = version + 1 "
+                        + "WHERE client_id IN (SELECT client_id FROM inserted) RETURNING 1)";
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(insert + " SELECT count(*) FROM inserted")) {
+                resultSet.next();
+                result.setLinks(resultSet.getLong(1));
+                result.setDuplicateLinks(staged - resultSet.getLong(1));
+            }
+        }
+
+        /**
+         * Отклоняет и удаляет из временной таблицы связи со ссылками на несуществующих клиентов или болезни.
+         *
+         * @return количество отклоненных связей.
+         */
+        private long rejectMissingReferences() throws SQLException {
+            long rejected = 0;
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet resultSet = statement.executeQuery("SELECT l.line, l.client_id, c.client_id IS NULL, "
+                        + "l.sick_id FROM import_client_sick l "
+                        + "LEFT JOIN client c ON c.client_id = l.client_id LEFT JOIN sick s ON s.sick_id = l.sick_id "
+                        + "WHERE c.client_id IS NULL OR s.sick_id IS NULL ORDER BY l.line")) {
+                    while (resultSet.next()) {
+                        String message = resultSet.getBoolean(3)
+                                ? "Клиент с id " + resultSet.getInt(2) + " не найден"
+                                : "Болезнь с id " + resultSet.getInt(4) + " не найдена";
+                        result.reject(CsvLayout.LINKS.getFileName(), resultSet.getLong(1), message);
+                        rejected++;
+                    }
+                }
+                if (rejected > 0) {
+                    statement.executeUpdate("DELETE FROM import_client_sick l WHERE "
+                            + "NOT EXISTS (SELECT 1 FROM client c WHERE c.client_id = l.client_id) "
+                            + "OR NOT EXISTS (SELECT 1 FROM sick s WHERE s.sick_id = l.sick_id)");
+                }
+            }
+            return rejected;
+        }
+
+        /**
+         * Читает файл и передает проверенные строки в команду COPY частями по {@value #CHUNK_SIZE} строк.
+         *
+         * @param ids    распределитель идентификаторов или {@code null}, если строки копируются без идентификатора.
+         * @param rowIds соответствие номеров строк данных присвоенным идентификаторам.
+         * @return количество переданных строк.
+         */
+        private long copy(CsvLayout layout, String sql, SequenceIdAllocator ids, RowIds rowIds, RowHandler handler)
+                throws IOException, SQLException {
+            long count = 0;
+            List<String> records = new ArrayList<>(CHUNK_SIZE);
+            int[] rows = new int[CHUNK_SIZE];
+            try (CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(
+                    files.get(layout).getInputStream(), StandardCharsets.UTF_8), layout)) {
+                while (true) {
+                    try {
+                        String[] fields = reader.next();
+                        if (fields == null) {
+                            break;
+                        }
+                        rows[records.size()] = reader.getRow();
+                        records.add(handler.handle(reader.getLine(), fields));
+                    } catch (IllegalArgumentException e) {
+                        result.reject(layout.getFileName(), reader.getLine(), e.getMessage());
+                        continue;
+                    }
+                    if (records.size() == CHUNK_SIZE) {
+                        count += flush(sql, ids, rowIds, records, rows);
+                    }
+                }
+            }
+            return count + flush(sql, ids, rowIds, records, rows);
+        }
+
+        private int flush(String sql, SequenceIdAllocator ids, RowIds rowIds, List<String> records, int[] rows)
+                throws IOException, SQLException {
+            int size = records.size();
+            if (size == 0) {
+                return 0;
+            }
+            int[] assigned = new int[size];
+            if (ids != null) {
+                for (int i = 0; i < size; i++) {
+                    assigned[i] = ids.next();
+                    rowIds.put(rows[i], assigned[i]);
+                }
+            }
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer copy = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, sql, BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                for (int i = 0; i < size; i++) {
+                    if (ids != null) {
+                        copy.write(Integer.toString(assigned[i]));
+                        copy.write(',');
+                    }
+                    copy.write(records.get(i));
+                    copy.write('\n');
+                }
+            }
+            records.clear();
+            return size;
+        }
+
+        /**
+         * @return строка CSV клиента без столбца идентификатора.
+         */
+        private String client(String[] fields) {
+            return quote(requireText(fields[0], "first_name")) + ","
+                    + quote(requireText(fields[1], "last_name")) + ","
+                    + parseInt(fields[2], "age", 0) + ","
+                    + doctor(fields[3]) + ",0";
+        }
+
+        /**
+         * Ссылка на существующего врача проверяется после копирования ({@link #rejectMissingDoctors()}).
+         *
+         * @return идентификатор врача клиента или пустая строка (NULL), если врач не указан.
+         */
+        private String doctor(String value) {
+            if (value.isBlank()) {
+                return "";
+            }
+            int reference = parseInt(value, "doctor_id", 1);
+            if (files.containsKey(CsvLayout.DOCTORS)) {
+                return Integer.toString(resolve(doctorIds, reference, CsvLayout.DOCTORS));
+            }
+            return Integer.toString(reference);
+        }
+
+        private static int resolve(RowIds ids, int row, CsvLayout layout) {
+            int id = ids.get(row);
+            if (id == 0) {
+                throw new IllegalArgumentException("Строка " + row + " файла " + layout.getFileName()
+                        + " отсутствует или отклонена");
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Соответствие номера строки данных файла идентификатору, присвоенному при импорте
+     * (0 — строка отклонена или отсутствует).
+     */
+    private static final class RowIds {
+
+        private int[] ids = new int[1024];
+
+        private void put(int row, int id) {
+            if (row >= ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(row + 1, ids.length * 2));
+            }
+            ids[row] = id;
+        }
+
+        private void removeAll(Set<Integer> removed) {
+            for (int row = 0; row < ids.length; row++) {
+                if (removed.contains(ids[row])) {
+                    ids[row] = 0;
+                }
+            }
+        }
+
+        private int get(int row) {
+            return row < ids.length ? ids[row] : 0;
+        }
+    }
+
+    private static String requireText(String value, String column) {
+        if (value.isBlank()) {
+            throw new IllegalArgumentException("Пустое значение " + column);
+        }
+        return value;
+    }
+
+    private static int parseInt(String value, String column, int min) {
+        int number;
+        try {
+            number = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение " + column + ": " + value);
+        }
+        if (number < min) {
+            throw new IllegalArgumentException("Значение " + column + " меньше " + min + ": " + value);
+        }
+        return number;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
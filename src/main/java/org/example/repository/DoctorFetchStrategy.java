@@ -0,0 +1,36 @@
+package org.example.repository;
+
+/**
+ * Стратегия загрузки графа Doctor → Client → Sick в {@link DoctorRepository}.
+ *
+ * <p>Обе стратегии загружают граф фиксированным числом SQL-запросов, не зависящим
+ * от количества клиентов врача: без декартова произведения строк при одновременной
+ * выборке клиентов и болезней и без отдельного запроса на болезни каждого клиента (N+1).
+ * Задается параметром {@code database.fetch.doctor-graph} файла application.yaml.</p>
+ */
+public enum DoctorFetchStrategy {
+
+    /**
+     * Несколько последовательных запросов: врачи с клиентами, затем клиенты этих врачей
+     * с болезнями. Загруженные коллекции объединяются в одном контексте персистентности.
+     */
+    MULTI_STEP,
+
+    /**
+     * Ленивые коллекции с {@code @Fetch(FetchMode.SUBSELECT)}: при обращении к коллекции
+     * Hibernate загружает ее сразу для всех сущностей, полученных исходным запросом,
+     * одним запросом с подзапросом.
+     */
+    SUBSELECT;
+
+    /**
+     * Получить стратегию по значению параметра конфигурации.
+     *
+     * @param value имя стратегии без учета регистра, допускается запись через дефис ({@code multi-step}).
+     * @return стратегия загрузки.
+     * @throws IllegalArgumentException если стратегия с таким именем не существует.
+     */
+    public static DoctorFetchStrategy fromProperty(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
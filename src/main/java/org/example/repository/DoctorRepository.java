@@ -1,19 +1,31 @@
 package org.example.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.EntityTransaction;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.TypedQuery;
 import lombok.extern.slf4j.Slf4j;
+import org.example.entity.Client;
 import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.service.dto.DoctorDTO;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Репозиторий для выполнения операций CRUD с сущностью Doctor.
  * <p>
- * Этот класс использует {@link EntityManager} для выполнения операций с базой данных.
+ * Этот класс использует {@link EntityManagerFactory} для выполнения операций с базой данных:
+ * на каждую операцию создается собственный {@link EntityManager}, который закрывается
+ * по ее завершении, поэтому репозиторий не хранит состояния и безопасен для вызова из многих потоков.
  * Все методы реализуют стандартные операции CRUD, включая сохранение, обновление, удаление,
  * а также получение всех докторов и поиск по идентификатору.
  *
@@ -23,24 +35,136 @@ import java.util.List;
  * </p>
  */
 @Repository
-@AllArgsConstructor
 @Slf4j
 public class DoctorRepository implements CRUDRepository<Doctor> {
 
-    private final EntityManager entityManager;
+    private static final PartialUpdate PATCH = new PartialUpdate("doctor", "doctor_id",
+            Map.of("firstName", "first_name", "lastName", "last_name", "age", "age",
+                    "specification", "specification"));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DoctorFetchStrategy fetchStrategy;
+
+    /**
+     * Создать репозиторий со стратегией загрузки {@link DoctorFetchStrategy#MULTI_STEP}.
+     *
+     * @param entityManagerFactory фабрика EntityManager.
+     */
+    public DoctorRepository(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, DoctorFetchStrategy.MULTI_STEP);
+    }
+
+    /**
+     * @param entityManagerFactory фабрика EntityManager.
+     * @param fetchStrategy        стратегия загрузки клиентов доктора и их болезней.
+     */
+    @Autowired
+    public DoctorRepository(EntityManagerFactory entityManagerFactory, DoctorFetchStrategy fetchStrategy) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.fetchStrategy = fetchStrategy;
+    }
+
+    /**
+     * @return стратегия загрузки клиентов доктора и их болезней.
+     */
+    public DoctorFetchStrategy getFetchStrategy() {
+        return fetchStrategy;
+    }
 
     /**
      * Получить всех докторов из базы данных.
      *
-     * @return Список объектов Doctor с загруженными связанными данными (Clients).
+     * @return Список объектов Doctor с загруженными клиентами и их болезнями.
      */
     @Override
     public List<Doctor> findAll() {
-        log.info("Вызов метода findAll для получения всех докторов");
-        String jpql = "SELECT d FROM Doctor d LEFT JOIN FETCH d.clients";
-        List<Doctor> doctors = entityManager.createQuery(jpql, Doctor.class).getResultList();
-        log.info("Найдено {} докторов", doctors.size());
-        return doctors;
+        log.debug("Вызов метода findAll для получения всех докторов");
+        String jpql = "SELECT d FROM Doctor d ORDER BY d.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Doctor> doctors = entityManager.createQuery(jpql, Doctor.class).getResultList();
+            loadClientGraph(entityManager, doctors, null);
+            log.debug("Найдено {} докторов", doctors.size());
+            return doctors;
+        }
+    }
+
+    /**
+     * Получить список всех докторов с их клиентами и болезнями клиентов в виде DTO.
+     * <p>
+     * В отличие от {@link #findAll()}, сущности не загружаются в контекст персистентности:
+     * один запрос выбирает только нужные столбцы, а строки результата группируются по доктору
+     * и клиенту сразу в объекты DoctorDTO. Клиенты и болезни возвращаются неуправляемыми объектами.
+     *
+     * @return Список объектов DoctorDTO, упорядоченных по идентификатору.
+     */
+    public List<DoctorDTO> findAllProjected() {
+        log.debug("Вызов метода findAllProjected для получения всех докторов");
+        String jpql = "SELECT d.id, d.firstName, d.lastName, d.age, d.specification, "
+                + "c.id, c.firstName, c.lastName, c.age, c.version, s.id, s.sickName, s.stageSick, s.version "
+                + "FROM Doctor d LEFT JOIN d.clients c LEFT JOIN c.sicks s ORDER BY d.id, c.id, s.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Object[]> rows = entityManager.createQuery(jpql, Object[].class).getResultList();
+            List<DoctorDTO> doctorDTOS = new ArrayList<>();
+            DoctorDTO currentDoctor = null;
+            Client currentClient = null;
+            for (Object[] row : rows) {
+                int doctorId = (Integer) row[0];
+                if (currentDoctor == null || currentDoctor.getDoctorId() != doctorId) {
+                    currentDoctor = new DoctorDTO(doctorId, (String) row[1], (String) row[2], (Integer) row[3],
+                            (String) row[4], new ArrayList<>());
+                    doctorDTOS.add(currentDoctor);
+                    currentClient = null;
+                }
+                if (row[5] == null) {
+                    continue;
+                }
+                int clientId = (Integer) row[5];
+                if (currentClient == null || currentClient.getId() != clientId) {
+                    currentClient = new Client(clientId, (String) row[6], (String) row[7], (Integer) row[8], null,
+                            new LinkedHashSet<>(), (Long) row[9]);
+                    currentDoctor.getClients().add(currentClient);
+                }
+                if (row[10] != null) {
+                    currentClient.getSicks().add(new Sick((Integer) row[10], (String) row[11], (String) row[12],
+                            null, (Long) row[13]));
+                }
+            }
+            log.debug("Найдено {} докторов", doctorDTOS.size());
+            return doctorDTOS;
+        }
+    }
+
+    /**
+     * Получить страницу докторов, упорядоченных по идентификатору.
+     * <p>
+     * Сначала выбираются только идентификаторы страницы (с ограничением на стороне базы данных),
+     * затем доктора и их клиенты с болезнями загружаются по этим идентификаторам. Так ограничение
+     * страницы не конфликтует с загрузкой коллекций.
+     *
+     * @param afterId идентификатор, после которого начинается страница.
+     * @param limit   максимальное количество докторов на странице.
+     * @return Список объектов Doctor с загруженными клиентами и их болезнями.
+     */
+    @Override
+    public List<Doctor> findPage(int afterId, int limit) {
+        log.debug("Вызов метода findPage для получения докторов после id {} (limit {})", afterId, limit);
+        String idsJpql = "SELECT d.id FROM Doctor d WHERE d.id > :afterId ORDER BY d.id";
+        String jpql = "SELECT d FROM Doctor d WHERE d.id IN :ids ORDER BY d.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Integer> ids = entityManager.createQuery(idsJpql, Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(limit)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Doctor> doctors = entityManager.createQuery(jpql, Doctor.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            loadClientGraph(entityManager, doctors, ids);
+            log.debug("Найдено {} докторов на странице", doctors.size());
+            return doctors;
+        }
     }
 
     /**
@@ -51,17 +175,18 @@ public class DoctorRepository implements CRUDRepository<Doctor> {
      */
     @Override
     public Doctor findById(int id) {
-        log.info("Вызов метода findById для поиска доктора с id: {}", id);
-        try {
+        log.debug("Вызов метода findById для поиска доктора с id: {}", id);
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
             Doctor doctor = entityManager.find(Doctor.class, id);
             if (doctor != null) {
-                log.info("Доктор с id {} найден", id);
+                loadClientGraph(entityManager, List.of(doctor), List.of(id));
+                log.debug("Доктор с id {} найден", id);
             } else {
                 log.warn("Доктор с id {} не найден", id);
             }
             return doctor;
         } catch (Exception e) {
-            log.error("Ошибка при выполнении findById для id {}: {}", id, e.getMessage());
+            log.error("Ошибка при выполнении findById для id {}: {}", id, e.getMessage(), e);
             return null;
         }
     }
@@ -74,47 +199,177 @@ public class DoctorRepository implements CRUDRepository<Doctor> {
      */
     @Override
     public Doctor save(Doctor doctor) {
-        log.info("Вызов метода save для сохранения доктора: {}", doctor);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            entityManager.persist(doctor);
-            transaction.commit();
-            log.info("Доктор успешно сохранен с id: {}", doctor.getId());
-        } catch (Exception e) {
-            log.error("Ошибка при сохранении доктора: {}", e.getMessage());
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-                log.warn("Транзакция откатилась");
+        log.debug("Вызов метода save для сохранения доктора");
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                entityManager.persist(doctor);
+                transaction.commit();
+                log.debug("Доктор успешно сохранен с id: {}", doctor.getId());
+            } catch (Exception e) {
+                log.error("Ошибка при сохранении доктора: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
             }
         }
         return doctor;
     }
 
     /**
-     * Обновить данные доктора в базе данных.
+     * Сохранить список новых докторов в одной транзакции.
+     * <p>
+     * Идентификаторы выделяются блоками из последовательности, поэтому Hibernate отправляет вставки
+     * JDBC-пакетами. Каждые {@link #BATCH_SIZE} сущностей изменения сбрасываются в базу данных,
+     * а контекст персистентности очищается, чтобы он не рос вместе с размером списка.
+     *
+     * @param doctors объекты Doctor для сохранения.
+     * @return Сохраненные объекты Doctor с присвоенными идентификаторами.
+     */
+    @Override
+    public List<Doctor> saveAll(List<Doctor> doctors) {
+        log.debug("Вызов метода saveAll для сохранения {} докторов", doctors.size());
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                for (int i = 0; i < doctors.size(); i++) {
+                    entityManager.persist(doctors.get(i));
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                transaction.commit();
+                log.debug("Доктора успешно сохранены: {}", doctors.size());
+            } catch (Exception e) {
+                log.error("Ошибка при пакетном сохранении докторов: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                throw new EntityNotFoundException(e.getMessage());
+            }
+        }
+        return doctors;
+    }
+
+    /**
+     * Обновить данные доктора в базе данных без проверки версии:
+     * изменения применяются к текущей версии строки.
      *
      * @param doctor объект Doctor с обновленными данными.
-     * @return Обновленный объект Doctor.
+     * @return Обновленный объект Doctor или null, если доктора с таким id нет.
      */
     @Override
     public Doctor update(Doctor doctor) {
-        log.info("Вызов метода update для обновления доктора: {}", doctor);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            entityManager.merge(doctor);
-            transaction.commit();
-            log.info("Доктор успешно обновлен с id: {}", doctor.getId());
-        } catch (Exception e) {
-            log.error("Ошибка при обновлении доктора: {}", e.getMessage());
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-                log.warn("Транзакция откатилась");
+        log.debug("Вызов метода update для обновления доктора с id {}", doctor.getId());
+        return merge(doctor, null);
+    }
+
+    /**
+     * Обновить данные доктора в базе данных, если версия строки совпадает с ожидаемой.
+     *
+     * @param doctor             объект Doctor с обновленными данными.
+     * @param expectedVersion версия, которую видел вызывающий код.
+     * @return Обновленный объект Doctor или null, если доктора с таким id нет.
+     * @throws OptimisticLockException если строка была изменена после получения версии.
+     */
+    @Override
+    public Doctor update(Doctor doctor, long expectedVersion) {
+        log.debug("Вызов метода update для обновления доктора с id {} и версией {}", doctor.getId(), expectedVersion);
+        return merge(doctor, expectedVersion);
+    }
+
+    private Doctor merge(Doctor doctor, Long expectedVersion) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                Doctor current = entityManager.find(Doctor.class, doctor.getId());
+                if (current == null) {
+                    transaction.rollback();
+                    log.warn("Доктор с id {} не найден для обновления", doctor.getId());
+                    return null;
+                }
+                doctor.setVersion(expectedVersion != null ? expectedVersion : current.getVersion());
+                Doctor updatedDoctor = entityManager.merge(doctor);
+                loadClientGraph(entityManager, List.of(updatedDoctor), List.of(updatedDoctor.getId()));
+                transaction.commit();
+                log.debug("Доктор успешно обновлен с id: {}", doctor.getId());
+                return updatedDoctor;
+            } catch (Exception e) {
+                log.error("Ошибка при обновлении доктора: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                OptimisticLockException optimisticLockException = RepositoryExceptions.optimisticLock(e);
+                if (optimisticLockException != null) {
+                    log.warn("Доктор с id {} был изменен другой транзакцией", doctor.getId());
+                    throw optimisticLockException;
+                }
                 throw new EntityNotFoundException(e.getMessage());
             }
         }
-        return doctor;
+    }
+
+    /**
+     * Получить отметку версии доктора и связанных сущностей, выбирая из базы данных
+     * только идентификаторы и номера версий.
+     *
+     * @param id идентификатор доктора.
+     * @return Отметка версии или null, если доктора с таким id нет.
+     */
+    @Override
+    public VersionStamp findVersionStamp(int id) {
+        String jpql = "SELECT d.version, c.id, c.version, s.id, s.version FROM Doctor d LEFT JOIN d.clients c LEFT JOIN c.sicks s "
+                + "WHERE d.id = :id ORDER BY c.id, s.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                    .setParameter("id", id)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return null;
+            }
+            VersionStamp.Builder builder = VersionStamp.builder(id, (Long) rows.get(0)[0]);
+            Integer clientId = null;
+            for (Object[] row : rows) {
+                if (row[1] == null) {
+                    continue;
+                }
+                if (!row[1].equals(clientId)) {
+                    if (clientId != null) {
+                        builder.end();
+                    }
+                    clientId = (Integer) row[1];
+                    builder.begin(clientId, (Long) row[2]);
+                }
+                if (row[3] != null) {
+                    builder.begin((Integer) row[3], (Long) row[4]).end();
+                }
+            }
+            if (clientId != null) {
+                builder.end();
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Частично обновить доктора одной командой UPDATE без загрузки доктора и его клиентов.
+     *
+     * @param id              идентификатор доктора.
+     * @param attributes      новые значения полей firstName, lastName, age и specification.
+     * @param expectedVersion ожидаемая версия доктора или {@code null}.
+     * @return новая версия доктора или {@code null}, если доктор не найден.
+     */
+    @Override
+    public Long patch(int id, Map<String, Object> attributes, Long expectedVersion) {
+        log.debug("Вызов метода patch для обновления полей {} доктора с id {}", attributes.keySet(), id);
+        return PATCH.execute(entityManagerFactory, id, attributes, expectedVersion);
     }
 
     /**
@@ -125,25 +380,66 @@ public class DoctorRepository implements CRUDRepository<Doctor> {
      */
     @Override
     public boolean delete(int id) {
-        log.info("Вызов метода delete для удаления доктора с id: {}", id);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            Doctor doctor = entityManager.find(Doctor.class, id);
-            if (doctor != null) {
-                entityManager.remove(doctor);
-                transaction.commit();
-                log.info("Доктор с id {} успешно удален", id);
-                return true;
-            }
-        } catch (Exception e) {
-            log.error("Ошибка при удалении доктора с id {}: {}", id, e.getMessage());
-            if (transaction != null && transaction.isActive()) {
+        log.debug("Вызов метода delete для удаления доктора с id: {}", id);
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                Doctor doctor = entityManager.find(Doctor.class, id);
+                if (doctor != null) {
+                    entityManager.remove(doctor);
+                    transaction.commit();
+                    log.debug("Доктор с id {} успешно удален", id);
+                    return true;
+                }
                 transaction.rollback();
-                log.warn("Транзакция откатилась");
-                throw new EntityNotFoundException(e.getMessage());
+            } catch (Exception e) {
+                log.error("Ошибка при удалении доктора с id {}: {}", id, e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                    throw new EntityNotFoundException(e.getMessage());
+                }
             }
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Загружает клиентов докторов и их болезни, пока EntityManager открыт,
+     * чтобы граф можно было сериализовать после закрытия контекста персистентности.
+     * <p>
+     * Количество запросов не зависит от числа докторов и клиентов: {@link DoctorFetchStrategy#MULTI_STEP}
+     * выполняет два запроса (доктора с клиентами, затем клиенты с болезнями), а
+     * {@link DoctorFetchStrategy#SUBSELECT} полагается на подзапросную загрузку ленивых коллекций.
+     *
+     * @param entityManager EntityManager, которым загружены доктора.
+     * @param doctors       доктора, граф которых нужно загрузить.
+     * @param ids           идентификаторы этих докторов или {@code null}, если загружены все доктора.
+     */
+    private void loadClientGraph(EntityManager entityManager, List<Doctor> doctors, List<Integer> ids) {
+        if (doctors.isEmpty()) {
+            return;
+        }
+        if (fetchStrategy == DoctorFetchStrategy.MULTI_STEP) {
+            String doctorFilter = ids == null ? "" : " WHERE d.id IN :ids";
+            String clientFilter = ids == null ? " WHERE c.doctor IS NOT NULL" : " WHERE c.doctor.id IN :ids";
+            TypedQuery<Doctor> doctorsWithClients = entityManager.createQuery(
+                    "SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.clients" + doctorFilter, Doctor.class);
+            TypedQuery<Client> clientsWithSicks = entityManager.createQuery(
+                    "SELECT DISTINCT c FROM Client c LEFT JOIN FETCH c.sicks" + clientFilter, Client.class);
+            if (ids != null) {
+                doctorsWithClients.setParameter("ids", ids);
+                clientsWithSicks.setParameter("ids", ids);
+            }
+            doctorsWithClients.getResultList();
+            clientsWithSicks.getResultList();
+        }
+        for (Doctor doctor : doctors) {
+            Hibernate.initialize(doctor.getClients());
+            for (Client client : doctor.getClients()) {
+                Hibernate.initialize(client.getSicks());
+            }
+        }
+    }
+}
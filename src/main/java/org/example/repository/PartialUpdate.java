@@ -0,0 +1,100 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Map;
+
+/**
+ * Частичное обновление строки таблицы одной командой без предварительного чтения.
+ *
+ * <p>Команда изменяет только переданные столбцы и увеличивает версию, а номер новой версии
+ * возвращает {@code RETURNING}. Тот же запрос читает текущую версию строки, поэтому
+ * несуществующая строка и несовпадение версии различаются без второго обращения к базе данных.
+ * Команда выполняется в обход Hibernate, поэтому изменяемая таблица объявляется через {@link QuerySpaces}:
+ * закэшированные результаты запросов по ней перестают считаться актуальными.</p>
+ */
+@Slf4j
+final class PartialUpdate {
+
+    private final String table;
+    private final String idColumn;
+    private final Map<String, String> columns;
+
+    /**
+     * @param table    таблица сущности.
+     * @param idColumn столбец идентификатора.
+     * @param columns  столбцы таблицы по именам полей сущности, которые можно изменять.
+     */
+    PartialUpdate(String table, String idColumn, Map<String, String> columns) {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.columns = columns;
+    }
+
+    /**
+     * Обновить строку.
+     *
+     * @param entityManagerFactory фабрика менеджеров сущностей.
+     * @param id                   идентификатор строки.
+     * @param attributes           новые значения по именам полей сущности.
+     * @param expectedVersion      ожидаемая версия или {@code null}, если версия не проверяется.
+     * @return новая версия или {@code null}, если строки нет.
+     * @throws IllegalArgumentException если значений нет или поле нельзя изменять.
+     * @throws OptimisticLockException  если версия строки не равна {@code expectedVersion}.
+     */
+    Long execute(EntityManagerFactory entityManagerFactory, int id, Map<String, Object> attributes,
+                 Long expectedVersion) {
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("Нет полей для обновления");
+        }
+        StringBuilder sql = new StringBuilder("WITH updated AS (UPDATE ").append(table).append(" SET ");
+        for (String attribute : attributes.keySet()) {
+            String column = columns.get(attribute);
+            if (column == null) {
+                throw new IllegalArgumentException("Поле " + attribute + " нельзя изменить");
+            }
+            sql.append(column).append(" = :").append(attribute).append(", ");
+        }
+        sql.append("version = version + 1 WHERE ").append(idColumn).append(" = :id");
+        if (expectedVersion != null) {
+            sql.append(" AND version = :version");
+        }
+        sql.append(" RETURNING version) SELECT (SELECT version FROM updated), (SELECT version FROM ")
+                .append(table).append(" WHERE ").append(idColumn).append(" = :id)");
+
+        Object[] row;
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                NativeQuery<?> query = QuerySpaces.modifying(entityManager, sql.toString(), table);
+                query.setParameter("id", id);
+                attributes.forEach(query::setParameter);
+                if (expectedVersion != null) {
+                    query.setParameter("version", expectedVersion);
+                }
+                row = (Object[]) query.getSingleResult();
+                transaction.commit();
+            } catch (RuntimeException e) {
+                log.error("Ошибка при частичном обновлении {} с id {}: {}", table, id, e.getMessage(), e);
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+        if (row[0] != null) {
+            return ((Number) row[0]).longValue();
+        }
+        if (row[1] == null) {
+            return null;
+        }
+        throw new OptimisticLockException("Версия " + table + " с id " + id + " равна " + row[1]
+                + ", ожидалась " + expectedVersion);
+    }
+}
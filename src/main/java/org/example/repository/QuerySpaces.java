@@ -0,0 +1,44 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Нативные команды, изменяющие таблицы в обход Hibernate.
+ *
+ * <p>Команда {@code WITH ... UPDATE/DELETE ... RETURNING} выполняется как выборка ({@code getResultList}),
+ * поэтому Hibernate не знает, что она изменяет таблицы, и не обновляет их отметки времени в регионе
+ * update-timestamps, как для {@code executeUpdate}. {@link #modifying} объявляет изменяемые таблицы
+ * синхронизированными пространствами запроса, до выполнения команды помечает их как изменяемые,
+ * а после завершения транзакции — как измененные. Закэшированные результаты запросов по этим таблицам
+ * перестают считаться актуальными с начала изменения, в том числе результаты, положенные в кэш
+ * между фиксацией транзакции и ее завершением, а запросы по другим таблицам остаются в кэше.</p>
+ */
+final class QuerySpaces {
+
+    private QuerySpaces() {
+    }
+
+    /**
+     * Создать нативную команду, изменяющую таблицы, в текущей транзакции менеджера сущностей.
+     *
+     * @param entityManager менеджер сущностей с активной транзакцией.
+     * @param sql           текст команды.
+     * @param tables        таблицы, которые изменяет команда.
+     * @return команда с синхронизированными пространствами запроса.
+     */
+    static NativeQuery<?> modifying(EntityManager entityManager, String sql, String... tables) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        for (String table : tables) {
+            query.addSynchronizedQuerySpace(table);
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(tables, session);
+        session.getActionQueue().registerProcess((success, completedSession) ->
+                timestamps.invalidate(tables, completedSession));
+        return query;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.repository;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Вспомогательные методы обработки исключений репозиториев.
+ */
+final class RepositoryExceptions {
+
+    private RepositoryExceptions() {
+    }
+
+    /**
+     * Найти конфликт оптимистической блокировки в цепочке причин исключения.
+     * <p>
+     * Устаревшая версия обнаруживается либо при merge, либо при фиксации транзакции;
+     * во втором случае конфликт обернут в {@link jakarta.persistence.RollbackException}.
+     *
+     * @param e исключение операции.
+     * @return найденное OptimisticLockException или {@code null}.
+     */
+    static OptimisticLockException optimisticLock(Throwable e) {
+        while (e != null) {
+            if (e instanceof OptimisticLockException optimisticLockException) {
+                return optimisticLockException;
+            }
+            e = e.getCause();
+        }
+        return null;
+    }
+}
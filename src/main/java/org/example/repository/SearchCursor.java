@@ -0,0 +1,65 @@
+package org.example.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор постраничного поиска: позиция последнего результата страницы.
+ *
+ * <p>Результаты поиска упорядочены по оценке совпадения имени (по убыванию), затем по самому
+ * имени и по идентификатору записи, поэтому следующая страница начинается сразу после этой
+ * тройки, даже если между запросами добавились или удалились записи. Текстовый вид курсора —
+ * {@code оценка:идентификатор:имя} в кодировке Base64 (URL-safe, без выравнивания).</p>
+ */
+public final class SearchCursor {
+
+    private final float score;
+    private final String name;
+    private final int id;
+
+    public SearchCursor(float score, String name, int id) {
+        this.score = score;
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Разобрать текстовый вид курсора.
+     *
+     * @param value значение, полученное из {@link #toString()}.
+     * @return курсор.
+     * @throws IllegalArgumentException если значение имеет неверный формат.
+     */
+    public static SearchCursor parse(String value) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length == 3) {
+                float score = Float.parseFloat(parts[0]);
+                if (Float.isFinite(score)) {
+                    return new SearchCursor(score, parts[2], Integer.parseInt(parts[1]));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // сообщение об ошибке ниже; NumberFormatException — тоже IllegalArgumentException
+        }
+        throw new IllegalArgumentException("Некорректный курсор поиска: " + value);
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((score + ":" + id + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,29 +1,78 @@
 package org.example.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.entity.Client;
 import org.example.entity.Sick;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @AllArgsConstructor
 @Slf4j
 public class SickRepository implements CRUDRepository<Sick> {
-    private final EntityManager entityManager;
+    private static final PartialUpdate PATCH = new PartialUpdate("sick", "sick_id",
+            Map.of("sickName", "sick_name", "stageSick", "stage_sick"));
+
+    private final EntityManagerFactory entityManagerFactory;
 
 
     @Override
     public List<Sick> findAll() {
-        log.info("Вызов метода findAll для получения всех клиентов");
+        log.debug("Вызов метода findAll для получения всех клиентов");
         String jpql = "SELECT s FROM Sick s LEFT JOIN FETCH s.clients";
-        List<Sick> sicks = entityManager.createQuery(jpql, Sick.class).getResultList();
-        log.info("Найдено {} клиентов", sicks.size());
-        return sicks;
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Sick> sicks = entityManager.createQuery(jpql, Sick.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            log.debug("Найдено {} клиентов", sicks.size());
+            return sicks;
+        }
+    }
+
+    /**
+     * Получить страницу болезней, упорядоченных по идентификатору.
+     * <p>
+     * Сначала выбираются только идентификаторы страницы (с ограничением на стороне базы данных),
+     * затем болезни загружаются вместе с коллекцией clients по этим идентификаторам. Так ограничение
+     * страницы не конфликтует с JOIN FETCH коллекции.
+     *
+     * @param afterId идентификатор, после которого начинается страница.
+     * @param limit   максимальное количество болезней на странице.
+     * @return Список объектов Sick с загруженными связанными данными (Clients).
+     */
+    @Override
+    public List<Sick> findPage(int afterId, int limit) {
+        log.debug("Вызов метода findPage для получения болезней после id {} (limit {})", afterId, limit);
+        String idsJpql = "SELECT s.id FROM Sick s WHERE s.id > :afterId ORDER BY s.id";
+        String jpql = "SELECT DISTINCT s FROM Sick s LEFT JOIN FETCH s.clients WHERE s.id IN :ids ORDER BY s.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Integer> ids = entityManager.createQuery(idsJpql, Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(limit)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Sick> sicks = entityManager.createQuery(jpql, Sick.class)
+                    .setParameter("ids", ids)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            log.debug("Найдено {} болезней на странице", sicks.size());
+            return sicks;
+        }
     }
 
     /**
@@ -34,16 +83,21 @@ public class SickRepository implements CRUDRepository<Sick> {
      */
     @Override
     public Sick findById(int id) {
-        log.info("Вызов метода findById для поиска болезни с id: {}", id);
+        log.debug("Вызов метода findById для поиска болезни с id: {}", id);
         String jpql = "SELECT s FROM Sick s LEFT JOIN FETCH s.clients WHERE s.id = :id";
-        try {
-            Sick sick = entityManager.createQuery(jpql, Sick.class)
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Sick> sicks = entityManager.createQuery(jpql, Sick.class)
                     .setParameter("id", id)
-                    .getSingleResult();
-            log.info("Болезнь с id {} найдена", id);
-            return sick;
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            if (sicks.isEmpty()) {
+                log.warn("Болезнь с id {} не найдена", id);
+                return null;
+            }
+            log.debug("Болезнь с id {} найдена", id);
+            return sicks.get(0);
         } catch (Exception e) {
-            log.error("Ошибка при выполнении findById для id {}: {}", id, e.getMessage());
+            log.error("Ошибка при выполнении findById для id {}: {}", id, e.getMessage(), e);
             return null;
         }
     }
@@ -56,48 +110,169 @@ public class SickRepository implements CRUDRepository<Sick> {
      */
     @Override
     public Sick save(Sick sick) {
-        log.info("Вызов метода save для сохранения болезни: {}", sick);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            entityManager.persist(sick);
-            transaction.commit();
-            log.info("Болезнь успешно сохранена с id: {}", sick.getId());
-        } catch (Exception e) {
-            log.error("Ошибка при сохранении болезни: {}", e.getMessage());
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-                log.warn("Транзакция откатилась");
+        log.debug("Вызов метода save для сохранения болезни");
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                entityManager.persist(sick);
+                transaction.commit();
+                log.debug("Болезнь успешно сохранена с id: {}", sick.getId());
+            } catch (Exception e) {
+                log.error("Ошибка при сохранении болезни: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
             }
         }
         return sick;
     }
 
     /**
-     * Обновить данные болезни в базе данных.
+     * Сохранить список новых болезней в одной транзакции.
+     * <p>
+     * Идентификаторы выделяются блоками из последовательности, поэтому Hibernate отправляет вставки
+     * JDBC-пакетами. Каждые {@link #BATCH_SIZE} сущностей изменения сбрасываются в базу данных,
+     * а контекст персистентности очищается, чтобы он не рос вместе с размером списка.
+     *
+     * @param sicks объекты Sick для сохранения.
+     * @return Сохраненные объекты Sick с присвоенными идентификаторами.
+     */
+    @Override
+    public List<Sick> saveAll(List<Sick> sicks) {
+        log.debug("Вызов метода saveAll для сохранения {} болезней", sicks.size());
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                for (int i = 0; i < sicks.size(); i++) {
+                    entityManager.persist(sicks.get(i));
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                transaction.commit();
+                log.debug("Болезни успешно сохранены: {}", sicks.size());
+            } catch (Exception e) {
+                log.error("Ошибка при пакетном сохранении болезней: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                throw new EntityNotFoundException(e.getMessage());
+            }
+        }
+        return sicks;
+    }
+
+    /**
+     * Обновить данные болезни в базе данных без проверки версии:
+     * изменения применяются к текущей версии строки.
      *
-     * @param sick объект Sick с обновлёнными данными.
-     * @return Обновленный объект Sick.
+     * @param sick объект Sick с обновленными данными.
+     * @return Обновленный объект Sick или null, если болезни с таким id нет.
      */
     @Override
     public Sick update(Sick sick) {
-        log.info("Вызов метода update для обновления болезни: {}", sick);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            Sick updatedSick = entityManager.merge(sick);
-            transaction.commit();
-            log.info("Болезнь успешно обновлена с id: {}", sick.getId());
-            return updatedSick;
-        } catch (Exception e) {
-            log.error("Ошибка при обновлении болезни: {}", e.getMessage());
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-                log.warn("Транзакция откатилась");
+        log.debug("Вызов метода update для обновления болезни с id {}", sick.getId());
+        return merge(sick, null);
+    }
+
+    /**
+     * Обновить данные болезни в базе данных, если версия строки совпадает с ожидаемой.
+     *
+     * @param sick             объект Sick с обновленными данными.
+     * @param expectedVersion версия, которую видел вызывающий код.
+     * @return Обновленный объект Sick или null, если болезни с таким id нет.
+     * @throws OptimisticLockException если строка была изменена после получения версии.
+     */
+    @Override
+    public Sick update(Sick sick, long expectedVersion) {
+        log.debug("Вызов метода update для обновления болезни с id {} и версией {}", sick.getId(), expectedVersion);
+        return merge(sick, expectedVersion);
+    }
+
+    private Sick merge(Sick sick, Long expectedVersion) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                Sick current = entityManager.find(Sick.class, sick.getId());
+                if (current == null) {
+                    transaction.rollback();
+                    log.warn("Болезнь с id {} не найдена для обновления", sick.getId());
+                    return null;
+                }
+                sick.setVersion(expectedVersion != null ? expectedVersion : current.getVersion());
+                Sick updatedSick = entityManager.merge(sick);
+                Hibernate.initialize(updatedSick.getClients());
+                transaction.commit();
+                log.debug("Болезнь успешно обновлена с id: {}", sick.getId());
+                return updatedSick;
+            } catch (Exception e) {
+                log.error("Ошибка при обновлении болезни: {}", e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                }
+                OptimisticLockException optimisticLockException = RepositoryExceptions.optimisticLock(e);
+                if (optimisticLockException != null) {
+                    log.warn("Болезнь с id {} была изменена другой транзакцией", sick.getId());
+                    throw optimisticLockException;
+                }
                 throw new EntityNotFoundException(e.getMessage());
             }
         }
-        return null;
+    }
+
+    /**
+     * Получить отметку версии болезни и связанных сущностей, выбирая из базы данных
+     * только идентификаторы и номера версий.
+     *
+     * @param id идентификатор болезни.
+     * @return Отметка версии или null, если болезни с таким id нет.
+     */
+    @Override
+    public VersionStamp findVersionStamp(int id) {
+        String jpql = "SELECT s.version, c.id, c.version FROM Sick s LEFT JOIN s.clients c WHERE s.id = :id ORDER BY c.id";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                    .setParameter("id", id)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return null;
+            }
+            VersionStamp.Builder builder = VersionStamp.builder(id, (Long) rows.get(0)[0]);
+            for (Object[] row : rows) {
+                if (row[1] != null) {
+                    builder.begin((Integer) row[1], (Long) row[2]).end();
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Частично обновить болезнь одной командой UPDATE без загрузки болезни.
+     * <p>
+     * Болезнь хранится в кэше второго уровня, поэтому после успешного обновления
+     * ее запись удаляется из кэша.
+     *
+     * @param id              идентификатор болезни.
+     * @param attributes      новые значения полей sickName и stageSick.
+     * @param expectedVersion ожидаемая версия болезни или {@code null}.
+     * @return новая версия болезни или {@code null}, если болезнь не найдена.
+     */
+    @Override
+    public Long patch(int id, Map<String, Object> attributes, Long expectedVersion) {
+        log.debug("Вызов метода patch для обновления полей {} болезни с id {}", attributes.keySet(), id);
+        Long version = PATCH.execute(entityManagerFactory, id, attributes, expectedVersion);
+        if (version != null) {
+            entityManagerFactory.getCache().evict(Sick.class, id);
+        }
+        return version;
     }
 
     /**
@@ -108,25 +283,40 @@ public class SickRepository implements CRUDRepository<Sick> {
      */
     @Override
     public boolean delete(int id) {
-        log.info("Вызов метода delete для удаления болезни с id: {}", id);
-        EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();
-            Sick sick = entityManager.find(Sick.class, id);
-            if (sick != null) {
-                entityManager.remove(sick);
-                transaction.commit();
-                log.info("Болезнь с id {} успешно удалена", id);
-                return true;
-            }
-        } catch (Exception e) {
-            log.error("Ошибка при удалении болезни с id {}: {}", id, e.getMessage());
-            if (transaction != null && transaction.isActive()) {
+        log.debug("Вызов метода delete для удаления болезни с id: {}", id);
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                Sick sick = entityManager.find(Sick.class, id);
+                if (sick != null) {
+                    entityManager.remove(sick);
+                    transaction.commit();
+                    evictClientSicks();
+                    log.debug("Болезнь с id {} успешно удалена", id);
+                    return true;
+                }
                 transaction.rollback();
-                log.warn("Транзакция откатилась");
-                throw new EntityNotFoundException(e.getMessage());
+            } catch (Exception e) {
+                log.error("Ошибка при удалении болезни с id {}: {}", id, e.getMessage(), e);
+                if (transaction != null && transaction.isActive()) {
+                    transaction.rollback();
+                    log.warn("Транзакция откатилась");
+                    throw new EntityNotFoundException(e.getMessage());
+                }
             }
         }
         return false;
     }
+
+    /**
+     * Удалить из кэша второго уровня списки болезней клиентов.
+     * <p>
+     * Связи client_sick со стороны болезни Hibernate не отслеживает, поэтому после удаления
+     * болезни закэшированные коллекции {@link Client#getSicks()} могут ссылаться на нее.
+     */
+    private void evictClientSicks() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                .evictCollectionData(Client.class.getName() + ".sicks");
+    }
 }
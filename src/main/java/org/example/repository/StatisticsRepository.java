@@ -0,0 +1,172 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.service.dto.AgeBandDTO;
+import org.example.service.dto.DoctorCaseloadDTO;
+import org.example.service.dto.SickAgeBandsDTO;
+import org.example.service.dto.SickPrevalenceDTO;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Репозиторий для статистики по врачам и болезням.
+ * <p>
+ * Статистика читается из материализованных представлений {@code doctor_caseload},
+ * {@code sick_prevalence} и {@code sick_age_band} (changeSet statistics-views-v.1.2), в которых
+ * строки client и client_sick уже сгруппированы. Данные отстают от таблиц не больше чем
+ * на интервал обновления {@link #refresh()}.
+ */
+@Repository
+@AllArgsConstructor
+@Slf4j
+public class StatisticsRepository {
+
+    /**
+     * Материализованные представления статистики в порядке обновления.
+     */
+    static final List<String> VIEWS = List.of("doctor_caseload", "sick_prevalence", "sick_age_band");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Найти врачей с наибольшим количеством клиентов.
+     *
+     * @param limit максимальное количество врачей.
+     * @return врачи, упорядоченные по убыванию количества клиентов, затем по идентификатору.
+     */
+    public List<DoctorCaseloadDTO> findDoctorCaseload(int limit) {
+        log.debug("Вызов метода findDoctorCaseload для {} врачей", limit);
+        String sql = "SELECT doctor_id, first_name, last_name, specification, clients, average_age "
+                + "FROM doctor_caseload ORDER BY clients DESC, doctor_id LIMIT :limit";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<DoctorCaseloadDTO> caseload = new ArrayList<>();
+            for (Object[] row : rows(entityManager.createNativeQuery(sql).setParameter("limit", limit).getResultList())) {
+                caseload.add(new DoctorCaseloadDTO(((Number) row[0]).intValue(), (String) row[1], (String) row[2],
+                        (String) row[3], ((Number) row[4]).longValue(), ((Number) row[5]).doubleValue()));
+            }
+            log.debug("Найдено {} врачей", caseload.size());
+            return caseload;
+        }
+    }
+
+    /**
+     * Найти самые распространенные болезни.
+     *
+     * @param limit максимальное количество болезней.
+     * @return болезни, упорядоченные по убыванию количества клиентов, затем по идентификатору.
+     */
+    public List<SickPrevalenceDTO> findSickPrevalence(int limit) {
+        log.debug("Вызов метода findSickPrevalence для {} болезней", limit);
+        String sql = "SELECT sick_id, sick_name, stage_sick, clients, share "
+                + "FROM sick_prevalence ORDER BY clients DESC, sick_id LIMIT :limit";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<SickPrevalenceDTO> prevalence = new ArrayList<>();
+            for (Object[] row : rows(entityManager.createNativeQuery(sql).setParameter("limit", limit).getResultList())) {
+                prevalence.add(new SickPrevalenceDTO(((Number) row[0]).intValue(), (String) row[1], (String) row[2],
+                        ((Number) row[3]).longValue(), ((Number) row[4]).doubleValue()));
+            }
+            log.debug("Найдено {} болезней", prevalence.size());
+            return prevalence;
+        }
+    }
+
+    /**
+     * Найти распределение клиентов с болезнью по возрастным группам.
+     *
+     * @param sickId идентификатор болезни.
+     * @return распределение или {@code null}, если болезни не было при последнем обновлении статистики.
+     */
+    public SickAgeBandsDTO findAgeBands(int sickId) {
+        log.debug("Вызов метода findAgeBands для болезни с id: {}", sickId);
+        String sickSql = "SELECT sick_name, clients FROM sick_prevalence WHERE sick_id = :sickId";
+        String bandsSql = "SELECT age_from, clients FROM sick_age_band WHERE sick_id = :sickId ORDER BY age_from";
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            List<Object[]> sick = rows(entityManager.createNativeQuery(sickSql).setParameter("sickId", sickId)
+                    .getResultList());
+            if (sick.isEmpty()) {
+                log.warn("Болезнь с id {} не найдена в статистике", sickId);
+                return null;
+            }
+            List<AgeBandDTO> bands = new ArrayList<>();
+            for (Object[] row : rows(entityManager.createNativeQuery(bandsSql).setParameter("sickId", sickId)
+                    .getResultList())) {
+                int ageFrom = ((Number) row[0]).intValue();
+                bands.add(new AgeBandDTO(ageFrom, ageFrom < 90 ? ageFrom + 9 : null, ((Number) row[1]).longValue()));
+            }
+            return new SickAgeBandsDTO(sickId, (String) sick.get(0)[0], ((Number) sick.get(0)[1]).longValue(), bands);
+        }
+    }
+
+    /**
+     * Посчитать клиентов каждой болезни по таблице client_sick.
+     *
+     * @return количество клиентов по идентификатору болезни; болезни без клиентов не включаются.
+     */
+    public Map<Integer, Long> countClientsBySick() {
+        log.debug("Вызов метода countClientsBySick");
+        return countClients("SELECT sick_id, count(*) FROM client_sick GROUP BY sick_id");
+    }
+
+    /**
+     * Посчитать клиентов каждого врача по таблице client.
+     *
+     * @return количество клиентов по идентификатору врача; врачи без клиентов не включаются.
+     */
+    public Map<Integer, Long> countClientsByDoctor() {
+        log.debug("Вызов метода countClientsByDoctor");
+        return countClients("SELECT doctor_id, count(*) FROM client WHERE doctor_id IS NOT NULL GROUP BY doctor_id");
+    }
+
+    /**
+     * Обновить материализованные представления статистики.
+     * <p>
+     * Каждое представление обновляется отдельной транзакцией командой
+     * {@code REFRESH MATERIALIZED VIEW CONCURRENTLY}: PostgreSQL строит новое содержимое рядом со старым
+     * и применяет разницу, поэтому запросы статистики во время обновления не блокируются и видят
+     * прежние данные.
+     */
+    public void refresh() {
+        for (String view : VIEWS) {
+            long start = System.nanoTime();
+            try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+                EntityTransaction transaction = entityManager.getTransaction();
+                try {
+                    transaction.begin();
+                    entityManager.createNativeQuery("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view).executeUpdate();
+                    transaction.commit();
+                } catch (RuntimeException e) {
+                    log.error("Ошибка при обновлении представления {}: {}", view, e.getMessage(), e);
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    throw e;
+                }
+            }
+            log.debug("Представление {} обновлено за {} мс", view, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private Map<Integer, Long> countClients(String sql) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            Map<Integer, Long> counts = new HashMap<>();
+            for (Object[] row : rows(entityManager.createNativeQuery(sql).getResultList())) {
+                counts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+            }
+            log.debug("Посчитаны клиенты для {} записей", counts.size());
+            return counts;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object[]> rows(List<?> resultList) {
+        return (List<Object[]>) resultList;
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.repository;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Отметка версии представления сущности, по которой строится ETag.
+ *
+ * <p>Представление клиента включает его болезни, врача — клиентов с их болезнями, болезни — ее клиентов.
+ * Поэтому отметка состоит из идентификаторов и номеров версий ({@code @Version}) самой сущности
+ * и всех связанных сущностей, упорядоченных по идентификатору. Отметку можно получить
+ * как из загруженной сущности ({@link #of(Client)} и др.), так и из запроса, выбирающего
+ * только идентификаторы и версии ({@link CRUDRepository#findVersionStamp(int)}): для одного
+ * и того же состояния базы данных обе отметки совпадают.</p>
+ */
+public final class VersionStamp {
+
+    private final long version;
+    private final String value;
+
+    private VersionStamp(long version, String value) {
+        this.version = version;
+        this.value = value;
+    }
+
+    /**
+     * @return номер версии самой сущности (без учета связанных сущностей).
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Сильный ETag представления сущности.
+     *
+     * @return значение заголовка ETag в кавычках.
+     */
+    public String eTag() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder eTag = new StringBuilder("\"");
+            for (int i = 0; i < 16; i++) {
+                eTag.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return eTag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Проверить, совпадает ли ETag с одним из значений заголовка {@code If-Match} или {@code If-None-Match}.
+     *
+     * @param header значение заголовка (список ETag через запятую или {@code *}).
+     * @param weak   {@code true} — слабое сравнение (для If-None-Match), {@code false} — сильное (для If-Match).
+     * @return {@code true}, если совпадение найдено.
+     */
+    public boolean matches(String header, boolean weak) {
+        String eTag = eTag();
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    /**
+     * Отметка версии клиента и его болезней.
+     *
+     * @param client клиент с загруженным списком болезней.
+     * @return отметка версии.
+     */
+    public static VersionStamp of(Client client) {
+        Builder builder = builder(client.getId(), client.getVersion());
+        for (Sick sick : sortedById(client.getSicks(), Sick::getId)) {
+            builder.begin(sick.getId(), sick.getVersion()).end();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Отметка версии врача, его клиентов и их болезней.
+     *
+     * @param doctor врач с загруженными клиентами и их болезнями.
+     * @return отметка версии.
+     */
+    public static VersionStamp of(Doctor doctor) {
+        Builder builder = builder(doctor.getId(), doctor.getVersion());
+        for (Client client : sortedById(doctor.getClients(), Client::getId)) {
+            builder.begin(client.getId(), client.getVersion());
+            for (Sick sick : sortedById(client.getSicks(), Sick::getId)) {
+                builder.begin(sick.getId(), sick.getVersion()).end();
+            }
+            builder.end();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Отметка версии болезни и ее клиентов.
+     *
+     * @param sick болезнь с загруженным списком клиентов.
+     * @return отметка версии.
+     */
+    public static VersionStamp of(Sick sick) {
+        Builder builder = builder(sick.getId(), sick.getVersion());
+        for (Client client : sortedById(sick.getClients(), Client::getId)) {
+            builder.begin(client.getId(), client.getVersion()).end();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Начать построение отметки версии сущности.
+     *
+     * @param id      идентификатор сущности.
+     * @param version номер версии сущности.
+     * @return построитель отметки.
+     */
+    public static Builder builder(int id, long version) {
+        return new Builder(id, version);
+    }
+
+    private static <T> List<T> sortedById(Collection<T> entities, ToIntFunction<T> idOf) {
+        List<T> sorted = entities == null ? new ArrayList<>() : new ArrayList<>(entities);
+        sorted.sort(Comparator.comparingInt(idOf));
+        return sorted;
+    }
+
+    /**
+     * Построитель отметки версии. Связанные сущности добавляются парами {@link #begin(int, long)} /
+     * {@link #end()} в порядке возрастания идентификаторов.
+     */
+    public static final class Builder {
+        private final long version;
+        private final StringBuilder value = new StringBuilder();
+
+        private Builder(int id, long version) {
+            this.version = version;
+            value.append(id).append(':').append(version);
+        }
+
+        /**
+         * Открыть связанную сущность.
+         *
+         * @param id      идентификатор связанной сущности.
+         * @param version номер версии связанной сущности.
+         * @return этот построитель.
+         */
+        public Builder begin(int id, long version) {
+            value.append('(').append(id).append(':').append(version);
+            return this;
+        }
+
+        /**
+         * Закрыть последнюю открытую связанную сущность.
+         *
+         * @return этот построитель.
+         */
+        public Builder end() {
+            value.append(')');
+            return this;
+        }
+
+        /**
+         * @return построенная отметка версии.
+         */
+        public VersionStamp build() {
+            return new VersionStamp(version, value.toString());
+        }
+    }
+}
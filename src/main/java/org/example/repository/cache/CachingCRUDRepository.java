@@ -0,0 +1,161 @@
+package org.example.repository.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.CRUDRepository;
+import org.example.repository.VersionStamp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Декоратор {@link CRUDRepository}, кэширующий результат {@link #findById(int)}.
+ *
+ * <p>Поиск по идентификатору сначала обращается к {@link EntityCache} и только при промахе
+ * вызывает исходный репозиторий (read-through). Операции изменения выполняются исходным
+ * репозиторием, после чего запись сущности удаляется из кэша. Закэшированные сущности
+ * содержат связанные объекты (болезни клиента, клиентов врача), поэтому из зависимых кэшей
+ * удаляются записи, граф которых содержит измененную сущность, и записи сущностей, на которые
+ * она ссылается после изменения (новый врач клиента, добавленные болезни).</p>
+ *
+ * <p>Кэш хранит собственную копию графа сущности и каждому вызову возвращает новую копию
+ * ({@link EntityGraphs}), поэтому изменение полученной сущности не затрагивает кэш и других вызывающих.</p>
+ *
+ * @param <T> тип сущности.
+ */
+@Slf4j
+public class CachingCRUDRepository<T> implements CRUDRepository<T> {
+
+    private final CRUDRepository<T> delegate;
+    private final EntityCache<T> cache;
+    private final ToIntFunction<T> idOf;
+    private final UnaryOperator<T> copyOf;
+    private final List<EntityCache<?>> dependentCaches;
+
+    /**
+     * @param delegate        исходный репозиторий.
+     * @param cache           кэш сущностей по идентификатору.
+     * @param idOf            функция получения идентификатора сущности.
+     * @param copyOf          функция копирования графа сущности.
+     * @param dependentCaches кэши, содержащие эту сущность внутри других сущностей.
+     */
+    public CachingCRUDRepository(CRUDRepository<T> delegate, EntityCache<T> cache, ToIntFunction<T> idOf,
+                                 UnaryOperator<T> copyOf, List<EntityCache<?>> dependentCaches) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.idOf = idOf;
+        this.copyOf = copyOf;
+        this.dependentCaches = dependentCaches;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<T> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public T findById(int id) {
+        T cached = cache.get(id);
+        if (cached != null) {
+            log.debug("Сущность с id {} найдена в кэше {}", id, cache.getName());
+            return copyOf.apply(cached);
+        }
+        long stamp = cache.stamp();
+        T entity = delegate.findById(id);
+        if (entity != null) {
+            cache.put(id, copyOf.apply(entity), stamp);
+        }
+        return entity;
+    }
+
+    @Override
+    public T save(T entity) {
+        T saved = null;
+        try {
+            saved = delegate.save(entity);
+            return saved;
+        } finally {
+            invalidate(saved != null ? saved : entity);
+        }
+    }
+
+    @Override
+    public List<T> saveAll(List<T> entities) {
+        List<T> saved = null;
+        try {
+            saved = delegate.saveAll(entities);
+            return saved;
+        } finally {
+            for (T entity : saved != null ? saved : entities) {
+                invalidate(entity);
+            }
+        }
+    }
+
+    @Override
+    public T update(T entity) {
+        try {
+            return delegate.update(entity);
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public T update(T entity, long expectedVersion) {
+        try {
+            return delegate.update(entity, expectedVersion);
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public Long patch(int id, Map<String, Object> attributes, Long expectedVersion) {
+        try {
+            return delegate.patch(id, attributes, expectedVersion);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public VersionStamp findVersionStamp(int id) {
+        return delegate.findVersionStamp(id);
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    private void invalidate(T entity) {
+        int id = idOf.applyAsInt(entity);
+        invalidate(id);
+        for (EntityReference reference : cache.references(entity)) {
+            for (EntityCache<?> dependentCache : dependentCaches) {
+                if (reference.type() == dependentCache.getType()) {
+                    dependentCache.invalidate(reference);
+                }
+            }
+        }
+    }
+
+    private void invalidate(int id) {
+        EntityReference reference = new EntityReference(cache.getType(), id);
+        cache.invalidate(reference);
+        for (EntityCache<?> dependentCache : dependentCaches) {
+            dependentCache.invalidate(reference);
+        }
+    }
+}
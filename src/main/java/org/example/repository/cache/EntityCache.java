@@ -0,0 +1,275 @@
+package org.example.repository.cache;
+
+import org.example.service.dto.EntityCacheStatsDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограниченный по размеру кэш сущностей по идентификатору с вытеснением давно не использованных
+ * записей (LRU) и временем жизни записи (TTL).
+ *
+ * <p>Доступ к карте синхронизирован, счетчики попаданий, промахов и вытеснений ведутся
+ * в {@link LongAdder}. Для каждой записи запоминаются сущности ее графа ({@link EntityReference}),
+ * а обратный индекс позволяет удалить только записи, содержащие измененную сущность
+ * ({@link #invalidate(EntityReference)}).</p>
+ *
+ * <p>Чтобы значение, загруженное из базы данных до инвалидации, не попало в кэш после нее, загрузка
+ * выполняется по схеме {@link #stamp()} → чтение → {@link #put(int, Object, long)}. Каждая инвалидация
+ * получает номер и оставляет отметку для своей сущности; запись отбрасывается, только если после
+ * получения отметки инвалидировалась сама сущность или одна из сущностей ее графа. Отметок хранится
+ * не больше, чем записей: при вытеснении старой отметки отбрасываются все загрузки, начатые до нее.</p>
+ *
+ * @param <T> тип кэшируемой сущности.
+ */
+public class EntityCache<T> {
+
+    private final String name;
+    private final Class<T> type;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Function<T, Set<EntityReference>> referencesOf;
+    private final LinkedHashMap<Integer, Entry<T>> entries;
+    private final Map<EntityReference, Set<Integer>> referencedBy = new HashMap<>();
+    private final LinkedHashMap<EntityReference, Long> invalidated;
+    private long invalidations;
+    private long invalidatedBefore;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param name         имя кэша (для статистики).
+     * @param type         тип кэшируемой сущности.
+     * @param maxSize      максимальное количество записей.
+     * @param ttl          время жизни записи.
+     * @param referencesOf сущности, которые содержит граф кэшируемой сущности.
+     */
+    public EntityCache(String name, Class<T> type, int maxSize, Duration ttl,
+                       Function<T, Set<EntityReference>> referencesOf) {
+        this(name, type, maxSize, ttl, referencesOf, System::nanoTime);
+    }
+
+    EntityCache(String name, Class<T> type, int maxSize, Duration ttl, Function<T, Set<EntityReference>> referencesOf,
+                LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maxSize);
+        }
+        this.name = name;
+        this.type = type;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.referencesOf = referencesOf;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidated = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EntityReference, Long> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    invalidatedBefore = Math.max(invalidatedBefore, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return имя кэша.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return тип кэшируемой сущности.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Сущности, которые содержит граф сущности.
+     *
+     * @param value сущность.
+     * @return ссылки на связанные сущности.
+     */
+    public Set<EntityReference> references(T value) {
+        return referencesOf.apply(value);
+    }
+
+    /**
+     * Получить сущность из кэша.
+     *
+     * @param id идентификатор сущности.
+     * @return сущность или {@code null}, если записи нет или ее время жизни истекло.
+     */
+    public T get(int id) {
+        long now = clock.getAsLong();
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null && now - entry.createdAt >= ttlNanos) {
+                remove(id);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Получить отметку состояния кэша перед загрузкой сущности из базы данных.
+     *
+     * @return отметка, передаваемая в {@link #put(int, Object, long)}.
+     */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Поместить загруженную сущность в кэш, если с момента получения отметки не инвалидировались
+     * ни сама сущность, ни сущности ее графа.
+     *
+     * @param id    идентификатор сущности.
+     * @param value сущность.
+     * @param stamp отметка, полученная методом {@link #stamp()} до загрузки.
+     * @return {@code true}, если сущность помещена в кэш.
+     */
+    public boolean put(int id, T value, long stamp) {
+        long now = clock.getAsLong();
+        Set<EntityReference> references = referencesOf.apply(value);
+        synchronized (this) {
+            if (stamp < invalidatedBefore || invalidatedSince(new EntityReference(type, id), stamp)) {
+                return false;
+            }
+            for (EntityReference reference : references) {
+                if (invalidatedSince(reference, stamp)) {
+                    return false;
+                }
+            }
+            remove(id);
+            entries.put(id, new Entry<>(value, now, references));
+            for (EntityReference reference : references) {
+                referencedBy.computeIfAbsent(reference, key -> new HashSet<>()).add(id);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Удалить сущность из кэша.
+     *
+     * @param id идентификатор сущности.
+     */
+    public void invalidate(int id) {
+        invalidate(new EntityReference(type, id));
+    }
+
+    /**
+     * Удалить из кэша сущность и записи, граф которых ее содержит.
+     *
+     * @param reference измененная сущность.
+     */
+    public synchronized void invalidate(EntityReference reference) {
+        invalidations++;
+        invalidated.remove(reference);
+        invalidated.put(reference, invalidations);
+        if (reference.type() == type) {
+            remove(reference.id());
+        }
+        Set<Integer> ids = referencedBy.get(reference);
+        if (ids != null) {
+            for (Integer id : new ArrayList<>(ids)) {
+                remove(id);
+            }
+        }
+    }
+
+    /**
+     * Очистить кэш полностью.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        invalidatedBefore = invalidations;
+        invalidated.clear();
+        entries.clear();
+        referencedBy.clear();
+    }
+
+    /**
+     * @return текущее количество записей.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Снимок статистики кэша.
+     *
+     * @return объект EntityCacheStatsDTO с размером, попаданиями, промахами и вытеснениями.
+     */
+    public EntityCacheStatsDTO snapshot() {
+        EntityCacheStatsDTO dto = new EntityCacheStatsDTO();
+        dto.setName(name);
+        dto.setSize(size());
+        dto.setMaxSize(maxSize);
+        dto.setTtlSeconds(Duration.ofNanos(ttlNanos).toSeconds());
+        dto.setHits(hits.sum());
+        dto.setMisses(misses.sum());
+        long total = dto.getHits() + dto.getMisses();
+        dto.setHitRatio(total == 0 ? 0 : (double) dto.getHits() / total);
+        dto.setEvictions(evictions.sum());
+        dto.setExpirations(expirations.sum());
+        return dto;
+    }
+
+    private boolean invalidatedSince(EntityReference reference, long stamp) {
+        Long invalidation = invalidated.get(reference);
+        return invalidation != null && invalidation > stamp;
+    }
+
+    private void remove(int id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry != null) {
+            unindex(id, entry);
+        }
+    }
+
+    private void unindex(int id, Entry<T> entry) {
+        for (EntityReference reference : entry.references) {
+            Set<Integer> ids = referencedBy.get(reference);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                referencedBy.remove(reference);
+            }
+        }
+    }
+
+    private record Entry<T>(T value, long createdAt, Set<EntityReference> references) {
+    }
+}
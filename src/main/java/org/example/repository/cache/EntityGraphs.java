@@ -0,0 +1,195 @@
+package org.example.repository.cache;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Графы сущностей, которые хранит {@link EntityCache}: связанные сущности и копирование.
+ *
+ * <p>Граф включает только загруженные связи: незагруженные коллекции Hibernate не читаются
+ * (в копии они равны {@code null}), а от незагруженного врача копируется только идентификатор.
+ * Копия не содержит объектов Hibernate и не разделяет изменяемых объектов с исходным графом.</p>
+ */
+public final class EntityGraphs {
+
+    private EntityGraphs() {
+    }
+
+    /**
+     * Связанные сущности клиента: его врач и болезни.
+     *
+     * @param client клиент.
+     * @return ссылки на связанные сущности.
+     */
+    public static Set<EntityReference> references(Client client) {
+        Set<EntityReference> references = new HashSet<>();
+        addClientReferences(references, client);
+        return references;
+    }
+
+    /**
+     * Связанные сущности врача: его клиенты и их болезни.
+     *
+     * @param doctor врач.
+     * @return ссылки на связанные сущности.
+     */
+    public static Set<EntityReference> references(Doctor doctor) {
+        Set<EntityReference> references = new HashSet<>();
+        if (loaded(doctor.getClients())) {
+            for (Client client : doctor.getClients()) {
+                references.add(new EntityReference(Client.class, client.getId()));
+                addSickReferences(references, client.getSicks());
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Связанные сущности болезни: ее клиенты.
+     *
+     * @param sick болезнь.
+     * @return ссылки на связанные сущности.
+     */
+    public static Set<EntityReference> references(Sick sick) {
+        Set<EntityReference> references = new HashSet<>();
+        if (loaded(sick.getClients())) {
+            for (Client client : sick.getClients()) {
+                references.add(new EntityReference(Client.class, client.getId()));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * @param client клиент.
+     * @return копия клиента с загруженными связями.
+     */
+    public static Client copy(Client client) {
+        return new Copier().client(client);
+    }
+
+    /**
+     * @param doctor врач.
+     * @return копия врача с загруженными связями.
+     */
+    public static Doctor copy(Doctor doctor) {
+        return new Copier().doctor(doctor);
+    }
+
+    /**
+     * @param sick болезнь.
+     * @return копия болезни с загруженными связями.
+     */
+    public static Sick copy(Sick sick) {
+        return new Copier().sick(sick);
+    }
+
+    private static void addClientReferences(Set<EntityReference> references, Client client) {
+        if (client.getDoctor() != null) {
+            references.add(new EntityReference(Doctor.class, client.getDoctor().getId()));
+        }
+        addSickReferences(references, client.getSicks());
+    }
+
+    private static void addSickReferences(Set<EntityReference> references, Collection<Sick> sicks) {
+        if (loaded(sicks)) {
+            for (Sick sick : sicks) {
+                references.add(new EntityReference(Sick.class, sick.getId()));
+            }
+        }
+    }
+
+    private static boolean loaded(Object association) {
+        return association != null && Hibernate.isInitialized(association);
+    }
+
+    /**
+     * Копирование графа с сохранением общих и циклических ссылок (врач → клиенты → врач).
+     */
+    private static final class Copier {
+
+        private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+        Client client(Client source) {
+            if (source == null) {
+                return null;
+            }
+            Client copy = (Client) copies.get(source);
+            if (copy != null) {
+                return copy;
+            }
+            copy = new Client(source.getFirstName(), source.getLastName(), source.getAge());
+            copy.setId(source.getId());
+            copy.setVersion(source.getVersion());
+            copies.put(source, copy);
+            copy.setDoctor(doctor(source.getDoctor()));
+            if (loaded(source.getSicks())) {
+                Set<Sick> sicks = new LinkedHashSet<>();
+                for (Sick sick : source.getSicks()) {
+                    sicks.add(sick(sick));
+                }
+                copy.setSicks(sicks);
+            }
+            return copy;
+        }
+
+        Doctor doctor(Doctor source) {
+            if (source == null) {
+                return null;
+            }
+            Doctor copy = (Doctor) copies.get(source);
+            if (copy != null) {
+                return copy;
+            }
+            copy = new Doctor();
+            copy.setId(source.getId());
+            copies.put(source, copy);
+            if (!Hibernate.isInitialized(source)) {
+                return copy;
+            }
+            copy.setFirstName(source.getFirstName());
+            copy.setLastName(source.getLastName());
+            copy.setAge(source.getAge());
+            copy.setSpecification(source.getSpecification());
+            copy.setVersion(source.getVersion());
+            if (loaded(source.getClients())) {
+                List<Client> clients = new ArrayList<>(source.getClients().size());
+                for (Client client : source.getClients()) {
+                    clients.add(client(client));
+                }
+                copy.setClients(clients);
+            }
+            return copy;
+        }
+
+        Sick sick(Sick source) {
+            Sick copy = (Sick) copies.get(source);
+            if (copy != null) {
+                return copy;
+            }
+            copy = new Sick(source.getSickName(), source.getStageSick());
+            copy.setId(source.getId());
+            copy.setVersion(source.getVersion());
+            copies.put(source, copy);
+            if (loaded(source.getClients())) {
+                List<Client> clients = new ArrayList<>(source.getClients().size());
+                for (Client client : source.getClients()) {
+                    clients.add(client(client));
+                }
+                copy.setClients(clients);
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.repository.cache;
+
+/**
+ * Ссылка на сущность: тип и идентификатор.
+ *
+ * <p>Ключ отметок инвалидации {@link EntityCache} и его обратного индекса: запись кэша зависит
+ * от самой сущности и от сущностей, которые содержит ее граф (болезни клиента, клиенты врача).</p>
+ *
+ * @param type тип сущности.
+ * @param id   идентификатор сущности.
+ */
+public record EntityReference(Class<?> type, int id) {
+}
@@ -0,0 +1,31 @@
+package org.example.repository.copy;
+
+/**
+ * Исключение, выбрасываемое, если файл импорта целиком не соответствует формату
+ * (например, заголовок не совпадает с {@link CsvLayout}). Импорт в этом случае отменяется.
+ */
+public class CsvFormatException extends IllegalArgumentException {
+
+    private final String fileName;
+    private final long line;
+
+    public CsvFormatException(String fileName, long line, String message) {
+        super(message);
+        this.fileName = fileName;
+        this.line = line;
+    }
+
+    /**
+     * @return имя файла импорта.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return номер строки файла, начиная с 1.
+     */
+    public long getLine() {
+        return line;
+    }
+}
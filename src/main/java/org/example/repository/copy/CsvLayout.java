@@ -0,0 +1,75 @@
+package org.example.repository.copy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Формат CSV-файла импорта и выгрузки: имя файла и столбцы заголовка.
+ *
+ * <p>Форматы совпадают с файлами начальных данных {@code db/data}: идентификаторы строк
+ * в файлах не указываются, а ссылки ({@code doctor_id}, {@code client_id}, {@code sick_id})
+ * задаются номером строки данных в соответствующем файле, начиная с 1.</p>
+ *
+ * <p>При выгрузке кроме столбцов формата можно запросить идентификатор ({@code id})
+ * и версию ({@code version}) записи, см. {@link #getExportColumns()}.</p>
+ */
+public enum CsvLayout {
+
+    DOCTORS("doctors", List.of("first_name", "last_name", "age", "specification"), true),
+    SICKS("sicks", List.of("sick_name", "stage_sick"), true),
+    CLIENTS("clients", List.of("first_name", "last_name", "age", "doctor_id"), true),
+    LINKS("links", List.of("client_id", "sick_id"), false);
+
+    private final String fileName;
+    private final List<String> columns;
+    private final List<String> exportColumns;
+
+    CsvLayout(String fileName, List<String> columns, boolean entity) {
+        this.fileName = fileName;
+        this.columns = columns;
+        List<String> exportColumns = new ArrayList<>(columns);
+        if (entity) {
+            exportColumns.add(0, "id");
+            exportColumns.add("version");
+        }
+        this.exportColumns = List.copyOf(exportColumns);
+    }
+
+    /**
+     * @return имя файла в запросах импорта и выгрузки и в отчете об ошибках.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return столбцы заголовка в порядке следования.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return столбцы, которые можно запросить при выгрузке: столбцы формата, а для врачей, болезней
+     * и клиентов также идентификатор {@code id} и версия {@code version} записи.
+     */
+    public List<String> getExportColumns() {
+        return exportColumns;
+    }
+
+    /**
+     * Получить формат по имени файла.
+     *
+     * @param fileName имя файла без учета регистра, например {@code clients}.
+     * @return формат файла.
+     * @throws IllegalArgumentException если формата с таким именем нет.
+     */
+    public static CsvLayout fromFileName(String fileName) {
+        for (CsvLayout layout : values()) {
+            if (layout.fileName.equalsIgnoreCase(fileName.trim())) {
+                return layout;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный файл: " + fileName);
+    }
+}
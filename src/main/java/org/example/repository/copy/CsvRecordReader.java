@@ -0,0 +1,146 @@
+package org.example.repository.copy;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Построчное чтение CSV-файла импорта.
+ *
+ * <p>Поля разделяются запятой, значение может быть заключено в двойные кавычки, кавычка
+ * внутри такого значения записывается дважды. Значения не могут содержать перевод строки.
+ * Заголовок проверяется при создании читателя, пустые строки пропускаются.</p>
+ *
+ * <p>Метод {@link #next()} выбрасывает {@link IllegalArgumentException} для строки, которую
+ * нельзя разобрать; чтение при этом можно продолжить со следующей строки.</p>
+ */
+public class CsvRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final CsvLayout layout;
+    private long line;
+    private int row;
+
+    /**
+     * @param reader источник данных.
+     * @param layout ожидаемый формат файла.
+     * @throws IOException        если источник недоступен.
+     * @throws CsvFormatException если файл пуст или заголовок не совпадает с форматом.
+     */
+    public CsvRecordReader(Reader reader, CsvLayout layout) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+        this.layout = layout;
+        String header = this.reader.readLine();
+        line = 1;
+        if (header == null) {
+            throw new CsvFormatException(layout.getFileName(), line, "Файл пуст, ожидается заголовок "
+                    + String.join(",", layout.getColumns()));
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : parse(header)) {
+            columns.add(column.trim().toLowerCase());
+        }
+        if (!columns.equals(layout.getColumns())) {
+            throw new CsvFormatException(layout.getFileName(), line, "Заголовок " + String.join(",", columns)
+                    + " не совпадает с ожидаемым " + String.join(",", layout.getColumns()));
+        }
+    }
+
+    /**
+     * Прочитать следующую строку данных.
+     *
+     * @return значения полей в порядке столбцов или {@code null}, если файл закончился.
+     * @throws IOException              если источник недоступен.
+     * @throws IllegalArgumentException если строку нельзя разобрать или число полей не совпадает с заголовком.
+     */
+    public String[] next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        row++;
+        String[] fields = parse(text);
+        if (fields.length != layout.getColumns().size()) {
+            throw new IllegalArgumentException("Ожидается полей: " + layout.getColumns().size()
+                    + ", получено: " + fields.length);
+        }
+        return fields;
+    }
+
+    /**
+     * @return номер последней прочитанной строки файла, начиная с 1 (строка заголовка).
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return номер последней прочитанной строки данных, начиная с 1; по нему на строку ссылаются другие файлы.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Разобрать строку CSV на поля.
+     *
+     * @param text строка без перевода строки.
+     * @return значения полей.
+     * @throws IllegalArgumentException если кавычки в строке не сбалансированы.
+     */
+    static String[] parse(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = text.length();
+        while (true) {
+            if (i < length && text.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Незакрытая кавычка");
+                    }
+                    char c = text.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < length && text.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Символы после закрывающей кавычки в позиции " + (i + 1));
+                }
+            } else {
+                int end = text.indexOf(',', i);
+                field.append(text, i, end < 0 ? length : end);
+                i = end < 0 ? length : end;
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= length) {
+                return fields.toArray(new String[0]);
+            }
+            i++;
+        }
+    }
+}
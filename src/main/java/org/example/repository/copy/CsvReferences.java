@@ -0,0 +1,30 @@
+package org.example.repository.copy;
+
+/**
+ * Представление ссылок ({@code doctor_id} клиента, {@code client_id} и {@code sick_id} связи) при выгрузке.
+ */
+public enum CsvReferences {
+
+    /**
+     * Номер строки данных в выгрузке соответствующего файла, начиная с 1, как в файлах {@code db/data}.
+     * Выгрузки всех четырех файлов импортируются обратно одним запросом.
+     */
+    ROWS,
+
+    /**
+     * Идентификатор записи в базе данных. Такой файл импортируется отдельно от файла, на который
+     * он ссылается: ссылки указывают на существующие записи.
+     */
+    IDS;
+
+    /**
+     * Получить представление ссылок по значению параметра запроса.
+     *
+     * @param value имя представления без учета регистра.
+     * @return представление ссылок.
+     * @throws IllegalArgumentException если представления с таким именем не существует.
+     */
+    public static CsvReferences fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.repository.copy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Выдача идентификаторов для строк, вставляемых через COPY, из последовательности сущности.
+ *
+ * <p>Последовательности идентификаторов увеличиваются на размер блока ({@code allocationSize}
+ * сущностей), и Hibernate считает значение {@code nextval} верхней границей своего блока.
+ * Распределитель поступает так же: значение {@code v} дает идентификаторы от {@code v - increment + 1}
+ * до {@code v}, поэтому идентификаторы импорта не пересекаются с идентификаторами, которые выдает Hibernate.
+ * Блоки запрашиваются одним запросом {@code generate_series}, число блоков в запросе удваивается
+ * до {@value #MAX_BLOCKS_PER_QUERY}, чтобы небольшой импорт не расходовал лишние идентификаторы.</p>
+ */
+public class SequenceIdAllocator {
+
+    static final int MAX_BLOCKS_PER_QUERY = 128;
+
+    private final Connection connection;
+    private final String sequence;
+    private final int increment;
+    private long[] blocks = new long[0];
+    private int block;
+    private int blocksPerQuery = 1;
+    private long next;
+    private long last = -1;
+
+    /**
+     * @param connection соединение транзакции импорта.
+     * @param sequence   имя последовательности, например {@code client_client_id_seq}.
+     * @throws SQLException если последовательность не найдена.
+     */
+    public SequenceIdAllocator(Connection connection, String sequence) throws SQLException {
+        this.connection = connection;
+        this.sequence = sequence;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?")) {
+            statement.setString(1, sequence);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Последовательность " + sequence + " не найдена");
+                }
+                increment = Math.max(1, resultSet.getInt(1));
+            }
+        }
+    }
+
+    /**
+     * @return следующий свободный идентификатор.
+     * @throws SQLException если не удалось получить значения последовательности.
+     */
+    public int next() throws SQLException {
+        if (next > last) {
+            if (block == blocks.length) {
+                fetchBlocks();
+            }
+            long upper = blocks[block++];
+            next = Math.max(1, upper - increment + 1);
+            last = upper;
+        }
+        return Math.toIntExact(next++);
+    }
+
+    private void fetchBlocks() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)")) {
+            statement.setString(1, sequence);
+            statement.setInt(2, blocksPerQuery);
+            blocks = new long[blocksPerQuery];
+            int count = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    blocks[count++] = resultSet.getLong(1);
+                }
+            }
+        }
+        block = 0;
+        blocksPerQuery = Math.min(blocksPerQuery * 2, MAX_BLOCKS_PER_QUERY);
+    }
+}
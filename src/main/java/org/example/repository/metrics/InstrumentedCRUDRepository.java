@@ -0,0 +1,181 @@
+package org.example.repository.metrics;
+
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.OperationMetrics;
+import org.example.repository.CRUDRepository;
+import org.example.repository.VersionStamp;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Декоратор {@link CRUDRepository}, измеряющий время выполнения каждой операции.
+ *
+ * <p>Метрики операций создаются в {@link MetricsRegistry} один раз в конструкторе, поэтому
+ * вызов репозитория добавляет только чтение {@link System#nanoTime()} и обновление счетчиков
+ * {@link java.util.concurrent.atomic.LongAdder}, без поиска в словарях и выделения памяти.
+ * Обе версии {@code update} учитываются как одна операция.</p>
+ *
+ * @param <T> тип сущности.
+ */
+public class InstrumentedCRUDRepository<T> implements CRUDRepository<T> {
+
+    private final CRUDRepository<T> delegate;
+    private final OperationMetrics findAllMetrics;
+    private final OperationMetrics findPageMetrics;
+    private final OperationMetrics findByIdMetrics;
+    private final OperationMetrics saveMetrics;
+    private final OperationMetrics saveAllMetrics;
+    private final OperationMetrics updateMetrics;
+    private final OperationMetrics patchMetrics;
+    private final OperationMetrics findVersionStampMetrics;
+    private final OperationMetrics deleteMetrics;
+
+    /**
+     * @param delegate        исходный репозиторий.
+     * @param repository      имя репозитория в метках метрик, например {@code clients}.
+     * @param metricsRegistry реестр метрик.
+     */
+    public InstrumentedCRUDRepository(CRUDRepository<T> delegate, String repository, MetricsRegistry metricsRegistry) {
+        this.delegate = delegate;
+        this.findAllMetrics = metricsRegistry.repositoryOperation(repository, "findAll");
+        this.findPageMetrics = metricsRegistry.repositoryOperation(repository, "findPage");
+        this.findByIdMetrics = metricsRegistry.repositoryOperation(repository, "findById");
+        this.saveMetrics = metricsRegistry.repositoryOperation(repository, "save");
+        this.saveAllMetrics = metricsRegistry.repositoryOperation(repository, "saveAll");
+        this.updateMetrics = metricsRegistry.repositoryOperation(repository, "update");
+        this.patchMetrics = metricsRegistry.repositoryOperation(repository, "patch");
+        this.findVersionStampMetrics = metricsRegistry.repositoryOperation(repository, "findVersionStamp");
+        this.deleteMetrics = metricsRegistry.repositoryOperation(repository, "delete");
+    }
+
+    @Override
+    public List<T> findAll() {
+        long start = findAllMetrics.start();
+        try {
+            return delegate.findAll();
+        } catch (RuntimeException e) {
+            findAllMetrics.failed();
+            throw e;
+        } finally {
+            findAllMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public List<T> findPage(int afterId, int limit) {
+        long start = findPageMetrics.start();
+        try {
+            return delegate.findPage(afterId, limit);
+        } catch (RuntimeException e) {
+            findPageMetrics.failed();
+            throw e;
+        } finally {
+            findPageMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public T findById(int id) {
+        long start = findByIdMetrics.start();
+        try {
+            return delegate.findById(id);
+        } catch (RuntimeException e) {
+            findByIdMetrics.failed();
+            throw e;
+        } finally {
+            findByIdMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public T save(T entity) {
+        long start = saveMetrics.start();
+        try {
+            return delegate.save(entity);
+        } catch (RuntimeException e) {
+            saveMetrics.failed();
+            throw e;
+        } finally {
+            saveMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public List<T> saveAll(List<T> entities) {
+        long start = saveAllMetrics.start();
+        try {
+            return delegate.saveAll(entities);
+        } catch (RuntimeException e) {
+            saveAllMetrics.failed();
+            throw e;
+        } finally {
+            saveAllMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public T update(T entity) {
+        long start = updateMetrics.start();
+        try {
+            return delegate.update(entity);
+        } catch (RuntimeException e) {
+            updateMetrics.failed();
+            throw e;
+        } finally {
+            updateMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public T update(T entity, long expectedVersion) {
+        long start = updateMetrics.start();
+        try {
+            return delegate.update(entity, expectedVersion);
+        } catch (RuntimeException e) {
+            updateMetrics.failed();
+            throw e;
+        } finally {
+            updateMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public Long patch(int id, Map<String, Object> attributes, Long expectedVersion) {
+        long start = patchMetrics.start();
+        try {
+            return delegate.patch(id, attributes, expectedVersion);
+        } catch (RuntimeException e) {
+            patchMetrics.failed();
+            throw e;
+        } finally {
+            patchMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public VersionStamp findVersionStamp(int id) {
+        long start = findVersionStampMetrics.start();
+        try {
+            return delegate.findVersionStamp(id);
+        } catch (RuntimeException e) {
+            findVersionStampMetrics.failed();
+            throw e;
+        } finally {
+            findVersionStampMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        long start = deleteMetrics.start();
+        try {
+            return delegate.delete(id);
+        } catch (RuntimeException e) {
+            deleteMetrics.failed();
+            throw e;
+        } finally {
+            deleteMetrics.stop(start);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.repository.BulkChange;
+import org.example.repository.BulkRepository;
+import org.example.repository.cache.EntityCache;
+import org.example.repository.cache.EntityReference;
+import org.example.service.counter.CaseloadCounters;
+import org.example.service.dto.BulkResultDTO;
+import org.example.service.dto.SickDeleteResultDTO;
+import org.hibernate.SessionFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис для групповых изменений клиентов, врачей и болезней.
+ * <p>
+ * Изменения выполняются в обход Hibernate ({@link BulkRepository}), поэтому после каждой операции
+ * из кэшей удаляются только затронутые записи: из кэша второго уровня — коллекции болезней
+ * измененных клиентов и удаленная болезнь, из кэшей сущностей по идентификатору — измененные клиенты,
+ * записи, граф которых их содержит, и врачи и болезни, у которых изменился список клиентов.
+ * Кэш запросов Hibernate обновляет сам репозиторий. Изменение количества клиентов передается
+ * в {@link CaseloadCounters}. Если добавление или удаление болезней клиента не изменило связей,
+ * кэши и счетчики не затрагиваются; иначе удаляются только коллекция болезней клиента, сам клиент
+ * и указанные болезни.
+ */
+@AllArgsConstructor
+@Service
+@Slf4j
+public class BulkService {
+
+    private static final String CLIENT_SICKS = Client.class.getName() + ".sicks";
+
+    private final BulkRepository repository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<EntityCache<?>> entityCaches;
+    private final CaseloadCounters caseloadCounters;
+
+    /**
+     * Удалить клиентов по списку идентификаторов вместе с их связями с болезнями.
+     *
+     * @param ids идентификаторы клиентов.
+     * @return ResponseEntity с количеством удаленных клиентов или статусом 400, если список пуст.
+     */
+    public ResponseEntity<BulkResultDTO> deleteClients(List<Integer> ids) {
+        log.debug("Вызов метода deleteClients для удаления клиентов {}", ids);
+        if (ids.isEmpty()) {
+            log.warn("Групповое удаление клиентов без идентификаторов");
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(applied(repository.deleteClients(ids)));
+    }
+
+    /**
+     * Передать всех клиентов одного врача другому врачу.
+     *
+     * @param doctorId       идентификатор врача, клиенты которого передаются.
+     * @param targetDoctorId идентификатор врача, который получает клиентов.
+     * @return ResponseEntity с количеством переданных клиентов, статусом 400 (врачи совпадают)
+     * или 404 (врача {@code targetDoctorId} нет).
+     */
+    public ResponseEntity<BulkResultDTO> reassignClients(int doctorId, int targetDoctorId) {
+        log.debug("Вызов метода reassignClients для передачи клиентов врача {} врачу {}", doctorId, targetDoctorId);
+        if (doctorId == targetDoctorId) {
+            log.warn("Клиенты врача с id {} передаются ему же", doctorId);
+            return ResponseEntity.badRequest().build();
+        }
+        BulkChange change = repository.reassignClients(doctorId, targetDoctorId);
+        return change != null ? ResponseEntity.ok(applied(change)) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Удалить болезнь вместе с ее связями с клиентами.
+     *
+     * @param sickId идентификатор болезни.
+     * @return ResponseEntity с количеством удаленных болезней и связей или статусом 404, если болезни нет.
+     */
+    public ResponseEntity<SickDeleteResultDTO> deleteSick(int sickId) {
+        log.debug("Вызов метода deleteSick для удаления болезни с id {} вместе со связями", sickId);
+        BulkChange change = repository.deleteSick(sickId);
+        if (change == null) {
+            return ResponseEntity.notFound().build();
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictEntityData(Sick.class, sickId);
+        applied(change);
+        return ResponseEntity.ok(new SickDeleteResultDTO(change.getAffected(), change.getClients().size()));
+    }
+
+    /**
+     * Добавить клиенту болезни по идентификаторам.
+     *
+     * @param clientId идентификатор клиента.
+     * @param sickIds  идентификаторы болезней.
+     * @return ResponseEntity с количеством добавленных связей, статусом 400 (список пуст)
+     * или 404 (нет клиента или одной из болезней).
+     */
+    public ResponseEntity<BulkResultDTO> addSicks(int clientId, List<Integer> sickIds) {
+        log.debug("Вызов метода addSicks для добавления клиенту с id {} болезней {}", clientId, sickIds);
+        if (sickIds.isEmpty()) {
+            log.warn("Добавление болезней клиенту с id {} без идентификаторов", clientId);
+            return ResponseEntity.badRequest().build();
+        }
+        BulkChange change = repository.addSicks(clientId, sickIds);
+        return change != null ? ResponseEntity.ok(linksChanged(change)) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Удалить у клиента болезни по идентификаторам.
+     *
+     * @param clientId идентификатор клиента.
+     * @param sickIds  идентификаторы болезней.
+     * @return ResponseEntity с количеством удаленных связей, статусом 400 (список пуст) или 404 (клиента нет).
+     */
+    public ResponseEntity<BulkResultDTO> removeSicks(int clientId, List<Integer> sickIds) {
+        log.debug("Вызов метода removeSicks для удаления у клиента с id {} болезней {}", clientId, sickIds);
+        if (sickIds.isEmpty()) {
+            log.warn("Удаление болезней у клиента с id {} без идентификаторов", clientId);
+            return ResponseEntity.badRequest().build();
+        }
+        BulkChange change = repository.removeSicks(clientId, sickIds);
+        return change != null ? ResponseEntity.ok(linksChanged(change)) : ResponseEntity.notFound().build();
+    }
+
+    private BulkResultDTO applied(BulkChange change) {
+        evictCaches(change);
+        caseloadCounters.bulkChanged(change);
+        return new BulkResultDTO(change.getAffected());
+    }
+
+    private BulkResultDTO linksChanged(BulkChange change) {
+        return change.getAffected() > 0 ? applied(change) : new BulkResultDTO(0);
+    }
+
+    /**
+     * Удалить из кэшей записи, затронутые изменением.
+     * <p>
+     * Измененный клиент удаляется из всех кэшей сущностей вместе с записями, граф которых его содержит.
+     * Врач или болезнь, у которых изменился список клиентов, удаляется только из кэша своего типа:
+     * записи клиентов хранят их идентификаторы, которые не изменились.
+     */
+    private void evictCaches(BulkChange change) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        List<EntityReference> clients = new ArrayList<>(change.getClients().size());
+        for (Integer clientId : change.getClients()) {
+            cache.evictCollectionData(CLIENT_SICKS, clientId);
+            clients.add(new EntityReference(Client.class, clientId));
+        }
+        for (EntityCache<?> entityCache : entityCaches) {
+            clients.forEach(entityCache::invalidate);
+            if (entityCache.getType() == Doctor.class) {
+                change.getDoctorClients().keySet().forEach(entityCache::invalidate);
+            } else if (entityCache.getType() == Sick.class) {
+                change.getSickClients().keySet().forEach(entityCache::invalidate);
+            }
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package org.example.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.OptimisticLockException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Client;
-import org.example.entity.Sick;
 import org.example.repository.CRUDRepository;
+import org.example.repository.VersionStamp;
+import org.example.repository.ClientRepository;
 import org.example.service.dto.ClientDTO;
+import org.example.service.dto.ClientPatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
 import org.example.service.mapper.ClientMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -34,27 +49,97 @@ import java.util.Optional;
 @Service
 @Slf4j
 public class ClientService {
+    /**
+     * Количество строк, получаемых из базы данных за одно обращение при потоковой выгрузке.
+     */
+    public static final int STREAM_FETCH_SIZE = 500;
+
+    private static final ObjectWriter STREAM_WRITER = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .writer();
+
     private CRUDRepository<Client> repository;
+    private ClientRepository clientRepository;
 
     /**
      * Получить список всех клиентов.
+     * <p>
+     * Клиенты и их болезни читаются проекцией сразу в DTO, без загрузки управляемых сущностей.
      *
      * @return ResponseEntity со списком объектов ClientDTO.
      */
     public ResponseEntity<List<ClientDTO>> findAll() {
-        log.info("Вызов метода findAll для получения всех клиентов");
-        List<ClientDTO> clientDTOS = new ArrayList<>();
-        int index = 0;
-        for (Client client : repository.findAll()) {
-            List<Sick> sicks = client.getSicks();
-            clientDTOS.add(ClientMapper.INSTANCE.clientToClientDTO(client));
-            clientDTOS.get(index).setSicks(sicks);
-            index++;
-        }
-        log.info("Найдено {} клиентов", clientDTOS.size());
+        log.debug("Вызов метода findAll для получения всех клиентов");
+        List<ClientDTO> clientDTOS = clientRepository.findAllProjected();
+        log.debug("Найдено {} клиентов", clientDTOS.size());
         return ResponseEntity.ok(clientDTOS);
     }
 
+    /**
+     * Получить страницу клиентов, упорядоченных по идентификатору.
+     *
+     * @param afterId идентификатор, после которого начинается страница (курсор).
+     * @param limit   желаемый размер страницы; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со страницей объектов ClientDTO и курсором следующей страницы.
+     */
+    public ResponseEntity<PageDTO<ClientDTO>> findPage(int afterId, int limit) {
+        log.debug("Вызов метода findPage для получения клиентов после id {}", afterId);
+        int pageSize = Math.max(1, Math.min(limit, PageDTO.MAX_LIMIT));
+        List<Client> clients = repository.findPage(afterId, pageSize);
+        List<ClientDTO> clientDTOS = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            ClientDTO clientDTO = ClientMapper.INSTANCE.clientToClientDTO(client);
+            clientDTO.setSicks(client.getSicks());
+            clientDTOS.add(clientDTO);
+        }
+        Integer nextCursor = clients.size() == pageSize ? clients.get(clients.size() - 1).getId() : null;
+        log.debug("Найдено {} клиентов на странице", clientDTOS.size());
+        return ResponseEntity.ok(new PageDTO<>(clientDTOS, nextCursor));
+    }
+
+    /**
+     * Потоковая выгрузка всех клиентов.
+     * <p>
+     * Клиенты читаются из базы данных через серверный курсор и записываются в ответ по одному,
+     * поэтому расход памяти не зависит от размера таблицы.
+     *
+     * @param ndjson {@code true} — по одному JSON-объекту на строку (NDJSON),
+     *               {@code false} — один JSON-массив.
+     * @return ResponseEntity с телом, которое записывает клиентов в выходной поток ответа.
+     */
+    public ResponseEntity<StreamingResponseBody> streamAll(boolean ndjson) {
+        log.debug("Вызов метода streamAll для потоковой выгрузки клиентов (ndjson: {})", ndjson);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = STREAM_WRITER.getFactory().createGenerator(outputStream)) {
+                if (ndjson) {
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.writeStartArray();
+                }
+                int count = clientRepository.streamAll(STREAM_FETCH_SIZE, client -> {
+                    ClientDTO clientDTO = ClientMapper.INSTANCE.clientToClientDTO(client);
+                    clientDTO.setSicks(client.getSicks());
+                    try {
+                        STREAM_WRITER.writeValue(generator, clientDTO);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+                log.debug("Выгружено {} клиентов", count);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        MediaType contentType = ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
     /**
      * Найти клиента по идентификатору.
      *
@@ -62,7 +147,33 @@ public class ClientService {
      * @return ResponseEntity с объектом ClientDTO, если клиент найден, или статусом 404.
      */
     public ResponseEntity<ClientDTO> findById(int id) {
-        log.info("Вызов метода findById для поиска клиента с id: {}", id);
+        return findById(id, null);
+    }
+
+    /**
+     * Найти клиента по идентификатору с поддержкой условного запроса.
+     * <p>
+     * Ответ содержит ETag, построенный по версиям клиента и его болезней. Если переданный
+     * заголовок If-None-Match совпадает с текущим ETag, клиент не загружается из базы данных:
+     * выбираются только номера версий и возвращается статус 304.
+     *
+     * @param id идентификатор клиента.
+     * @param ifNoneMatch значение заголовка If-None-Match или {@code null}.
+     * @return ResponseEntity с объектом ClientDTO и ETag, статусом 304 (не изменено) или 404 (не найдено).
+     */
+    public ResponseEntity<ClientDTO> findById(int id, String ifNoneMatch) {
+        log.debug("Вызов метода findById для поиска клиента с id: {}", id);
+        if (ifNoneMatch != null) {
+            VersionStamp stamp = repository.findVersionStamp(id);
+            if (stamp == null) {
+                log.warn("Клиент с id {} не найден", id);
+                return ResponseEntity.notFound().build();
+            }
+            if (stamp.matches(ifNoneMatch, true)) {
+                log.debug("Клиент с id {} не изменялся, ETag {} совпадает", id, stamp.eTag());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(stamp.eTag()).build();
+            }
+        }
         Optional<Client> client = Optional.ofNullable(repository.findById(id));
         if (client.isEmpty()) {
             log.warn("Клиент с id {} не найден", id);
@@ -70,8 +181,8 @@ public class ClientService {
         }
         ClientDTO clientDTO = ClientMapper.INSTANCE.clientToClientDTO(client.get());
         clientDTO.setSicks(client.get().getSicks());
-        log.info("Клиент с id {} успешно найден", id);
-        return ResponseEntity.ok(clientDTO);
+        log.debug("Клиент с id {} успешно найден", id);
+        return ResponseEntity.ok().eTag(VersionStamp.of(client.get()).eTag()).body(clientDTO);
     }
 
     /**
@@ -81,12 +192,36 @@ public class ClientService {
      * @return ResponseEntity с сохраненным объектом ClientDTO.
      */
     public ResponseEntity<ClientDTO> save(ClientDTO clientDTO) {
-        log.info("Вызов метода save для сохранения клиента: {}", clientDTO);
-        Client savedClient = repository.save(ClientMapper.INSTANCE.clientDTOToClient(clientDTO));
-        log.info("Клиент успешно сохранен с id: {}", savedClient.getId());
+        log.debug("Вызов метода save для сохранения клиента");
+        Client client = ClientMapper.INSTANCE.clientDTOToClient(clientDTO);
+        client.setId(0);
+        Client savedClient = repository.save(client);
+        log.debug("Клиент успешно сохранен с id: {}", savedClient.getId());
         return ResponseEntity.ok(ClientMapper.INSTANCE.clientToClientDTO(savedClient));
     }
 
+    /**
+     * Сохранить список новых клиентов в одной транзакции с пакетной вставкой.
+     *
+     * @param clientDTOS объекты ClientDTO, которые нужно сохранить.
+     * @return ResponseEntity со списком сохраненных объектов ClientDTO.
+     */
+    public ResponseEntity<List<ClientDTO>> saveAll(List<ClientDTO> clientDTOS) {
+        log.debug("Вызов метода saveAll для сохранения {} клиентов", clientDTOS.size());
+        List<Client> clients = new ArrayList<>(clientDTOS.size());
+        for (ClientDTO clientDTO : clientDTOS) {
+            Client client = ClientMapper.INSTANCE.clientDTOToClient(clientDTO);
+            client.setId(0);
+            clients.add(client);
+        }
+        List<ClientDTO> savedClients = new ArrayList<>(clients.size());
+        for (Client client : repository.saveAll(clients)) {
+            savedClients.add(ClientMapper.INSTANCE.clientToClientDTO(client));
+        }
+        log.debug("Сохранено {} клиентов", savedClients.size());
+        return ResponseEntity.ok(savedClients);
+    }
+
     /**
      * Обновить данные клиента.
      *
@@ -94,14 +229,94 @@ public class ClientService {
      * @return ResponseEntity с обновленным объектом ClientDTO, или статусом 404, если клиент не найден.
      */
     public ResponseEntity<ClientDTO> update(ClientDTO clientDTO) {
-        log.info("Вызов метода update для обновления клиента: {}", clientDTO);
-        Client updatedClient = repository.update(ClientMapper.INSTANCE.clientDTOToClient(clientDTO));
+        return update(clientDTO, null);
+    }
+
+    /**
+     * Обновить данные клиента с поддержкой условного запроса.
+     * <p>
+     * Если передан заголовок If-Match, обновление выполняется только при совпадении ETag
+     * с текущим состоянием клиента; конкурентное изменение между проверкой и записью
+     * обнаруживается по номеру версии. Без заголовка изменения применяются к текущей версии.
+     * ETag ответа строится по обновленному клиенту, без повторного запроса.
+     *
+     * @param clientDTO объект ClientDTO с обновленными данными.
+     * @param ifMatch значение заголовка If-Match или {@code null}.
+     * @return ResponseEntity с обновленным объектом ClientDTO и новым ETag, статусом 404 (не найдено)
+     * или 412 (ETag не совпадает).
+     */
+    public ResponseEntity<ClientDTO> update(ClientDTO clientDTO, String ifMatch) {
+        log.debug("Вызов метода update для обновления клиента с id {}", clientDTO.getClientId());
+        Client client = ClientMapper.INSTANCE.clientDTOToClient(clientDTO);
+        Client updatedClient;
+        try {
+            if (ifMatch == null) {
+                updatedClient = repository.update(client);
+            } else {
+                VersionStamp stamp = repository.findVersionStamp(client.getId());
+                if (stamp == null) {
+                    log.warn("Клиент с id {} не найден для обновления", client.getId());
+                    return ResponseEntity.notFound().build();
+                }
+                if (!stamp.matches(ifMatch, false)) {
+                    log.warn("ETag клиента с id {} не совпадает с If-Match: {}", client.getId(), ifMatch);
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(stamp.eTag()).build();
+                }
+                updatedClient = repository.update(client, stamp.getVersion());
+            }
+        } catch (OptimisticLockException e) {
+            log.warn("Клиент с id {} был изменен другим запросом", client.getId());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         if (updatedClient == null) {
-            log.warn("Клиент с id {} не найден для обновления", clientDTO.getClientId());
+            log.warn("Клиент с id {} не найден для обновления", client.getId());
+            return ResponseEntity.notFound().build();
+        }
+        log.debug("Клиент с id {} успешно обновлен", updatedClient.getId());
+        return ResponseEntity.ok().eTag(VersionStamp.of(updatedClient).eTag())
+                .body(ClientMapper.INSTANCE.clientToClientDTO(updatedClient));
+    }
+
+    /**
+     * Частично обновить клиента одной командой UPDATE без предварительного чтения.
+     * <p>
+     * Изменяются только поля, переданные со значением, отличным от {@code null}. Если в запросе
+     * указана версия, обновление выполняется только при совпадении с текущей версией.
+     *
+     * @param id    идентификатор клиента.
+     * @param patch изменяемые поля и ожидаемая версия.
+     * @return ResponseEntity с новой версией, статусом 400 (нет полей), 404 (не найдено)
+     * или 412 (версия не совпадает).
+     */
+    public ResponseEntity<PatchResultDTO> patch(int id, ClientPatchDTO patch) {
+        log.debug("Вызов метода patch для частичного обновления клиента с id {}", id);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (patch.getFirstName() != null) {
+            attributes.put("firstName", patch.getFirstName());
+        }
+        if (patch.getLastName() != null) {
+            attributes.put("lastName", patch.getLastName());
+        }
+        if (patch.getAge() != null) {
+            attributes.put("age", patch.getAge());
+        }
+        if (attributes.isEmpty()) {
+            log.warn("Нет полей для обновления клиента с id {}", id);
+            return ResponseEntity.badRequest().build();
+        }
+        Long version;
+        try {
+            version = repository.patch(id, attributes, patch.getVersion());
+        } catch (OptimisticLockException e) {
+            log.warn("Версия клиента с id {} не совпадает с {}", id, patch.getVersion());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (version == null) {
+            log.warn("Клиент с id {} не найден для обновления", id);
             return ResponseEntity.notFound().build();
         }
-        log.info("Клиент с id {} успешно обновлен", updatedClient.getId());
-        return ResponseEntity.ok(ClientMapper.INSTANCE.clientToClientDTO(updatedClient));
+        log.debug("Клиент с id {} обновлен, новая версия {}", id, version);
+        return ResponseEntity.ok(new PatchResultDTO(id, version));
     }
 
     /**
@@ -111,13 +326,13 @@ public class ClientService {
      * @return ResponseEntity со статусом 204 (успешно удалено) или 404 (не найдено).
      */
     public ResponseEntity<Void> deleteById(int id) {
-        log.info("Вызов метода deleteById для удаления клиента с id: {}", id);
+        log.debug("Вызов метода deleteById для удаления клиента с id: {}", id);
         boolean isDelete = repository.delete(id);
         if (!isDelete) {
             log.warn("Клиент с id {} не найден для удаления", id);
             return ResponseEntity.noContent().build();
         } else {
-            log.info("Клиент с id {} успешно удален", id);
+            log.debug("Клиент с id {} успешно удален", id);
             return ResponseEntity.notFound().build();
         }
     }
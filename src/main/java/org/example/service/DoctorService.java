@@ -1,17 +1,26 @@
 package org.example.service;
 
+import jakarta.persistence.OptimisticLockException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.entity.Client;
 import org.example.entity.Doctor;
 import org.example.repository.CRUDRepository;
+import org.example.repository.DoctorRepository;
+import org.example.repository.VersionStamp;
+import org.example.service.counter.CaseloadCounters;
 import org.example.service.dto.DoctorDTO;
+import org.example.service.dto.DoctorPatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
 import org.example.service.mapper.DoctorMapper;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -35,26 +44,45 @@ import java.util.Optional;
 @Slf4j
 public class DoctorService {
     private CRUDRepository<Doctor> repository;
+    private DoctorRepository doctorRepository;
+    private CaseloadCounters caseloadCounters;
 
     /**
      * Получить список всех врачей.
+     * <p>
+     * Врачи, их клиенты и болезни клиентов читаются проекцией сразу в DTO, без загрузки управляемых сущностей.
      *
      * @return ResponseEntity со списком объектов DoctorDTO.
      */
     public ResponseEntity<List<DoctorDTO>> findAll() {
-        log.info("Вызов метода findAll для получения всех врачей");
-        List<DoctorDTO> doctorDTOS = new ArrayList<>();
-        int index = 0;
-        for (Doctor doctor : repository.findAll()) {
-            List<Client> clients = doctor.getClients();
-            doctorDTOS.add(DoctorMapper.INSTANCE.toDoctorDTO(doctor));
-            doctorDTOS.get(index).setClients(clients);
-            index++;
-        }
-        log.info("Найдено {} врачей", doctorDTOS.size());
+        log.debug("Вызов метода findAll для получения всех врачей");
+        List<DoctorDTO> doctorDTOS = doctorRepository.findAllProjected();
+        log.debug("Найдено {} врачей", doctorDTOS.size());
         return ResponseEntity.ok(doctorDTOS);
     }
 
+    /**
+     * Получить страницу врачей, упорядоченных по идентификатору.
+     *
+     * @param afterId идентификатор, после которого начинается страница (курсор).
+     * @param limit   желаемый размер страницы; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со страницей объектов DoctorDTO и курсором следующей страницы.
+     */
+    public ResponseEntity<PageDTO<DoctorDTO>> findPage(int afterId, int limit) {
+        log.debug("Вызов метода findPage для получения врачей после id {}", afterId);
+        int pageSize = Math.max(1, Math.min(limit, PageDTO.MAX_LIMIT));
+        List<Doctor> doctors = repository.findPage(afterId, pageSize);
+        List<DoctorDTO> doctorDTOS = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            DoctorDTO doctorDTO = DoctorMapper.INSTANCE.toDoctorDTO(doctor);
+            doctorDTO.setClients(doctor.getClients());
+            doctorDTOS.add(doctorDTO);
+        }
+        Integer nextCursor = doctors.size() == pageSize ? doctors.get(doctors.size() - 1).getId() : null;
+        log.debug("Найдено {} врачей на странице", doctorDTOS.size());
+        return ResponseEntity.ok(new PageDTO<>(doctorDTOS, nextCursor));
+    }
+
     /**
      * Найти врача по идентификатору.
      *
@@ -62,7 +90,33 @@ public class DoctorService {
      * @return ResponseEntity с объектом DoctorDTO, если врач найден, или статусом 404.
      */
     public ResponseEntity<DoctorDTO> findById(int id) {
-        log.info("Вызов метода findById для поиска врача с id: {}", id);
+        return findById(id, null);
+    }
+
+    /**
+     * Найти врача по идентификатору с поддержкой условного запроса.
+     * <p>
+     * Ответ содержит ETag, построенный по версиям врача, его клиентов и их болезней. Если переданный
+     * заголовок If-None-Match совпадает с текущим ETag, врач не загружается из базы данных:
+     * выбираются только номера версий и возвращается статус 304.
+     *
+     * @param id идентификатор врача.
+     * @param ifNoneMatch значение заголовка If-None-Match или {@code null}.
+     * @return ResponseEntity с объектом DoctorDTO и ETag, статусом 304 (не изменено) или 404 (не найдено).
+     */
+    public ResponseEntity<DoctorDTO> findById(int id, String ifNoneMatch) {
+        log.debug("Вызов метода findById для поиска врача с id: {}", id);
+        if (ifNoneMatch != null) {
+            VersionStamp stamp = repository.findVersionStamp(id);
+            if (stamp == null) {
+                log.warn("Врач с id {} не найден", id);
+                return ResponseEntity.notFound().build();
+            }
+            if (stamp.matches(ifNoneMatch, true)) {
+                log.debug("Врач с id {} не изменялся, ETag {} совпадает", id, stamp.eTag());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(stamp.eTag()).build();
+            }
+        }
         Optional<Doctor> doctor = Optional.ofNullable(repository.findById(id));
         if (doctor.isEmpty()) {
             log.warn("Врач с id {} не найден", id);
@@ -70,8 +124,8 @@ public class DoctorService {
         }
         DoctorDTO doctorDTO = DoctorMapper.INSTANCE.toDoctorDTO(doctor.get());
         doctorDTO.setClients(doctor.get().getClients());
-        log.info("Врач с id {} успешно найден", id);
-        return ResponseEntity.ok(doctorDTO);
+        log.debug("Врач с id {} успешно найден", id);
+        return ResponseEntity.ok().eTag(VersionStamp.of(doctor.get()).eTag()).body(doctorDTO);
     }
 
     /**
@@ -81,12 +135,36 @@ public class DoctorService {
      * @return ResponseEntity с сохраненным объектом DoctorDTO.
      */
     public ResponseEntity<DoctorDTO> save(DoctorDTO doctorDTO) {
-        log.info("Вызов метода save для сохранения врача: {}", doctorDTO);
-        Doctor savedDoctor = repository.save(DoctorMapper.INSTANCE.toDoctor(doctorDTO));
-        log.info("Врач успешно сохранен с id: {}", savedDoctor.getId());
+        log.debug("Вызов метода save для сохранения врача");
+        Doctor doctor = DoctorMapper.INSTANCE.toDoctor(doctorDTO);
+        doctor.setId(0);
+        Doctor savedDoctor = repository.save(doctor);
+        log.debug("Врач успешно сохранен с id: {}", savedDoctor.getId());
         return ResponseEntity.ok(DoctorMapper.INSTANCE.toDoctorDTO(savedDoctor));
     }
 
+    /**
+     * Сохранить список новых врачей в одной транзакции с пакетной вставкой.
+     *
+     * @param doctorDTOS объекты DoctorDTO, которые нужно сохранить.
+     * @return ResponseEntity со списком сохраненных объектов DoctorDTO.
+     */
+    public ResponseEntity<List<DoctorDTO>> saveAll(List<DoctorDTO> doctorDTOS) {
+        log.debug("Вызов метода saveAll для сохранения {} врачей", doctorDTOS.size());
+        List<Doctor> doctors = new ArrayList<>(doctorDTOS.size());
+        for (DoctorDTO doctorDTO : doctorDTOS) {
+            Doctor doctor = DoctorMapper.INSTANCE.toDoctor(doctorDTO);
+            doctor.setId(0);
+            doctors.add(doctor);
+        }
+        List<DoctorDTO> savedDoctors = new ArrayList<>(doctors.size());
+        for (Doctor doctor : repository.saveAll(doctors)) {
+            savedDoctors.add(DoctorMapper.INSTANCE.toDoctorDTO(doctor));
+        }
+        log.debug("Сохранено {} врачей", savedDoctors.size());
+        return ResponseEntity.ok(savedDoctors);
+    }
+
     /**
      * Обновить данные врача.
      *
@@ -94,30 +172,120 @@ public class DoctorService {
      * @return ResponseEntity с обновленным объектом DoctorDTO, или статусом 404, если врач не найден.
      */
     public ResponseEntity<DoctorDTO> update(DoctorDTO doctorDTO) {
-        log.info("Вызов метода update для обновления врача: {}", doctorDTO);
-        Doctor updatedDoctor = repository.update(DoctorMapper.INSTANCE.toDoctor(doctorDTO));
+        return update(doctorDTO, null);
+    }
+
+    /**
+     * Обновить данные врача с поддержкой условного запроса.
+     * <p>
+     * Если передан заголовок If-Match, обновление выполняется только при совпадении ETag
+     * с текущим состоянием врача; конкурентное изменение между проверкой и записью
+     * обнаруживается по номеру версии. Без заголовка изменения применяются к текущей версии.
+     *
+     * @param doctorDTO объект DoctorDTO с обновленными данными.
+     * @param ifMatch значение заголовка If-Match или {@code null}.
+     * @return ResponseEntity с обновленным объектом DoctorDTO и новым ETag, статусом 404 (не найдено)
+     * или 412 (ETag не совпадает).
+     */
+    public ResponseEntity<DoctorDTO> update(DoctorDTO doctorDTO, String ifMatch) {
+        log.debug("Вызов метода update для обновления врача с id {}", doctorDTO.getDoctorId());
+        Doctor doctor = DoctorMapper.INSTANCE.toDoctor(doctorDTO);
+        Doctor updatedDoctor;
+        try {
+            if (ifMatch == null) {
+                updatedDoctor = repository.update(doctor);
+            } else {
+                VersionStamp stamp = repository.findVersionStamp(doctor.getId());
+                if (stamp == null) {
+                    log.warn("Врач с id {} не найден для обновления", doctor.getId());
+                    return ResponseEntity.notFound().build();
+                }
+                if (!stamp.matches(ifMatch, false)) {
+                    log.warn("ETag врача с id {} не совпадает с If-Match: {}", doctor.getId(), ifMatch);
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(stamp.eTag()).build();
+                }
+                updatedDoctor = repository.update(doctor, stamp.getVersion());
+            }
+        } catch (OptimisticLockException e) {
+            log.warn("Врач с id {} был изменен другим запросом", doctor.getId());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         if (updatedDoctor == null) {
-            log.warn("Врач с id {} не найден для обновления", doctorDTO.getDoctorId());
+            log.warn("Врач с id {} не найден для обновления", doctor.getId());
             return ResponseEntity.notFound().build();
         }
-        log.info("Врач с id {} успешно обновлен", updatedDoctor.getId());
-        return ResponseEntity.ok(DoctorMapper.INSTANCE.toDoctorDTO(updatedDoctor));
+        log.debug("Врач с id {} успешно обновлен", updatedDoctor.getId());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        VersionStamp stamp = repository.findVersionStamp(updatedDoctor.getId());
+        if (stamp != null) {
+            response.eTag(stamp.eTag());
+        }
+        return response.body(DoctorMapper.INSTANCE.toDoctorDTO(updatedDoctor));
+    }
+
+    /**
+     * Частично обновить врача одной командой UPDATE без предварительного чтения.
+     * <p>
+     * Изменяются только поля, переданные со значением, отличным от {@code null}. Если в запросе
+     * указана версия, обновление выполняется только при совпадении с текущей версией.
+     *
+     * @param id    идентификатор врача.
+     * @param patch изменяемые поля и ожидаемая версия.
+     * @return ResponseEntity с новой версией, статусом 400 (нет полей), 404 (не найдено)
+     * или 412 (версия не совпадает).
+     */
+    public ResponseEntity<PatchResultDTO> patch(int id, DoctorPatchDTO patch) {
+        log.debug("Вызов метода patch для частичного обновления врача с id {}", id);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (patch.getFirstName() != null) {
+            attributes.put("firstName", patch.getFirstName());
+        }
+        if (patch.getLastName() != null) {
+            attributes.put("lastName", patch.getLastName());
+        }
+        if (patch.getAge() != null) {
+            attributes.put("age", patch.getAge());
+        }
+        if (patch.getSpecification() != null) {
+            attributes.put("specification", patch.getSpecification());
+        }
+        if (attributes.isEmpty()) {
+            log.warn("Нет полей для обновления врача с id {}", id);
+            return ResponseEntity.badRequest().build();
+        }
+        Long version;
+        try {
+            version = repository.patch(id, attributes, patch.getVersion());
+        } catch (OptimisticLockException e) {
+            log.warn("Версия врача с id {} не совпадает с {}", id, patch.getVersion());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (version == null) {
+            log.warn("Врач с id {} не найден для обновления", id);
+            return ResponseEntity.notFound().build();
+        }
+        log.debug("Врач с id {} обновлен, новая версия {}", id, version);
+        return ResponseEntity.ok(new PatchResultDTO(id, version));
     }
 
     /**
      * Удалить врача по идентификатору.
      *
+     * <p>
+     * После удаления из счетчиков нагрузки удаляется счетчик врача.
+     *
      * @param id идентификатор врача.
      * @return ResponseEntity со статусом 204 (успешно удалено) или 404 (не найдено).
      */
     public ResponseEntity<Void> delete(int id) {
-        log.info("Вызов метода delete для удаления врача с id: {}", id);
+        log.debug("Вызов метода delete для удаления врача с id: {}", id);
         boolean isDelete = repository.delete(id);
         if (!isDelete) {
             log.warn("Врач с id {} не найден для удаления", id);
             return ResponseEntity.noContent().build();
         } else {
-            log.info("Врач с id {} успешно удален", id);
+            log.debug("Врач с id {} успешно удален", id);
+            caseloadCounters.doctorDeleted(id);
             return ResponseEntity.notFound().build();
         }
     }
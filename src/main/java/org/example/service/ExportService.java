@@ -0,0 +1,81 @@
+package org.example.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.CsvExportRepository;
+import org.example.repository.copy.CsvLayout;
+import org.example.repository.copy.CsvReferences;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@AllArgsConstructor
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final CsvExportRepository repository;
+
+    /**
+     * Потоковая выгрузка файла в CSV.
+     * <p>
+     * Строки передаются из PostgreSQL в ответ командой COPY без промежуточного хранения;
+     * при {@code gzip = true} ответ сжимается по мере записи.
+     *
+     * @param fileName   имя формата файла: doctors, sicks, clients или links.
+     * @param columns    столбцы выгрузки; пустой список — все столбцы формата.
+     * @param references представление ссылок: rows (номера строк, как в db/data) или ids (идентификаторы).
+     * @param gzip       сжимать ли ответ.
+     * @return ResponseEntity с телом, которое записывает файл в выходной поток ответа, статусом 404
+     * (неизвестный файл) или 400 (неизвестный столбец или представление ссылок).
+     */
+    public ResponseEntity<StreamingResponseBody> exportCsv(String fileName, List<String> columns, String references,
+                                                           boolean gzip) {
+        log.debug("Вызов метода exportCsv для выгрузки файла {}", fileName);
+        CsvLayout layout;
+        try {
+            layout = CsvLayout.fromFileName(fileName);
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+        CsvReferences csvReferences;
+        try {
+            csvReferences = CsvReferences.fromParameter(references);
+        } catch (IllegalArgumentException e) {
+            log.warn("Неизвестное представление ссылок: {}", references);
+            return ResponseEntity.badRequest().build();
+        }
+        for (String column : columns) {
+            if (!layout.getExportColumns().contains(column)) {
+                log.warn("Неизвестный столбец файла {}: {}", layout.getFileName(), column);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+                repository.exportCsv(layout, columns, csvReferences, gzipStream);
+                gzipStream.finish();
+            } else {
+                repository.exportCsv(layout, columns, csvReferences, outputStream);
+            }
+        };
+        String attachment = layout.getFileName() + (gzip ? ".csv.gz" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(attachment).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.CsvImportRepository;
+import org.example.repository.StatisticsRepository;
+import org.example.repository.cache.EntityCache;
+import org.example.repository.copy.CsvFormatException;
+import org.example.repository.copy.CsvLayout;
+import org.example.service.counter.CaseloadCounters;
+import org.example.service.dto.ImportErrorDTO;
+import org.example.service.dto.ImportResultDTO;
+import org.hibernate.SessionFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Service
+@Slf4j
+public class ImportService {
+
+    private final CsvImportRepository repository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<EntityCache<?>> entityCaches;
+    private final StatisticsRepository statisticsRepository;
+    private final CaseloadCounters caseloadCounters;
+
+    /**
+     * Импортировать набор CSV-файлов в одной транзакции.
+     * <p>
+     * После успешного импорта очищаются кэш второго уровня, кэш запросов Hibernate и кэши
+     * сущностей по идентификатору, а счетчики нагрузки сверяются с базой данных: импорт записывает
+     * данные в обход Hibernate и репозиториев.
+     *
+     * @param files файлы импорта по форматам.
+     * @return ResponseEntity с результатом импорта, статусом 400 (нет файлов или неверный заголовок файла)
+     * и описанием ошибки.
+     */
+    public ResponseEntity<?> importCsv(Map<CsvLayout, ? extends InputStreamSource> files) {
+        log.debug("Вызов метода importCsv для импорта файлов {}", files.keySet());
+        if (files.isEmpty()) {
+            log.warn("Импорт без файлов");
+            return ResponseEntity.badRequest().build();
+        }
+        ImportResultDTO result;
+        try {
+            result = repository.importCsv(files);
+        } catch (CsvFormatException e) {
+            log.warn("Файл {} не соответствует формату: {}", e.getFileName(), e.getMessage());
+            return ResponseEntity.badRequest().body(new ImportErrorDTO(e.getFileName(), e.getLine(), e.getMessage()));
+        }
+        evictCaches();
+        caseloadCounters.reconcile(statisticsRepository.countClientsBySick(),
+                statisticsRepository.countClientsByDoctor());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Импортировать один CSV-файл.
+     *
+     * @param fileName имя формата файла: doctors, sicks, clients или links.
+     * @param file     содержимое файла.
+     * @return ResponseEntity с результатом импорта или статусом 404, если формат неизвестен.
+     */
+    public ResponseEntity<?> importFile(String fileName, InputStreamSource file) {
+        CsvLayout layout;
+        try {
+            layout = CsvLayout.fromFileName(fileName);
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+        return importCsv(Map.of(layout, file));
+    }
+
+    private void evictCaches() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        for (EntityCache<?> entityCache : entityCaches) {
+            entityCache.invalidateAll();
+        }
+    }
+}
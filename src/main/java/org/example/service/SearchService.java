@@ -0,0 +1,82 @@
+package org.example.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.NameSearchRepository;
+import org.example.repository.SearchCursor;
+import org.example.service.dto.NameMatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.SearchPageDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Service
+@Slf4j
+public class SearchService {
+
+    /**
+     * Минимальная длина строки поиска. Более короткой строке соответствует слишком большая
+     * часть словаря имен, и ранжирование теряет смысл.
+     */
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private final NameSearchRepository repository;
+
+    /**
+     * Поиск клиентов по имени или фамилии.
+     *
+     * @param query строка поиска; начальные и конечные пробелы отбрасываются.
+     * @param after курсор из {@code nextCursor} предыдущей страницы или {@code null} для первой страницы.
+     * @param limit желаемый размер страницы; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со страницей результатов или статусом 400 (слишком короткая строка поиска,
+     * некорректный курсор).
+     */
+    public ResponseEntity<SearchPageDTO<NameMatchDTO>> searchClients(String query, String after, int limit) {
+        log.debug("Вызов метода searchClients для поиска клиентов по строке {}", query);
+        return search(query, after, limit, true);
+    }
+
+    /**
+     * Поиск врачей по имени или фамилии.
+     *
+     * @param query строка поиска; начальные и конечные пробелы отбрасываются.
+     * @param after курсор из {@code nextCursor} предыдущей страницы или {@code null} для первой страницы.
+     * @param limit желаемый размер страницы; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со страницей результатов или статусом 400 (слишком короткая строка поиска,
+     * некорректный курсор).
+     */
+    public ResponseEntity<SearchPageDTO<NameMatchDTO>> searchDoctors(String query, String after, int limit) {
+        log.debug("Вызов метода searchDoctors для поиска врачей по строке {}", query);
+        return search(query, after, limit, false);
+    }
+
+    private ResponseEntity<SearchPageDTO<NameMatchDTO>> search(String query, String after, int limit, boolean clients) {
+        String trimmed = query.trim();
+        if (trimmed.length() < MIN_QUERY_LENGTH) {
+            log.warn("Слишком короткая строка поиска: {}", query);
+            return ResponseEntity.badRequest().build();
+        }
+        SearchCursor cursor = null;
+        if (after != null && !after.isEmpty()) {
+            try {
+                cursor = SearchCursor.parse(after);
+            } catch (IllegalArgumentException e) {
+                log.warn(e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        int pageSize = Math.max(1, Math.min(limit, PageDTO.MAX_LIMIT));
+        List<NameMatchDTO> items = clients
+                ? repository.searchClients(trimmed, cursor, pageSize)
+                : repository.searchDoctors(trimmed, cursor, pageSize);
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            NameMatchDTO last = items.get(items.size() - 1);
+            nextCursor = new SearchCursor(last.getScore(), last.getMatchedName(), last.getId()).toString();
+        }
+        return ResponseEntity.ok(new SearchPageDTO<>(items, nextCursor));
+    }
+}
@@ -1,13 +1,21 @@
 package org.example.service;
 
+import jakarta.persistence.OptimisticLockException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Sick;
 import org.example.repository.CRUDRepository;
+import org.example.repository.VersionStamp;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
+import org.example.service.dto.SickPatchDTO;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @AllArgsConstructor
 @Service
@@ -22,12 +30,28 @@ public class SickService {
      * @return ResponseEntity со списком объектов Sick.
      */
     public ResponseEntity<List<Sick>> findAll() {
-        log.info("Вызов метода findAll для получения всех болезней");
+        log.debug("Вызов метода findAll для получения всех болезней");
         List<Sick> sicks = repository.findAll();
-        log.info("Найдено {} болезней", sicks.size());
+        log.debug("Найдено {} болезней", sicks.size());
         return ResponseEntity.ok(sicks);
     }
 
+    /**
+     * Получить страницу болезней, упорядоченных по идентификатору.
+     *
+     * @param afterId идентификатор, после которого начинается страница (курсор).
+     * @param limit   желаемый размер страницы; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со страницей объектов Sick и курсором следующей страницы.
+     */
+    public ResponseEntity<PageDTO<Sick>> findPage(int afterId, int limit) {
+        log.debug("Вызов метода findPage для получения болезней после id {}", afterId);
+        int pageSize = Math.max(1, Math.min(limit, PageDTO.MAX_LIMIT));
+        List<Sick> sicks = repository.findPage(afterId, pageSize);
+        Integer nextCursor = sicks.size() == pageSize ? sicks.get(sicks.size() - 1).getId() : null;
+        log.debug("Найдено {} болезней на странице", sicks.size());
+        return ResponseEntity.ok(new PageDTO<>(sicks, nextCursor));
+    }
+
     /**
      * Найти болезнь по идентификатору.
      *
@@ -35,14 +59,40 @@ public class SickService {
      * @return ResponseEntity с объектом Sick, если болезнь найдена, или статусом 404.
      */
     public ResponseEntity<Sick> findById(int id) {
-        log.info("Вызов метода findById для поиска болезни с id: {}", id);
+        return findById(id, null);
+    }
+
+    /**
+     * Найти болезнь по идентификатору с поддержкой условного запроса.
+     * <p>
+     * Ответ содержит ETag, построенный по версиям болезни и ее клиентов. Если переданный
+     * заголовок If-None-Match совпадает с текущим ETag, болезнь не загружается из базы данных:
+     * выбираются только номера версий и возвращается статус 304.
+     *
+     * @param id идентификатор болезни.
+     * @param ifNoneMatch значение заголовка If-None-Match или {@code null}.
+     * @return ResponseEntity с объектом Sick и ETag, статусом 304 (не изменено) или 404 (не найдено).
+     */
+    public ResponseEntity<Sick> findById(int id, String ifNoneMatch) {
+        log.debug("Вызов метода findById для поиска болезни с id: {}", id);
+        if (ifNoneMatch != null) {
+            VersionStamp stamp = repository.findVersionStamp(id);
+            if (stamp == null) {
+                log.warn("Болезнь с id {} не найдена", id);
+                return ResponseEntity.notFound().build();
+            }
+            if (stamp.matches(ifNoneMatch, true)) {
+                log.debug("Болезнь с id {} не изменялась, ETag {} совпадает", id, stamp.eTag());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(stamp.eTag()).build();
+            }
+        }
         Sick sick = repository.findById(id);
         if (sick == null) {
             log.warn("Болезнь с id {} не найдена", id);
             return ResponseEntity.notFound().build();
         }
-        log.info("Болезнь с id {} успешно найдена", id);
-        return ResponseEntity.ok(sick);
+        log.debug("Болезнь с id {} успешно найдена", id);
+        return ResponseEntity.ok().eTag(VersionStamp.of(sick).eTag()).body(sick);
     }
 
     /**
@@ -52,12 +102,25 @@ public class SickService {
      * @return ResponseEntity с сохраненным объектом Sick.
      */
     public ResponseEntity<Sick> save(Sick sick) {
-        log.info("Вызов метода save для сохранения болезни: {}", sick);
+        log.debug("Вызов метода save для сохранения болезни");
         Sick savedSick = repository.save(sick);
-        log.info("Болезнь успешно сохранена с id: {}", savedSick.getId());
+        log.debug("Болезнь успешно сохранена с id: {}", savedSick.getId());
         return ResponseEntity.ok(savedSick);
     }
 
+    /**
+     * Сохранить список новых болезней в одной транзакции с пакетной вставкой.
+     *
+     * @param sicks объекты Sick для сохранения.
+     * @return ResponseEntity со списком сохраненных объектов Sick.
+     */
+    public ResponseEntity<List<Sick>> saveAll(List<Sick> sicks) {
+        log.debug("Вызов метода saveAll для сохранения {} болезней", sicks.size());
+        List<Sick> savedSicks = repository.saveAll(sicks);
+        log.debug("Сохранено {} болезней", savedSicks.size());
+        return ResponseEntity.ok(savedSicks);
+    }
+
     /**
      * Обновить данные болезни.
      *
@@ -65,14 +128,93 @@ public class SickService {
      * @return ResponseEntity с обновленным объектом Sick, или статусом 404, если болезнь не найдена.
      */
     public ResponseEntity<Sick> update(Sick sick) {
-        log.info("Вызов метода update для обновления болезни: {}", sick);
-        Sick updatedSick = repository.update(sick);
+        return update(sick, null);
+    }
+
+    /**
+     * Обновить данные болезни с поддержкой условного запроса.
+     * <p>
+     * Если передан заголовок If-Match, обновление выполняется только при совпадении ETag
+     * с текущим состоянием болезни; конкурентное изменение между проверкой и записью
+     * обнаруживается по номеру версии. Без заголовка изменения применяются к текущей версии.
+     *
+     * @param sick объект Sick с обновленными данными.
+     * @param ifMatch значение заголовка If-Match или {@code null}.
+     * @return ResponseEntity с обновленным объектом Sick и новым ETag, статусом 404 (не найдено)
+     * или 412 (ETag не совпадает).
+     */
+    public ResponseEntity<Sick> update(Sick sick, String ifMatch) {
+        log.debug("Вызов метода update для обновления болезни с id {}", sick.getId());
+        Sick updatedSick;
+        try {
+            if (ifMatch == null) {
+                updatedSick = repository.update(sick);
+            } else {
+                VersionStamp stamp = repository.findVersionStamp(sick.getId());
+                if (stamp == null) {
+                    log.warn("Болезнь с id {} не найдена для обновления", sick.getId());
+                    return ResponseEntity.notFound().build();
+                }
+                if (!stamp.matches(ifMatch, false)) {
+                    log.warn("ETag болезни с id {} не совпадает с If-Match: {}", sick.getId(), ifMatch);
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(stamp.eTag()).build();
+                }
+                updatedSick = repository.update(sick, stamp.getVersion());
+            }
+        } catch (OptimisticLockException e) {
+            log.warn("Болезнь с id {} была изменена другим запросом", sick.getId());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         if (updatedSick == null) {
             log.warn("Болезнь с id {} не найдена для обновления", sick.getId());
             return ResponseEntity.notFound().build();
         }
-        log.info("Болезнь с id {} успешно обновлена", sick.getId());
-        return ResponseEntity.ok(updatedSick);
+        log.debug("Болезнь с id {} успешно обновлена", updatedSick.getId());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        VersionStamp stamp = repository.findVersionStamp(updatedSick.getId());
+        if (stamp != null) {
+            response.eTag(stamp.eTag());
+        }
+        return response.body(updatedSick);
+    }
+
+    /**
+     * Частично обновить болезнь одной командой UPDATE без предварительного чтения.
+     * <p>
+     * Изменяются только поля, переданные со значением, отличным от {@code null}. Если в запросе
+     * указана версия, обновление выполняется только при совпадении с текущей версией.
+     *
+     * @param id    идентификатор болезни.
+     * @param patch изменяемые поля и ожидаемая версия.
+     * @return ResponseEntity с новой версией, статусом 400 (нет полей), 404 (не найдено)
+     * или 412 (версия не совпадает).
+     */
+    public ResponseEntity<PatchResultDTO> patch(int id, SickPatchDTO patch) {
+        log.debug("Вызов метода patch для частичного обновления болезни с id {}", id);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (patch.getSickName() != null) {
+            attributes.put("sickName", patch.getSickName());
+        }
+        if (patch.getStageSick() != null) {
+            attributes.put("stageSick", patch.getStageSick());
+        }
+        if (attributes.isEmpty()) {
+            log.warn("Нет полей для обновления болезни с id {}", id);
+            return ResponseEntity.badRequest().build();
+        }
+        Long version;
+        try {
+            version = repository.patch(id, attributes, patch.getVersion());
+        } catch (OptimisticLockException e) {
+            log.warn("Версия болезни с id {} не совпадает с {}", id, patch.getVersion());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (version == null) {
+            log.warn("Болезнь с id {} не найдена для обновления", id);
+            return ResponseEntity.notFound().build();
+        }
+        log.debug("Болезнь с id {} обновлена, новая версия {}", id, version);
+        return ResponseEntity.ok(new PatchResultDTO(id, version));
     }
 
     /**
@@ -82,13 +224,13 @@ public class SickService {
      * @return ResponseEntity со статусом 204 (успешно удалено) или 404 (не найдено).
      */
     public ResponseEntity<Void> deleteById(int id) {
-        log.info("Вызов метода deleteById для удаления болезни с id: {}", id);
+        log.debug("Вызов метода deleteById для удаления болезни с id: {}", id);
         boolean isDeleted = repository.delete(id);
         if (!isDeleted) {
             log.warn("Болезнь с id {} не найдена для удаления", id);
             return ResponseEntity.notFound().build();
         }
-        log.info("Болезнь с id {} успешно удалена", id);
+        log.debug("Болезнь с id {} успешно удалена", id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,96 @@
+package org.example.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.StatisticsRepository;
+import org.example.service.counter.CaseloadCounters;
+import org.example.service.dto.DoctorCaseloadDTO;
+import org.example.service.dto.LiveCountDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.SickAgeBandsDTO;
+import org.example.service.dto.SickPrevalenceDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Service
+@Slf4j
+public class StatisticsService {
+
+    private final StatisticsRepository repository;
+    private final CaseloadCounters counters;
+
+    /**
+     * Получение врачей с наибольшим количеством клиентов.
+     *
+     * @param limit желаемое количество врачей; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со списком врачей по убыванию количества клиентов.
+     */
+    public ResponseEntity<List<DoctorCaseloadDTO>> doctorCaseload(int limit) {
+        log.debug("Вызов метода doctorCaseload");
+        return ResponseEntity.ok(repository.findDoctorCaseload(clamp(limit)));
+    }
+
+    /**
+     * Получение самых распространенных болезней.
+     *
+     * @param limit желаемое количество болезней; ограничивается значением {@link PageDTO#MAX_LIMIT}.
+     * @return ResponseEntity со списком болезней по убыванию количества клиентов.
+     */
+    public ResponseEntity<List<SickPrevalenceDTO>> sickPrevalence(int limit) {
+        log.debug("Вызов метода sickPrevalence");
+        return ResponseEntity.ok(repository.findSickPrevalence(clamp(limit)));
+    }
+
+    /**
+     * Получение распределения клиентов с болезнью по возрастным группам.
+     *
+     * @param sickId идентификатор болезни.
+     * @return ResponseEntity с распределением или статусом 404, если болезни нет в статистике.
+     */
+    public ResponseEntity<SickAgeBandsDTO> sickAgeBands(int sickId) {
+        log.debug("Вызов метода sickAgeBands для болезни с id: {}", sickId);
+        SickAgeBandsDTO bands = repository.findAgeBands(sickId);
+        return bands != null ? ResponseEntity.ok(bands) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Текущее количество клиентов с болезнью по счетчикам, без обращения к базе данных.
+     *
+     * @param sickId идентификатор болезни.
+     * @return ResponseEntity с количеством клиентов; для неизвестной болезни — 0.
+     */
+    public ResponseEntity<LiveCountDTO> liveSick(int sickId) {
+        return ResponseEntity.ok(new LiveCountDTO(sickId, counters.sickClients(sickId)));
+    }
+
+    /**
+     * Текущее количество клиентов врача по счетчикам, без обращения к базе данных.
+     *
+     * @param doctorId идентификатор врача.
+     * @return ResponseEntity с количеством клиентов; для неизвестного врача — 0.
+     */
+    public ResponseEntity<LiveCountDTO> liveDoctor(int doctorId) {
+        return ResponseEntity.ok(new LiveCountDTO(doctorId, counters.doctorClients(doctorId)));
+    }
+
+    /**
+     * Текущее количество клиентов всех болезней с клиентами по счетчикам.
+     *
+     * @return ResponseEntity со списком, упорядоченным по идентификатору болезни.
+     */
+    public ResponseEntity<List<LiveCountDTO>> liveSicks() {
+        Map<Integer, Long> sicks = counters.sickClients();
+        List<LiveCountDTO> counts = new ArrayList<>(sicks.size());
+        sicks.forEach((id, clients) -> counts.add(new LiveCountDTO(id, clients)));
+        return ResponseEntity.ok(counts);
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, PageDTO.MAX_LIMIT));
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.service.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.Client;
+import org.example.entity.Sick;
+import org.example.repository.BulkChange;
+import org.example.repository.ClientChangeListener;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики клиентов по болезням и по врачам в памяти приложения.
+ * <p>
+ * Каждый счетчик — {@link LongAdder}: конкурентные изменения распределяются по ячейкам
+ * без блокировок, а чтение складывает ячейки и не обращается к базе данных. Счетчики изменяются
+ * по разнице состояний клиента до и после изменения, которую сообщает {@link org.example.repository.ClientRepository}
+ * (состояние до изменения читается в транзакции изменения), и по результатам групповых операций.
+ * После импорта CSV счетчики сверяются с базой данных, при удалении врача его счетчик удаляется.
+ * Изменения в обход приложения могут дать расхождение с базой данных, которое исправляет
+ * периодическая сверка {@link #reconcile(Map, Map)}.
+ */
+@Slf4j
+public class CaseloadCounters implements ClientChangeListener {
+
+    private final ConcurrentMap<Integer, LongAdder> sickClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, LongAdder> doctorClients = new ConcurrentHashMap<>();
+
+    /**
+     * Учесть изменение врача и болезней клиента: новый клиент, изменение или удаление.
+     *
+     * @param before клиент до изменения или {@code null} для нового клиента.
+     * @param after  клиент после изменения или {@code null} для удаленного клиента.
+     */
+    @Override
+    public void clientChanged(Client before, Client after) {
+        apply(before, after);
+    }
+
+    /**
+     * Удалить счетчик удаленного врача.
+     * <p>
+     * Врача можно удалить, только если у него нет клиентов, поэтому счетчик равен нулю;
+     * удаление не дает счетчику остаться в памяти до следующей сверки.
+     *
+     * @param doctorId идентификатор врача.
+     */
+    public void doctorDeleted(int doctorId) {
+        doctorClients.remove(doctorId);
+    }
+
+    /**
+     * Учесть групповое изменение клиентов.
+     *
+     * @param change изменение количества клиентов по болезням и врачам.
+     */
+    public void bulkChanged(BulkChange change) {
+        change.getSickClients().forEach((id, delta) -> counter(sickClients, id).add(delta));
+        change.getDoctorClients().forEach((id, delta) -> counter(doctorClients, id).add(delta));
+    }
+
+    /**
+     * Количество клиентов с болезнью.
+     *
+     * @param sickId идентификатор болезни.
+     * @return количество клиентов; 0 для неизвестной болезни.
+     */
+    public long sickClients(int sickId) {
+        return sum(sickClients.get(sickId));
+    }
+
+    /**
+     * Количество клиентов врача.
+     *
+     * @param doctorId идентификатор врача.
+     * @return количество клиентов; 0 для неизвестного врача.
+     */
+    public long doctorClients(int doctorId) {
+        return sum(doctorClients.get(doctorId));
+    }
+
+    /**
+     * Ненулевые счетчики болезней.
+     *
+     * @return количество клиентов по идентификатору болезни, упорядоченное по идентификатору.
+     */
+    public Map<Integer, Long> sickClients() {
+        return snapshot(sickClients);
+    }
+
+    /**
+     * Ненулевые счетчики врачей.
+     *
+     * @return количество клиентов по идентификатору врача, упорядоченное по идентификатору.
+     */
+    public Map<Integer, Long> doctorClients() {
+        return snapshot(doctorClients);
+    }
+
+    /**
+     * Привести счетчики к значениям, посчитанным в базе данных.
+     * <p>
+     * К счетчику прибавляется разница между значением в базе данных и текущим значением, поэтому
+     * изменения, учтенные во время сверки, не теряются. Изменение, закоммиченное между запросом
+     * к базе данных и сверкой, может дать расхождение до следующей сверки. Счетчики болезней
+     * и врачей, которых нет в результатах запроса, обнуляются и удаляются.
+     *
+     * @param sicks   количество клиентов по идентификатору болезни.
+     * @param doctors количество клиентов по идентификатору врача.
+     * @return суммарное исправленное расхождение.
+     */
+    public long reconcile(Map<Integer, Long> sicks, Map<Integer, Long> doctors) {
+        long drift = reconcile(sickClients, sicks) + reconcile(doctorClients, doctors);
+        if (drift != 0) {
+            log.info("Счетчики клиентов сверены с базой данных, исправлено расхождение: {}", drift);
+        } else {
+            log.debug("Счетчики клиентов совпадают с базой данных");
+        }
+        return drift;
+    }
+
+    private void apply(Client before, Client after) {
+        Set<Integer> sicksBefore = sickIds(before);
+        Set<Integer> sicksAfter = sickIds(after);
+        for (Integer sickId : sicksBefore) {
+            if (!sicksAfter.contains(sickId)) {
+                counter(sickClients, sickId).decrement();
+            }
+        }
+        for (Integer sickId : sicksAfter) {
+            if (!sicksBefore.contains(sickId)) {
+                counter(sickClients, sickId).increment();
+            }
+        }
+        Integer doctorBefore = doctorId(before);
+        Integer doctorAfter = doctorId(after);
+        if (doctorBefore != null && !doctorBefore.equals(doctorAfter)) {
+            counter(doctorClients, doctorBefore).decrement();
+        }
+        if (doctorAfter != null && !doctorAfter.equals(doctorBefore)) {
+            counter(doctorClients, doctorAfter).increment();
+        }
+    }
+
+    private static long reconcile(ConcurrentMap<Integer, LongAdder> counters, Map<Integer, Long> actual) {
+        long drift = 0;
+        for (Map.Entry<Integer, Long> entry : actual.entrySet()) {
+            LongAdder counter = counter(counters, entry.getKey());
+            long delta = entry.getValue() - counter.sum();
+            if (delta != 0) {
+                counter.add(delta);
+                drift += Math.abs(delta);
+            }
+        }
+        for (Map.Entry<Integer, LongAdder> entry : counters.entrySet()) {
+            if (!actual.containsKey(entry.getKey())) {
+                long stale = entry.getValue().sum();
+                entry.getValue().add(-stale);
+                drift += Math.abs(stale);
+                counters.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        return drift;
+    }
+
+    private static LongAdder counter(ConcurrentMap<Integer, LongAdder> counters, int id) {
+        LongAdder counter = counters.get(id);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(id, key -> new LongAdder());
+        }
+        return counter;
+    }
+
+    private static Map<Integer, Long> snapshot(ConcurrentMap<Integer, LongAdder> counters) {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        counters.forEach((id, counter) -> {
+            long sum = counter.sum();
+            if (sum != 0) {
+                snapshot.put(id, sum);
+            }
+        });
+        return snapshot;
+    }
+
+    private static long sum(LongAdder counter) {
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static Set<Integer> sickIds(Client client) {
+        Set<Integer> ids = new HashSet<>();
+        if (client != null && client.getSicks() != null) {
+            for (Sick sick : client.getSicks()) {
+                ids.add(sick.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static Integer doctorId(Client client) {
+        return client == null || client.getDoctor() == null ? null : client.getDoctor().getId();
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для возрастной группы клиентов.
+ * <p>
+ * Группы охватывают десять лет: {@code ageFrom} и {@code ageTo} включаются в группу. У последней
+ * группы (90 лет и старше) поле {@code ageTo} равно {@code null}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AgeBandDTO {
+    private int ageFrom;
+    private Integer ageTo;
+    private long clients;
+}
@@ -0,0 +1,15 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для результата групповой операции: количество затронутых строк.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResultDTO {
+    private int affected;
+}
@@ -0,0 +1,15 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) со статистикой одного региона кэша второго уровня Hibernate.
+ */
+@Data
+@NoArgsConstructor
+public class CacheRegionStatsDTO {
+    private long hits;
+    private long misses;
+    private long puts;
+}
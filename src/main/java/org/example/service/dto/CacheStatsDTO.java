@@ -0,0 +1,24 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) со статистикой кэша второго уровня и кэша запросов Hibernate.
+ * Доля попаданий указывается в диапазоне от 0 до 1.
+ */
+@Data
+@NoArgsConstructor
+public class CacheStatsDTO {
+    private long secondLevelHits;
+    private long secondLevelMisses;
+    private long secondLevelPuts;
+    private double secondLevelHitRatio;
+    private long queryHits;
+    private long queryMisses;
+    private long queryPuts;
+    private double queryHitRatio;
+    private Map<String, CacheRegionStatsDTO> regions;
+}
@@ -1,5 +1,6 @@
 package org.example.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.example.entity.Sick;
 
-import java.util.List;
+import java.util.Set;
 
 /**
  * Data Transfer Object (DTO) для представления клиента.
@@ -25,7 +26,8 @@ public class ClientDTO {
     private String lastName;
     @NotNull
     private int age;
-    private List<Sick> sicks;
+    @JsonIgnoreProperties("clients")
+    private Set<Sick> sicks;
 
     public ClientDTO(String firstName, String lastName, int age) {
         this.firstName = firstName;
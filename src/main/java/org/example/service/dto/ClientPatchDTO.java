@@ -0,0 +1,21 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для частичного обновления клиента.
+ * <p>
+ * Поля со значением {@code null} не изменяются. Если указана {@code version}, обновление
+ * выполняется только при совпадении с текущей версией клиента.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientPatchDTO {
+    private String firstName;
+    private String lastName;
+    private Integer age;
+    private Long version;
+}
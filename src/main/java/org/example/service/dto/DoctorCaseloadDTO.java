@@ -0,0 +1,20 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для нагрузки врача: количество его клиентов и их средний возраст.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorCaseloadDTO {
+    private int doctorId;
+    private String firstName;
+    private String lastName;
+    private String specification;
+    private long clients;
+    private double averageAge;
+}
@@ -0,0 +1,22 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для частичного обновления врача.
+ * <p>
+ * Поля со значением {@code null} не изменяются. Если указана {@code version}, обновление
+ * выполняется только при совпадении с текущей версией врача.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorPatchDTO {
+    private String firstName;
+    private String lastName;
+    private Integer age;
+    private String specification;
+    private Long version;
+}
@@ -0,0 +1,22 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) со статистикой кэша сущностей по идентификатору.
+ * Доля попаданий указывается в диапазоне от 0 до 1.
+ */
+@Data
+@NoArgsConstructor
+public class EntityCacheStatsDTO {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long ttlSeconds;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long expirations;
+}
@@ -0,0 +1,19 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) со статистикой Hibernate по одной сущности.
+ * Загрузка ({@code loads}) — чтение сущности из базы данных, выборка ({@code fetches}) —
+ * отдельный запрос для ленивой связи.
+ */
+@Data
+@NoArgsConstructor
+public class EntityStatsDTO {
+    private long loads;
+    private long fetches;
+    private long inserts;
+    private long updates;
+    private long deletes;
+}
@@ -0,0 +1,35 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) со статистикой Hibernate: выполнение запросов, загрузка сущностей
+ * и коллекций, доля попаданий в кэш второго уровня и кэш запросов.
+ * Время указывается в миллисекундах, доля попаданий — в диапазоне от 0 до 1.
+ */
+@Data
+@NoArgsConstructor
+public class HibernateStatsDTO {
+    private long startTimeMillis;
+    private long sessionsOpened;
+    private long transactions;
+    private long preparedStatements;
+    private long queryExecutions;
+    private long queryExecutionMaxMillis;
+    private String slowestQuery;
+    private long entityLoads;
+    private long entityFetches;
+    private long entityInserts;
+    private long entityUpdates;
+    private long entityDeletes;
+    private long collectionLoads;
+    private long collectionFetches;
+    private double secondLevelHitRatio;
+    private double queryCacheHitRatio;
+    private Map<String, EntityStatsDTO> entities;
+    private List<QueryStatsDTO> queries;
+}
@@ -0,0 +1,18 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) с описанием отклоненной строки CSV-файла импорта.
+ * Номер строки указывается с учетом заголовка (заголовок — строка 1).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDTO {
+    private String file;
+    private long line;
+    private String message;
+}
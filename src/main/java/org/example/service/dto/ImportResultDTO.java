@@ -0,0 +1,46 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) с результатом импорта CSV-файлов.
+ * <p>
+ * Содержит количество вставленных врачей, болезней, клиентов и связей клиент — болезнь,
+ * количество пропущенных повторяющихся связей и отклоненных строк. Описания отклоненных строк
+ * в поле {@code errors} ограничены первыми {@link #MAX_REPORTED_ERRORS}.
+ */
+@Data
+@NoArgsConstructor
+public class ImportResultDTO {
+    /**
+     * Максимальное количество описаний отклоненных строк в результате.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long doctors;
+    private long sicks;
+    private long clients;
+    private long links;
+    private long duplicateLinks;
+    private long rejected;
+    private long durationMillis;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * Учесть отклоненную строку.
+     *
+     * @param file    имя файла импорта.
+     * @param line    номер строки файла.
+     * @param message причина отклонения.
+     */
+    public void reject(String file, long line, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportErrorDTO(file, line, message));
+        }
+    }
+}
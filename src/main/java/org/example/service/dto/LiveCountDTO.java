@@ -0,0 +1,17 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для текущего количества клиентов болезни или врача
+ * по счетчикам в памяти приложения.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LiveCountDTO {
+    private int id;
+    private long clients;
+}
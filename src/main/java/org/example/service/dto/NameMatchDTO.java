@@ -0,0 +1,26 @@
+package org.example.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для результата поиска клиента или врача по имени.
+ * <p>
+ * Поле {@code score} — оценка совпадения лучшего из имени и фамилии: 1 и больше, если оно
+ * начинается со строки поиска, плюс его триграммное сходство со строкой поиска (от 0 до 1).
+ * Поле {@code matchedName} — это имя или фамилия; в ответ не выводится и нужно для курсора.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NameMatchDTO {
+    private int id;
+    private String firstName;
+    private String lastName;
+    private int age;
+    private float score;
+    @JsonIgnore
+    private String matchedName;
+}
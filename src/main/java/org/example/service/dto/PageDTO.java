@@ -0,0 +1,28 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) для одной страницы результатов при постраничной выборке по курсору.
+ * <p>
+ * Поле {@code nextCursor} содержит идентификатор последнего элемента страницы; его нужно передать
+ * в параметре {@code after} следующего запроса. Если страниц больше нет, поле равно {@code null}.
+ *
+ * @param <T> тип элементов страницы.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDTO<T> {
+    /**
+     * Максимальный размер страницы, который можно запросить.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Integer nextCursor;
+}
@@ -0,0 +1,16 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для результата частичного обновления: идентификатор и новая версия сущности.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchResultDTO {
+    private int id;
+    private long version;
+}
@@ -0,0 +1,24 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) со статистикой пула соединений с базой данных.
+ * Время ожидания соединения указывается в миллисекундах.
+ */
+@Data
+@NoArgsConstructor
+public class PoolStatsDTO {
+    private int active;
+    private int idle;
+    private int total;
+    private int pending;
+    private int max;
+    private long acquireCount;
+    private double acquireP50Millis;
+    private double acquireP95Millis;
+    private double acquireP99Millis;
+    private double acquireMaxMillis;
+    private long timeouts;
+}
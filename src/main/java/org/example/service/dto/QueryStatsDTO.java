@@ -0,0 +1,19 @@
+package org.example.service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) со статистикой выполнения одного запроса HQL или SQL.
+ * Время указывается в миллисекундах.
+ */
+@Data
+@NoArgsConstructor
+public class QueryStatsDTO {
+    private String query;
+    private long executions;
+    private long rows;
+    private double meanMillis;
+    private long maxMillis;
+    private long totalMillis;
+}
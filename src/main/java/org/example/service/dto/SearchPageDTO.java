@@ -0,0 +1,24 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) для одной страницы результатов поиска.
+ * <p>
+ * Результаты упорядочены по убыванию оценки совпадения, при равной оценке — по идентификатору.
+ * Поле {@code nextCursor} содержит оценку и идентификатор последнего результата страницы; его нужно
+ * передать в параметре {@code after} следующего запроса. Если страниц больше нет, поле равно {@code null}.
+ *
+ * @param <T> тип элементов страницы.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+}
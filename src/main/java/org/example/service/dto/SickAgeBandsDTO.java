@@ -0,0 +1,22 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) для распределения клиентов с болезнью по возрастным группам.
+ * <p>
+ * В списке {@code bands} только непустые группы, упорядоченные по возрасту.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SickAgeBandsDTO {
+    private int sickId;
+    private String sickName;
+    private long clients;
+    private List<AgeBandDTO> bands;
+}
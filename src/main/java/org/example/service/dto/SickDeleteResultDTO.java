@@ -0,0 +1,17 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для результата удаления болезни вместе со связями: количество удаленных болезней
+ * и удаленных связей с клиентами.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SickDeleteResultDTO {
+    private int sicks;
+    private int links;
+}
@@ -0,0 +1,20 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для частичного обновления болезни.
+ * <p>
+ * Поля со значением {@code null} не изменяются. Если указана {@code version}, обновление
+ * выполняется только при совпадении с текущей версией болезни.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SickPatchDTO {
+    private String sickName;
+    private String stageSick;
+    private Long version;
+}
@@ -0,0 +1,21 @@
+package org.example.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) для распространенности болезни.
+ * <p>
+ * Поле {@code share} — доля клиентов с этой болезнью среди всех клиентов (от 0 до 1).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SickPrevalenceDTO {
+    private int sickId;
+    private String sickName;
+    private String stageSick;
+    private long clients;
+    private double share;
+}
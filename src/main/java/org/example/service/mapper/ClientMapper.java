@@ -3,6 +3,7 @@ package org.example.service.mapper;
 import org.example.service.dto.ClientDTO;
 import org.example.entity.Client;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -22,6 +23,7 @@ public interface ClientMapper {
      * @param client объект Client для преобразования
      * @return объект ClientDTO, соответствующий переданному Client
      */
+    @Mapping(source = "id", target = "clientId")
     ClientDTO clientToClientDTO(Client client);
 
     /**
@@ -30,5 +32,8 @@ public interface ClientMapper {
      * @param clientDTO объект ClientDTO для преобразования
      * @return объект Client, соответствующий переданному ClientDTO
      */
+    @Mapping(source = "clientId", target = "id")
+    @Mapping(target = "doctor", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Client clientDTOToClient(ClientDTO clientDTO);
 }
@@ -3,6 +3,7 @@ package org.example.service.mapper;
 import org.example.service.dto.DoctorDTO;
 import org.example.entity.Doctor;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 import java.util.List;
@@ -24,6 +25,7 @@ public interface DoctorMapper {
      * @param doctor объект Doctor для преобразования
      * @return объект DoctorDTO, соответствующий переданному Doctor
      */
+    @Mapping(source = "id", target = "doctorId")
     DoctorDTO toDoctorDTO(Doctor doctor);
 
     /**
@@ -32,5 +34,7 @@ public interface DoctorMapper {
      * @param doctorDTO объект DoctorDTO для преобразования
      * @return объект Doctor, соответствующий переданному DoctorDTO
      */
+    @Mapping(source = "doctorId", target = "id")
+    @Mapping(target = "version", ignore = true)
     Doctor toDoctor(DoctorDTO doctorDTO);
 }
@@ -0,0 +1,58 @@
+package org.example.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.Properties;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование AsyncConfig")
+class AsyncConfigTest {
+
+    @Test
+    @DisplayName("В режиме sync обработчик должен выполняться в потоке, принявшем запрос")
+    void requestExecutor_syncShouldRunInCallerThread() throws Exception {
+        AsyncTaskExecutor executor = new AsyncConfig(properties("sync")).requestExecutor();
+
+        Future<Thread> thread = executor.submit(Thread::currentThread);
+
+        assertThat(thread.isDone()).isTrue();
+        assertThat(thread.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("В режиме virtual обработчик должен выполняться в виртуальном потоке")
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void requestExecutor_virtualShouldRunInVirtualThread() throws Exception {
+        AsyncTaskExecutor executor = new AsyncConfig(properties("virtual")).requestExecutor();
+
+        Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+        assertThat(thread).isNotSameAs(Thread.currentThread());
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Режим virtual должен сообщать об ошибке на JDK без виртуальных потоков")
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void requestExecutor_virtualShouldFailBeforeJava21() {
+        AsyncConfig config = new AsyncConfig(properties("virtual"));
+
+        assertThatThrownBy(config::requestExecutor)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("JDK 21");
+    }
+
+    private static Properties properties(String mode) {
+        Properties properties = new Properties();
+        properties.setProperty("web.async.mode", mode);
+        return properties;
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@DisplayName("Тестирование времени ожидания потоковых ответов")
+class StreamingTimeoutTest {
+
+    private static final long TIMEOUT_MILLIS = 100;
+    private static final long WAIT_MILLIS = 10_000;
+    private static final int CHUNKS = 5;
+
+    private AnnotationConfigWebApplicationContext context;
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Обработчик, работающий дольше web.async.timeout-ms, должен завершаться по тайм-ауту")
+    void callable_shouldTimeOutAfterAsyncTimeout() throws Exception {
+        MockMvc mockMvc = mockMvc("0");
+
+        MvcResult result = dispatch(mockMvc, "/slow");
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    @DisplayName("Потоковый ответ, который пишется дольше web.async.timeout-ms, должен выгружаться полностью")
+    void stream_shouldOutliveAsyncTimeout() throws Exception {
+        MockMvc mockMvc = mockMvc("0");
+
+        MvcResult result = dispatch(mockMvc, "/stream");
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getContentAsString()).isEqualTo("0\n1\n2\n3\n4\n");
+    }
+
+    @Test
+    @DisplayName("Потоковый ответ должен завершаться по истечении web.async.streaming-timeout-ms")
+    void stream_shouldTimeOutAfterStreamingTimeout() throws Exception {
+        MockMvc mockMvc = mockMvc(String.valueOf(TIMEOUT_MILLIS));
+
+        MvcResult result = dispatch(mockMvc, "/stream");
+
+        assertThat(result.getResponse().getContentAsString()).isNotEqualTo("0\n1\n2\n3\n4\n");
+    }
+
+    private MockMvc mockMvc(String streamingTimeout) {
+        Properties properties = new Properties();
+        properties.setProperty("web.async.mode", "sync");
+        properties.setProperty("web.async.timeout-ms", String.valueOf(TIMEOUT_MILLIS));
+        properties.setProperty("web.async.streaming-timeout-ms", streamingTimeout);
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("yamlProperties", properties));
+        context.register(AsyncConfig.class, WebConfig.class);
+        context.refresh();
+        return MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    /**
+     * Выполнить запрос так, как его выполняет контейнер сервлетов: если асинхронная обработка
+     * не завершилась за время ожидания запроса, слушатели получают событие тайм-аута.
+     * Повторная диспетчеризация выполняется после завершения задачи обработчика.
+     */
+    private MvcResult dispatch(MockMvc mockMvc, String path) throws Exception {
+        MvcResult result = mockMvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        long timeout = asyncContext.getTimeout();
+        try {
+            result.getAsyncResult(timeout > 0 ? timeout : WAIT_MILLIS);
+        } catch (IllegalStateException e) {
+            for (AsyncListener listener : asyncContext.getListeners()) {
+                listener.onTimeout(new AsyncEvent(asyncContext));
+            }
+            ExecutorService handlerExecutor = context.getBean(ExecutorService.class);
+            handlerExecutor.shutdown();
+            assertThat(handlerExecutor.awaitTermination(WAIT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        return mockMvc.perform(asyncDispatch(result)).andReturn();
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class WebConfig implements WebMvcConfigurer {
+
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(handlerExecutor()));
+        }
+
+        @Bean
+        ExecutorService handlerExecutor() {
+            return Executors.newCachedThreadPool();
+        }
+
+        @Bean
+        SlowController slowController() {
+            return new SlowController();
+        }
+    }
+
+    @RestController
+    static class SlowController {
+
+        @GetMapping("/slow")
+        WebAsyncTask<String> slow() {
+            return new WebAsyncTask<>(() -> {
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS * CHUNKS);
+                while (System.nanoTime() < end) {
+                    LockSupport.parkNanos(end - System.nanoTime());
+                }
+                return "done";
+            });
+        }
+
+        @GetMapping("/stream")
+        ResponseEntity<StreamingResponseBody> stream() {
+            return ResponseEntity.ok(outputStream -> {
+                for (int i = 0; i < CHUNKS; i++) {
+                    outputStream.write((i + "\n").getBytes(StandardCharsets.UTF_8));
+                    outputStream.flush();
+                    try {
+                        Thread.sleep(TIMEOUT_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@DisplayName("Тестирование синхронного выполнения Callable в режиме sync")
+class SynchronousCallableReturnValueHandlerTest {
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("web.async.mode", "sync");
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("yamlProperties", properties));
+        context.register(AsyncConfig.class, WebConfig.class);
+        context.refresh();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Должен выполнить Callable в потоке запроса без асинхронной обработки")
+    void callable_shouldRunWithoutAsyncDispatch() throws Exception {
+        MvcResult result = mockMvc.perform(get("/names")).andExpect(request().asyncNotStarted()).andReturn();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getContentAsString()).isEqualTo("[\"Main\"]");
+        assertThat(result.getResponse().getHeader("X-Thread")).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    @DisplayName("Должен передавать статус ответа и исключения Callable как у синхронного обработчика")
+    void callable_shouldKeepStatusAndExceptions() throws Exception {
+        MvcResult result = mockMvc.perform(get("/names/1")).andExpect(request().asyncNotStarted()).andReturn();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(204);
+        assertThat(mockMvc.perform(get("/names/2")).andReturn().getResponse().getStatus()).isEqualTo(404);
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class WebConfig {
+
+        @Bean
+        NamesController namesController() {
+            return new NamesController();
+        }
+    }
+
+    @RestController
+    static class NamesController {
+
+        @GetMapping("/names")
+        Callable<ResponseEntity<List<String>>> names() {
+            return () -> ResponseEntity.ok().header("X-Thread", Thread.currentThread().getName()).body(List.of("Main"));
+        }
+
+        @GetMapping("/names/{id}")
+        Callable<ResponseEntity<Void>> name(@PathVariable int id) {
+            return () -> {
+                if (id != 1) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+                }
+                return ResponseEntity.noContent().build();
+            };
+        }
+    }
+}
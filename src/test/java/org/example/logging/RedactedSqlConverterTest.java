@@ -0,0 +1,30 @@
+package org.example.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование RedactedSqlConverter")
+class RedactedSqlConverterTest {
+
+    @Test
+    @DisplayName("Должен заменять значения параметров и сохранять время выполнения")
+    void redact_shouldReplaceBoundValues() {
+        String message = "Slow query took 250 milliseconds [HikariProxyPreparedStatement@1a2b3c wrapping "
+                + "select c1_0.client_id,c1_0.age from client c1_0 where c1_0.last_name='O''Brien' and c1_0.age>=-42 "
+                + "and c1_0.version=3.5 and c1_0.client_id in (1,2,3)]";
+
+        assertThat(RedactedSqlConverter.redact(message)).isEqualTo("Slow query took 250 milliseconds ["
+                + "select c1_0.client_id,c1_0.age from client c1_0 where c1_0.last_name=? and c1_0.age>=? "
+                + "and c1_0.version=? and c1_0.client_id in (?,?,?)]");
+    }
+
+    @Test
+    @DisplayName("Не должен изменять идентификаторы и параметры без значений")
+    void redact_shouldKeepIdentifiersAndPlaceholders() {
+        String sql = "select s1_0.sick_id from sick s1_0 join client_sick s2_0 on s1_0.sick_id=s2_0.sick_id where s2_0.client_id=?";
+
+        assertThat(RedactedSqlConverter.redact(sql)).isEqualTo(sql);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование SamplingTurboFilter")
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger appLogger = context.getLogger("org.example.repository.ClientRepository");
+    private final Logger libraryLogger = context.getLogger("org.hibernate.SQL");
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerPrefix("org.example");
+        filter.setRate(1000);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("Должен отбрасывать большую часть событий DEBUG и INFO приложения")
+    void decide_shouldSampleSuccessPath() {
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Level level = i % 2 == 0 ? Level.DEBUG : Level.INFO;
+            if (filter.decide(null, appLogger, level, "Клиент с id {} найден", new Object[]{i}, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        assertThat(passed).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("Должен всегда пропускать предупреждения, ошибки и события с исключением")
+    void decide_shouldKeepWarningsAndErrors() {
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.decide(null, appLogger, Level.WARN, "Транзакция откатилась", null, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, appLogger, Level.ERROR, "Ошибка", null, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, appLogger, Level.INFO, "Ошибка", null, new IllegalStateException()))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    @DisplayName("Не должен выбирать события логгеров вне префикса")
+    void decide_shouldIgnoreOtherLoggers() {
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.decide(null, libraryLogger, Level.INFO, "select 1", null, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    @DisplayName("Не должен отбрасывать события при rate = 1")
+    void decide_shouldPassEverythingWithoutSampling() {
+        filter.setRate(1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.decide(null, appLogger, Level.DEBUG, "Найдено {} клиентов", new Object[]{i}, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+}
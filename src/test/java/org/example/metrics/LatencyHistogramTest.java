@@ -0,0 +1,62 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование LatencyHistogram")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Должен вернуть 0 для пустой гистограммы")
+    void percentile_shouldReturnZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentileNanos(0.99)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен оценивать процентили по верхней границе корзины")
+    void percentile_shouldReturnBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.percentileNanos(0.50)).isEqualTo(TimeUnit.MICROSECONDS.toNanos(128));
+        assertThat(histogram.percentileNanos(0.99)).isEqualTo(TimeUnit.MICROSECONDS.toNanos(128));
+        assertThat(histogram.percentileNanos(1.0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(histogram.maxNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("Не должен терять измерения при записи из многих потоков")
+    void record_shouldBeThreadSafe() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i * 1_000L);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(histogram.count()).isEqualTo(80_000);
+        long bucketTotal = 0;
+        for (int i = 0; i < histogram.bucketCount(); i++) {
+            bucketTotal += histogram.bucketValue(i);
+        }
+        assertThat(bucketTotal).isEqualTo(80_000);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование MetricsRegistry")
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    @DisplayName("Должен возвращать одни и те же метрики для одного обработчика")
+    void route_shouldReuseMetricsForSameHandler() throws NoSuchMethodException {
+        Method handler = MetricsRegistryTest.class.getDeclaredMethod("route_shouldReuseMetricsForSameHandler");
+
+        RouteMetrics first = registry.route(handler, "GET", "/clients/{id}");
+        RouteMetrics second = registry.route(handler, "GET", "/clients/{id}");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getLabels())
+                .isEqualTo("method=\"GET\",route=\"/clients/{id}\",handler=\"MetricsRegistryTest.route_shouldReuseMetricsForSameHandler\"");
+    }
+
+    @Test
+    @DisplayName("Должен учитывать ответы по классам статусов и считать ошибками 5xx и исключения")
+    void route_shouldCountStatusClassesAndErrors() throws NoSuchMethodException {
+        RouteMetrics route = registry.route(Object.class.getMethod("toString"), "GET", "/clients");
+
+        route.stop(route.start(), 200, false);
+        route.stop(route.start(), 404, false);
+        route.stop(route.start(), 503, false);
+        route.stop(route.start(), 200, true);
+
+        assertThat(route.getResponses(1)).isEqualTo(1);
+        assertThat(route.getResponses(3)).isEqualTo(1);
+        assertThat(route.getResponses(4)).isEqualTo(2);
+        assertThat(route.getErrors()).isEqualTo(2);
+        assertThat(route.getInFlight()).isZero();
+        assertThat(route.getLatency().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Должен выводить накопительную гистограмму в формате Prometheus")
+    void scrape_shouldWriteCumulativeHistogram() {
+        OperationMetrics operation = registry.repositoryOperation("clients", "findById");
+        operation.getLatency().record(TimeUnit.MICROSECONDS.toNanos(3));
+        operation.getLatency().record(TimeUnit.MILLISECONDS.toNanos(5));
+        operation.failed();
+
+        String text = registry.scrape();
+
+        assertThat(text)
+                .contains("# TYPE repository_operation_seconds histogram\n")
+                .contains("repository_operation_seconds_bucket{repository=\"clients\",operation=\"findById\",le=\"0.000002\"} 0\n")
+                .contains("repository_operation_seconds_bucket{repository=\"clients\",operation=\"findById\",le=\"0.000004\"} 1\n")
+                .contains("repository_operation_seconds_bucket{repository=\"clients\",operation=\"findById\",le=\"0.008192\"} 2\n")
+                .contains("repository_operation_seconds_bucket{repository=\"clients\",operation=\"findById\",le=\"+Inf\"} 2\n")
+                .contains("repository_operation_seconds_count{repository=\"clients\",operation=\"findById\"} 2\n")
+                .contains("repository_operation_errors_total{repository=\"clients\",operation=\"findById\"} 1\n")
+                .contains("repository_operation_in_flight{repository=\"clients\",operation=\"findById\"} 0\n");
+    }
+
+    @Test
+    @DisplayName("Должен экранировать кавычки в значениях меток")
+    void repositoryOperation_shouldEscapeLabelValues() {
+        OperationMetrics operation = registry.repositoryOperation("cli\"ents", "findAll");
+
+        assertThat(operation.getLabels()).isEqualTo("repository=\"cli\\\"ents\",operation=\"findAll\"");
+    }
+}
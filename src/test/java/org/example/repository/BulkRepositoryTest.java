@@ -0,0 +1,190 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Тестирование BulkRepository")
+class BulkRepositoryTest extends TestContainers {
+
+    private static final String MARKER = "Bulk";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static BulkRepository bulkRepository;
+    private static JdbcTemplate jdbc;
+
+    private int firstDoctorId;
+    private int secondDoctorId;
+    private int fluId;
+    private int coldId;
+    private int firstClientId;
+    private int secondClientId;
+    private int thirdClientId;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        bulkRepository = new BulkRepository(entityManagerFactory);
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"),
+                System.getProperty("jakarta.persistence.jdbc.password")));
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void insertRows() {
+        firstDoctorId = insertDoctor("First");
+        secondDoctorId = insertDoctor("Second");
+        fluId = insertSick("Flu");
+        coldId = insertSick("Cold");
+        firstClientId = insertClient("First", firstDoctorId);
+        secondClientId = insertClient("Second", firstDoctorId);
+        thirdClientId = insertClient("Third", secondDoctorId);
+        jdbc.update("INSERT INTO client_sick (client_id, sick_id) VALUES (?, ?), (?, ?), (?, ?)",
+                firstClientId, fluId, firstClientId, coldId, secondClientId, fluId);
+    }
+
+    @AfterEach
+    void deleteRows() {
+        jdbc.update("DELETE FROM client_sick WHERE client_id IN (SELECT client_id FROM client WHERE last_name = ?)",
+                MARKER);
+        jdbc.update("DELETE FROM client WHERE last_name = ?", MARKER);
+        jdbc.update("DELETE FROM sick WHERE stage_sick = ?", MARKER);
+        jdbc.update("DELETE FROM doctor WHERE last_name = ?", MARKER);
+    }
+
+    @Test
+    @DisplayName("Должен удалить клиентов вместе со связями одной командой")
+    void deleteClients_shouldDeleteClientsAndLinks() {
+        BulkChange change = bulkRepository.deleteClients(List.of(firstClientId, secondClientId, Integer.MAX_VALUE));
+
+        assertThat(change.getAffected()).isEqualTo(2);
+        assertThat(change.getClients()).containsExactlyInAnyOrder(firstClientId, secondClientId);
+        assertThat(change.getSickClients()).isEqualTo(Map.of(fluId, -2L, coldId, -1L));
+        assertThat(change.getDoctorClients()).isEqualTo(Map.of(firstDoctorId, -2L));
+        assertThat(jdbc.queryForList("SELECT client_id FROM client WHERE last_name = ?", Integer.class, MARKER))
+                .containsExactly(thirdClientId);
+        assertThat(links()).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен передать клиентов другому врачу и увеличить их версию")
+    void reassignClients_shouldMoveClientsAndBumpVersion() {
+        BulkChange change = bulkRepository.reassignClients(firstDoctorId, secondDoctorId);
+
+        assertThat(change.getAffected()).isEqualTo(2);
+        assertThat(change.getClients()).containsExactlyInAnyOrder(firstClientId, secondClientId);
+        assertThat(change.getDoctorClients()).isEqualTo(Map.of(firstDoctorId, -2L, secondDoctorId, 2L));
+        assertThat(jdbc.queryForList("SELECT version FROM client WHERE doctor_id = ? ORDER BY client_id",
+                Long.class, secondDoctorId)).containsExactly(1L, 1L, 0L);
+        assertThat(bulkRepository.reassignClients(secondDoctorId, Integer.MAX_VALUE)).isNull();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM client WHERE doctor_id = ?", Long.class, secondDoctorId))
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Должен удалить болезнь вместе со связями и увеличить версию ее клиентов")
+    void deleteSick_shouldDeleteSickAndLinks() {
+        BulkChange change = bulkRepository.deleteSick(fluId);
+
+        assertThat(change.getAffected()).isEqualTo(1);
+        assertThat(change.getClients()).containsExactlyInAnyOrder(firstClientId, secondClientId);
+        assertThat(change.getSickClients()).isEqualTo(Map.of(fluId, -2L));
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM sick WHERE sick_id = ?", Long.class, fluId)).isZero();
+        assertThat(links()).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT version FROM client WHERE last_name = ? ORDER BY client_id",
+                Long.class, MARKER)).containsExactly(1L, 1L, 0L);
+        assertThat(bulkRepository.deleteSick(fluId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Должен удалить болезнь без связей и сообщить об удаленной строке")
+    void deleteSick_shouldReportSickWithoutLinks() {
+        int unlinkedId = insertSick("Unlinked");
+
+        BulkChange change = bulkRepository.deleteSick(unlinkedId);
+
+        assertThat(change.getAffected()).isEqualTo(1);
+        assertThat(change.getClients()).isEmpty();
+        assertThat(change.getSickClients()).isEqualTo(Map.of(unlinkedId, 0L));
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM sick WHERE sick_id = ?", Long.class, unlinkedId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен добавить клиенту только отсутствующие болезни и увеличить его версию")
+    void addSicks_shouldInsertMissingLinksOnly() {
+        BulkChange change = bulkRepository.addSicks(secondClientId, List.of(fluId, coldId, coldId));
+
+        assertThat(change.getAffected()).isEqualTo(1);
+        assertThat(change.getClients()).containsExactly(secondClientId);
+        assertThat(change.getSickClients()).isEqualTo(Map.of(coldId, 1L));
+        assertThat(links()).isEqualTo(4);
+        assertThat(version(secondClientId)).isEqualTo(1);
+        assertThat(bulkRepository.addSicks(secondClientId, List.of(coldId)).getClients()).isEmpty();
+        assertThat(version(secondClientId)).isEqualTo(1);
+        assertThat(bulkRepository.addSicks(thirdClientId, List.of(fluId, Integer.MAX_VALUE))).isNull();
+        assertThat(bulkRepository.addSicks(Integer.MAX_VALUE, List.of(fluId))).isNull();
+        assertThat(links()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Должен удалить у клиента только переданные болезни и увеличить его версию")
+    void removeSicks_shouldDeleteGivenLinksOnly() {
+        BulkChange change = bulkRepository.removeSicks(firstClientId, List.of(fluId, Integer.MAX_VALUE));
+
+        assertThat(change.getAffected()).isEqualTo(1);
+        assertThat(change.getClients()).containsExactly(firstClientId);
+        assertThat(change.getSickClients()).isEqualTo(Map.of(fluId, -1L));
+        assertThat(jdbc.queryForList("SELECT sick_id FROM client_sick WHERE client_id = ?", Integer.class,
+                firstClientId)).containsExactly(coldId);
+        assertThat(version(firstClientId)).isEqualTo(1);
+        assertThat(bulkRepository.removeSicks(thirdClientId, List.of(fluId)).getAffected()).isZero();
+        assertThat(version(thirdClientId)).isZero();
+        assertThat(bulkRepository.removeSicks(Integer.MAX_VALUE, List.of(fluId))).isNull();
+    }
+
+    private static long version(int clientId) {
+        return jdbc.queryForObject("SELECT version FROM client WHERE client_id = ?", Long.class, clientId);
+    }
+
+    private static long links() {
+        return jdbc.queryForObject("SELECT count(*) FROM client_sick WHERE client_id IN "
+                + "(SELECT client_id FROM client WHERE last_name = ?)", Long.class, MARKER);
+    }
+
+    private static int insertDoctor(String firstName) {
+        return jdbc.queryForObject("INSERT INTO doctor (doctor_id, first_name, last_name, age, specification, version) "
+                + "VALUES (nextval('doctor_doctor_id_seq'), ?, ?, 40, 'Therapist', 0) RETURNING doctor_id",
+                Integer.class, firstName, MARKER);
+    }
+
+    private static int insertSick(String sickName) {
+        return jdbc.queryForObject("INSERT INTO sick (sick_id, sick_name, stage_sick, version) "
+                + "VALUES (nextval('sick_sick_id_seq'), ?, ?, 0) RETURNING sick_id", Integer.class, sickName, MARKER);
+    }
+
+    private static int insertClient(String firstName, int doctorId) {
+        return jdbc.queryForObject("INSERT INTO client (client_id, first_name, last_name, age, doctor_id, version) "
+                + "VALUES (nextval('client_client_id_seq'), ?, ?, 30, ?, 0) RETURNING client_id",
+                Integer.class, firstName, MARKER, doctorId);
+    }
+}
@@ -2,14 +2,20 @@ package org.example.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.Persistence;
 import org.example.entity.Client;
+import org.example.entity.Sick;
 import org.junit.jupiter.api.*;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.example.datatest.DataTest.*;
 
 @Testcontainers
@@ -28,7 +34,8 @@ class ClientRepositoryTest extends TestContainers {
     @BeforeEach
     void setUp() {
         entityManager = entityManagerFactory.createEntityManager();
-        clientRepository = new ClientRepository(entityManager);
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
     }
 
     @AfterEach
@@ -116,7 +123,167 @@ class ClientRepositoryTest extends TestContainers {
         boolean deleted = clientRepository.delete(DELETE_CLIENT.getId());
 
         assertThat(deleted).isTrue();
+        entityManager.clear();
         Client foundClient = entityManager.find(Client.class, DELETE_CLIENT.getId());
         assertThat(foundClient).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Должен вернуть страницу клиентов после указанного идентификатора")
+    void findPage_shouldReturnClientsAfterCursor() {
+        entityManager.getTransaction().begin();
+        Client first = new Client("Page", "First", 30);
+        Client second = new Client("Page", "Second", 31);
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.getTransaction().commit();
+
+        List<Client> page = clientRepository.findPage(first.getId() - 1, 1);
+        List<Client> next = clientRepository.findPage(page.get(0).getId(), 1);
+
+        assertThat(page).hasSize(1).first().extracting(Client::getId).isEqualTo(first.getId());
+        assertThat(next).hasSize(1).first().extracting(Client::getId).isEqualTo(second.getId());
+        assertThat(clientRepository.findPage(second.getId(), 10)).isEmpty();
+
+        clientRepository.delete(first.getId());
+        clientRepository.delete(second.getId());
+    }
+
+    @Test
+    @DisplayName("Должен выгрузить клиентов потоком, сгруппировав их болезни")
+    void streamAll_shouldGroupSicksByClient() {
+        entityManager.getTransaction().begin();
+        Sick flu = new Sick("Stream", "First");
+        Sick cold = new Sick("Stream", "Second");
+        entityManager.persist(flu);
+        entityManager.persist(cold);
+        Client withSicks = new Client("Stream", "WithSicks", 30);
+        withSicks.setSicks(Set.of(flu, cold));
+        Client withoutSicks = new Client("Stream", "WithoutSicks", 31);
+        entityManager.persist(withSicks);
+        entityManager.persist(withoutSicks);
+        entityManager.getTransaction().commit();
+
+        List<Client> streamed = new ArrayList<>();
+        int count = clientRepository.streamAll(1, streamed::add);
+
+        assertThat(count).isEqualTo(streamed.size());
+        assertThat(streamed).extracting(Client::getId).isSorted().doesNotHaveDuplicates();
+        Client first = streamed.stream().filter(c -> c.getId() == withSicks.getId()).findFirst().orElseThrow();
+        Client second = streamed.stream().filter(c -> c.getId() == withoutSicks.getId()).findFirst().orElseThrow();
+        assertThat(first.getSicks()).extracting(Sick::getStageSick).containsExactlyInAnyOrder("First", "Second");
+        assertThat(second.getSicks()).isEmpty();
+
+        clientRepository.delete(withSicks.getId());
+        clientRepository.delete(withoutSicks.getId());
+        entityManager.clear();
+        entityManager.getTransaction().begin();
+        entityManager.remove(entityManager.find(Sick.class, flu.getId()));
+        entityManager.remove(entityManager.find(Sick.class, cold.getId()));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Должен вставить только добавленную болезнь, не пересоздавая остальные связи клиента")
+    void update_shouldInsertOnlyAddedSick() {
+        entityManager.getTransaction().begin();
+        Sick flu = new Sick("Incremental", "First");
+        Sick cold = new Sick("Incremental", "Second");
+        entityManager.persist(flu);
+        entityManager.persist(cold);
+        Client client = new Client("Incremental", "Update", 35);
+        client.setSicks(new HashSet<>(Set.of(flu)));
+        entityManager.persist(client);
+        entityManager.getTransaction().commit();
+        Object fluRow = linkRow(client.getId(), flu.getId());
+
+        Client loaded = clientRepository.findById(client.getId());
+        loaded.getSicks().add(cold);
+        clientRepository.update(loaded);
+
+        assertThat(linkRow(client.getId(), flu.getId())).isEqualTo(fluRow);
+        assertThat(linkRow(client.getId(), cold.getId())).isNotNull();
+
+        clientRepository.delete(client.getId());
+        entityManager.clear();
+        entityManager.getTransaction().begin();
+        entityManager.remove(entityManager.find(Sick.class, flu.getId()));
+        entityManager.remove(entityManager.find(Sick.class, cold.getId()));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Должен вернуть отметку версии, совпадающую с загруженным клиентом, и отклонить устаревшее обновление")
+    void findVersionStamp_shouldMatchLoadedClientAndRejectStaleUpdate() {
+        entityManager.getTransaction().begin();
+        Sick flu = new Sick("Version", "First");
+        entityManager.persist(flu);
+        Client client = new Client("Version", "Stamp", 40);
+        client.setSicks(Set.of(flu));
+        entityManager.persist(client);
+        entityManager.getTransaction().commit();
+
+        VersionStamp stamp = clientRepository.findVersionStamp(client.getId());
+        assertThat(stamp.eTag()).isEqualTo(VersionStamp.of(clientRepository.findById(client.getId())).eTag());
+
+        client.setFirstName("Changed");
+        Client updatedClient = clientRepository.update(client, stamp.getVersion());
+        assertThat(updatedClient.getVersion()).isEqualTo(stamp.getVersion() + 1);
+        assertThat(clientRepository.findVersionStamp(client.getId()).eTag()).isNotEqualTo(stamp.eTag());
+        assertThatThrownBy(() -> clientRepository.update(client, stamp.getVersion()))
+                .isInstanceOf(OptimisticLockException.class);
+        assertThat(clientRepository.findVersionStamp(NOT_FOUND_ID)).isNull();
+
+        clientRepository.delete(client.getId());
+        entityManager.clear();
+        entityManager.getTransaction().begin();
+        entityManager.remove(entityManager.find(Sick.class, flu.getId()));
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    @DisplayName("Должен передать слушателю болезни клиента до изменения, прочитанные в транзакции обновления")
+    void update_shouldPassStateBeforeChangeToListener() {
+        entityManager.getTransaction().begin();
+        Sick flu = new Sick("Listener", "First");
+        Sick cold = new Sick("Listener", "Second");
+        entityManager.persist(flu);
+        entityManager.persist(cold);
+        Client client = new Client("Listener", "Update", 30);
+        client.setSicks(new HashSet<>(Set.of(flu)));
+        entityManager.persist(client);
+        entityManager.getTransaction().commit();
+        List<Client[]> changes = new ArrayList<>();
+        ClientRepository repository = new ClientRepository(entityManagerFactory,
+                (before, after) -> changes.add(new Client[]{before, after}));
+
+        Client detached = new Client("Listener", "Update", 31);
+        detached.setId(client.getId());
+        detached.setSicks(new HashSet<>(Set.of(cold)));
+        repository.update(detached);
+        repository.delete(client.getId());
+
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(0)[0].getSicks()).extracting(Sick::getId).containsExactly(flu.getId());
+        assertThat(changes.get(0)[1].getSicks()).extracting(Sick::getId).containsExactly(cold.getId());
+        assertThat(changes.get(1)[0].getSicks()).extracting(Sick::getId).containsExactly(cold.getId());
+        assertThat(changes.get(1)[1]).isNull();
+
+        entityManager.clear();
+        entityManager.getTransaction().begin();
+        entityManager.remove(entityManager.find(Sick.class, flu.getId()));
+        entityManager.remove(entityManager.find(Sick.class, cold.getId()));
+        entityManager.getTransaction().commit();
+    }
+
+    /**
+     * Физический адрес строки client_sick: при удалении и повторной вставке связи он меняется.
+     */
+    private Object linkRow(int clientId, int sickId) {
+        return entityManager.createNativeQuery("SELECT ctid::text FROM client_sick "
+                        + "WHERE client_id = :clientId AND sick_id = :sickId")
+                .setParameter("clientId", clientId)
+                .setParameter("sickId", sickId)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.repository.copy.CsvLayout;
+import org.example.repository.copy.CsvReferences;
+import org.example.service.dto.ImportResultDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@DisplayName("Тестирование CsvExportRepository")
+class CsvExportRepositoryTest extends TestContainers {
+
+    private static final String MARKER = "CsvExport";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static CsvExportRepository exportRepository;
+    private static CsvImportRepository importRepository;
+    private static JdbcTemplate jdbc;
+
+    private long maxDoctorId;
+    private long maxSickId;
+    private long maxClientId;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"),
+                System.getProperty("jakarta.persistence.jdbc.password"));
+        exportRepository = new CsvExportRepository(dataSource);
+        importRepository = new CsvImportRepository(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void importMarkedRows() {
+        maxDoctorId = jdbc.queryForObject("SELECT coalesce(max(doctor_id), 0) FROM doctor", Long.class);
+        maxSickId = jdbc.queryForObject("SELECT coalesce(max(sick_id), 0) FROM sick", Long.class);
+        maxClientId = jdbc.queryForObject("SELECT coalesce(max(client_id), 0) FROM client", Long.class);
+        ImportResultDTO result = importRepository.importCsv(Map.of(
+                CsvLayout.DOCTORS, csv("first_name,last_name,age,specification",
+                        "Ivan,CsvExport,40,Therapist",
+                        "\"Anna, Maria\",CsvExport,35,\"Surgeon \"\"senior\"\"\""),
+                CsvLayout.SICKS, csv("sick_name,stage_sick",
+                        "Flu,CsvExport"),
+                CsvLayout.CLIENTS, csv("first_name,last_name,age,doctor_id",
+                        "Petr,CsvExport,30,2",
+                        "Oleg,CsvExport,25,"),
+                CsvLayout.LINKS, csv("client_id,sick_id",
+                        "1,1")));
+        assertThat(result.getRejected()).isZero();
+    }
+
+    /**
+     * Импорт выгрузки копирует все таблицы, поэтому удаляются все строки, вставленные после начала теста.
+     */
+    @AfterEach
+    void deleteImportedRows() {
+        jdbc.update("DELETE FROM client_sick WHERE client_id > ?", maxClientId);
+        jdbc.update("DELETE FROM client WHERE client_id > ?", maxClientId);
+        jdbc.update("DELETE FROM sick WHERE sick_id > ?", maxSickId);
+        jdbc.update("DELETE FROM doctor WHERE doctor_id > ?", maxDoctorId);
+    }
+
+    @Test
+    @DisplayName("Должен выгружать ссылки номерами строк выгрузки, как в файлах начальных данных")
+    void exportCsv_shouldWriteRowReferences() throws IOException {
+        List<String> doctors = export(CsvLayout.DOCTORS, List.of(), CsvReferences.ROWS);
+        List<String> clients = export(CsvLayout.CLIENTS, List.of(), CsvReferences.ROWS);
+
+        assertThat(doctors.get(0)).isEqualTo("first_name,last_name,age,specification");
+        assertThat(clients.get(0)).isEqualTo("first_name,last_name,age,doctor_id");
+        String petr = clients.stream().filter(line -> line.startsWith("Petr,CsvExport")).findFirst().orElseThrow();
+        int doctorRow = Integer.parseInt(petr.substring(petr.lastIndexOf(',') + 1));
+        assertThat(doctors.get(doctorRow)).isEqualTo("\"Anna, Maria\",CsvExport,35,\"Surgeon \"\"senior\"\"\"");
+        assertThat(clients).contains("Oleg,CsvExport,25,");
+    }
+
+    @Test
+    @DisplayName("Должен выгружать выбранные столбцы и идентификаторы записей")
+    void exportCsv_shouldWriteSelectedColumnsAndIds() throws IOException {
+        Integer clientId = jdbc.queryForObject("SELECT client_id FROM client WHERE first_name = 'Petr' AND last_name = ?",
+                Integer.class, MARKER);
+        Integer sickId = jdbc.queryForObject("SELECT sick_id FROM sick WHERE stage_sick = ?", Integer.class, MARKER);
+
+        List<String> clients = export(CsvLayout.CLIENTS, List.of("id", "last_name", "version"), CsvReferences.IDS);
+        List<String> links = export(CsvLayout.LINKS, List.of(), CsvReferences.IDS);
+
+        assertThat(clients.get(0)).isEqualTo("id,last_name,version");
+        assertThat(clients).contains(clientId + ",CsvExport,0");
+        assertThat(links).contains(clientId + "," + sickId);
+    }
+
+    @Test
+    @DisplayName("Выгрузка всех файлов должна импортироваться обратно")
+    void exportCsv_shouldRoundTripThroughImport() throws IOException {
+        Map<CsvLayout, ByteArrayResource> files = new EnumMap<>(CsvLayout.class);
+        Map<CsvLayout, Long> lines = new EnumMap<>(CsvLayout.class);
+        for (CsvLayout layout : CsvLayout.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long rows = exportRepository.exportCsv(layout, List.of(), CsvReferences.ROWS, out);
+            files.put(layout, new ByteArrayResource(out.toByteArray()));
+            lines.put(layout, rows);
+        }
+
+        ImportResultDTO result = importRepository.importCsv(files);
+
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getDoctors()).isEqualTo(lines.get(CsvLayout.DOCTORS));
+        assertThat(result.getSicks()).isEqualTo(lines.get(CsvLayout.SICKS));
+        assertThat(result.getClients()).isEqualTo(lines.get(CsvLayout.CLIENTS));
+        assertThat(result.getLinks()).isEqualTo(lines.get(CsvLayout.LINKS));
+        assertThat(jdbc.queryForList("SELECT c.first_name || ':' || d.first_name || ':' || s.sick_name FROM client c "
+                + "JOIN doctor d ON d.doctor_id = c.doctor_id JOIN client_sick cs ON cs.client_id = c.client_id "
+                + "JOIN sick s ON s.sick_id = cs.sick_id WHERE c.last_name = ?", String.class, MARKER))
+                .containsExactly("Petr:Anna, Maria:Flu", "Petr:Anna, Maria:Flu");
+    }
+
+    @Test
+    @DisplayName("Должен отклонять столбцы вне списка допустимых")
+    void exportCsv_shouldRejectUnknownColumns() {
+        assertThatThrownBy(() -> export(CsvLayout.SICKS, List.of("sick_name", "1; DROP TABLE sick"), CsvReferences.ROWS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> export(CsvLayout.LINKS, List.of("id"), CsvReferences.ROWS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> export(CsvLayout layout, List<String> columns, CsvReferences references)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportRepository.exportCsv(layout, columns, references, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize((int) rows + 1);
+        return lines;
+    }
+
+    private static ByteArrayResource csv(String header, String... rows) {
+        StringBuilder csv = new StringBuilder(header).append('\n');
+        for (String row : rows) {
+            csv.append(row).append('\n');
+        }
+        return new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
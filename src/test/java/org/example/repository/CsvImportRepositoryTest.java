@@ -0,0 +1,276 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.example.entity.Sick;
+import org.example.repository.copy.CsvFormatException;
+import org.example.repository.copy.CsvLayout;
+import org.example.service.dto.ImportErrorDTO;
+import org.example.service.dto.ImportResultDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Testcontainers
+@DisplayName("Тестирование CsvImportRepository")
+class CsvImportRepositoryTest extends TestContainers {
+
+    private static final String MARKER = "CsvImport";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static CsvImportRepository importRepository;
+    private static ClientRepository clientRepository;
+    private static SickRepository sickRepository;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        sickRepository = new SickRepository(entityManagerFactory);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"),
+                System.getProperty("jakarta.persistence.jdbc.password"));
+        importRepository = new CsvImportRepository(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @AfterEach
+    void deleteImportedRows() {
+        jdbc.update("DELETE FROM client_sick WHERE client_id IN (SELECT client_id FROM client WHERE last_name = ?) "
+                + "OR sick_id IN (SELECT sick_id FROM sick WHERE stage_sick = ?)", MARKER, MARKER);
+        jdbc.update("DELETE FROM client WHERE last_name = ?", MARKER);
+        jdbc.update("DELETE FROM sick WHERE stage_sick = ?", MARKER);
+        jdbc.update("DELETE FROM doctor WHERE last_name = ?", MARKER);
+    }
+
+    @Test
+    @DisplayName("Должен импортировать набор файлов и связывать строки по номерам")
+    void importCsv_shouldImportBundleAndResolveRowReferences() {
+        ImportResultDTO result = importRepository.importCsv(Map.of(
+                CsvLayout.DOCTORS, csv("first_name,last_name,age,specification",
+                        "Иван,CsvImport,40,Терапевт",
+                        "\"Анна, Мария\",CsvImport,35,\"Хирург \"\"высшей\"\" категории\""),
+                CsvLayout.SICKS, csv("sick_name,stage_sick",
+                        "Грипп,CsvImport",
+                        "Ангина,CsvImport"),
+                CsvLayout.CLIENTS, csv("first_name,last_name,age,doctor_id",
+                        "Петр,CsvImport,30,2",
+                        "Олег,CsvImport,25,",
+                        "",
+                        "Ольга,CsvImport,50,1"),
+                CsvLayout.LINKS, csv("client_id,sick_id",
+                        "1,1",
+                        "1,2",
+                        "3,2",
+                        "1,1")));
+
+        assertThat(result.getDoctors()).isEqualTo(2);
+        assertThat(result.getSicks()).isEqualTo(2);
+        assertThat(result.getClients()).isEqualTo(3);
+        assertThat(result.getLinks()).isEqualTo(3);
+        assertThat(result.getDuplicateLinks()).isEqualTo(1);
+        assertThat(result.getRejected()).isZero();
+        assertThat(jdbc.queryForList("SELECT c.first_name || ':' || coalesce(d.specification, '-') FROM client c "
+                + "LEFT JOIN doctor d ON d.doctor_id = c.doctor_id WHERE c.last_name = ? ORDER BY c.client_id",
+                String.class, MARKER))
+                .containsExactly("Петр:Хирург \"высшей\" категории", "Олег:-", "Ольга:Терапевт");
+        assertThat(jdbc.queryForList("SELECT c.first_name || ':' || s.sick_name FROM client_sick cs "
+                + "JOIN client c ON c.client_id = cs.client_id JOIN sick s ON s.sick_id = cs.sick_id "
+                + "WHERE c.last_name = ? ORDER BY c.client_id, s.sick_id", String.class, MARKER))
+                .containsExactly("Петр:Грипп", "Петр:Ангина", "Ольга:Ангина");
+    }
+
+    @Test
+    @DisplayName("Должен отклонять некорректные строки и ссылки на них с номерами строк")
+    void importCsv_shouldRejectInvalidRowsWithLineNumbers() {
+        ImportResultDTO result = importRepository.importCsv(Map.of(
+                CsvLayout.DOCTORS, csv("first_name,last_name,age,specification",
+                        "Иван,CsvImport,40,Терапевт",
+                        " ,CsvImport,35,Хирург"),
+                CsvLayout.CLIENTS, csv("first_name,last_name,age,doctor_id",
+                        "Петр,CsvImport,30,1",
+                        "Олег,CsvImport,двадцать,1",
+                        "Ольга,CsvImport,50,2",
+                        "Анна,CsvImport,41,3",
+                        "\"Мария,CsvImport,22,1",
+                        "Нина,CsvImport,22"),
+                CsvLayout.LINKS, csv("client_id,sick_id",
+                        "2,1",
+                        "0,1")));
+
+        assertThat(result.getDoctors()).isEqualTo(1);
+        assertThat(result.getClients()).isEqualTo(1);
+        assertThat(result.getLinks()).isZero();
+        assertThat(result.getRejected()).isEqualTo(8);
+        assertThat(result.getErrors())
+                .extracting(ImportErrorDTO::getFile, ImportErrorDTO::getLine)
+                .containsExactly(
+                        tuple("doctors", 3L),
+                        tuple("clients", 3L), tuple("clients", 4L), tuple("clients", 5L),
+                        tuple("clients", 6L), tuple("clients", 7L),
+                        tuple("links", 2L), tuple("links", 3L));
+        assertThat(countRows("client")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Должен связывать существующие записи по идентификатору и увеличивать версию клиента")
+    void importCsv_shouldLinkExistingRowsAndBumpClientVersion() {
+        Client client = clientRepository.save(new Client("Петр", MARKER, 30));
+        Sick sick = sickRepository.save(new Sick("Грипп", MARKER));
+        Sick linked = sickRepository.save(new Sick("Ангина", MARKER));
+        jdbc.update("INSERT INTO client_sick (client_id, sick_id) VALUES (?, ?)", client.getId(), linked.getId());
+
+        ImportResultDTO result = importRepository.importCsv(Map.of(
+                CsvLayout.LINKS, csv("client_id,sick_id",
+                        client.getId() + "," + sick.getId(),
+                        client.getId() + "," + linked.getId(),
+                        "2147483647," + sick.getId(),
+                        client.getId() + ",2147483647")));
+
+        assertThat(result.getLinks()).isEqualTo(1);
+        assertThat(result.getDuplicateLinks()).isEqualTo(1);
+        assertThat(result.getErrors())
+                .extracting(ImportErrorDTO::getLine, ImportErrorDTO::getMessage)
+                .containsExactly(
+                        tuple(4L, "Клиент с id 2147483647 не найден"),
+                        tuple(5L, "Болезнь с id 2147483647 не найдена"));
+        assertThat(jdbc.queryForObject("SELECT version FROM client WHERE client_id = ?", Long.class, client.getId()))
+                .isEqualTo(client.getVersion() + 1);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM client_sick WHERE client_id = ?", Long.class,
+                client.getId())).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Должен проверять ссылки клиентов на существующих врачей и отклонять связи с отклоненными клиентами")
+    void importCsv_shouldRejectClientsWithMissingDoctor() {
+        Integer doctorId = jdbc.queryForObject("INSERT INTO doctor (doctor_id, first_name, last_name, age, "
+                + "specification, version) VALUES (nextval('doctor_doctor_id_seq'), 'Иван', ?, 40, 'Терапевт', 0) "
+                + "RETURNING doctor_id", Integer.class, MARKER);
+
+        ImportResultDTO result = importRepository.importCsv(Map.of(
+                CsvLayout.SICKS, csv("sick_name,stage_sick",
+                        "Грипп,CsvImport"),
+                CsvLayout.CLIENTS, csv("first_name,last_name,age,doctor_id",
+                        "Петр,CsvImport,30," + doctorId,
+                        "Олег,CsvImport,25,2147483647",
+                        "Ольга,CsvImport,50,"),
+                CsvLayout.LINKS, csv("client_id,sick_id",
+                        "1,1",
+                        "2,1",
+                        "3,1")));
+
+        assertThat(result.getClients()).isEqualTo(2);
+        assertThat(result.getLinks()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting(ImportErrorDTO::getFile, ImportErrorDTO::getLine, ImportErrorDTO::getMessage)
+                .containsExactly(
+                        tuple("clients", 3L, "Врач с id 2147483647 не найден"),
+                        tuple("links", 3L, "Строка 2 файла clients отсутствует или отклонена"));
+        assertThat(jdbc.queryForList("SELECT c.first_name || ':' || coalesce(c.doctor_id::text, '-') FROM client c "
+                + "WHERE c.last_name = ? ORDER BY c.client_id", String.class, MARKER))
+                .containsExactly("Петр:" + doctorId, "Ольга:-");
+    }
+
+    @Test
+    @DisplayName("Должен откатывать импорт, если заголовок файла не совпадает с форматом")
+    void importCsv_shouldRollBackOnHeaderMismatch() {
+        Map<CsvLayout, ByteArrayResource> files = Map.of(
+                CsvLayout.DOCTORS, csv("first_name,last_name,age,specification",
+                        "Иван,CsvImport,40,Терапевт"),
+                CsvLayout.CLIENTS, csv("first_name,last_name,doctor_id",
+                        "Петр,CsvImport,1"));
+
+        assertThatThrownBy(() -> importRepository.importCsv(files))
+                .isInstanceOf(CsvFormatException.class)
+                .satisfies(e -> {
+                    assertThat(((CsvFormatException) e).getFileName()).isEqualTo("clients");
+                    assertThat(((CsvFormatException) e).getLine()).isEqualTo(1);
+                });
+        assertThat(countRows("doctor")).isZero();
+    }
+
+    @Test
+    @DisplayName("Идентификаторы импорта не должны пересекаться с идентификаторами Hibernate")
+    void importCsv_shouldNotCollideWithHibernateIds() {
+        List<Client> saved = new ArrayList<>();
+        saved.add(clientRepository.save(new Client("До", MARKER, 30)));
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add("Импорт" + i + ",CsvImport,30,");
+        }
+        importRepository.importCsv(Map.of(CsvLayout.CLIENTS, csv("first_name,last_name,age,doctor_id",
+                rows.toArray(new String[0]))));
+        for (int i = 0; i < 120; i++) {
+            saved.add(clientRepository.save(new Client("После" + i, MARKER, 30)));
+        }
+
+        assertThat(saved).extracting(Client::getId).doesNotContain(0).doesNotHaveDuplicates();
+        assertThat(countRows("client")).isEqualTo(241);
+    }
+
+    @Test
+    @DisplayName("Должен загружать клиентов через COPY быстрее, чем saveAll")
+    void importCsv_shouldBeFasterThanSaveAll() {
+        int rows = 10_000;
+        List<Client> clients = new ArrayList<>(rows);
+        StringBuilder csv = new StringBuilder("first_name,last_name,age,doctor_id\n");
+        for (int i = 0; i < rows; i++) {
+            clients.add(new Client("Batch" + i, MARKER, 20 + i % 60));
+            csv.append("Copy").append(i).append(",CsvImport,").append(20 + i % 60).append(",\n");
+        }
+
+        long saveAllStart = System.nanoTime();
+        clientRepository.saveAll(clients);
+        long saveAllNanos = System.nanoTime() - saveAllStart;
+
+        long copyStart = System.nanoTime();
+        ImportResultDTO result = importRepository.importCsv(Map.of(CsvLayout.CLIENTS,
+                new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8))));
+        long copyNanos = System.nanoTime() - copyStart;
+
+        System.out.printf("saveAll(%d): %d ms%n", rows, TimeUnit.NANOSECONDS.toMillis(saveAllNanos));
+        System.out.printf("COPY(%d): %d ms%n", rows, TimeUnit.NANOSECONDS.toMillis(copyNanos));
+
+        assertThat(result.getClients()).isEqualTo(rows);
+        assertThat(countRows("client")).isEqualTo(2L * rows);
+        assertThat(copyNanos).isLessThan(saveAllNanos);
+    }
+
+    private static ByteArrayResource csv(String header, String... rows) {
+        StringBuilder csv = new StringBuilder(header).append('\n');
+        for (String row : rows) {
+            csv.append(row).append('\n');
+        }
+        return new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long countRows(String table) {
+        String column = table.equals("sick") ? "stage_sick" : "last_name";
+        return jdbc.queryForObject("SELECT count(*) FROM " + table + " WHERE " + column + " = ?", Long.class, MARKER);
+    }
+}
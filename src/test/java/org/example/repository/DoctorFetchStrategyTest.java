@@ -0,0 +1,152 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Количество запросов при загрузке графа врач → клиенты → болезни")
+class DoctorFetchStrategyTest extends TestContainers {
+
+    private static final String LAST_NAME = "FetchGraph";
+    private static final int SICKS_PER_CLIENT = 2;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static Statistics statistics;
+    private static Doctor smallDoctor;
+    private static Doctor largeDoctor;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit",
+                Map.of("hibernate.generate_statistics", "true"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            List<Sick> sicks = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Sick sick = new Sick("Sick" + i, LAST_NAME);
+                entityManager.persist(sick);
+                sicks.add(sick);
+            }
+            smallDoctor = persistDoctor(entityManager, sicks, 2);
+            largeDoctor = persistDoctor(entityManager, sicks, 40);
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @AfterAll
+    static void deleteSeededRows() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            entityManager.createNativeQuery("DELETE FROM client_sick WHERE client_id IN "
+                            + "(SELECT client_id FROM client WHERE last_name = :lastName)")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Client c WHERE c.lastName = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Doctor d WHERE d.lastName = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Sick s WHERE s.stageSick = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.getTransaction().commit();
+        }
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("MULTI_STEP: число запросов не зависит от количества клиентов врача")
+    void multiStep_shouldIssueConstantNumberOfStatements() {
+        assertConstantStatements(new DoctorRepository(entityManagerFactory, DoctorFetchStrategy.MULTI_STEP), 3);
+    }
+
+    @Test
+    @DisplayName("SUBSELECT: число запросов не зависит от количества клиентов врача")
+    void subselect_shouldIssueConstantNumberOfStatements() {
+        assertConstantStatements(new DoctorRepository(entityManagerFactory, DoctorFetchStrategy.SUBSELECT), 2);
+    }
+
+    @Test
+    @DisplayName("Проекция списка врачей выполняется одним запросом")
+    void findAllProjected_shouldIssueSingleStatement() {
+        DoctorRepository repository = new DoctorRepository(entityManagerFactory);
+
+        statistics.clear();
+        repository.findAllProjected();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Проверяет, что загрузка врача с 2 и с 40 клиентами выполняет одинаковое число запросов:
+     * {@code expected} для findById и findAll и на один запрос идентификаторов больше для findPage.
+     */
+    private static void assertConstantStatements(DoctorRepository repository, long expected) {
+        statistics.clear();
+        Doctor small = repository.findById(smallDoctor.getId());
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Doctor large = repository.findById(largeDoctor.getId());
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<Doctor> page = repository.findPage(smallDoctor.getId() - 1, 2);
+        long pageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<Doctor> all = repository.findAll();
+        long allStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("%s: findById %d/%d, findPage %d, findAll %d statements%n", repository.getFetchStrategy(),
+                smallStatements, largeStatements, pageStatements, allStatements);
+        assertThat(smallStatements).isEqualTo(expected);
+        assertThat(largeStatements).isEqualTo(expected);
+        assertThat(pageStatements).isEqualTo(expected + 1);
+        assertThat(allStatements).isEqualTo(expected);
+        assertThat(large.getClients()).hasSize(40)
+                .allSatisfy(client -> assertThat(client.getSicks()).hasSize(SICKS_PER_CLIENT));
+        assertThat(small.getClients()).hasSize(2);
+        assertThat(page).extracting(Doctor::getId).containsExactly(smallDoctor.getId(), largeDoctor.getId());
+        assertThat(page.get(1).getClients()).hasSize(40)
+                .allSatisfy(client -> assertThat(client.getSicks()).hasSize(SICKS_PER_CLIENT));
+        assertThat(all).flatExtracting(Doctor::getClients).flatExtracting(Client::getSicks).isNotEmpty();
+    }
+
+    private static Doctor persistDoctor(EntityManager entityManager, List<Sick> sicks, int clients) {
+        Doctor doctor = new Doctor("Doctor" + clients, LAST_NAME, 50, "Therapist");
+        entityManager.persist(doctor);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client("Client" + i, LAST_NAME, 30);
+            client.setDoctor(doctor);
+            Set<Sick> clientSicks = new HashSet<>();
+            for (int s = 0; s < SICKS_PER_CLIENT; s++) {
+                clientSicks.add(sicks.get((i + s) % sicks.size()));
+            }
+            client.setSicks(clientSicks);
+            entityManager.persist(client);
+        }
+        return doctor;
+    }
+}
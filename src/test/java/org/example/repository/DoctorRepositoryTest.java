@@ -28,7 +28,7 @@ class DoctorRepositoryTest extends TestContainers {
     @BeforeEach
     void setUp() {
         entityManager = entityManagerFactory.createEntityManager();
-        doctorRepository = new DoctorRepository(entityManager);
+        doctorRepository = new DoctorRepository(entityManagerFactory);
     }
 
     @AfterEach
@@ -116,7 +116,27 @@ class DoctorRepositoryTest extends TestContainers {
         entityManager.getTransaction().commit();
         boolean deleted = doctorRepository.delete(DELETE_DOCTOR.getId());
         assertThat(deleted).isTrue();
+        entityManager.clear();
         Doctor foundDoctor = entityManager.find(Doctor.class, DELETE_DOCTOR.getId());
         assertThat(foundDoctor).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Должен вернуть страницу докторов после указанного идентификатора")
+    void findPage_shouldReturnDoctorsAfterCursor() {
+        entityManager.getTransaction().begin();
+        Doctor first = new Doctor("Page", "First", 40, "Therapist");
+        Doctor second = new Doctor("Page", "Second", 41, "Therapist");
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.getTransaction().commit();
+
+        List<Doctor> page = doctorRepository.findPage(first.getId() - 1, 2);
+
+        assertThat(page).extracting(Doctor::getId).containsExactly(first.getId(), second.getId());
+        assertThat(doctorRepository.findPage(second.getId(), 10)).isEmpty();
+
+        doctorRepository.delete(first.getId());
+        doctorRepository.delete(second.getId());
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import liquibase.integration.spring.SpringLiquibase;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.service.dto.NameMatchDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Testcontainers
+@DisplayName("Тестирование NameSearchRepository")
+class NameSearchRepositoryTest extends TestContainers {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static NameSearchRepository searchRepository;
+    private static ClientRepository clientRepository;
+    private static DoctorRepository doctorRepository;
+    private static JdbcTemplate jdbc;
+
+    /**
+     * Таблицы тестовой базы создает Hibernate, поэтому расширение pg_trgm, словари имен с триггерами
+     * и индексы создаются changeSet'ами v.1.2 так же, как при запуске приложения.
+     */
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        searchRepository = new NameSearchRepository(entityManagerFactory);
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        doctorRepository = new DoctorRepository(entityManagerFactory);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"),
+                System.getProperty("jakarta.persistence.jdbc.password"));
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setChangeLog("classpath:db/changelog/v.1.2.hospital/v.1.2.accumulate-changelog.xml");
+        liquibase.afterPropertiesSet();
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @AfterEach
+    void deleteRows() {
+        jdbc.update("DELETE FROM client WHERE last_name IN ('Zakharov', 'Zakharchenko', 'Ivanchenko', 'Kursorova')");
+        jdbc.update("DELETE FROM doctor WHERE last_name = 'Zakharova'");
+    }
+
+    @Test
+    @DisplayName("Должен ставить совпадения по началу имени или фамилии выше похожих написаний")
+    void searchClients_shouldRankPrefixMatchesFirst() {
+        clientRepository.save(new Client("Oleg", "Zakharchenko", 30));
+        clientRepository.save(new Client("Zakhar", "Ivanchenko", 40));
+        clientRepository.save(new Client("Petr", "Zakharov", 50));
+        clientRepository.save(new Client("Zakhar", "Zakharov", 60));
+
+        List<NameMatchDTO> matches = searchRepository.searchClients("Zakhar", null, 20);
+
+        assertThat(matches).extracting(NameMatchDTO::getFirstName, NameMatchDTO::getLastName)
+                .startsWith(tuple("Zakhar", "Ivanchenko"), tuple("Zakhar", "Zakharov"),
+                        tuple("Petr", "Zakharov"), tuple("Oleg", "Zakharchenko"));
+        assertThat(matches).extracting(NameMatchDTO::getId).doesNotHaveDuplicates();
+        assertThat(matches).extracting(NameMatchDTO::getScore)
+                .isSortedAccordingTo((a, b) -> Float.compare(b, a));
+        assertThat(matches.get(0).getScore()).isEqualTo(2.0f);
+        assertThat(matches.get(1).getMatchedName()).isEqualTo("Zakhar");
+    }
+
+    @Test
+    @DisplayName("Должен находить фамилию с опечаткой по триграммному сходству")
+    void searchClients_shouldFindMisspelledNames() {
+        clientRepository.save(new Client("Petr", "Zakharov", 50));
+
+        List<NameMatchDTO> matches = searchRepository.searchClients("zaharov", null, 20);
+
+        assertThat(matches).extracting(NameMatchDTO::getLastName).contains("Zakharov");
+        assertThat(matches).allSatisfy(match -> assertThat(match.getScore()).isBetween(0.3f, 1.0f));
+    }
+
+    @Test
+    @DisplayName("Страницы по курсору должны возвращать все совпадения без повторов")
+    void searchClients_shouldPageByCursor() {
+        List<Integer> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(clientRepository.save(new Client("Anna", "Kursorova", 20 + i)).getId());
+        }
+
+        List<Integer> found = new ArrayList<>();
+        SearchCursor cursor = null;
+        List<NameMatchDTO> page;
+        do {
+            page = searchRepository.searchClients("Kursorova", cursor, 2);
+            page.forEach(match -> found.add(match.getId()));
+            if (!page.isEmpty()) {
+                NameMatchDTO last = page.get(page.size() - 1);
+                cursor = SearchCursor.parse(new SearchCursor(last.getScore(), last.getMatchedName(), last.getId()).toString());
+            }
+        } while (page.size() == 2);
+
+        assertThat(found).containsExactlyElementsOf(saved);
+    }
+
+    @Test
+    @DisplayName("Должен находить новую фамилию после переименования клиента")
+    void searchClients_shouldFindRenamedClient() {
+        Client client = clientRepository.save(new Client("Petr", "Zakharov", 50));
+        jdbc.update("UPDATE client SET last_name = 'Kursorova' WHERE client_id = ?", client.getId());
+
+        List<NameMatchDTO> matches = searchRepository.searchClients("Kursorova", null, 20);
+
+        assertThat(matches).extracting(NameMatchDTO::getId).containsExactly(client.getId());
+    }
+
+    @Test
+    @DisplayName("Должен искать врачей по имени и фамилии")
+    void searchDoctors_shouldFindByPrefix() {
+        Doctor doctor = doctorRepository.save(new Doctor("Elena", "Zakharova", 45, "Therapist"));
+
+        List<NameMatchDTO> matches = searchRepository.searchDoctors("zakh", null, 20);
+
+        assertThat(matches).extracting(NameMatchDTO::getId).containsExactly(doctor.getId());
+        assertThat(matches.get(0).getFirstName()).isEqualTo("Elena");
+    }
+
+    @Test
+    @DisplayName("Должен экранировать символы шаблона LIKE в строке поиска")
+    void escapeLike_shouldEscapeWildcards() {
+        assertThat(NameSearchRepository.escapeLike("50%_a\\b")).isEqualTo("50\\%\\_a\\\\b");
+    }
+}
@@ -0,0 +1,350 @@
+package org.example.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import liquibase.integration.spring.SpringLiquibase;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка планов запросов, которые выполняют репозитории.
+ * <p>
+ * База заполняется данными, на которых PostgreSQL предпочитает индексы последовательному чтению,
+ * и индексируется changeSet'ами v.1.2. Первичный ключ client_sick (client_id, sick_id) создает changeSet
+ * v.1.0, а Hibernate для таблицы связей-списка ключ не создает, поэтому тест добавляет такой же индекс.
+ * Все операторы, отправленные Hibernate во время вызова метода репозитория, перехватываются вместе
+ * с параметрами и повторяются с {@code EXPLAIN (FORMAT JSON)}.
+ * <p>
+ * Методы, выбирающие записи по идентификатору или страницу записей, не должны читать большую таблицу
+ * последовательно. Методы, читающие таблицы целиком ({@code findAll}, {@code findAllProjected},
+ * {@code streamAll}), читают их последовательно, и это оптимально; для них запрещено только повторное
+ * последовательное чтение — на внутренней стороне Nested Loop или в SubPlan.
+ */
+@Testcontainers
+@DisplayName("Тестирование планов запросов репозиториев")
+class QueryPlanTest extends TestContainers {
+
+    private static final String MARKER = "QueryPlan";
+    private static final int DOCTORS = 5_000;
+    private static final int SICKS = 20_000;
+    private static final int CLIENTS = 100_000;
+    private static final int SICKS_PER_CLIENT = 3;
+    private static final int PAGE = 20;
+    /**
+     * Таблица считается большой, если по статистике в ней не меньше строк.
+     */
+    private static final int LARGE_TABLE_ROWS = 10_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static ClientRepository clientRepository;
+    private static SickRepository sickRepository;
+    private static DoctorRepository multiStepDoctorRepository;
+    private static DoctorRepository subselectDoctorRepository;
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbc;
+    private static Set<String> largeTables;
+    private static List<Integer> doctorIds;
+    private static List<Integer> sickIds;
+    private static List<Integer> clientIds;
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        dataSource = new DriverManagerDataSource(
+                System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"),
+                System.getProperty("jakarta.persistence.jdbc.password"));
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit",
+                Map.of("hibernate.connection.datasource", new RecordingDataSource(dataSource)));
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        sickRepository = new SickRepository(entityManagerFactory);
+        multiStepDoctorRepository = new DoctorRepository(entityManagerFactory, DoctorFetchStrategy.MULTI_STEP);
+        subselectDoctorRepository = new DoctorRepository(entityManagerFactory, DoctorFetchStrategy.SUBSELECT);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setChangeLog("classpath:db/changelog/v.1.2.hospital/v.1.2.accumulate-changelog.xml");
+        liquibase.afterPropertiesSet();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE INDEX IF NOT EXISTS client_sick_client_id_idx ON client_sick (client_id, sick_id)");
+        seed();
+        jdbc.execute("ANALYZE");
+        largeTables = new HashSet<>(jdbc.queryForList(
+                "SELECT relname FROM pg_class WHERE relkind = 'r' AND reltuples >= ?", String.class, LARGE_TABLE_ROWS));
+        doctorIds = ids("SELECT doctor_id FROM doctor WHERE last_name = ? ORDER BY doctor_id");
+        sickIds = ids("SELECT sick_id FROM sick WHERE stage_sick = ? ORDER BY sick_id");
+        clientIds = ids("SELECT client_id FROM client WHERE last_name = ? ORDER BY client_id");
+    }
+
+    @AfterAll
+    static void deleteSeededRows() {
+        entityManagerFactory.close();
+        jdbc.update("DELETE FROM client_sick WHERE client_id IN (SELECT client_id FROM client WHERE last_name = ?)",
+                MARKER);
+        jdbc.update("DELETE FROM client WHERE last_name = ?", MARKER);
+        jdbc.update("DELETE FROM sick WHERE stage_sick = ?", MARKER);
+        jdbc.update("DELETE FROM doctor WHERE last_name = ?", MARKER);
+    }
+
+    @Test
+    @DisplayName("Выборка клиентов по идентификатору и страницей не должна читать большие таблицы целиком")
+    void clientLookups_shouldUseIndexes() {
+        int id = clientIds.get(clientIds.size() / 2);
+
+        assertThat(sequentialScans(() -> clientRepository.findById(id), false)).isEmpty();
+        assertThat(sequentialScans(() -> clientRepository.findPage(id, PAGE), false)).isEmpty();
+        assertThat(sequentialScans(() -> clientRepository.findVersionStamp(id), false)).isEmpty();
+        Client client = clientRepository.findById(id);
+        assertThat(sequentialScans(() -> clientRepository.update(client), false)).isEmpty();
+        assertThat(sequentialScans(() -> clientRepository.delete(clientIds.get(0)), false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Выборка врачей с клиентами не должна читать большие таблицы целиком")
+    void doctorLookups_shouldUseIndexes() {
+        int id = doctorIds.get(doctorIds.size() / 2);
+
+        for (DoctorRepository repository : List.of(multiStepDoctorRepository, subselectDoctorRepository)) {
+            assertThat(sequentialScans(() -> repository.findById(id), false)).isEmpty();
+            assertThat(sequentialScans(() -> repository.findPage(id, PAGE), false)).isEmpty();
+            assertThat(sequentialScans(() -> repository.findVersionStamp(id), false)).isEmpty();
+        }
+        Doctor doctor = multiStepDoctorRepository.findById(id);
+        assertThat(sequentialScans(() -> multiStepDoctorRepository.update(doctor), false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Выборка болезней с клиентами не должна читать большие таблицы целиком")
+    void sickLookups_shouldUseIndexes() {
+        int id = sickIds.get(sickIds.size() / 2);
+
+        assertThat(sequentialScans(() -> sickRepository.findById(id), false)).isEmpty();
+        assertThat(sequentialScans(() -> sickRepository.findPage(id, PAGE), false)).isEmpty();
+        assertThat(sequentialScans(() -> sickRepository.findVersionStamp(id), false)).isEmpty();
+        Sick sick = sickRepository.findById(id);
+        assertThat(sequentialScans(() -> sickRepository.update(sick), false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Чтение таблиц целиком не должно повторять последовательное чтение для каждой строки")
+    void fullReads_shouldScanEachTableOnce() {
+        assertThat(sequentialScans(clientRepository::findAll, true)).isEmpty();
+        assertThat(sequentialScans(clientRepository::findAllProjected, true)).isEmpty();
+        assertThat(sequentialScans(() -> clientRepository.streamAll(1_000, client -> {
+        }), true)).isEmpty();
+        assertThat(sequentialScans(multiStepDoctorRepository::findAll, true)).isEmpty();
+        assertThat(sequentialScans(subselectDoctorRepository::findAll, true)).isEmpty();
+        assertThat(sequentialScans(multiStepDoctorRepository::findAllProjected, true)).isEmpty();
+        assertThat(sequentialScans(sickRepository::findAll, true)).isEmpty();
+    }
+
+    /**
+     * Выполнить действие и вернуть недопустимые последовательные чтения из планов его запросов.
+     * Оператор, повторенный с другими параметрами (например, загрузка связанных сущностей по одной),
+     * проверяется один раз.
+     *
+     * @param action   вызов репозитория.
+     * @param fullRead {@code true}, если метод читает таблицы целиком и однократное последовательное
+     *                 чтение допустимо.
+     * @return описания недопустимых узлов Seq Scan вместе с текстом запроса.
+     */
+    private static List<String> sequentialScans(Runnable action, boolean fullRead) {
+        STATEMENTS.clear();
+        action.run();
+        List<RecordedStatement> statements = new ArrayList<>(STATEMENTS);
+        assertThat(statements).as("запросы не перехвачены").isNotEmpty();
+        Set<String> explained = new HashSet<>();
+        List<String> violations = new ArrayList<>();
+        for (RecordedStatement statement : statements) {
+            if (!explained.add(statement.sql)) {
+                continue;
+            }
+            JsonNode plan = explain(statement).get(0).get("Plan");
+            collectSequentialScans(plan, fullRead, false, statement.sql, violations);
+        }
+        return violations;
+    }
+
+    private static void collectSequentialScans(JsonNode node, boolean fullRead, boolean repeated, String sql,
+                                               List<String> violations) {
+        String relation = node.path("Relation Name").asText(null);
+        if ("Seq Scan".equals(node.get("Node Type").asText()) && largeTables.contains(relation)
+                && (!fullRead || repeated)) {
+            violations.add("Seq Scan on " + relation + (repeated ? " (repeated)" : "") + ": " + sql);
+        }
+        boolean nestedLoop = "Nested Loop".equals(node.get("Node Type").asText());
+        for (JsonNode child : node.path("Plans")) {
+            String relationship = child.path("Parent Relationship").asText();
+            boolean childRepeated = repeated || "SubPlan".equals(relationship)
+                    || nestedLoop && "Inner".equals(relationship);
+            collectSequentialScans(child, fullRead, childRepeated, sql, violations);
+        }
+    }
+
+    /**
+     * Повторить оператор с {@code EXPLAIN (FORMAT JSON)}: параметры устанавливаются теми же вызовами
+     * setXxx, что и при выполнении, поэтому план строится для тех же типов и значений.
+     */
+    private static JsonNode explain(RecordedStatement statement) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql)) {
+            for (ParameterCall call : statement.parameters) {
+                call.method.invoke(explain, call.args);
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return MAPPER.readTree(resultSet.getString(1));
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Не удалось получить план запроса " + statement.sql, e);
+        }
+    }
+
+    /**
+     * Клиенты одного врача вставляются подряд, как при записи к врачу по мере обращения, а болезни
+     * распределяются по клиентам равномерно. При распределении клиентов по врачам по кругу страница
+     * врачей затрагивала бы почти все страницы таблицы client, и последовательное чтение было бы дешевле.
+     */
+    private static void seed() {
+        jdbc.update("INSERT INTO doctor (doctor_id, first_name, last_name, age, specification, version) "
+                + "SELECT nextval('doctor_doctor_id_seq'), 'Doctor' || g, ?, 30 + g % 35, 'Therapist', 0 "
+                + "FROM generate_series(1, ?) g", MARKER, DOCTORS);
+        jdbc.update("INSERT INTO sick (sick_id, sick_name, stage_sick, version) "
+                + "SELECT nextval('sick_sick_id_seq'), 'Sick' || g, ?, 0 FROM generate_series(1, ?) g", MARKER, SICKS);
+        jdbc.update("INSERT INTO client (client_id, first_name, last_name, age, doctor_id, version) "
+                + "SELECT nextval('client_client_id_seq'), 'Client' || g, ?, 18 + g % 70, "
+                + "d.ids[1 + (g - 1) * d.n / ?], 0 FROM generate_series(1, ?) g, "
+                + "(SELECT array_agg(doctor_id ORDER BY doctor_id) ids, count(*)::int n FROM doctor "
+                + "WHERE last_name = ?) d", MARKER, CLIENTS, CLIENTS, MARKER);
+        jdbc.update("INSERT INTO client_sick (client_id, sick_id) "
+                + "SELECT c.client_id, s.ids[1 + (c.rn * " + SICKS_PER_CLIENT + " + k) % s.n] "
+                + "FROM (SELECT client_id, row_number() OVER (ORDER BY client_id)::int rn FROM client "
+                + "WHERE last_name = ?) c, (SELECT array_agg(sick_id ORDER BY sick_id) ids, count(*)::int n "
+                + "FROM sick WHERE stage_sick = ?) s, generate_series(0, ?) k",
+                MARKER, MARKER, SICKS_PER_CLIENT - 1);
+    }
+
+    private static List<Integer> ids(String sql) {
+        return jdbc.queryForList(sql, Integer.class, MARKER);
+    }
+
+    private static final class RecordedStatement {
+        private final String sql;
+        private final List<ParameterCall> parameters;
+
+        private RecordedStatement(String sql, List<ParameterCall> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    private static final class ParameterCall {
+        private final Method method;
+        private final Object[] args;
+
+        private ParameterCall(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+
+    /**
+     * Источник соединений, который запоминает выполненные операторы SELECT, UPDATE и DELETE
+     * вместе с вызовами установки параметров.
+     */
+    private static final class RecordingDataSource extends DelegatingDataSource {
+
+        private RecordingDataSource(DriverManagerDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+
+        private static Connection recording(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (method.getName().equals("prepareStatement") && isExplainable((String) args[0])) {
+                    return recording((PreparedStatement) result, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql) {
+            List<ParameterCall> parameters = new ArrayList<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.add(new ParameterCall(method, args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.equals("executeQuery") || name.equals("executeUpdate") || name.equals("execute")
+                        || name.equals("addBatch")) {
+                    STATEMENTS.add(new RecordedStatement(sql, List.copyOf(parameters)));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static boolean isExplainable(String sql) {
+            String keyword = sql.stripLeading().split("\\s", 2)[0].toLowerCase();
+            return keyword.equals("select") || keyword.equals("update") || keyword.equals("delete")
+                    || keyword.equals("with");
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(QueryPlanTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+}
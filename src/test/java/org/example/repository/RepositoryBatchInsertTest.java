@@ -0,0 +1,106 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Сравнение пакетного и поштучного сохранения")
+class RepositoryBatchInsertTest extends TestContainers {
+
+    private static final int ROWS = 2_000;
+    private static final String LAST_NAME = "BatchInsert";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static ClientRepository clientRepository;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit",
+                Map.of("hibernate.generate_statistics", "true"));
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @AfterEach
+    void deleteInsertedClients() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            entityManager.createQuery("DELETE FROM Client c WHERE c.lastName = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @Test
+    @DisplayName("Должен сохранять список клиентов пакетами быстрее, чем по одному")
+    void saveAll_shouldBeFasterThanSaveOneByOne() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long oneByOneStart = System.nanoTime();
+        for (Client client : newClients("Single")) {
+            clientRepository.save(client);
+        }
+        long oneByOneNanos = System.nanoTime() - oneByOneStart;
+        long oneByOneStatements = statistics.getPrepareStatementCount();
+        long oneByOneTransactions = statistics.getTransactionCount();
+
+        statistics.clear();
+        long batchStart = System.nanoTime();
+        List<Client> saved = clientRepository.saveAll(newClients("Batch"));
+        long batchNanos = System.nanoTime() - batchStart;
+        long batchStatements = statistics.getPrepareStatementCount();
+        long batchTransactions = statistics.getTransactionCount();
+
+        System.out.printf("save x%d: %d ms, %d statements, %d transactions%n", ROWS,
+                TimeUnit.NANOSECONDS.toMillis(oneByOneNanos), oneByOneStatements, oneByOneTransactions);
+        System.out.printf("saveAll(%d): %d ms, %d statements, %d transactions%n", ROWS,
+                TimeUnit.NANOSECONDS.toMillis(batchNanos), batchStatements, batchTransactions);
+
+        assertThat(saved).extracting(Client::getId).doesNotContain(0).doesNotHaveDuplicates();
+        assertThat(countClients()).isEqualTo(2L * ROWS);
+        assertThat(batchTransactions).isEqualTo(1);
+        assertThat(oneByOneTransactions).isEqualTo(ROWS);
+        assertThat(batchStatements).isLessThan(ROWS / 10);
+        assertThat(batchNanos).isLessThan(oneByOneNanos);
+    }
+
+    private static List<Client> newClients(String firstName) {
+        List<Client> clients = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            clients.add(new Client(firstName + i, LAST_NAME, 20 + i % 60));
+        }
+        return clients;
+    }
+
+    private static long countClients() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery("SELECT count(c) FROM Client c WHERE c.lastName = :lastName", Long.class)
+                    .setParameter("lastName", LAST_NAME)
+                    .getSingleResult();
+        }
+    }
+}
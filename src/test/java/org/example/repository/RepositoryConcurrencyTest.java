@@ -0,0 +1,97 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Тестирование репозиториев при конкурентном доступе")
+class RepositoryConcurrencyTest extends TestContainers {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 25;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static ClientRepository clientRepository;
+    private static DoctorRepository doctorRepository;
+    private static SickRepository sickRepository;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        doctorRepository = new DoctorRepository(entityManagerFactory);
+        sickRepository = new SickRepository(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Должен выполнять CRUD-операции всех репозиториев из многих потоков одновременно")
+    void crud_shouldBeSafeUnderConcurrentAccess() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int threadId = thread;
+            Callable<Integer> task = () -> {
+                start.await();
+                int completed = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    String suffix = threadId + "-" + i;
+
+                    Client client = clientRepository.save(new Client("Name-" + suffix, "Client", 30));
+                    assertThat(clientRepository.findById(client.getId())).isNotNull();
+                    client.setAge(31);
+                    clientRepository.update(client);
+                    assertThat(clientRepository.findById(client.getId()).getAge()).isEqualTo(31);
+                    assertThat(clientRepository.delete(client.getId())).isTrue();
+
+                    Doctor doctor = doctorRepository.save(new Doctor("Name-" + suffix, "Doctor", 40, "Therapist"));
+                    assertThat(doctorRepository.findById(doctor.getId())).isNotNull();
+                    assertThat(doctorRepository.delete(doctor.getId())).isTrue();
+
+                    Sick sick = sickRepository.save(new Sick("Sick-" + suffix, "First"));
+                    assertThat(sickRepository.findById(sick.getId())).isNotNull();
+                    assertThat(sickRepository.delete(sick.getId())).isTrue();
+                    completed++;
+                }
+                return completed;
+            };
+            futures.add(executor.submit(task));
+        }
+
+        start.countDown();
+        int completed = 0;
+        for (Future<Integer> future : futures) {
+            completed += future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(completed).isEqualTo(THREADS * ITERATIONS);
+        assertThat(clientRepository.findAll())
+                .noneMatch(client -> client.getFirstName().startsWith("Name-"));
+    }
+}
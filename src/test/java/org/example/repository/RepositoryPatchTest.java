@@ -0,0 +1,97 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.example.entity.Sick;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@DisplayName("Тестирование частичного обновления репозиториев")
+class RepositoryPatchTest extends TestContainers {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static ClientRepository clientRepository;
+    private static SickRepository sickRepository;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit",
+                Map.of("hibernate.generate_statistics", "true"));
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        sickRepository = new SickRepository(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Должен изменить только переданные поля одной командой и вернуть новую версию")
+    void patch_shouldUpdateColumnsInOneStatement() {
+        Client client = clientRepository.save(new Client("Patch", "Before", 30));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long savedVersion = client.getVersion();
+
+        statistics.clear();
+        Long version = clientRepository.patch(client.getId(), Map.of("age", 31), savedVersion);
+        long patchStatements = statistics.getPrepareStatementCount();
+
+        client.setAge(32);
+        statistics.clear();
+        clientRepository.update(client);
+        long updateStatements = statistics.getPrepareStatementCount();
+
+        assertThat(version).isEqualTo(savedVersion + 1);
+        assertThat(patchStatements).isEqualTo(1);
+        assertThat(updateStatements).isGreaterThan(patchStatements);
+        Client patched = clientRepository.findById(client.getId());
+        assertThat(patched.getLastName()).isEqualTo("Before");
+        assertThat(patched.getVersion()).isEqualTo(version + 1);
+        assertThat(clientRepository.delete(client.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен различать отсутствующую сущность и устаревшую версию")
+    void patch_shouldDistinguishMissingEntityAndStaleVersion() {
+        Client client = clientRepository.save(new Client("Patch", "Version", 30));
+
+        assertThatThrownBy(() -> clientRepository.patch(client.getId(), Map.of("firstName", "Stale"), 5L))
+                .isInstanceOf(OptimisticLockException.class);
+        assertThat(clientRepository.patch(Integer.MAX_VALUE, Map.of("firstName", "Missing"), null)).isNull();
+        assertThat(clientRepository.patch(client.getId(), Map.of("firstName", "Fresh"), null)).isEqualTo(1L);
+        assertThatThrownBy(() -> clientRepository.patch(client.getId(), Map.of("version", 0L), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(clientRepository.findById(client.getId()).getFirstName()).isEqualTo("Fresh");
+        assertThat(clientRepository.delete(client.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен удалять болезнь из кэша второго уровня после частичного обновления")
+    void patch_shouldEvictSickFromSecondLevelCache() {
+        Sick sick = sickRepository.save(new Sick("Patch", "First"));
+        assertThat(sickRepository.findById(sick.getId()).getStageSick()).isEqualTo("First");
+
+        sickRepository.patch(sick.getId(), Map.of("stageSick", "Second"), sick.getVersion());
+
+        Sick patched = sickRepository.findById(sick.getId());
+        assertThat(patched.getStageSick()).isEqualTo("Second");
+        assertThat(patched.getVersion()).isEqualTo(sick.getVersion() + 1);
+        assertThat(sickRepository.delete(sick.getId())).isTrue();
+    }
+}
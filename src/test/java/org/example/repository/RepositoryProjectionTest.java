@@ -0,0 +1,167 @@
+package org.example.repository;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.service.dto.ClientDTO;
+import org.example.service.dto.DoctorDTO;
+import org.example.service.mapper.ClientMapper;
+import org.example.service.mapper.DoctorMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Сравнение проекций в DTO и загрузки сущностей для списков")
+class RepositoryProjectionTest extends TestContainers {
+
+    private static final int DOCTORS = 20;
+    private static final int CLIENTS_PER_DOCTOR = 50;
+    private static final int SICKS = 30;
+    private static final int SICKS_PER_CLIENT = 3;
+    private static final int ROUNDS = 5;
+    private static final String LAST_NAME = "Projection";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static ClientRepository clientRepository;
+    private static DoctorRepository doctorRepository;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        doctorRepository = new DoctorRepository(entityManagerFactory);
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            List<Sick> sicks = new ArrayList<>(SICKS);
+            for (int i = 0; i < SICKS; i++) {
+                Sick sick = new Sick("Sick" + i, LAST_NAME);
+                entityManager.persist(sick);
+                sicks.add(sick);
+            }
+            for (int d = 0; d < DOCTORS; d++) {
+                Doctor doctor = new Doctor("Doctor" + d, LAST_NAME, 40, "Therapist");
+                entityManager.persist(doctor);
+                for (int c = 0; c < CLIENTS_PER_DOCTOR; c++) {
+                    Client client = new Client("Client" + c, LAST_NAME, 30);
+                    client.setDoctor(doctor);
+                    Set<Sick> clientSicks = new HashSet<>();
+                    for (int s = 0; s < SICKS_PER_CLIENT; s++) {
+                        clientSicks.add(sicks.get((d * CLIENTS_PER_DOCTOR + c + s) % SICKS));
+                    }
+                    client.setSicks(clientSicks);
+                    entityManager.persist(client);
+                }
+            }
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @AfterAll
+    static void deleteSeededRows() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            entityManager.createNativeQuery("DELETE FROM client_sick WHERE client_id IN "
+                            + "(SELECT client_id FROM client WHERE last_name = :lastName)")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Client c WHERE c.lastName = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Doctor d WHERE d.lastName = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Sick s WHERE s.stageSick = :lastName")
+                    .setParameter("lastName", LAST_NAME)
+                    .executeUpdate();
+            entityManager.getTransaction().commit();
+        }
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Должен читать клиентов в DTO с меньшим объемом выделенной памяти, чем через сущности")
+    void findAllProjected_shouldAllocateLessThanEntityMapping() {
+        Measurement entities = measure("clients via entities", () -> {
+            List<ClientDTO> clientDTOS = new ArrayList<>();
+            for (Client client : clientRepository.findAll()) {
+                ClientDTO clientDTO = ClientMapper.INSTANCE.clientToClientDTO(client);
+                clientDTO.setSicks(client.getSicks());
+                clientDTOS.add(clientDTO);
+            }
+            return clientDTOS;
+        });
+        Measurement projection = measure("clients via projection", clientRepository::findAllProjected);
+
+        assertThat(projection.size).isEqualTo(entities.size);
+        assertThat(projection.allocatedBytes).isLessThan(entities.allocatedBytes);
+    }
+
+    @Test
+    @DisplayName("Должен читать врачей с клиентами в DTO с меньшим объемом выделенной памяти, чем через сущности")
+    void findAllProjected_shouldAllocateLessThanDoctorEntityMapping() {
+        Measurement entities = measure("doctors via entities", () -> {
+            List<DoctorDTO> doctorDTOS = new ArrayList<>();
+            for (Doctor doctor : doctorRepository.findAll()) {
+                DoctorDTO doctorDTO = DoctorMapper.INSTANCE.toDoctorDTO(doctor);
+                doctorDTO.setClients(doctor.getClients());
+                doctorDTOS.add(doctorDTO);
+            }
+            return doctorDTOS;
+        });
+        Measurement projection = measure("doctors via projection", doctorRepository::findAllProjected);
+
+        assertThat(projection.size).isEqualTo(entities.size);
+        assertThat(projection.allocatedBytes).isLessThan(entities.allocatedBytes);
+    }
+
+    /**
+     * Выполняет чтение несколько раз после прогрева и возвращает медианные
+     * объем выделенной текущим потоком памяти и время выполнения.
+     */
+    private static Measurement measure(String name, Supplier<List<?>> read) {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int size = read.get().size();
+        long[] allocated = new long[ROUNDS];
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            read.get();
+            nanos[i] = System.nanoTime() - start;
+            allocated[i] = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        Measurement measurement = new Measurement(size, median(allocated), median(nanos));
+        System.out.printf("%s: %d rows, %d KiB allocated, %.1f ms%n", name, measurement.size,
+                measurement.allocatedBytes / 1024, measurement.nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        return measurement;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Measurement(int size, long allocatedBytes, long nanos) {
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Тестирование кэша второго уровня для болезней")
+class SickRepositoryCacheTest extends TestContainers {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static SickRepository sickRepository;
+    private static ClientRepository clientRepository;
+    private static DoctorRepository doctorRepository;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit", Map.of(
+                "jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE",
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.use_query_cache", "true",
+                "hibernate.cache.region.factory_class", "jcache",
+                "hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider",
+                "hibernate.javax.cache.uri", "ehcache.xml",
+                "hibernate.javax.cache.missing_cache_strategy", "fail",
+                "hibernate.generate_statistics", "true"));
+        sickRepository = new SickRepository(entityManagerFactory);
+        clientRepository = new ClientRepository(entityManagerFactory, (before, after) -> {
+        });
+        doctorRepository = new DoctorRepository(entityManagerFactory);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Должен отдавать болезнь из кэша без запроса к базе данных")
+    void findById_shouldHitCacheOnSecondCall() {
+        Sick sick = sickRepository.save(new Sick("Cached", "First"));
+
+        sickRepository.findById(sick.getId());
+        long statementsAfterFirstCall = statistics.getPrepareStatementCount();
+        Sick cached = sickRepository.findById(sick.getId());
+
+        assertThat(cached.getSickName()).isEqualTo("Cached");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstCall);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        sickRepository.delete(sick.getId());
+    }
+
+    @Test
+    @DisplayName("Должен сбрасывать закэшированный результат после обновления болезни")
+    void update_shouldInvalidateCachedQuery() {
+        Sick sick = sickRepository.save(new Sick("Before", "First"));
+        sickRepository.findById(sick.getId());
+
+        sick.setSickName("After");
+        sickRepository.update(sick);
+
+        assertThat(sickRepository.findById(sick.getId()).getSickName()).isEqualTo("After");
+        assertThat(sickRepository.findAll()).extracting(Sick::getSickName).contains("After").doesNotContain("Before");
+
+        sickRepository.delete(sick.getId());
+        assertThat(sickRepository.findById(sick.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("Частичное обновление должно сбрасывать только результаты запросов по измененной таблице")
+    void patch_shouldInvalidateQueriesOfPatchedTableOnly() {
+        Sick sick = sickRepository.save(new Sick("Patched", "First"));
+        Doctor doctor = doctorRepository.save(new Doctor("Cache", "Doctor", 50, "Therapist"));
+        sickRepository.findById(sick.getId());
+
+        doctorRepository.patch(doctor.getId(), Map.of("age", 51), null);
+        statistics.clear();
+        sickRepository.findById(sick.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        sickRepository.patch(sick.getId(), Map.of("stageSick", "Second"), null);
+        statistics.clear();
+        assertThat(sickRepository.findById(sick.getId()).getStageSick()).isEqualTo("Second");
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+
+        sickRepository.delete(sick.getId());
+        doctorRepository.delete(doctor.getId());
+    }
+
+    @Test
+    @DisplayName("Групповое изменение связей должно сбрасывать закэшированные запросы по связям")
+    void bulkAddSicks_shouldInvalidateCachedQuery() {
+        Sick sick = sickRepository.save(new Sick("Bulk", "First"));
+        Client client = clientRepository.save(new Client("Bulk", "Client", 40));
+        assertThat(sickRepository.findById(sick.getId()).getClients()).isEmpty();
+
+        new BulkRepository(entityManagerFactory).addSicks(client.getId(), List.of(sick.getId()));
+        statistics.clear();
+
+        assertThat(sickRepository.findById(sick.getId()).getClients()).extracting(Client::getId)
+                .containsExactly(client.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+
+        new BulkRepository(entityManagerFactory).deleteSick(sick.getId());
+        clientRepository.delete(client.getId());
+    }
+
+    @Test
+    @DisplayName("Должен загружать болезни клиента из кэша коллекций")
+    void clientFindById_shouldLoadSicksFromCache() {
+        Sick sick = sickRepository.save(new Sick("Linked", "First"));
+        Client client = new Client("Cache", "Client", 40);
+        client.setSicks(new HashSet<>(Set.of(sick)));
+        clientRepository.save(client);
+
+        clientRepository.findById(client.getId());
+        statistics.clear();
+        Client found = clientRepository.findById(client.getId());
+
+        assertThat(found.getSicks()).extracting(Sick::getSickName).containsExactly("Linked");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+
+        clientRepository.delete(client.getId());
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            entityManager.remove(entityManager.find(Sick.class, sick.getId()));
+            entityManager.getTransaction().commit();
+        }
+    }
+}
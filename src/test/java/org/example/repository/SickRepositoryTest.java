@@ -27,7 +27,7 @@ class SickRepositoryTest extends TestContainers {
     @BeforeEach
     void setUp() {
         entityManager = entityManagerFactory.createEntityManager();
-        sickRepository = new SickRepository(entityManager);
+        sickRepository = new SickRepository(entityManagerFactory);
     }
 
     @AfterEach
@@ -58,7 +58,7 @@ class SickRepositoryTest extends TestContainers {
         entityManager.persist(SICK_1);
         entityManager.getTransaction().commit();
 
-        Sick foundSick = sickRepository.findById(1);
+        Sick foundSick = sickRepository.findById(SICK_1.getId());
 
         assertThat(foundSick).isNotNull();
         assertThat(foundSick.getSickName()).isEqualTo("Flu");
@@ -85,7 +85,7 @@ class SickRepositoryTest extends TestContainers {
         assertThat(updatedSick).isNotNull();
         assertThat(updatedSick.getSickName()).isEqualTo("Severe Flu");
 
-        Sick foundSick = entityManager.find(Sick.class, 1);
+        Sick foundSick = entityManager.find(Sick.class, SICK_1.getId());
         assertThat(foundSick.getSickName()).isEqualTo("Flu");
     }
 
@@ -106,11 +106,31 @@ class SickRepositoryTest extends TestContainers {
         entityManager.persist(DELETE_SICK);
         entityManager.getTransaction().commit();
 
-        boolean deleted = sickRepository.delete(1);
+        boolean deleted = sickRepository.delete(SICK_1.getId());
 
         assertThat(deleted).isTrue();
 
-        Sick foundSick = entityManager.find(Sick.class, 1);
+        entityManager.clear();
+        Sick foundSick = entityManager.find(Sick.class, SICK_1.getId());
         assertThat(foundSick).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Должен вернуть страницу болезней, упорядоченных по идентификатору")
+    void findPage_shouldReturnSicksOrderedById() {
+        entityManager.getTransaction().begin();
+        Sick first = new Sick("Page", "First");
+        Sick second = new Sick("Page", "Second");
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.getTransaction().commit();
+
+        List<Sick> page = sickRepository.findPage(first.getId() - 1, 2);
+
+        assertThat(page).extracting(Sick::getId).containsExactly(first.getId(), second.getId());
+        assertThat(sickRepository.findPage(second.getId(), 10)).isEmpty();
+
+        sickRepository.delete(first.getId());
+        sickRepository.delete(second.getId());
+    }
+}
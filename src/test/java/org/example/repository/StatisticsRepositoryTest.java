@@ -0,0 +1,168 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import liquibase.integration.spring.SpringLiquibase;
+import org.example.service.dto.AgeBandDTO;
+import org.example.service.dto.DoctorCaseloadDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.SickAgeBandsDTO;
+import org.example.service.dto.SickPrevalenceDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Testcontainers
+@DisplayName("Тестирование StatisticsRepository")
+class StatisticsRepositoryTest extends TestContainers {
+
+    private static final String MARKER = "Statistics";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static StatisticsRepository statisticsRepository;
+    private static JdbcTemplate jdbc;
+
+    private int busyDoctorId;
+    private int idleDoctorId;
+    private int fluId;
+    private int rareId;
+
+    /**
+     * Таблицы тестовой базы создает Hibernate, поэтому материализованные представления
+     * создаются changeSet'ами v.1.2 так же, как при запуске приложения.
+     */
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test-persistence-unit");
+        statisticsRepository = new StatisticsRepository(entityManagerFactory);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("jakarta.persistence.jdbc.url"),
+                System.getProperty("jakarta.persistence.jdbc.user"),
+                System.getProperty("jakarta.persistence.jdbc.password"));
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setChangeLog("classpath:db/changelog/v.1.2.hospital/v.1.2.accumulate-changelog.xml");
+        liquibase.afterPropertiesSet();
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void insertRows() {
+        busyDoctorId = insertDoctor("Busy");
+        idleDoctorId = insertDoctor("Idle");
+        fluId = insertSick("Flu");
+        rareId = insertSick("Rare");
+        int young = insertClient("Young", 25, busyDoctorId);
+        insertClient("Middle", 35, busyDoctorId);
+        int old = insertClient("Old", 95, busyDoctorId);
+        jdbc.update("INSERT INTO client_sick (client_id, sick_id) VALUES (?, ?), (?, ?)", young, fluId, old, fluId);
+        statisticsRepository.refresh();
+    }
+
+    @AfterEach
+    void deleteRows() {
+        jdbc.update("DELETE FROM client_sick WHERE client_id IN (SELECT client_id FROM client WHERE last_name = ?)",
+                MARKER);
+        jdbc.update("DELETE FROM client WHERE last_name = ?", MARKER);
+        jdbc.update("DELETE FROM sick WHERE stage_sick = ?", MARKER);
+        jdbc.update("DELETE FROM doctor WHERE last_name = ?", MARKER);
+    }
+
+    @Test
+    @DisplayName("Должен считать клиентов врача и их средний возраст")
+    void findDoctorCaseload_shouldCountClientsPerDoctor() {
+        assertThat(statisticsRepository.findDoctorCaseload(PageDTO.MAX_LIMIT))
+                .filteredOn(doctor -> doctor.getDoctorId() == busyDoctorId || doctor.getDoctorId() == idleDoctorId)
+                .extracting(DoctorCaseloadDTO::getFirstName, DoctorCaseloadDTO::getClients,
+                        DoctorCaseloadDTO::getAverageAge)
+                .containsExactly(tuple("Busy", 3L, 51.7), tuple("Idle", 0L, 0.0));
+    }
+
+    @Test
+    @DisplayName("Должен считать клиентов с болезнью и их долю среди всех клиентов")
+    void findSickPrevalence_shouldCountClientsPerSick() {
+        long allClients = jdbc.queryForObject("SELECT count(*) FROM client", Long.class);
+
+        assertThat(statisticsRepository.findSickPrevalence(PageDTO.MAX_LIMIT))
+                .filteredOn(sick -> sick.getSickId() == fluId || sick.getSickId() == rareId)
+                .extracting(SickPrevalenceDTO::getSickName, SickPrevalenceDTO::getClients, SickPrevalenceDTO::getShare)
+                .containsExactly(tuple("Flu", 2L, 2.0 / allClients), tuple("Rare", 0L, 0.0));
+    }
+
+    @Test
+    @DisplayName("Должен распределять клиентов с болезнью по возрастным группам")
+    void findAgeBands_shouldGroupClientsByDecade() {
+        SickAgeBandsDTO flu = statisticsRepository.findAgeBands(fluId);
+
+        assertThat(flu.getSickName()).isEqualTo("Flu");
+        assertThat(flu.getClients()).isEqualTo(2);
+        assertThat(flu.getBands()).extracting(AgeBandDTO::getAgeFrom, AgeBandDTO::getAgeTo, AgeBandDTO::getClients)
+                .containsExactly(tuple(20, 29, 1L), tuple(90, null, 1L));
+        assertThat(statisticsRepository.findAgeBands(rareId).getBands()).isEmpty();
+        assertThat(statisticsRepository.findAgeBands(Integer.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Изменения таблиц должны попадать в статистику только после обновления")
+    void refresh_shouldPublishChanges() {
+        insertClient("Late", 40, idleDoctorId);
+
+        assertThat(caseload(idleDoctorId)).isZero();
+        statisticsRepository.refresh();
+        assertThat(caseload(idleDoctorId)).isEqualTo(1);
+        assertThat(statisticsRepository.findAgeBands(insertSick("New"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Должен считать клиентов болезней и врачей по таблицам")
+    void countClients_shouldCountLinksWithoutRefresh() {
+        insertClient("Late", 40, idleDoctorId);
+
+        assertThat(statisticsRepository.countClientsBySick())
+                .containsEntry(fluId, 2L)
+                .doesNotContainKey(rareId);
+        assertThat(statisticsRepository.countClientsByDoctor())
+                .containsEntry(busyDoctorId, 3L)
+                .containsEntry(idleDoctorId, 1L);
+    }
+
+    private static long caseload(int doctorId) {
+        return statisticsRepository.findDoctorCaseload(PageDTO.MAX_LIMIT).stream()
+                .filter(doctor -> doctor.getDoctorId() == doctorId)
+                .findFirst().orElseThrow()
+                .getClients();
+    }
+
+    private static int insertDoctor(String firstName) {
+        return jdbc.queryForObject("INSERT INTO doctor (doctor_id, first_name, last_name, age, specification, version) "
+                + "VALUES (nextval('doctor_doctor_id_seq'), ?, ?, 40, 'Therapist', 0) RETURNING doctor_id",
+                Integer.class, firstName, MARKER);
+    }
+
+    private static int insertSick(String sickName) {
+        return jdbc.queryForObject("INSERT INTO sick (sick_id, sick_name, stage_sick, version) "
+                + "VALUES (nextval('sick_sick_id_seq'), ?, ?, 0) RETURNING sick_id", Integer.class, sickName, MARKER);
+    }
+
+    private static int insertClient(String firstName, int age, int doctorId) {
+        return jdbc.queryForObject("INSERT INTO client (client_id, first_name, last_name, age, doctor_id, version) "
+                + "VALUES (nextval('client_client_id_seq'), ?, ?, ?, ?, 0) RETURNING client_id",
+                Integer.class, firstName, MARKER, age, doctorId);
+    }
+}
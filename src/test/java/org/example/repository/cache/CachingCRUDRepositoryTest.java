@@ -0,0 +1,133 @@
+package org.example.repository.cache;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.repository.CRUDRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование CachingCRUDRepository")
+class CachingCRUDRepositoryTest {
+
+    @Mock
+    private CRUDRepository<Client> delegate;
+
+    private EntityCache<Client> clientCache;
+    private EntityCache<Doctor> doctorCache;
+    private CachingCRUDRepository<Client> repository;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        clientCache = new EntityCache<>("clients", Client.class, 100, Duration.ofMinutes(1), EntityGraphs::references);
+        doctorCache = new EntityCache<>("doctors", Doctor.class, 100, Duration.ofMinutes(1), EntityGraphs::references);
+        repository = new CachingCRUDRepository<>(delegate, clientCache, Client::getId, EntityGraphs::copy,
+                List.of(doctorCache));
+        client = new Client(1, "John", "Doe", 25, null, Set.of(), 0);
+    }
+
+    @Test
+    @DisplayName("Должен обращаться к репозиторию только при первом поиске по идентификатору")
+    void findById_shouldReadThroughOnce() {
+        when(delegate.findById(1)).thenReturn(client);
+
+        assertThat(repository.findById(1)).isSameAs(client);
+        assertThat(repository.findById(1).getFirstName()).isEqualTo("John");
+
+        verify(delegate, times(1)).findById(1);
+        assertThat(clientCache.snapshot().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Не должен кэшировать отсутствующую сущность")
+    void findById_shouldNotCacheMissingEntity() {
+        when(delegate.findById(2)).thenReturn(null);
+
+        assertThat(repository.findById(2)).isNull();
+        assertThat(repository.findById(2)).isNull();
+
+        verify(delegate, times(2)).findById(2);
+    }
+
+    @Test
+    @DisplayName("Должен возвращать копию, изменение которой не затрагивает кэш")
+    void findById_shouldReturnIndependentCopies() {
+        when(delegate.findById(1)).thenReturn(client);
+        repository.findById(1);
+
+        Client first = repository.findById(1);
+        first.setFirstName("Changed");
+        client.setFirstName("Mutated");
+
+        assertThat(repository.findById(1)).isNotSameAs(first).extracting(Client::getFirstName).isEqualTo("John");
+    }
+
+    @Test
+    @DisplayName("Должен удалять из зависимого кэша только записи, связанные с клиентом до и после обновления")
+    void update_shouldInvalidateEntryAndReferencingDependents() {
+        when(delegate.findById(1)).thenReturn(client);
+        when(delegate.update(client)).thenReturn(client);
+        repository.findById(1);
+        doctorCache.put(7, doctorWith(7, client), doctorCache.stamp());
+        doctorCache.put(8, doctorWith(8), doctorCache.stamp());
+        doctorCache.put(9, doctorWith(9), doctorCache.stamp());
+        client.setDoctor(doctorWith(8));
+
+        repository.update(client);
+        repository.findById(1);
+
+        verify(delegate, times(2)).findById(1);
+        assertThat(doctorCache.get(7)).isNull();
+        assertThat(doctorCache.get(8)).isNull();
+        assertThat(doctorCache.get(9)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Должен удалять сущность из кэша и записи зависимых кэшей, содержащие ее, при частичном обновлении")
+    void patch_shouldInvalidateEntryAndReferencingDependents() {
+        when(delegate.findById(1)).thenReturn(client);
+        when(delegate.patch(1, Map.of("age", 26), null)).thenReturn(1L);
+        repository.findById(1);
+        doctorCache.put(7, doctorWith(7, client), doctorCache.stamp());
+        doctorCache.put(8, doctorWith(8), doctorCache.stamp());
+
+        assertThat(repository.patch(1, Map.of("age", 26), null)).isEqualTo(1L);
+        repository.findById(1);
+
+        verify(delegate, times(2)).findById(1);
+        assertThat(doctorCache.size()).isEqualTo(1);
+        assertThat(doctorCache.get(8)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Должен удалять сущность из кэша при удалении")
+    void delete_shouldInvalidateEntry() {
+        when(delegate.findById(1)).thenReturn(client);
+        when(delegate.delete(1)).thenReturn(true);
+        repository.findById(1);
+
+        assertThat(repository.delete(1)).isTrue();
+
+        assertThat(clientCache.size()).isZero();
+    }
+
+    private static Doctor doctorWith(int id, Client... clients) {
+        Doctor doctor = new Doctor("Doctor", "Cached", 50, "Therapist");
+        doctor.setId(id);
+        doctor.setClients(List.of(clients));
+        return doctor;
+    }
+}
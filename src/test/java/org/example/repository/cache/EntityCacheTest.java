@@ -0,0 +1,116 @@
+package org.example.repository.cache;
+
+import org.example.service.dto.EntityCacheStatsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование EntityCache")
+class EntityCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Должен вытеснять давно не использованную запись при превышении размера")
+    void put_shouldEvictLeastRecentlyUsedEntry() {
+        EntityCache<String> cache = cache(2, Duration.ofMinutes(1));
+        cache.put(1, "one", cache.stamp());
+        cache.put(2, "two", cache.stamp());
+        cache.get(1);
+        cache.put(3, "three", cache.stamp());
+
+        assertThat(cache.get(1)).isEqualTo("one");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("three");
+        assertThat(cache.snapshot().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Должен удалять запись по истечении времени жизни")
+    void get_shouldExpireEntryAfterTtl() {
+        EntityCache<String> cache = cache(10, Duration.ofSeconds(30));
+        cache.put(1, "one", cache.stamp());
+
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(cache.get(1)).isEqualTo("one");
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(1)).isNull();
+
+        EntityCacheStatsDTO stats = cache.snapshot();
+        assertThat(stats.getExpirations()).isEqualTo(1);
+        assertThat(stats.getSize()).isZero();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Не должен сохранять значение, загруженное до инвалидации")
+    void put_shouldRejectValueLoadedBeforeInvalidation() {
+        EntityCache<String> cache = cache(10, Duration.ofMinutes(1));
+        long stamp = cache.stamp();
+        cache.invalidate(1);
+
+        assertThat(cache.put(1, "stale", stamp)).isFalse();
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.put(1, "fresh", cache.stamp())).isTrue();
+        assertThat(cache.get(1)).isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("Инвалидация другой сущности не должна отбрасывать загрузку")
+    void put_shouldAcceptValueWhenOtherEntityInvalidated() {
+        EntityCache<String> cache = cache(10, Duration.ofMinutes(1));
+        long stamp = cache.stamp();
+        cache.invalidate(2);
+        cache.invalidate(new EntityReference(Integer.class, 2));
+
+        assertThat(cache.put(1, "one:1", stamp)).isTrue();
+        assertThat(cache.get(1)).isEqualTo("one:1");
+    }
+
+    @Test
+    @DisplayName("Должен удалять только записи, граф которых содержит измененную сущность")
+    void invalidate_shouldRemoveReferencingEntriesOnly() {
+        EntityCache<String> cache = cache(10, Duration.ofMinutes(1));
+        cache.put(1, "one:7", cache.stamp());
+        cache.put(2, "two:8", cache.stamp());
+        long stamp = cache.stamp();
+
+        cache.invalidate(new EntityReference(Integer.class, 7));
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isEqualTo("two:8");
+        assertThat(cache.put(3, "three:7", stamp)).isFalse();
+        assertThat(cache.put(3, "three:8", stamp)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен отбрасывать загрузки, начатые до вытесненной отметки инвалидации")
+    void put_shouldRejectValueLoadedBeforeForgottenInvalidation() {
+        EntityCache<String> cache = cache(2, Duration.ofMinutes(1));
+        long stamp = cache.stamp();
+        cache.invalidate(1);
+        cache.invalidate(2);
+        cache.invalidate(3);
+
+        assertThat(cache.put(4, "four", stamp)).isFalse();
+        assertThat(cache.put(4, "four", cache.stamp())).isTrue();
+    }
+
+    /**
+     * Кэш строк вида {@code "значение:id"}: число после двоеточия — ссылка на связанную сущность.
+     */
+    private EntityCache<String> cache(int maxSize, Duration ttl) {
+        return new EntityCache<>("test", String.class, maxSize, ttl, value -> {
+            int separator = value.indexOf(':');
+            return separator < 0 ? Set.of()
+                    : Set.of(new EntityReference(Integer.class, Integer.parseInt(value.substring(separator + 1))));
+        }, clock::get);
+    }
+}
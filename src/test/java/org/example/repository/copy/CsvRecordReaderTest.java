@@ -0,0 +1,58 @@
+package org.example.repository.copy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование CsvRecordReader")
+class CsvRecordReaderTest {
+
+    @Test
+    @DisplayName("Должен разбирать значения в кавычках с запятыми и удвоенными кавычками")
+    void parse_shouldHandleQuotedFields() {
+        assertThat(CsvRecordReader.parse("\"Анна, Мария\",,\"Хирург \"\"высшей\"\" категории\",\"\""))
+                .containsExactly("Анна, Мария", "", "Хирург \"высшей\" категории", "");
+        assertThat(CsvRecordReader.parse("a,b,")).containsExactly("a", "b", "");
+    }
+
+    @Test
+    @DisplayName("Должен отклонять строку с незакрытой кавычкой или символами после кавычки")
+    void parse_shouldRejectMalformedQuotes() {
+        assertThatThrownBy(() -> CsvRecordReader.parse("\"Анна,Иванова"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CsvRecordReader.parse("\"Анна\"x,Иванова"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Должен считать номера строк файла и строк данных, пропуская пустые строки")
+    void next_shouldTrackLineAndRowNumbers() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\uFEFFSick_Name, stage_sick\nГрипп,Средняя\n\nАнгина\nКорь,Легкая\n"), CsvLayout.SICKS);
+
+        assertThat(reader.next()).containsExactly("Грипп", "Средняя");
+        assertThat(reader.getLine()).isEqualTo(2);
+        assertThat(reader.getRow()).isEqualTo(1);
+        assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class);
+        assertThat(reader.getLine()).isEqualTo(4);
+        assertThat(reader.getRow()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("Корь", "Легкая");
+        assertThat(reader.getRow()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("Должен выбрасывать CsvFormatException, если заголовок не совпадает с форматом")
+    void constructor_shouldRejectWrongHeader() {
+        assertThatThrownBy(() -> new CsvRecordReader(new StringReader("client_id;sick_id\n1;1\n"), CsvLayout.LINKS))
+                .isInstanceOf(CsvFormatException.class)
+                .hasMessageContaining("client_id,sick_id");
+        assertThatThrownBy(() -> new CsvRecordReader(new StringReader(""), CsvLayout.LINKS))
+                .isInstanceOf(CsvFormatException.class);
+    }
+}
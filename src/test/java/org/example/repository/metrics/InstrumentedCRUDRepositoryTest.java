@@ -0,0 +1,77 @@
+package org.example.repository.metrics;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.example.entity.Client;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.OperationMetrics;
+import org.example.repository.CRUDRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование InstrumentedCRUDRepository")
+class InstrumentedCRUDRepositoryTest {
+
+    @Mock
+    private CRUDRepository<Client> delegate;
+
+    private MetricsRegistry metricsRegistry;
+    private InstrumentedCRUDRepository<Client> repository;
+
+    @BeforeEach
+    void setUp() {
+        metricsRegistry = new MetricsRegistry();
+        repository = new InstrumentedCRUDRepository<>(delegate, "clients", metricsRegistry);
+    }
+
+    @Test
+    @DisplayName("Должен записывать время выполнения операции и возвращать результат репозитория")
+    void findById_shouldRecordLatency() {
+        Client client = new Client(1, "John", "Doe", 25, null, Set.of(), 0);
+        when(delegate.findById(1)).thenReturn(client);
+
+        assertThat(repository.findById(1)).isSameAs(client);
+
+        OperationMetrics metrics = metricsRegistry.repositoryOperation("clients", "findById");
+        assertThat(metrics.getLatency().count()).isEqualTo(1);
+        assertThat(metrics.getErrors()).isZero();
+        assertThat(metrics.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен учитывать ошибку и пробрасывать исключение репозитория")
+    void save_shouldCountErrors() {
+        Client client = new Client("John", "Doe", 25);
+        when(delegate.save(client)).thenThrow(new EntityNotFoundException("error"));
+
+        assertThatThrownBy(() -> repository.save(client)).isInstanceOf(EntityNotFoundException.class);
+
+        OperationMetrics metrics = metricsRegistry.repositoryOperation("clients", "save");
+        assertThat(metrics.getLatency().count()).isEqualTo(1);
+        assertThat(metrics.getErrors()).isEqualTo(1);
+        assertThat(metrics.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен учитывать обе версии update как одну операцию")
+    void update_shouldShareMetricsForBothOverloads() {
+        Client client = new Client(1, "John", "Doe", 25, null, Set.of(), 0);
+        when(delegate.update(client)).thenReturn(client);
+        when(delegate.update(client, 3)).thenReturn(client);
+
+        repository.update(client);
+        repository.update(client, 3);
+
+        assertThat(metricsRegistry.repositoryOperation("clients", "update").getLatency().count()).isEqualTo(2);
+    }
+}
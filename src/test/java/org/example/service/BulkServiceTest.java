@@ -0,0 +1,149 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.repository.BulkChange;
+import org.example.repository.BulkRepository;
+import org.example.repository.cache.EntityCache;
+import org.example.repository.cache.EntityReference;
+import org.example.service.counter.CaseloadCounters;
+import org.example.service.dto.BulkResultDTO;
+import org.example.service.dto.SickDeleteResultDTO;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование BulkService")
+@SuppressWarnings({"rawtypes", "unchecked"})
+class BulkServiceTest {
+    @Mock
+    private BulkRepository repository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityCache<?> entityCache;
+
+    @Mock
+    private CaseloadCounters caseloadCounters;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    private BulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new BulkService(repository, entityManagerFactory, List.of(entityCache), caseloadCounters);
+        lenient().when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        lenient().when(sessionFactory.getCache()).thenReturn(hibernateCache);
+    }
+
+    @Test
+    @DisplayName("Должен удалить клиентов, удалить из кэшей только их записи и поправить счетчики")
+    void deleteClients_shouldEvictAffectedEntriesAndUpdateCounters() {
+        BulkChange change = new BulkChange(2, Set.of(1, 2), Map.of(5, -2L), Map.of(3, -2L));
+        when(repository.deleteClients(List.of(1, 2))).thenReturn(change);
+        when(entityCache.getType()).thenReturn((Class) Doctor.class);
+
+        ResponseEntity<BulkResultDTO> response = bulkService.deleteClients(List.of(1, 2));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new BulkResultDTO(2));
+        verify(hibernateCache).evictCollectionData(Client.class.getName() + ".sicks", 1);
+        verify(hibernateCache).evictCollectionData(Client.class.getName() + ".sicks", 2);
+        verify(entityCache).invalidate(new EntityReference(Client.class, 1));
+        verify(entityCache).invalidate(new EntityReference(Client.class, 2));
+        verify(entityCache).invalidate(3);
+        verify(entityCache, never()).invalidate(5);
+        verify(entityCache, never()).invalidateAll();
+        verify(hibernateCache, never()).evictQueryRegions();
+        verify(entityManagerFactory, never()).getCache();
+        verify(caseloadCounters).bulkChanged(change);
+    }
+
+    @Test
+    @DisplayName("Должен удалить болезнь, сообщить об удаленной строке и удалить из кэшей болезнь и ее клиентов")
+    void deleteSick_shouldReportSickAndLinks() {
+        BulkChange change = new BulkChange(1, Set.of(4), Map.of(7, -1L), Map.of());
+        when(repository.deleteSick(7)).thenReturn(change);
+        when(repository.deleteSick(8)).thenReturn(new BulkChange(1, Set.of(), Map.of(8, 0L), Map.of()));
+        when(entityCache.getType()).thenReturn((Class) Sick.class);
+
+        assertThat(bulkService.deleteSick(7).getBody()).isEqualTo(new SickDeleteResultDTO(1, 1));
+        assertThat(bulkService.deleteSick(8).getBody()).isEqualTo(new SickDeleteResultDTO(1, 0));
+
+        verify(hibernateCache).evictEntityData(Sick.class, 7);
+        verify(hibernateCache).evictEntityData(Sick.class, 8);
+        verify(hibernateCache).evictCollectionData(Client.class.getName() + ".sicks", 4);
+        verify(entityCache).invalidate(new EntityReference(Client.class, 4));
+        verify(entityCache).invalidate(7);
+        verify(entityCache).invalidate(8);
+        verify(entityCache, never()).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Должен удалить из кэшей только болезни клиента, самого клиента и указанные болезни, если связи изменились")
+    void addSicks_shouldEvictClientSicksOnly() {
+        BulkChange change = new BulkChange(1, Set.of(1), Map.of(2, 1L), Map.of());
+        when(repository.addSicks(1, List.of(2))).thenReturn(change);
+        when(repository.removeSicks(1, List.of(3))).thenReturn(new BulkChange(0, Set.of(), Map.of(), Map.of()));
+        when(entityCache.getType()).thenReturn((Class) Sick.class);
+
+        assertThat(bulkService.addSicks(1, List.of(2)).getBody()).isEqualTo(new BulkResultDTO(1));
+        assertThat(bulkService.removeSicks(1, List.of(3)).getBody()).isEqualTo(new BulkResultDTO(0));
+
+        verify(hibernateCache).evictCollectionData(Client.class.getName() + ".sicks", 1);
+        verifyNoMoreInteractions(hibernateCache);
+        verify(entityManagerFactory, never()).getCache();
+        verify(entityCache).invalidate(new EntityReference(Client.class, 1));
+        verify(entityCache).invalidate(2);
+        verify(entityCache, never()).invalidate(3);
+        verify(entityCache, never()).invalidateAll();
+        verify(caseloadCounters).bulkChanged(change);
+        verifyNoMoreInteractions(caseloadCounters);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 400 без обращения к базе данных для пустого списка и передачи клиентов тому же врачу")
+    void bulk_shouldReturnBadRequestForInvalidArguments() {
+        assertThat(bulkService.deleteClients(List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(bulkService.reassignClients(1, 1).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(bulkService.addSicks(1, List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(bulkService.removeSicks(1, List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(repository, entityCache, caseloadCounters);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 404 без очистки кэшей, если клиента, врача или болезни нет")
+    void bulk_shouldReturnNotFoundForMissingTarget() {
+        when(repository.reassignClients(1, 2)).thenReturn(null);
+        when(repository.deleteSick(3)).thenReturn(null);
+        when(repository.addSicks(4, List.of(3))).thenReturn(null);
+
+        assertThat(bulkService.reassignClients(1, 2).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(bulkService.deleteSick(3).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(bulkService.addSicks(4, List.of(3)).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(hibernateCache, entityCache, caseloadCounters);
+    }
+}
@@ -1,20 +1,34 @@
 package org.example.service;
 
+import jakarta.persistence.OptimisticLockException;
 import org.example.entity.Client;
+import org.example.entity.Sick;
 import org.example.repository.CRUDRepository;
+import org.example.repository.ClientRepository;
+import org.example.repository.VersionStamp;
 import org.example.service.dto.ClientDTO;
+import org.example.service.dto.ClientPatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.example.datatest.DataTest.CLIENT_1;
@@ -27,7 +41,9 @@ class ClientServiceTest {
     @Mock
     private CRUDRepository<Client> repository;
 
-    @InjectMocks
+    @Mock
+    private ClientRepository clientRepository;
+
     private ClientService clientService;
 
     private Client client;
@@ -35,6 +51,7 @@ class ClientServiceTest {
 
     @BeforeEach
     void setUp() {
+        clientService = new ClientService(repository, clientRepository);
         client = CLIENT_1;
         clientDTO = CLIENT_DTO;
     }
@@ -42,7 +59,7 @@ class ClientServiceTest {
     @Test
     @DisplayName("Должен вернуть список всех клиентов")
     void findAll_shouldReturnClientDTOList() {
-        when(repository.findAll()).thenReturn(List.of(client));
+        when(clientRepository.findAllProjected()).thenReturn(List.of(clientDTO));
 
         ResponseEntity<List<ClientDTO>> response = clientService.findAll();
 
@@ -53,7 +70,8 @@ class ClientServiceTest {
                 .first()
                 .extracting(ClientDTO::getFirstName)
                 .isEqualTo("John");
-        verify(repository, times(1)).findAll();
+        verify(clientRepository, times(1)).findAllProjected();
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -82,6 +100,31 @@ class ClientServiceTest {
         verify(repository, times(1)).findById(1);
     }
 
+    @Test
+    @DisplayName("Должен вернуть 304 без загрузки клиента, если ETag не изменился")
+    void findById_shouldReturnNotModifiedIfETagMatches() {
+        VersionStamp stamp = VersionStamp.builder(1, 3).begin(2, 1).end().build();
+        when(repository.findVersionStamp(1)).thenReturn(stamp);
+
+        ResponseEntity<ClientDTO> response = clientService.findById(1, stamp.eTag());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(stamp.eTag());
+        verify(repository, never()).findById(1);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть клиента с ETag, если ETag изменился")
+    void findById_shouldReturnClientWithETagIfETagDiffers() {
+        when(repository.findVersionStamp(1)).thenReturn(VersionStamp.builder(1, 4).build());
+        when(repository.findById(1)).thenReturn(client);
+
+        ResponseEntity<ClientDTO> response = clientService.findById(1, "\"outdated\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(VersionStamp.of(client).eTag());
+    }
+
     @Test
     @DisplayName("Должен сохранить нового клиента")
     void save_shouldSaveClientAndReturnClientDTO() {
@@ -97,6 +140,22 @@ class ClientServiceTest {
         verify(repository, times(1)).save(any(Client.class));
     }
 
+    @Test
+    @DisplayName("Должен сохранить список клиентов одним вызовом репозитория")
+    void saveAll_shouldSaveClientsInOneCall() {
+        when(repository.saveAll(anyList())).thenReturn(List.of(client, client));
+
+        ResponseEntity<List<ClientDTO>> response = clientService.saveAll(List.of(clientDTO, clientDTO));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .isNotNull()
+                .hasSize(2)
+                .allMatch(dto -> dto.getFirstName().equals("John"));
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository, never()).save(any(Client.class));
+    }
+
     @Test
     @DisplayName("Должен обновить данные клиента")
     void update_shouldUpdateClientAndReturnClientDTO() {
@@ -112,6 +171,21 @@ class ClientServiceTest {
         verify(repository, times(1)).update(any(Client.class));
     }
 
+    @Test
+    @DisplayName("Должен вернуть ETag обновленного клиента без повторного чтения клиента и версии")
+    void update_shouldReturnETagOfUpdatedClientWithoutExtraReads() {
+        VersionStamp stamp = VersionStamp.builder(1, 2).build();
+        when(repository.findVersionStamp(anyInt())).thenReturn(stamp);
+        when(repository.update(any(Client.class), eq(2L))).thenReturn(client);
+
+        ResponseEntity<ClientDTO> response = clientService.update(clientDTO, stamp.eTag());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(VersionStamp.of(client).eTag());
+        verify(repository, times(1)).findVersionStamp(anyInt());
+        verify(repository, never()).findById(anyInt());
+    }
+
     @Test
     @DisplayName("Должен вернуть 404, если клиент не найден для обновления")
     void update_shouldReturnNotFoundIfClientDoesNotExist() {
@@ -123,6 +197,29 @@ class ClientServiceTest {
         verify(repository, times(1)).update(any(Client.class));
     }
 
+    @Test
+    @DisplayName("Должен вернуть 412, если If-Match не совпадает с текущим ETag")
+    void update_shouldReturnPreconditionFailedIfETagDiffers() {
+        when(repository.findVersionStamp(anyInt())).thenReturn(VersionStamp.builder(1, 2).build());
+
+        ResponseEntity<ClientDTO> response = clientService.update(clientDTO, "\"outdated\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(repository, never()).update(any(Client.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 412, если клиент изменен между проверкой ETag и записью")
+    void update_shouldReturnPreconditionFailedOnConcurrentModification() {
+        VersionStamp stamp = VersionStamp.builder(1, 2).build();
+        when(repository.findVersionStamp(anyInt())).thenReturn(stamp);
+        when(repository.update(any(Client.class), eq(2L))).thenThrow(new OptimisticLockException());
+
+        ResponseEntity<ClientDTO> response = clientService.update(clientDTO, stamp.eTag());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
     @Test
     @DisplayName("Должен удалить клиента по идентификатору")
     void deleteById_shouldDeleteClientAndReturnNoContent() {
@@ -144,4 +241,101 @@ class ClientServiceTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(repository, times(1)).delete(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Должен вернуть страницу клиентов с курсором следующей страницы")
+    void findPage_shouldReturnPageWithNextCursor() {
+        when(repository.findPage(0, 1)).thenReturn(List.of(client));
+
+        ResponseEntity<PageDTO<ClientDTO>> response = clientService.findPage(0, 1);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getItems())
+                .hasSize(1)
+                .first()
+                .extracting(ClientDTO::getFirstName)
+                .isEqualTo("John");
+        assertThat(response.getBody().getNextCursor()).isEqualTo(client.getId());
+        verify(repository, times(1)).findPage(0, 1);
+    }
+
+    @Test
+    @DisplayName("Должен ограничить размер страницы и не возвращать курсор на последней странице")
+    void findPage_shouldClampLimitAndReturnNullCursorOnLastPage() {
+        when(repository.findPage(0, PageDTO.MAX_LIMIT)).thenReturn(List.of(client));
+
+        ResponseEntity<PageDTO<ClientDTO>> response = clientService.findPage(0, 100_000);
+
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getNextCursor()).isNull();
+        verify(repository, times(1)).findPage(0, PageDTO.MAX_LIMIT);
+    }
+
+    @Test
+    @DisplayName("Должен записать клиентов в поток в формате NDJSON")
+    void streamAll_shouldWriteOneClientPerLine() throws IOException {
+        Client first = new Client(1, "John", "Doe", 25, null, Set.of(new Sick(1, "Flu", "First", null, 0)), 0);
+        Client second = new Client(2, "Jane", "Smith", 44, null, Set.of(), 0);
+        when(clientRepository.streamAll(eq(ClientService.STREAM_FETCH_SIZE), any())).thenAnswer(invocation -> {
+            Consumer<Client> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return 2;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = clientService.streamAll(true);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains("\"firstName\":\"John\"").contains("\"sickName\":\"Flu\"");
+        assertThat(lines[1]).startsWith("{").contains("\"firstName\":\"Jane\"");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Должен записать клиентов в поток одним JSON-массивом")
+    void streamAll_shouldWriteJsonArray() throws IOException {
+        when(clientRepository.streamAll(eq(ClientService.STREAM_FETCH_SIZE), any())).thenAnswer(invocation -> {
+            Consumer<Client> consumer = invocation.getArgument(1);
+            consumer.accept(new Client(1, "John", "Doe", 25, null, Set.of(), 0));
+            return 1;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = clientService.streamAll(false);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String json = outputStream.toString(StandardCharsets.UTF_8);
+        assertThat(json).startsWith("[{").endsWith("}]").contains("\"lastName\":\"Doe\"");
+    }
+
+    @Test
+    @DisplayName("Должен передать в репозиторий только указанные поля и вернуть новую версию")
+    void patch_shouldUpdateOnlyPresentFields() {
+        when(repository.patch(1, Map.of("age", 26), 3L)).thenReturn(4L);
+
+        ResponseEntity<PatchResultDTO> response = clientService.patch(1, new ClientPatchDTO(null, null, 26, 3L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new PatchResultDTO(1, 4L));
+        verify(repository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 400, 404 и 412 для пустого документа, отсутствующего клиента и устаревшей версии")
+    void patch_shouldReturnErrorStatuses() {
+        when(repository.patch(1, Map.of("firstName", "Jack"), null)).thenReturn(null);
+        when(repository.patch(2, Map.of("firstName", "Jack"), 1L)).thenThrow(new OptimisticLockException());
+
+        assertThat(clientService.patch(1, new ClientPatchDTO()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(clientService.patch(1, new ClientPatchDTO("Jack", null, null, null)).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(clientService.patch(2, new ClientPatchDTO("Jack", null, null, 1L)).getStatusCode())
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(repository, times(2)).patch(anyInt(), anyMap(), any());
+    }
+}
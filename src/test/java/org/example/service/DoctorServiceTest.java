@@ -2,18 +2,23 @@ package org.example.service;
 
 import org.example.entity.Doctor;
 import org.example.repository.CRUDRepository;
+import org.example.repository.DoctorRepository;
+import org.example.service.counter.CaseloadCounters;
 import org.example.service.dto.DoctorDTO;
+import org.example.service.dto.DoctorPatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.example.datatest.DataTest.DOCTOR_1;
@@ -27,7 +32,12 @@ class DoctorServiceTest {
     @Mock
     private CRUDRepository<Doctor> repository;
 
-    @InjectMocks
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private CaseloadCounters caseloadCounters;
+
     private DoctorService doctorService;
 
     private Doctor doctor;
@@ -35,6 +45,7 @@ class DoctorServiceTest {
 
     @BeforeEach
     void setUp() {
+        doctorService = new DoctorService(repository, doctorRepository, caseloadCounters);
         doctor = DOCTOR_1;
         doctorDTO = DOCTOR_DTO;
     }
@@ -42,7 +53,7 @@ class DoctorServiceTest {
     @Test
     @DisplayName("Должен вернуть список всех врачей")
     void findAll_shouldReturnDoctorDTOList() {
-        when(repository.findAll()).thenReturn(List.of(doctor));
+        when(doctorRepository.findAllProjected()).thenReturn(List.of(doctorDTO));
 
         ResponseEntity<List<DoctorDTO>> response = doctorService.findAll();
 
@@ -53,7 +64,8 @@ class DoctorServiceTest {
                 .first()
                 .extracting(DoctorDTO::getFirstName)
                 .isEqualTo("John");
-        verify(repository, times(1)).findAll();
+        verify(doctorRepository, times(1)).findAllProjected();
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -97,6 +109,22 @@ class DoctorServiceTest {
         verify(repository, times(1)).save(any(Doctor.class));
     }
 
+    @Test
+    @DisplayName("Должен сохранить список врачей одним вызовом репозитория")
+    void saveAll_shouldSaveDoctorsInOneCall() {
+        when(repository.saveAll(anyList())).thenReturn(List.of(doctor, doctor));
+
+        ResponseEntity<List<DoctorDTO>> response = doctorService.saveAll(List.of(doctorDTO, doctorDTO));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .isNotNull()
+                .hasSize(2)
+                .allMatch(dto -> dto.getFirstName().equals("John"));
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository, never()).save(any(Doctor.class));
+    }
+
     @Test
     @DisplayName("Должен обновить данные врача")
     void update_shouldUpdateDoctorAndReturnDoctorDTO() {
@@ -132,6 +160,7 @@ class DoctorServiceTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         verify(repository, times(1)).delete(1);
+        verify(caseloadCounters).doctorDeleted(1);
     }
 
     @Test
@@ -143,6 +172,36 @@ class DoctorServiceTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(repository, times(1)).delete(1);
+        verifyNoInteractions(caseloadCounters);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Должен вернуть страницу врачей с курсором следующей страницы")
+    void findPage_shouldReturnPageWithNextCursor() {
+        when(repository.findPage(0, 1)).thenReturn(List.of(doctor));
+
+        ResponseEntity<PageDTO<DoctorDTO>> response = doctorService.findPage(0, 1);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getItems())
+                .hasSize(1)
+                .first()
+                .extracting(DoctorDTO::getFirstName)
+                .isEqualTo("John");
+        assertThat(response.getBody().getNextCursor()).isEqualTo(doctor.getId());
+        verify(repository, times(1)).findPage(0, 1);
+    }
+
+    @Test
+    @DisplayName("Должен частично обновить врача и вернуть новую версию")
+    void patch_shouldUpdateOnlyPresentFields() {
+        when(repository.patch(1, Map.of("specification", "Surgeon"), null)).thenReturn(2L);
+
+        ResponseEntity<PatchResultDTO> response = doctorService.patch(1,
+                new DoctorPatchDTO(null, null, null, "Surgeon", null));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new PatchResultDTO(1, 2L));
+    }
+}
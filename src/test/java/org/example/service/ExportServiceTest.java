@@ -0,0 +1,72 @@
+package org.example.service;
+
+import org.example.repository.CsvExportRepository;
+import org.example.repository.copy.CsvLayout;
+import org.example.repository.copy.CsvReferences;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование ExportService")
+class ExportServiceTest {
+    @Mock
+    private CsvExportRepository repository;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Test
+    @DisplayName("Должен выгружать файл в ответ со сжатием gzip")
+    void exportCsv_shouldWriteGzippedBody() throws IOException {
+        when(repository.exportCsv(eq(CsvLayout.SICKS), eq(List.of()), eq(CsvReferences.ROWS), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(3, OutputStream.class)
+                            .write("sick_name,stage_sick\nFlu,Mild\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        ResponseEntity<StreamingResponseBody> response = exportService.exportCsv("sicks", List.of(), "rows", true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains("sicks.csv.gz");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("sick_name,stage_sick\nFlu,Mild\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 404 для неизвестного файла и 400 для неизвестного столбца или ссылок")
+    void exportCsv_shouldRejectInvalidParameters() {
+        assertThat(exportService.exportCsv("patients", List.of(), "rows", false).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(exportService.exportCsv("clients", List.of("id", "password"), "rows", false).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(exportService.exportCsv("clients", List.of(), "names", false).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.service;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.repository.CsvImportRepository;
+import org.example.repository.StatisticsRepository;
+import org.example.repository.cache.EntityCache;
+import org.example.repository.copy.CsvFormatException;
+import org.example.repository.copy.CsvLayout;
+import org.example.service.counter.CaseloadCounters;
+import org.example.service.dto.ImportErrorDTO;
+import org.example.service.dto.ImportResultDTO;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование ImportService")
+class ImportServiceTest {
+    @Mock
+    private CsvImportRepository repository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityCache<?> entityCache;
+
+    @Mock
+    private StatisticsRepository statisticsRepository;
+
+    @Mock
+    private CaseloadCounters caseloadCounters;
+
+    private ImportService importService;
+
+    private final ByteArrayResource file = new ByteArrayResource("sick_name,stage_sick\n".getBytes());
+
+    @BeforeEach
+    void setUp() {
+        importService = new ImportService(repository, entityManagerFactory, List.of(entityCache), statisticsRepository,
+                caseloadCounters);
+    }
+
+    @Test
+    @DisplayName("Должен импортировать файл, очистить кэши и сверить счетчики нагрузки")
+    void importFile_shouldImportAndEvictCaches() {
+        ImportResultDTO result = new ImportResultDTO();
+        result.setSicks(3);
+        Cache cache = mock(Cache.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        org.hibernate.Cache hibernateCache = mock(org.hibernate.Cache.class);
+        when(repository.importCsv(Map.of(CsvLayout.SICKS, file))).thenReturn(result);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+        when(statisticsRepository.countClientsBySick()).thenReturn(Map.of(1, 2L));
+        when(statisticsRepository.countClientsByDoctor()).thenReturn(Map.of(1, 3L));
+
+        ResponseEntity<?> response = importService.importFile("sicks", file);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(result);
+        verify(cache).evictAll();
+        verify(hibernateCache).evictQueryRegions();
+        verify(entityCache).invalidateAll();
+        verify(caseloadCounters).reconcile(Map.of(1, 2L), Map.of(1, 3L));
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 400 с описанием ошибки, если заголовок файла не совпадает с форматом")
+    void importFile_shouldReturnBadRequestOnFormatError() {
+        when(repository.importCsv(any())).thenThrow(new CsvFormatException("sicks", 1, "Неверный заголовок"));
+
+        ResponseEntity<?> response = importService.importFile("sicks", file);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .isInstanceOf(ImportErrorDTO.class)
+                .extracting("file", "line")
+                .containsExactly("sicks", 1L);
+        verifyNoInteractions(entityManagerFactory, entityCache, caseloadCounters);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 404 для неизвестного файла и 400 для пустого импорта")
+    void importCsv_shouldRejectUnknownFileAndEmptyImport() {
+        assertThat(importService.importFile("patients", file).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(importService.importCsv(Map.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.service;
+
+import org.example.repository.NameSearchRepository;
+import org.example.repository.SearchCursor;
+import org.example.service.dto.NameMatchDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.SearchPageDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование SearchService")
+class SearchServiceTest {
+    @Mock
+    private NameSearchRepository repository;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @Test
+    @DisplayName("Должен вернуть курсор следующей страницы, если страница заполнена")
+    void searchClients_shouldReturnNextCursorForFullPage() {
+        List<NameMatchDTO> matches = List.of(
+                new NameMatchDTO(7, "Petr", "Zakharov", 50, 1.6f, "Zakharov"),
+                new NameMatchDTO(3, "Oleg", "Zakharchenko", 30, 1.4285715f, "Zakharchenko"));
+        when(repository.searchClients("Zakhar", null, 2)).thenReturn(matches);
+
+        ResponseEntity<SearchPageDTO<NameMatchDTO>> response = searchService.searchClients("  Zakhar ", null, 2);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getItems()).isEqualTo(matches);
+        SearchCursor next = SearchCursor.parse(response.getBody().getNextCursor());
+        assertThat(next.getScore()).isEqualTo(1.4285715f);
+        assertThat(next.getName()).isEqualTo("Zakharchenko");
+        assertThat(next.getId()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Должен передать курсор в репозиторий и ограничить размер страницы")
+    void searchDoctors_shouldParseCursorAndClampLimit() {
+        ArgumentCaptor<SearchCursor> cursor = ArgumentCaptor.forClass(SearchCursor.class);
+        when(repository.searchDoctors(eq("Zakh"), cursor.capture(), eq(PageDTO.MAX_LIMIT))).thenReturn(List.of());
+        String after = new SearchCursor(1.4285715f, "Zakharova:Anna", 3).toString();
+
+        ResponseEntity<SearchPageDTO<NameMatchDTO>> response =
+                searchService.searchDoctors("Zakh", after, Integer.MAX_VALUE);
+
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(cursor.getValue().getScore()).isEqualTo(1.4285715f);
+        assertThat(cursor.getValue().getName()).isEqualTo("Zakharova:Anna");
+        assertThat(cursor.getValue().getId()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 400 для короткой строки поиска и некорректного курсора")
+    void searchClients_shouldRejectInvalidParameters() {
+        assertThat(searchService.searchClients(" Za ", null, 20).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(searchService.searchClients("Zakhar", "3", 20).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(searchService.searchClients("Zakhar", "TmFOOjM6WmFraGFy", 20).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(repository, never()).searchClients(any(), any(), anyInt());
+    }
+}
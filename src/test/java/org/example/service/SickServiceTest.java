@@ -2,6 +2,9 @@ package org.example.service;
 
 import org.example.entity.Sick;
 import org.example.repository.CRUDRepository;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.PatchResultDTO;
+import org.example.service.dto.SickPatchDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.example.datatest.DataTest.SICK_1;
@@ -92,6 +96,19 @@ class SickServiceTest {
         verify(repository, times(1)).save(any(Sick.class));
     }
 
+    @Test
+    @DisplayName("Должен сохранить список болезней одним вызовом репозитория")
+    void saveAll_shouldSaveSicksInOneCall() {
+        when(repository.saveAll(List.of(sick, sick))).thenReturn(List.of(sick, sick));
+
+        ResponseEntity<List<Sick>> response = sickService.saveAll(List.of(sick, sick));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(2);
+        verify(repository, times(1)).saveAll(List.of(sick, sick));
+        verify(repository, never()).save(any(Sick.class));
+    }
+
     @Test
     @DisplayName("Должен обновить данные болезни")
     void update_shouldUpdateSick() {
@@ -139,4 +156,29 @@ class SickServiceTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         verify(repository, times(1)).delete(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Должен вернуть страницу болезней без курсора, если страница неполная")
+    void findPage_shouldReturnPageWithoutCursorWhenLastPage() {
+        when(repository.findPage(0, 10)).thenReturn(List.of(sick));
+
+        ResponseEntity<PageDTO<Sick>> response = sickService.findPage(0, 10);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getItems()).containsExactly(sick);
+        assertThat(response.getBody().getNextCursor()).isNull();
+        verify(repository, times(1)).findPage(0, 10);
+    }
+
+    @Test
+    @DisplayName("Должен частично обновить болезнь и вернуть новую версию")
+    void patch_shouldUpdateOnlyPresentFields() {
+        when(repository.patch(1, Map.of("stageSick", "Second"), 0L)).thenReturn(1L);
+
+        ResponseEntity<PatchResultDTO> response = sickService.patch(1, new SickPatchDTO(null, "Second", 0L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new PatchResultDTO(1, 1L));
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.service;
+
+import org.example.entity.Client;
+import org.example.entity.Sick;
+import org.example.repository.StatisticsRepository;
+import org.example.service.counter.CaseloadCounters;
+import org.example.service.dto.AgeBandDTO;
+import org.example.service.dto.DoctorCaseloadDTO;
+import org.example.service.dto.LiveCountDTO;
+import org.example.service.dto.PageDTO;
+import org.example.service.dto.SickAgeBandsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тестирование StatisticsService")
+class StatisticsServiceTest {
+    @Mock
+    private StatisticsRepository repository;
+
+    @Spy
+    private CaseloadCounters counters = new CaseloadCounters();
+
+    @InjectMocks
+    private StatisticsService statisticsService;
+
+    @Test
+    @DisplayName("Должен ограничить количество врачей в ответе")
+    void doctorCaseload_shouldClampLimit() {
+        List<DoctorCaseloadDTO> caseload = List.of(new DoctorCaseloadDTO(1, "John", "Smith", "Therapist", 3, 51.7));
+        when(repository.findDoctorCaseload(PageDTO.MAX_LIMIT)).thenReturn(caseload);
+        when(repository.findSickPrevalence(1)).thenReturn(List.of());
+
+        ResponseEntity<List<DoctorCaseloadDTO>> response = statisticsService.doctorCaseload(Integer.MAX_VALUE);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(caseload);
+        assertThat(statisticsService.sickPrevalence(0).getBody()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен вернуть 404 для болезни, которой нет в статистике")
+    void sickAgeBands_shouldReturnNotFoundForUnknownSick() {
+        SickAgeBandsDTO flu = new SickAgeBandsDTO(1, "Flu", 1, List.of(new AgeBandDTO(20, 29, 1)));
+        when(repository.findAgeBands(1)).thenReturn(flu);
+        when(repository.findAgeBands(2)).thenReturn(null);
+
+        assertThat(statisticsService.sickAgeBands(1).getBody()).isEqualTo(flu);
+        assertThat(statisticsService.sickAgeBands(2).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(repository, times(2)).findAgeBands(anyInt());
+    }
+
+    @Test
+    @DisplayName("Должен читать текущее количество клиентов из счетчиков без обращения к базе данных")
+    void liveSick_shouldReadCounters() {
+        Sick flu = new Sick("Flu", "First");
+        flu.setId(7);
+        Client client = new Client("John", "Doe", 25);
+        client.setSicks(Set.of(flu));
+        counters.clientChanged(null, client);
+
+        assertThat(statisticsService.liveSick(7).getBody()).isEqualTo(new LiveCountDTO(7, 1));
+        assertThat(statisticsService.liveSick(8).getBody()).isEqualTo(new LiveCountDTO(8, 0));
+        assertThat(statisticsService.liveSicks().getBody()).containsExactly(new LiveCountDTO(7, 1));
+        assertThat(statisticsService.liveDoctor(1).getBody()).isEqualTo(new LiveCountDTO(1, 0));
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.service.counter;
+
+import org.example.entity.Client;
+import org.example.entity.Doctor;
+import org.example.entity.Sick;
+import org.example.repository.BulkChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование CaseloadCounters")
+class CaseloadCountersTest {
+
+    private final CaseloadCounters counters = new CaseloadCounters();
+
+    @Test
+    @DisplayName("Должен учитывать только изменившиеся болезни и врача клиента")
+    void clientChanged_shouldApplyDifference() {
+        Client before = client(1, 10, 11);
+        counters.clientChanged(null, before);
+
+        counters.clientChanged(before, client(2, 11, 12, 12));
+
+        assertThat(counters.sickClients()).containsExactly(Map.entry(11, 1L), Map.entry(12, 1L));
+        assertThat(counters.doctorClients()).containsExactly(Map.entry(2, 1L));
+        assertThat(counters.sickClients(10)).isZero();
+        assertThat(counters.doctorClients(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен уменьшать счетчики при удалении клиента")
+    void clientChanged_shouldDecrementCountersOnDelete() {
+        Client client = client(1, 10);
+        counters.clientChanged(null, client);
+        counters.clientChanged(null, client(1));
+
+        counters.clientChanged(client, null);
+
+        assertThat(counters.sickClients(10)).isZero();
+        assertThat(counters.doctorClients(1)).isEqualTo(1);
+        assertThat(counters.sickClients(Integer.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен удалять счетчик удаленного врача")
+    void doctorDeleted_shouldRemoveDoctorCounter() {
+        counters.clientChanged(null, client(1, 10));
+        counters.clientChanged(null, client(2, 10));
+
+        counters.doctorDeleted(1);
+
+        assertThat(counters.doctorClients()).containsExactly(Map.entry(2, 1L));
+        assertThat(counters.sickClients(10)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Должен применять изменения групповых операций")
+    void bulkChanged_shouldAddDeltas() {
+        counters.clientChanged(null, client(1, 10));
+        counters.clientChanged(null, client(1, 10));
+
+        counters.bulkChanged(new BulkChange(2, Set.of(5, 6), Map.of(10, -2L), Map.of(1, -2L, 2, 2L)));
+
+        assertThat(counters.sickClients()).isEmpty();
+        assertThat(counters.doctorClients()).containsExactly(Map.entry(2, 2L));
+    }
+
+    @Test
+    @DisplayName("Должен исправлять расхождение с базой данных и удалять лишние счетчики")
+    void reconcile_shouldCorrectDrift() {
+        counters.clientChanged(null, client(1, 10, 11));
+        counters.clientChanged(null, client(1, 10));
+
+        long drift = counters.reconcile(Map.of(10, 5L), Map.of(1, 2L, 3, 1L));
+
+        assertThat(drift).isEqualTo(3 + 1 + 1);
+        assertThat(counters.sickClients()).containsExactly(Map.entry(10, 5L));
+        assertThat(counters.doctorClients()).containsExactly(Map.entry(1, 2L), Map.entry(3, 1L));
+        assertThat(counters.reconcile(Map.of(10, 5L), Map.of(1, 2L, 3, 1L))).isZero();
+    }
+
+    @Test
+    @DisplayName("Конкурентные изменения не должны теряться")
+    void clientChanged_shouldCountConcurrentUpdates() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        Client client = client(i % 4, 10 + i % 2);
+                        counters.clientChanged(null, client);
+                        if (i % 2 == 0) {
+                            counters.clientChanged(client, null);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(counters.sickClients()).containsExactly(Map.entry(11, (long) threads * perThread / 2));
+        assertThat(counters.doctorClients()).containsExactly(
+                Map.entry(1, (long) threads * perThread / 4), Map.entry(3, (long) threads * perThread / 4));
+    }
+
+    private static Client client(int doctorId, int... sickIds) {
+        Client client = new Client("John", "Doe", 25);
+        Doctor doctor = new Doctor("Jane", "Smith", 39, "Neurologist");
+        doctor.setId(doctorId);
+        client.setDoctor(doctor);
+        Set<Sick> sicks = new HashSet<>();
+        for (int sickId : sickIds) {
+            Sick sick = new Sick("Flu", "First");
+            sick.setId(sickId);
+            sicks.add(sick);
+        }
+        client.setSicks(sicks);
+        return client;
+    }
+}